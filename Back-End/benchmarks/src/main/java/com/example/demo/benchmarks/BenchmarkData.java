@@ -0,0 +1,68 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.Book;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Sample books shared by the benchmarks.
+ * The data is generated from a fixed seed, so every run and every release measures the same input.
+ */
+final class BenchmarkData {
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final long START_MILLIS = 1_577_836_800_000L; // 2020-01-01T00:00:00Z
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates a book with every field set, the way it is stored after enrichment.
+     *
+     * @param index the number of the book, used to make its values unique.
+     * @param random the source of the prices and dates.
+     * @return the book.
+     */
+    static Book book(int index, Random random) {
+        Book book = new Book();
+        book.setId(String.format("%024x", index));
+        book.setISBN(String.format("978%010d", index));
+        book.setTitle("The Sample Book, Volume " + index);
+        book.setAuthors(List.of("First Author", "Second Author"));
+        book.setPublisher("Sample Publishing");
+        book.setPublishedDate("2004-05-01");
+        book.setPageCount(320);
+        book.setImageUrl("http://books.google.com/books/content?id=" + index + "&printsec=frontcover&img=1&zoom=1");
+        book.setVersion(3L);
+        double cogs = 1 + random.nextInt(2000) / 100.0;
+        book.setCOGS(cogs);
+        Date purchased = new Date(START_MILLIS + random.nextInt(1500) * DAY_MILLIS);
+        book.setDatePurchased(purchased);
+        // About half of the books are sold, as in a running inventory.
+        if (random.nextBoolean()) {
+            double payout = cogs + random.nextInt(3000) / 100.0;
+            book.setSold(new Date(purchased.getTime() + random.nextInt(200) * DAY_MILLIS));
+            book.setPayout(payout);
+            book.setProfit(payout - cogs);
+        }
+        return book;
+    }
+
+    /**
+     * Creates a list of sample books.
+     *
+     * @param count the number of books.
+     * @return the books.
+     */
+    static List<Book> books(int count) {
+        Random random = new Random(42);
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            books.add(book(i, random));
+        }
+        return books;
+    }
+}
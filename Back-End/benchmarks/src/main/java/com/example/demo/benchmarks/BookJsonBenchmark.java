@@ -0,0 +1,71 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.Book;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the Jackson serialization and deserialization of {@link Book}, including the
+ * 'yyyy-MM-dd' {@code @JsonFormat} date fields, for a single book and for a page of 20 books
+ * as returned by the list endpoints.
+ * The ObjectMapper is built with the same builder defaults Spring Boot applies to the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookJsonBenchmark {
+
+    private static final TypeReference<List<Book>> BOOK_LIST = new TypeReference<>() { };
+
+    private ObjectMapper objectMapper;
+    private Book book;
+    private List<Book> page;
+    private byte[] bookJson;
+    private byte[] pageJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = BenchmarkData.books(20);
+        book = page.get(1);
+        bookJson = objectMapper.writeValueAsBytes(book);
+        pageJson = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeBook() throws Exception {
+        return objectMapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public Book deserializeBook() throws Exception {
+        return objectMapper.readValue(bookJson, Book.class);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<Book> deserializePage() throws Exception {
+        return objectMapper.readValue(pageJson, BOOK_LIST);
+    }
+}
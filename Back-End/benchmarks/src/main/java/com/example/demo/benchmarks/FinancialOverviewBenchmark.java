@@ -0,0 +1,82 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.FinancialSummary;
+import com.example.demo.model.InventorySummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the in-memory cost of the financial overview totals.
+ * <p>
+ * {@link #streamSum()} is the two-pass stream sum that {@code BookService.getFinancialOverview}
+ * ran over every book before the totals moved into the maintained inventory summary; it is kept
+ * here as the reference point. {@link #summaryFold()} computes the same totals the way the summary
+ * does, folding {@link InventorySummary#of(Book)} over the books, which is what a full rebuild of
+ * the summary costs in memory. {@link #summaryOverview()} is what a request costs now.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FinancialOverviewBenchmark {
+
+    @Param({"1000", "100000"})
+    public int books;
+
+    private List<Book> inventory;
+    private InventorySummary summary;
+
+    @Setup
+    public void setUp() {
+        inventory = BenchmarkData.books(books);
+        summary = summaryFold();
+    }
+
+    @Benchmark
+    public Map<String, Double> streamSum() {
+        double totalCOGS = inventory.stream()
+                .filter(book -> book.getCOGS() != null)
+                .mapToDouble(Book::getCOGS)
+                .sum();
+        double totalProfit = inventory.stream()
+                .filter(book -> book.getProfit() != null)
+                .mapToDouble(Book::getProfit)
+                .sum();
+        Map<String, Double> financials = new HashMap<>();
+        financials.put("cogs", totalCOGS);
+        financials.put("profit", totalProfit);
+        return financials;
+    }
+
+    @Benchmark
+    public InventorySummary summaryFold() {
+        InventorySummary total = new InventorySummary();
+        for (Book book : inventory) {
+            total = total.plus(InventorySummary.of(book));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public FinancialSummary summaryOverview() {
+        return summary.toFinancialSummary();
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.model.Book;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the month bounds of {@code BookService.getBooksSoldInMonth}: the {@code Calendar}
+ * arithmetic of the full-document variant against the {@code YearMonth} arithmetic of the
+ * variant with selected fields. Both run the real service methods against a repository stub
+ * that returns no books, so only the date handling and the call itself are measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoldInMonthBenchmark {
+
+    private static final List<String> FIELDS = List.of("isbn", "sold");
+
+    private BookService bookService;
+    private int month;
+
+    /**
+     * The bounds of the last query, read back so the computed dates are never dead code.
+     */
+    private Date lastEnd;
+
+    @Setup
+    public void setUp() {
+        BookRepository bookRepository = (BookRepository) Proxy.newProxyInstance(
+                BookRepository.class.getClassLoader(), new Class<?>[] {BookRepository.class},
+                (proxy, method, args) -> {
+                    lastEnd = (Date) args[1];
+                    return List.<Book>of();
+                });
+        // getBooksSoldInMonth only uses the repository.
+        bookService = new BookService(bookRepository, null, null, null, null, null, null);
+    }
+
+    @Benchmark
+    public Date calendarBounds() {
+        month = month % 12 + 1;
+        bookService.getBooksSoldInMonth(2024, month);
+        return lastEnd;
+    }
+
+    @Benchmark
+    public Date yearMonthBounds() {
+        month = month % 12 + 1;
+        bookService.getBooksSoldInMonth(2024, month, FIELDS);
+        return lastEnd;
+    }
+}
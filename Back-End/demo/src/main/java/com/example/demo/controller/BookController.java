@@ -1,20 +1,55 @@
 package com.example.demo.controller;
 
+import com.example.demo.service.BookEnrichmentService;
+import com.example.demo.service.BookExportService;
+import com.example.demo.service.BookImportService;
+import com.example.demo.service.BookIntakeService;
 import com.example.demo.service.BookService;
+import com.example.demo.service.GoogleBooksService;
+import com.example.demo.service.InventoryEventService;
+import com.example.demo.service.IsbnIndexService;
+import com.example.demo.service.SalesRollupService;
+import com.example.demo.service.TitleSearchService;
 import com.example.demo.model.Book;
+import com.example.demo.model.BookDetails;
+import com.example.demo.model.BookFields;
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.BookPatch;
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.ImportReport;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.model.MarkSoldRequest;
+import com.example.demo.model.SalesBucket;
+import com.example.demo.util.BookFileFormat;
+import com.example.demo.util.BookImportReader;
+import com.example.demo.util.CircuitBreakerOpenException;
+import com.example.demo.util.IsbnUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Rest Controller for managing book-related operations.
@@ -32,41 +67,95 @@ import java.util.Map;
  *     <li><code>@RequestMapping("/api/books")</code>: Specifies that all request mappings in
  *         this controller will be prefixed with "/api/books".This helps in organizing
  *         the URL structure and versioning of the API></li>
+ *     <li><code>@Profile("!reactive")</code>: Serves the endpoints on the servlet stack; with the
+ *         'reactive' profile {@link ReactiveBookController} takes its place.</li>
  * </ul>
  *
  */
 @RestController
 @CrossOrigin
 @RequestMapping("/api/books")
+@Profile("!reactive")
 public class BookController {
     /**
      * Servive for handling book-related business logic.
      */
     private final BookService bookService;
     /**
-     * RestTemplate for making HTTP requests (calling external API).
+     * Service for looking up book details in the Google Books API.
      */
-    private final RestTemplate restTemplate;
+    private final GoogleBooksService googleBooksService;
+    /**
+     * Service enriching books with metadata in the background.
+     */
+    private final BookEnrichmentService bookEnrichmentService;
+    /**
+     * Service importing books in bulk.
+     */
+    private final BookImportService bookImportService;
+    /**
+     * Service exporting books as a file.
+     */
+    private final BookExportService bookExportService;
+    /**
+     * Service maintaining the per-day and per-month sales rollups.
+     */
+    private final SalesRollupService salesRollupService;
+    /**
+     * Service pushing the inventory totals to connected dashboards.
+     */
+    private final InventoryEventService inventoryEventService;
+    /**
+     * Service for the typeahead search of books by title.
+     */
+    private final TitleSearchService titleSearchService;
+    /**
+     * Service answering ISBN existence and copy counts from memory.
+     */
+    private final IsbnIndexService isbnIndexService;
+    /**
+     * Service writing the books of intake sessions behind the requests.
+     */
+    private final BookIntakeService bookIntakeService;
     /**
      * Logger for this class,used for logging information and errors.
      */
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
     /**
-     * API key for Google Book API, injected from applications properties.
+     * The fields returned by the title search.
      */
-    @Value("${google.books.api.key}")
-    private String googleBooksApiKey;
+    private static final List<String> TITLE_SEARCH_FIELDS = List.of("id", "isbn", "title");
 
     /**
-     * Constructs a new BookController with the specified BookService and RestTemplate.
+     * Constructs a new BookController with the specified services.
      * @param bookService the service for handling book operations.
-     * @param restTemplate the template for making HTTP requests.
+     * @param googleBooksService the service for looking up book details.
+     * @param bookEnrichmentService the service enriching books with metadata.
+     * @param bookImportService the service importing books in bulk.
+     * @param bookExportService the service exporting books as a file.
+     * @param salesRollupService the service maintaining the sales rollups.
+     * @param inventoryEventService the service pushing the inventory totals.
+     * @param titleSearchService the service searching books by title.
+     * @param isbnIndexService the service counting the copies of an ISBN.
+     * @param bookIntakeService the service buffering the intake writes.
      */
     @Autowired
-    public BookController(BookService bookService, RestTemplate restTemplate){
+    public BookController(BookService bookService, GoogleBooksService googleBooksService,
+                          BookEnrichmentService bookEnrichmentService, BookImportService bookImportService,
+                          BookExportService bookExportService, SalesRollupService salesRollupService,
+                          InventoryEventService inventoryEventService, TitleSearchService titleSearchService,
+                          IsbnIndexService isbnIndexService, BookIntakeService bookIntakeService){
         this.bookService = bookService;
-        this.restTemplate = restTemplate;
+        this.googleBooksService = googleBooksService;
+        this.bookEnrichmentService = bookEnrichmentService;
+        this.bookImportService = bookImportService;
+        this.bookExportService = bookExportService;
+        this.salesRollupService = salesRollupService;
+        this.inventoryEventService = inventoryEventService;
+        this.titleSearchService = titleSearchService;
+        this.isbnIndexService = isbnIndexService;
+        this.bookIntakeService = bookIntakeService;
     }
 
     /**
@@ -85,14 +174,58 @@ public class BookController {
      *
      * @param page the number of the books list to retrieve.
      * @param limit limit the maximum number of books to return in a single page.
-     * @return a page of Book objects.
+     * @param fields the comma separated fields to return, e.g. id,title,isbn,sold; whole books by default.
+     * @return A ResponseEntity with a page of books, or 400 Bad Request for an unknown field.
      */
     @GetMapping("/all-books")
-    public Page<Book> getBooks(
+    public ResponseEntity<Object> getBooks(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "limit", defaultValue = "20") int limit
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "fields", required = false) String fields
     ) {
-        return bookService.getBooks(page, limit);
+        if (fields == null) {
+            return ResponseEntity.ok(bookService.getBooks(page, limit));
+        }
+        try {
+            List<String> selected = BookFields.parse(fields);
+            return ResponseEntity.ok(bookService.getBooks(page, limit, selected)
+                    .map(book -> BookFields.select(book, selected)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Fetches a slice of books with keyset (cursor) pagination.
+     * This mapping is selected when the 'after' parameter is present; pass it empty
+     * for the first slice and then the 'nextCursor' of the previous response.
+     * The cost of a slice stays the same no matter how deep the client scrolls.
+     *
+     * @param after the cursor of the slice to fetch, empty for the first slice.
+     * @param sort the sort key: id, title, isbn, datePurchased or sold.
+     * @param limit the maximum number of books to return in a single slice.
+     * @param fields the comma separated fields to return, e.g. id,title,isbn,sold; whole books by default.
+     * @return A ResponseEntity with the slice of books, or 400 Bad Request for an invalid cursor, sort key or field.
+     */
+    @GetMapping(value = "/all-books", params = "after")
+    public ResponseEntity<Object> getBooksAfter(
+            @RequestParam("after") String after,
+            @RequestParam(value = "sort", defaultValue = "id") String sort,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestParam(value = "fields", required = false) String fields
+    ) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().body("Limit must be at least 1");
+        }
+        try {
+            if (fields == null) {
+                return ResponseEntity.ok(bookService.getBooksAfter(after, sort, limit));
+            }
+            List<String> selected = BookFields.parse(fields);
+            return ResponseEntity.ok(bookService.getBooksAfter(after, sort, limit, selected).select(selected));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -101,15 +234,77 @@ public class BookController {
      * and returns a list of matching books.
      *
      * @param isbn the International Standard Book Number (ISBN) of the books to search for.
-     * @return A ResponseEntity containing a list of books if found or a 404 Not Found.
+     * @param fields the comma separated fields to return; whole books by default.
+     * An ISBN the in-memory index knows is not in the inventory is answered without the database.
+     *
+     * @return A ResponseEntity containing a list of books if found, a 404 Not Found, or 400 for an unknown field.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchByIsbn(@RequestParam String isbn) {
-        List<Book> books = bookService.searchByIsbn(isbn);
+    public ResponseEntity<Object> searchByIsbn(@RequestParam String isbn,
+                                               @RequestParam(value = "fields", required = false) String fields) {
+        List<String> selected;
+        try {
+            selected = fields == null ? null : BookFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (isbnIndexService.isAbsent(isbn)) {
+            return ResponseEntity.notFound().build();
+        }
+        List<Book> books = selected == null ? bookService.searchByIsbn(isbn) : bookService.searchByIsbn(isbn, selected);
         if (books.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(books);
+        return ResponseEntity.ok(selected == null ? books : BookFields.select(books, selected));
+    }
+
+    /**
+     * Counts the copies of an ISBN in the inventory, from memory.
+     * The ISBN-10 and ISBN-13 of a book give the same answer; separators are ignored.
+     *
+     * @param isbn the ISBN-10 or ISBN-13.
+     * @return A ResponseEntity with the ISBN-13, the number of copies and their IDs,
+     *         or 400 Bad Request for an invalid ISBN.
+     */
+    @GetMapping("/copies")
+    public ResponseEntity<Object> getCopies(@RequestParam String isbn) {
+        long normalized = IsbnUtils.toLong(isbn);
+        if (normalized == IsbnUtils.INVALID) {
+            return ResponseEntity.badRequest().body("Invalid ISBN: " + isbn);
+        }
+        List<String> ids = isbnIndexService.getCopyIds(isbn);
+        return ResponseEntity.ok(Map.of("isbn", IsbnUtils.toIsbn13(normalized), "copies", ids.size(), "ids", ids));
+    }
+
+    /**
+     * Retrieves the size of the in-memory ISBN index.
+     *
+     * @return A ResponseEntity with the number of copies and ISBNs and the estimated heap used.
+     */
+    @GetMapping("/copies/stats")
+    public ResponseEntity<Map<String, Object>> getIsbnIndexStats() {
+        return ResponseEntity.ok(isbnIndexService.getStats());
+    }
+
+    /**
+     * Searches books by title as the user types, for a typeahead.
+     * Each word of the query matches the start of a word of the title, so 'harry pot' finds
+     * 'Harry Potter and the Goblet of Fire'. Titles starting with the query come first, then the
+     * titles with more whole-word matches. Case, accents and punctuation are ignored.
+     *
+     * @param q the query as typed.
+     * @param limit the maximum number of results, from 1 to 50.
+     * @return A ResponseEntity with the id, isbn and title of the matching books, best matches first,
+     *         or 400 Bad Request for an invalid limit.
+     */
+    @GetMapping("/search/title")
+    public ResponseEntity<Object> searchByTitle(@RequestParam(value = "q", defaultValue = "") String q,
+                                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 50) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and 50");
+        }
+        List<Book> books = titleSearchService.searchByTitle(q, limit);
+        return ResponseEntity.ok(BookFields.select(books, TITLE_SEARCH_FIELDS));
     }
 
     /**
@@ -119,12 +314,14 @@ public class BookController {
      *
      * @param year The year to filter the sold books.
      * @param month The month to filter the sold books. Must be between 1 and 12.
+     * @param fields the comma separated fields to return; whole books by default.
      * @return A ResponseEntity containing a list of sold books or appropriate HTTP status based on the result.
      */
     @GetMapping("/sold-in-month")
     public ResponseEntity<Object> getBooksSoldInMonth(
             @RequestParam("year") int year,
-            @RequestParam("month") int month) {
+            @RequestParam("month") int month,
+            @RequestParam(value = "fields", required = false) String fields) {
         logger.info("getBooksSoldInMonth called with year: {}, month: {}", year, month);
 
         // Validate the month
@@ -132,11 +329,19 @@ public class BookController {
             return ResponseEntity.badRequest().body("Month must be between 1 and 12");
         }
 
-        List<Book> books = bookService.getBooksSoldInMonth(year, month);
+        List<String> selected;
+        try {
+            selected = fields == null ? null : BookFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        List<Book> books = selected == null
+                ? bookService.getBooksSoldInMonth(year, month)
+                : bookService.getBooksSoldInMonth(year, month, selected);
         if (books.isEmpty()) {
             return ResponseEntity.noContent().build();
         } else {
-            return ResponseEntity.ok(books);
+            return ResponseEntity.ok(selected == null ? books : BookFields.select(books, selected));
         }
     }
 
@@ -145,16 +350,146 @@ public class BookController {
      * Recieves book data as a request body, logs the request, and creates
      * a new book record in the database.
      *
+     * With unique=true the book is only created if the inventory has no copy of its ISBN yet.
+     * This is a check, not a constraint: two concurrent requests can still both create a copy.
+     *
      * @param book The Book object to be created, provided in the request body.
-     * @return A responseEntity with the created book and HTTP status 201 Created.
+     * @param unique whether to refuse a second copy of the ISBN.
+     * @return A responseEntity with the created book and HTTP status 201 Created,
+     *         or 409 Conflict with the IDs of the existing copies.
      */
     @PostMapping("/create-book")
-    public ResponseEntity<Book> createBook(@RequestBody Book book) {
+    public ResponseEntity<Object> createBook(@RequestBody Book book,
+                                             @RequestParam(value = "unique", defaultValue = "false") boolean unique) {
         logger.info("Received request to create book: {}", book);
+        if (unique && book.getISBN() != null && isbnIndexService.hasCopies(book.getISBN())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "message", "A copy of this ISBN is already in the inventory",
+                    "ids", isbnIndexService.getCopyIds(book.getISBN())));
+        }
         Book savedBook = bookService.createBook(book);
         return new ResponseEntity<>(savedBook, HttpStatus.CREATED);
     }
 
+    /**
+     * Accepts a book for the write-behind intake, used while staff scan books faster than each
+     * create could be written. The book is validated like on create and given its ID right away,
+     * then written with others in a bulk insert within the flush interval; it can be read with
+     * its ID once written. When the intake buffer is full the request waits briefly for room
+     * and is then refused with 503, so the scanner slows down.
+     *
+     * @param book The Book object to be created, provided in the request body.
+     * @return A ResponseEntity with the ID of the book and HTTP status 202 Accepted, 400 Bad Request
+     *         if the book is invalid, or 503 Service Unavailable with Retry-After if the buffer is full.
+     */
+    @PostMapping("/intake")
+    public ResponseEntity<Object> intakeBook(@RequestBody Book book) {
+        try {
+            Book acceptedBook = bookIntakeService.accept(book);
+            return ResponseEntity.accepted().body(Map.of("id", acceptedBook.getId(), "isbn", acceptedBook.getISBN()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the status of the write-behind intake.
+     *
+     * @return A ResponseEntity with the pending books, the buffer usage, the outcome counters and the recent failures.
+     */
+    @GetMapping("/intake/status")
+    public ResponseEntity<Map<String, Object>> getIntakeStatus() {
+        return ResponseEntity.ok(bookIntakeService.getStatus());
+    }
+
+    /**
+     * Imports books in bulk from a CSV or NDJSON file sent as the request body.
+     * The body is read as it arrives and written in batches, so files of any size can be sent.
+     * Rows are validated like on create; rejected rows are listed in the report and do not
+     * stop the import.
+     *
+     * @param contentType text/csv or application/x-ndjson, optionally with a charset (UTF-8 by default).
+     * @param content the file content.
+     * @return A ResponseEntity with the import report, or 400 if the file cannot be read as the given format.
+     * @throws IOException if the request body cannot be read.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<Object> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream content) throws IOException {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            Charset charset = mediaType.getCharset() != null ? mediaType.getCharset() : StandardCharsets.UTF_8;
+            ImportReport report = bookImportService.importBooks(content,
+                    BookFileFormat.fromContentType(contentType), charset);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Exports books as a CSV or NDJSON file streamed from a database cursor.
+     * Books are written to the response as they are read, in chunks, so the export of the
+     * whole inventory never holds more than one batch in memory. A CSV export can be imported
+     * again with POST /import.
+     *
+     * @param format csv or ndjson.
+     * @param fields the comma separated fields to export; all fields by default.
+     * @param status all, sold or unsold books.
+     * @param dateField the date the range applies to: datePurchased (default) or sold.
+     * @param from the first day of the range, as yyyy-MM-dd.
+     * @param to the last day of the range, as yyyy-MM-dd.
+     * @return A ResponseEntity streaming the file as an attachment, or 400 with the reason for invalid parameters.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "status", defaultValue = "all") String status,
+            @RequestParam(value = "dateField", defaultValue = "datePurchased") String dateField,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        BookFileFormat fileFormat;
+        BookFilter filter;
+        List<String> selectedFields;
+        try {
+            // Parameters are checked before the response starts; afterwards only the connection can fail.
+            fileFormat = BookFileFormat.fromName(format);
+            filter = BookFilter.of(status, dateField, from, to);
+            selectedFields = BookFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            // Only a streaming body can be returned from this mapping, so the message is written as text.
+            byte[] message = e.getMessage().getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(out -> out.write(message));
+        }
+        StreamingResponseBody body = out -> bookExportService.exportBooks(out, fileFormat, filter, selectedFields);
+        String fileName = "books." + fileFormat.name().toLowerCase(Locale.ROOT);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Marks many books sold at once with a single bulk write.
+     * Each book gets its payout, its sold date (or the default one of the request) and a profit
+     * computed from its stored COGS. The response has one result per requested book.
+     *
+     * @param request The books to mark sold with their payout, and the default sold date.
+     * @return A ResponseEntity with the per-book results, or 400 if the request holds too many books.
+     */
+    @PostMapping("/mark-sold")
+    public ResponseEntity<Object> markSold(@RequestBody MarkSoldRequest request) {
+        try {
+            return ResponseEntity.ok(bookService.markSold(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * Updates the details of an existing book.
      * The book to be updated is identified by its ID and the updated details are provided in the request body.
@@ -169,6 +504,32 @@ public class BookController {
         return new ResponseEntity<>(book, HttpStatus.OK);
     }
 
+    /**
+     * Partially updates an existing book in a single database round trip.
+     * Only the fields present in the request body are changed: a field with a value is set
+     * and a field with null is removed. Including the 'version' read with the book makes the
+     * update fail with 409 Conflict if someone else changed the book in the meantime.
+     *
+     * @param id The unique identifier of the book to be patched.
+     * @param changes The fields to change, and optionally the expected version.
+     * @return A ResponseEntity with the patched book, 404 if it does not exist, 409 on a version
+     *         conflict or 400 if a field is invalid.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<Object> patchBook(@PathVariable String id, @RequestBody Map<String, Object> changes) {
+        try {
+            Book book = bookService.patchBook(id, BookPatch.from(changes));
+            if (book == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Book not found"));
+            }
+            return ResponseEntity.ok(book);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
     /**
      * Deletes a book identified by its ID.
      * The method calls the service to delete the book and responds with an HTTP 204 No Content status
@@ -183,6 +544,18 @@ public class BookController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Retrieves everything the dashboard shows in a single response.
+     * This endpoint returns the active, sold and unsold counts, the financial totals
+     * and this month's sales count, read from the database in one round trip.
+     *
+     * @return A ResponseEntity with the dashboard snapshot.
+     */
+    @GetMapping("/dashboard")
+    public ResponseEntity<DashboardSnapshot> getDashboard() {
+        return ResponseEntity.ok(bookService.getDashboard());
+    }
+
     /**
      * Retrieves the active book in the inventory.
      * This endpoint provides the total number of books that are active in inventory.
@@ -191,7 +564,7 @@ public class BookController {
      */
     @GetMapping("/active-inventory-count")
     public ResponseEntity<Long> getActiveInventoryCount() {
-        long count = bookService.countActiveInventory();
+        long count = bookService.getDashboard().getActiveCount();
         return ResponseEntity.ok(count);
     }
 
@@ -204,62 +577,129 @@ public class BookController {
      */
     @GetMapping("/financial-overview")
     public ResponseEntity<Map<String, Double>> getFinancialOverview() {
-        Map<String, Double> financials = bookService.getFinancialOverview();
+        Map<String, Double> financials = bookService.getDashboard().toFinancialOverview();
         return ResponseEntity.ok(financials);
     }
 
     /**
      * Retrieves the inventory status showing sold and unsold book counts.
-     * This endpoint calculates and returns the count of books that have been sold and those still unsold.
+     * This endpoint returns the count of books that have been sold and those still unsold.
      *
      * @return A ResponseEntity with a map Containing counts of sold and unsold books.
      */
     @GetMapping("/inventory-status")
     public ResponseEntity<Map<String, Long>> getInventoryStatus() {
-        long soldCount = bookService.countBySoldIsNotNull();
-        long unsoldCount = bookService.countBySoldIsNull();
+        Map<String, Long> status = bookService.getDashboard().toInventoryStatus();
+        return ResponseEntity.ok(status);
+    }
 
-        Map<String, Long> status = new HashMap<>();
-        status.put("sold", soldCount);
-        status.put("unsold", unsoldCount);
+    /**
+     * Opens a live feed of the inventory counts and financial totals as server-sent events.
+     * The first event, named 'snapshot', holds the current totals; every later 'delta' event
+     * holds the change caused by a write, to be added to the totals. A recount sends a new
+     * snapshot. Clients that read slowly receive merged deltas instead of every single one.
+     *
+     * @return A ResponseEntity with the event stream, or 503 if too many clients are connected.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getInventoryEvents() {
+        try {
+            return ResponseEntity.ok(inventoryEventService.subscribe());
+        } catch (IllegalStateException e) {
+            logger.warn("Inventory event connection refused: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
 
-        return ResponseEntity.ok(status);
+    /**
+     * Retrieves the statistics of the live inventory feed.
+     *
+     * @return A ResponseEntity with the number of connections and the sent and coalesced update counts.
+     */
+    @GetMapping("/events/stats")
+    public ResponseEntity<Map<String, Object>> getInventoryEventStats() {
+        return ResponseEntity.ok(inventoryEventService.getStats());
+    }
+
+    /**
+     * Recounts the inventory summary from the book collection.
+     * The summary behind the dashboard endpoints is updated incrementally on every write;
+     * this endpoint rebuilds it from a full recount if it drifted.
+     *
+     * @return A ResponseEntity with the reconciled inventory summary.
+     */
+    @PostMapping("/summary/reconcile")
+    public ResponseEntity<InventorySummary> reconcileInventorySummary() {
+        InventorySummary summary = bookService.reconcileInventorySummary();
+        return ResponseEntity.ok(summary);
+    }
+
+    /**
+     * Retrieves the sales of every day or month in a range, for the sales trend chart.
+     * The trend is read from the sales rollups, one small document per period with sales,
+     * so a two-year monthly trend costs one indexed query and loads no books.
+     *
+     * @param from a day in the first period, as yyyy-MM-dd.
+     * @param to a day in the last period, as yyyy-MM-dd.
+     * @param granularity day or month.
+     * @return A ResponseEntity with units sold, payout, COGS and profit per period, including
+     *         periods without sales, or 400 for an invalid range or granularity.
+     */
+    @GetMapping("/sales-trend")
+    public ResponseEntity<Object> getSalesTrend(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "granularity", defaultValue = "month") String granularity) {
+        try {
+            SalesBucket.Granularity periods = SalesBucket.Granularity.fromName(granularity);
+            return ResponseEntity.ok(salesRollupService.getTrend(from, to, periods));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Rebuilds the sales rollups from the sold books.
+     * The rollups are updated incrementally on every write; this endpoint is the backfill
+     * for existing data and the repair if they drifted.
+     *
+     * @return A ResponseEntity with the number of rebuilt buckets.
+     */
+    @PostMapping("/sales-trend/rebuild")
+    public ResponseEntity<Map<String, Integer>> rebuildSalesRollups() {
+        return ResponseEntity.ok(Map.of("buckets", salesRollupService.rebuild()));
     }
 
 
     /**
      * Retrieves the book details form the Google Books Api by ISBN.
-     * This method forms a request to the Google Books API, using the provided ISBN
-     * as a search parameter. It then extracts relevant book details from the response.
+     * The lookup goes through a cache keyed by the normalized ISBN, so repeated and
+     * concurrent requests for the same ISBN cost at most one call to the API.
+     * When the API is degraded the request fails fast with 503 (circuit breaker open)
+     * or 504 (timeout) instead of waiting on it.
      *
      * <p>This is useful for obtaining comprehensive information about books,including
      *    titles, authors, and cover images, which might not be available in the local database</p>
      * @param isbn the International Book Number(ISBN) of the book
-     * @return A ResponseEntity containing a map of book details or an error message.
+     * @return A ResponseEntity containing the book details or an error message.
      */
     @GetMapping("/book-details")
-    public ResponseEntity<Map<String, Object>> getBookDetailsByISBN(@RequestParam String isbn) {
-        String apiUrl = "https://www.googleapis.com/books/v1/volumes?q=isbn:" + isbn + "&key=" + googleBooksApiKey;
+    public ResponseEntity<Object> getBookDetailsByISBN(@RequestParam String isbn) {
         try {
-            ResponseEntity<Map> response = restTemplate.getForEntity(apiUrl, Map.class);
-
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                List<Map<String, Object>> items = (List<Map<String, Object>>) response.getBody().get("items");
-                if (items != null && !items.isEmpty()) {
-                    Map<String, Object> volumeInfo = (Map<String, Object>) items.get(0).get("volumeInfo");
-                    if (volumeInfo != null) {
-                        Map<String, Object> imageLinks = (Map<String, Object>) volumeInfo.get("imageLinks");
-                        String title = (String) volumeInfo.get("title");
-                        String imageUrl = imageLinks != null ? (String) imageLinks.get("thumbnail") : null;
-                        Map<String, Object> bookDetails = new HashMap<>();
-                        bookDetails.put("title", title);
-                        bookDetails.put("imageUrl", imageUrl);
-                        return ResponseEntity.ok(bookDetails);
-                    }
-                }
+            Optional<BookDetails> details = googleBooksService.findByIsbn(isbn);
+            if (details.isPresent()) {
+                return ResponseEntity.ok(details.get());
             }
-
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Book details not found"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (CircuitBreakerOpenException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("message", "Book details service is unavailable, try again later"));
+        } catch (ResourceAccessException e) {
+            logger.warn("Book details lookup timed out or could not connect: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                    .body(Map.of("message", "Book details service did not respond in time"));
         } catch (Exception e) {
             logger.error("Error retrieving book details", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -267,5 +707,35 @@ public class BookController {
         }
     }
 
+    /**
+     * Retrieves the statistics of the background metadata enrichment.
+     *
+     * @return A ResponseEntity with the queue depth, the outcome counters and the throughput.
+     */
+    @GetMapping("/enrichment/stats")
+    public ResponseEntity<Map<String, Object>> getEnrichmentStats() {
+        return ResponseEntity.ok(bookEnrichmentService.getStats());
+    }
+
+    /**
+     * Retrieves the statistics of the cache of books read by ID.
+     *
+     * @return A ResponseEntity with the cache size, the estimated heap used and allowed, and the hit rate.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getBookCacheStats() {
+        return ResponseEntity.ok(bookService.getBookCacheStats());
+    }
+
+    /**
+     * Retrieves the statistics of the Google Books lookup cache.
+     *
+     * @return A ResponseEntity with the cache size, hit, miss, coalesced, eviction and expiration counts.
+     */
+    @GetMapping("/book-details/cache-stats")
+    public ResponseEntity<Map<String, Object>> getBookDetailsCacheStats() {
+        return ResponseEntity.ok(googleBooksService.getCacheStats());
+    }
+
 
 }
@@ -0,0 +1,353 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookDetails;
+import com.example.demo.model.BookFields;
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.service.BookIntakeService;
+import com.example.demo.service.BookService;
+import com.example.demo.service.IsbnIndexService;
+import com.example.demo.service.ReactiveBookService;
+import com.example.demo.service.ReactiveGoogleBooksService;
+import com.example.demo.service.TitleSearchService;
+import com.example.demo.util.IsbnUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Reactive Rest Controller for the book endpoints, active with the 'reactive' profile in place
+ * of {@link BookController}.
+ * <p>
+ * The list, search, dashboard and book details endpoints are non-blocking end to end: they read
+ * through the reactive MongoDB driver and call the Google Books API with WebClient, so the small
+ * Netty event-loop pool is never held while they wait. Creating, updating and deleting books keep
+ * going through the blocking {@link BookService}, which maintains the inventory summary and the
+ * rollups, and run on the bounded elastic scheduler instead of the event loop. The remaining
+ * endpoints, such as import, export, mark-sold and the event feed, are only served by the servlet stack.
+ * </p>
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api/books")
+@Profile("reactive")
+public class ReactiveBookController {
+    /**
+     * Service for the non-blocking book reads.
+     */
+    private final ReactiveBookService reactiveBookService;
+    /**
+     * Service for looking up book details without blocking.
+     */
+    private final ReactiveGoogleBooksService reactiveGoogleBooksService;
+    /**
+     * Service for the book writes.
+     */
+    private final BookService bookService;
+    /**
+     * Service for the typeahead search of books by title.
+     */
+    private final TitleSearchService titleSearchService;
+    /**
+     * Service answering ISBN existence and copy counts from memory.
+     */
+    private final IsbnIndexService isbnIndexService;
+    /**
+     * Service writing the books of intake sessions behind the requests.
+     */
+    private final BookIntakeService bookIntakeService;
+    /**
+     * Logger for this class,used for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveBookController.class);
+
+    /**
+     * Constructs a new ReactiveBookController with the specified services.
+     * @param reactiveBookService the service for the non-blocking book reads.
+     * @param reactiveGoogleBooksService the service for looking up book details.
+     * @param bookService the service for the book writes.
+     * @param titleSearchService the service searching books by title.
+     * @param isbnIndexService the service counting the copies of an ISBN.
+     * @param bookIntakeService the service buffering the intake writes.
+     */
+    @Autowired
+    public ReactiveBookController(ReactiveBookService reactiveBookService,
+                                  ReactiveGoogleBooksService reactiveGoogleBooksService,
+                                  BookService bookService, TitleSearchService titleSearchService,
+                                  IsbnIndexService isbnIndexService, BookIntakeService bookIntakeService) {
+        this.reactiveBookService = reactiveBookService;
+        this.reactiveGoogleBooksService = reactiveGoogleBooksService;
+        this.bookService = bookService;
+        this.titleSearchService = titleSearchService;
+        this.isbnIndexService = isbnIndexService;
+        this.bookIntakeService = bookIntakeService;
+    }
+
+    /**
+     * Retrieves a book by its unique identifier.
+     *
+     * @param id the ID of the book to retrieve.
+     * @return the book, or an empty body if not found.
+     */
+    @GetMapping("/{id}")
+    public Mono<Book> getBookById(@PathVariable String id) {
+        return reactiveBookService.getBookById(id);
+    }
+
+    /**
+     * Fetches a paginated list of books.
+     *
+     * @param page the number of the books list to retrieve.
+     * @param limit limit the maximum number of books to return in a single page.
+     * @return the page of books.
+     */
+    @GetMapping("/all-books")
+    public Mono<Page<Book>> getBooks(@RequestParam(value = "page", defaultValue = "0") int page,
+                                     @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return reactiveBookService.getBooks(page, limit);
+    }
+
+    /**
+     * Searches for books by their ISBN.
+     *
+     * @param isbn the International Standard Book Number (ISBN) of the books to search for.
+     * @return A ResponseEntity containing a list of books if found, or 404 Not Found.
+     */
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<Book>>> searchByIsbn(@RequestParam String isbn) {
+        if (isbnIndexService.isAbsent(isbn)) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        return reactiveBookService.searchByIsbn(isbn).collectList()
+                .<ResponseEntity<List<Book>>>map(books -> books.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(books));
+    }
+
+    /**
+     * Counts the copies of an ISBN in the inventory, see {@link BookController}.
+     * The count comes from the in-memory ISBN index, so it does not block.
+     *
+     * @param isbn the ISBN-10 or ISBN-13.
+     * @return A ResponseEntity with the ISBN-13, the number of copies and their IDs, or 400 for an invalid ISBN.
+     */
+    @GetMapping("/copies")
+    public ResponseEntity<Object> getCopies(@RequestParam String isbn) {
+        long normalized = IsbnUtils.toLong(isbn);
+        if (normalized == IsbnUtils.INVALID) {
+            return ResponseEntity.badRequest().body("Invalid ISBN: " + isbn);
+        }
+        List<String> ids = isbnIndexService.getCopyIds(isbn);
+        return ResponseEntity.ok(Map.of("isbn", IsbnUtils.toIsbn13(normalized), "copies", ids.size(), "ids", ids));
+    }
+
+    /**
+     * Searches books by title as the user types, see {@link BookController}.
+     * The search runs on the in-memory title index, so it does not block.
+     *
+     * @param q the query as typed.
+     * @param limit the maximum number of results, from 1 to 50.
+     * @return A ResponseEntity with the id, isbn and title of the matching books, or 400 for an invalid limit.
+     */
+    @GetMapping("/search/title")
+    public ResponseEntity<Object> searchByTitle(@RequestParam(value = "q", defaultValue = "") String q,
+                                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > 50) {
+            return ResponseEntity.badRequest().body("Limit must be between 1 and 50");
+        }
+        List<Book> books = titleSearchService.searchByTitle(q, limit);
+        return ResponseEntity.ok(BookFields.select(books, List.of("id", "isbn", "title")));
+    }
+
+    /**
+     * Retrieves the books sold in a specified month and year, see {@link BookController}.
+     *
+     * @param year The year to filter the sold books.
+     * @param month The month to filter the sold books. Must be between 1 and 12.
+     * @return A ResponseEntity with the sold books, 204 if there are none or 400 for an invalid month.
+     */
+    @GetMapping("/sold-in-month")
+    public Mono<ResponseEntity<Object>> getBooksSoldInMonth(@RequestParam("year") int year,
+                                                            @RequestParam("month") int month) {
+        if (month < 1 || month > 12) {
+            return Mono.just(ResponseEntity.badRequest().body("Month must be between 1 and 12"));
+        }
+        return blocking(() -> bookService.getBooksSoldInMonth(year, month))
+                .<ResponseEntity<Object>>map(books -> books.isEmpty() ? ResponseEntity.noContent().build() : ResponseEntity.ok(books));
+    }
+
+    /**
+     * Creates a new book.
+     *
+     * With unique=true the book is only created if the inventory has no copy of its ISBN yet.
+     *
+     * @param book The Book object to be created, provided in the request body.
+     * @param unique whether to refuse a second copy of the ISBN.
+     * @return A ResponseEntity with the created book and HTTP status 201 Created, 400 if it is invalid,
+     *         or 409 Conflict with the IDs of the existing copies.
+     */
+    @PostMapping("/create-book")
+    public Mono<ResponseEntity<Object>> createBook(@RequestBody Book book,
+                                                   @RequestParam(value = "unique", defaultValue = "false") boolean unique) {
+        return blocking(() -> unique && book.getISBN() != null && isbnIndexService.hasCopies(book.getISBN()))
+                .<ResponseEntity<Object>>flatMap(duplicate -> duplicate
+                        ? Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body((Object) Map.of(
+                                "message", "A copy of this ISBN is already in the inventory",
+                                "ids", isbnIndexService.getCopyIds(book.getISBN()))))
+                        : blocking(() -> bookService.createBook(book))
+                                .map(savedBook -> ResponseEntity.status(HttpStatus.CREATED).body((Object) savedBook)))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage()))));
+    }
+
+    /**
+     * Accepts a book for the write-behind intake, see {@link BookController}.
+     * Waiting for room in a full buffer blocks, so it runs off the event loop.
+     *
+     * @param book The Book object to be created, provided in the request body.
+     * @return A ResponseEntity with the ID of the book and HTTP status 202 Accepted, 400 if it is
+     *         invalid, or 503 with Retry-After if the buffer is full.
+     */
+    @PostMapping("/intake")
+    public Mono<ResponseEntity<Object>> intakeBook(@RequestBody Book book) {
+        return blocking(() -> bookIntakeService.accept(book))
+                .map(acceptedBook -> ResponseEntity.accepted()
+                        .body((Object) Map.of("id", acceptedBook.getId(), "isbn", acceptedBook.getISBN())))
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage()))))
+                .onErrorResume(RejectedExecutionException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1").body(Map.of("message", e.getMessage()))));
+    }
+
+    /**
+     * Retrieves the status of the write-behind intake.
+     *
+     * @return A ResponseEntity with the pending books, the buffer usage and the outcome counters.
+     */
+    @GetMapping("/intake/status")
+    public ResponseEntity<Map<String, Object>> getIntakeStatus() {
+        return ResponseEntity.ok(bookIntakeService.getStatus());
+    }
+
+    /**
+     * Updates the details of an existing book.
+     *
+     * @param id The unique identifier of the book to be updated.
+     * @param updatedBook The book object containing updated details.
+     * @return A ResponseEntity containing the updated book and HTTP status 200 OK.
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Book>> updateBook(@PathVariable String id, @RequestBody Book updatedBook) {
+        return blocking(() -> bookService.updateBook(id, updatedBook))
+                .map(book -> new ResponseEntity<>(book, HttpStatus.OK));
+    }
+
+    /**
+     * Deletes a book identified by its ID.
+     *
+     * @param id The unique identifier of the book to be deleted.
+     * @return A ResponseEntity with HTTP status 204 No content.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteBook(@PathVariable String id) {
+        return Mono.fromRunnable(() -> bookService.deleteBook(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    /**
+     * Retrieves everything the dashboard shows in a single response.
+     *
+     * @return the dashboard snapshot.
+     */
+    @GetMapping("/dashboard")
+    public Mono<DashboardSnapshot> getDashboard() {
+        return reactiveBookService.getDashboard();
+    }
+
+    /**
+     * Retrieves the number of books in active inventory.
+     *
+     * @return the count of active books.
+     */
+    @GetMapping("/active-inventory-count")
+    public Mono<Long> getActiveInventoryCount() {
+        return reactiveBookService.getDashboard().map(DashboardSnapshot::getActiveCount);
+    }
+
+    /**
+     * Provides a financial overview of the inventory.
+     *
+     * @return a map of financial data.
+     */
+    @GetMapping("/financial-overview")
+    public Mono<Map<String, Double>> getFinancialOverview() {
+        return reactiveBookService.getDashboard().map(DashboardSnapshot::toFinancialOverview);
+    }
+
+    /**
+     * Retrieves the inventory status showing sold and unsold book counts.
+     *
+     * @return a map containing counts of sold and unsold books.
+     */
+    @GetMapping("/inventory-status")
+    public Mono<Map<String, Long>> getInventoryStatus() {
+        return reactiveBookService.getDashboard().map(DashboardSnapshot::toInventoryStatus);
+    }
+
+    /**
+     * Fetches book details by ISBN from the Google Books API without blocking.
+     *
+     * @param isbn the ISBN of the book to fetch details for.
+     * @return A ResponseEntity with the book details, 404 if the API does not know the ISBN,
+     *         400 for an invalid ISBN, 504 if the API did not respond in time or 500 if it failed.
+     */
+    @GetMapping("/book-details")
+    public Mono<ResponseEntity<Object>> getBookDetailsByISBN(@RequestParam String isbn) {
+        return reactiveGoogleBooksService.findByIsbn(isbn)
+                .map(this::detailsResponse)
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(Map.of("message", e.getMessage()))))
+                .onErrorResume(WebClientRequestException.class, e -> {
+                    logger.warn("Book details lookup timed out or could not connect: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT)
+                            .body(Map.of("message", "Book details service did not respond in time")));
+                })
+                .onErrorResume(e -> {
+                    logger.error("Error retrieving book details", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("message", "Error retrieving book details")));
+                });
+    }
+
+    private ResponseEntity<Object> detailsResponse(Optional<BookDetails> details) {
+        if (details.isPresent()) {
+            return ResponseEntity.ok(details.get());
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", "Book details not found"));
+    }
+
+    /**
+     * Runs a call to the blocking services on the bounded elastic scheduler, off the event loop.
+     *
+     * @param call the blocking call.
+     * @return the result of the call.
+     */
+    private static <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.controller;
+
+import com.example.demo.model.Todo;
+import com.example.demo.model.TodoFilter;
+import com.example.demo.service.TodoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Reactive Rest Controller for the Todo endpoints, active with the 'reactive' profile in place
+ * of {@link TodoController}. The filtered reads are built with MongoTemplate, so like the writes
+ * they go through the blocking {@link TodoService} on the bounded elastic scheduler.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping("/api/todos")
+@Profile("reactive")
+public class ReactiveTodoController {
+    /**
+     * Service for the Todo reads and writes.
+     */
+    private final TodoService todoService;
+
+    /**
+     * Autowired constructor for dependency injection of the Todo service.
+     * @param todoService the service for the Todo reads and writes.
+     */
+    @Autowired
+    public ReactiveTodoController(TodoService todoService) {
+        this.todoService = todoService;
+    }
+
+    /**
+     * Retrieves a page of Todo items, sorted by due date, filtered on their completion and due date,
+     * see {@link TodoController}.
+     *
+     * @param completed true for completed todos, false for open todos; both by default.
+     * @param from the first due day, as yyyy-MM-dd.
+     * @param to the last due day, as yyyy-MM-dd.
+     * @param overdue true for only the open todos whose due date has passed.
+     * @param zone the time zone ID of the days; UTC by default.
+     * @param page the page number to retrieve, starting from 0.
+     * @param limit the maximum number of todos in the page, at most 100.
+     * @return A ResponseEntity with the page of todos, or 400 Bad Request with the reason for invalid parameters.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getTodos(
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "overdue", defaultValue = "false") boolean overdue,
+            @RequestParam(value = "zone", required = false) String zone,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return Mono.fromCallable(() -> TodoFilter.of(completed, from, to, overdue ? Instant.now() : null, zone))
+                .map(filter -> ResponseEntity.ok((Object) todoService.findTodos(filter, page, limit)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    /**
+     * Counts the Todo items per due day, see {@link TodoController}.
+     *
+     * @param from the first due day, as yyyy-MM-dd.
+     * @param to the last due day, as yyyy-MM-dd, at most 366 days including the first.
+     * @param completed true for completed todos, false for open todos; both by default.
+     * @param zone the time zone ID of the days; UTC by default.
+     * @return A ResponseEntity with the number of todos per yyyy-MM-dd day, or 400 Bad Request
+     *         with the reason for invalid parameters.
+     */
+    @GetMapping("/counts")
+    public Mono<ResponseEntity<Object>> countTodosByDueDay(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "zone", required = false) String zone) {
+        return Mono.fromCallable(() -> TodoFilter.of(completed, from, to, null, zone))
+                .map(filter -> ResponseEntity.ok((Object) todoService.countByDueDay(filter)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(IllegalArgumentException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    /**
+     * Adds a new Todo item to the database.
+     * @param todo the Todo object to be added.
+     * @return The added Todo object with generated ID and other details.
+     */
+    @PostMapping
+    public Mono<Todo> addNewTodo(@RequestBody Todo todo) {
+        return Mono.fromCallable(() -> todoService.addTodo(todo)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Updates the existing Todo item.
+     *
+     * @param id The unique identifier of the Todo to be updated.
+     * @param todo the Todo object with updated details.
+     * @return The updated Todo object.
+     */
+    @PutMapping("/{id}")
+    public Mono<Todo> updateTodo(@PathVariable String id, @RequestBody Todo todo) {
+        return Mono.fromCallable(() -> todoService.updateTodo(id, todo)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Deletes a Todo item identified by its ID.
+     *
+     * @param id The unique identifier of the Todo to be deleted.
+     * @return completes when the Todo is deleted.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<Void> deleteTodo(@PathVariable String id) {
+        return Mono.fromRunnable(() -> todoService.deleteTodo(id)).subscribeOn(Schedulers.boundedElastic()).then();
+    }
+}
@@ -1,17 +1,22 @@
 package com.example.demo.controller;
 
+import com.example.demo.model.TodoFilter;
 import com.example.demo.service.TodoService;
 import com.example.demo.model.Todo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Instant;
+import java.time.LocalDate;
 
 /**
  * Controller for managing Todo-related operations.
  * This class provides endpoints for CRUD operations on Todo items, including
- * listing all todos, adding a new todo, updating an existing todo, and
- * deleting a todo.
+ * listing a filtered page of todos, counting todos per due day, adding a new todo,
+ * updating an existing todo, and deleting a todo.
  *
  * <p>Annotations Explained:</p>
  * <ul>
@@ -26,6 +31,7 @@ import java.util.List;
 @RestController
 @CrossOrigin
 @RequestMapping("/api/todos")
+@Profile("!reactive")
 public class TodoController {
     /**
      * Service for handling Todo-related buisness logic.
@@ -42,13 +48,57 @@ public class TodoController {
     }
 
     /**
-     * Retrieves a list of all Todo items.
+     * Retrieves a page of Todo items, sorted by due date, filtered on their completion and due date.
+     * The days of the range are taken in the given time zone. The response is a page object, not
+     * an array of todos: the todos are in 'content' and 'last' tells if more pages follow.
      *
-     * @return A list of Todo objects representing all todos in the database.
+     * @param completed true for completed todos, false for open todos; both by default.
+     * @param from the first due day, as yyyy-MM-dd.
+     * @param to the last due day, as yyyy-MM-dd.
+     * @param overdue true for only the open todos whose due date has passed.
+     * @param zone the time zone ID of the days, e.g. Europe/Paris; UTC by default.
+     * @param page the page number to retrieve, starting from 0.
+     * @param limit the maximum number of todos in the page, at most 100.
+     * @return A ResponseEntity with the page of todos, or 400 Bad Request with the reason for invalid parameters.
      */
     @GetMapping
-    public List<Todo> getAllTodos() {
-        return todoService.findAllTodos();
+    public ResponseEntity<Object> getTodos(
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "overdue", defaultValue = "false") boolean overdue,
+            @RequestParam(value = "zone", required = false) String zone,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        try {
+            TodoFilter filter = TodoFilter.of(completed, from, to, overdue ? Instant.now() : null, zone);
+            return ResponseEntity.ok(todoService.findTodos(filter, page, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Counts the Todo items per due day, so a calendar can mark its days without reading the todos.
+     *
+     * @param from the first due day, as yyyy-MM-dd.
+     * @param to the last due day, as yyyy-MM-dd, at most 366 days including the first.
+     * @param completed true for completed todos, false for open todos; both by default.
+     * @param zone the time zone ID of the days, e.g. Europe/Paris; UTC by default.
+     * @return A ResponseEntity with the number of todos per yyyy-MM-dd day, leaving out the days
+     *         without todos, or 400 Bad Request with the reason for invalid parameters.
+     */
+    @GetMapping("/counts")
+    public ResponseEntity<Object> countTodosByDueDay(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "completed", required = false) Boolean completed,
+            @RequestParam(value = "zone", required = false) String zone) {
+        try {
+            return ResponseEntity.ok(todoService.countByDueDay(TodoFilter.of(completed, from, to, null, zone)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     /**
@@ -2,17 +2,32 @@ package com.example.demo.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 /**
  * Represents the book entity in the application.
  * This class models the book's data is mapped to a MongoDB collection 'Book'.
  * It includes details such as ISBN, cost of goods sold (COGS), purchase and sold dates,
  * and financial calculations.
+ *
+ * <p>Every index is a compound of a queried field and '_id': the field prefix serves the
+ * equality, range and null queries of BookRepository, and the '_id' suffix makes the
+ * index also serve the keyset pagination sorted on that field.</p>
  */
 @Document (collection = "Book")
+@CompoundIndexes({
+        @CompoundIndex(name = "isbn_id", def = "{ 'isbn': 1, '_id': 1 }"),
+        @CompoundIndex(name = "title_id", def = "{ 'title': 1, '_id': 1 }"),
+        @CompoundIndex(name = "datePurchased_id", def = "{ 'datePurchased': 1, '_id': 1 }"),
+        @CompoundIndex(name = "sold_id", def = "{ 'sold': 1, '_id': 1 }")
+})
 public class Book {
     @Id
     private String id; //Unique identifier for the book.
@@ -34,6 +49,17 @@ public class Book {
     private Double payout; //The amount paid out for the book.
     private Double profit; //The profit of the book.
     private String title; //The title of the book.
+    private String imageUrl; //The URL of the cover thumbnail.
+    private List<String> authors; //The authors of the book.
+    private String publisher; //The publisher of the book.
+    private String publishedDate; //The publication date as published by Google Books, e.g. 2004 or 2004-05-01.
+    private Integer pageCount; //The number of pages of the book.
+    /**
+     * The version of the book, incremented by every update.
+     * A save or patch based on an older version fails instead of overwriting a concurrent edit.
+     */
+    @Version
+    private Long version;
 
 
     /**
@@ -163,4 +189,135 @@ public class Book {
     public void setProfit(Double profit) {
         this.profit = profit;
     }
+
+    /**
+     * Gets the URL of the cover thumbnail.
+     * @return the image URL.
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    /**
+     * Sets the URL of the cover thumbnail.
+     * @param imageUrl the image URL.
+     */
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    /**
+     * Gets the authors of the book.
+     * @return the authors.
+     */
+    public List<String> getAuthors() {
+        return authors;
+    }
+
+    /**
+     * Sets the authors of the book.
+     * @param authors the authors.
+     */
+    public void setAuthors(List<String> authors) {
+        this.authors = authors;
+    }
+
+    /**
+     * Gets the publisher of the book.
+     * @return the publisher.
+     */
+    public String getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Sets the publisher of the book.
+     * @param publisher the publisher.
+     */
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Gets the publication date of the book.
+     * @return the publication date.
+     */
+    public String getPublishedDate() {
+        return publishedDate;
+    }
+
+    /**
+     * Sets the publication date of the book.
+     * @param publishedDate the publication date.
+     */
+    public void setPublishedDate(String publishedDate) {
+        this.publishedDate = publishedDate;
+    }
+
+    /**
+     * Gets the number of pages of the book.
+     * @return the page count.
+     */
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Sets the number of pages of the book.
+     * @param pageCount the page count.
+     */
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Gets the version of the book.
+     * @return the version, null for a book that was never saved.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the book.
+     * @param version the version.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    /**
+     * Checks if the book misses metadata that can be looked up by ISBN.
+     *
+     * @return true if the title or the cover image is missing.
+     */
+    public boolean needsEnrichment() {
+        return title == null || title.isBlank() || imageUrl == null;
+    }
+
+    /**
+     * Creates a copy of the book.
+     * Used to keep the state of a book before it is modified. The dates and the authors are
+     * copied too, so changing them on the copy leaves the book as it was.
+     *
+     * @return a new Book with the same field values.
+     */
+    public Book copy() {
+        Book copy = new Book();
+        copy.id = id;
+        copy.isbn = isbn;
+        copy.cogs = cogs;
+        copy.datePurchased = datePurchased == null ? null : new Date(datePurchased.getTime());
+        copy.sold = sold == null ? null : new Date(sold.getTime());
+        copy.payout = payout;
+        copy.profit = profit;
+        copy.title = title;
+        copy.imageUrl = imageUrl;
+        copy.authors = authors == null ? null : new ArrayList<>(authors);
+        copy.publisher = publisher;
+        copy.publishedDate = publishedDate;
+        copy.pageCount = pageCount;
+        copy.version = version;
+        return copy;
+    }
 }
@@ -0,0 +1,113 @@
+package com.example.demo.model;
+
+import java.util.List;
+
+/**
+ * Represents the details of a book published by the Google Books API.
+ * This class is not stored in its own collection; it holds the volume information
+ * looked up by ISBN, such as the title, the authors and the cover image.
+ */
+public class BookDetails {
+    private String title; //The title of the book.
+    private List<String> authors; //The authors of the book.
+    private String publisher; //The publisher of the book.
+    private String publishedDate; //The publication date as returned by the API, e.g. 2004 or 2004-05-01.
+    private Integer pageCount; //The number of pages of the book.
+    private String imageUrl; //The URL of the cover thumbnail.
+
+    /**
+     * Gets the title of the book.
+     * @return the title.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Sets the title of the book.
+     * @param title the title.
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Gets the authors of the book.
+     * @return the authors.
+     */
+    public List<String> getAuthors() {
+        return authors;
+    }
+
+    /**
+     * Sets the authors of the book.
+     * @param authors the authors.
+     */
+    public void setAuthors(List<String> authors) {
+        this.authors = authors;
+    }
+
+    /**
+     * Gets the publisher of the book.
+     * @return the publisher.
+     */
+    public String getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Sets the publisher of the book.
+     * @param publisher the publisher.
+     */
+    public void setPublisher(String publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Gets the publication date of the book.
+     * @return the publication date.
+     */
+    public String getPublishedDate() {
+        return publishedDate;
+    }
+
+    /**
+     * Sets the publication date of the book.
+     * @param publishedDate the publication date.
+     */
+    public void setPublishedDate(String publishedDate) {
+        this.publishedDate = publishedDate;
+    }
+
+    /**
+     * Gets the number of pages of the book.
+     * @return the page count.
+     */
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Sets the number of pages of the book.
+     * @param pageCount the page count.
+     */
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    /**
+     * Gets the URL of the cover thumbnail.
+     * @return the image URL.
+     */
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    /**
+     * Sets the URL of the cover thumbnail.
+     * @param imageUrl the image URL.
+     */
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.demo.model;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of a book that a client can select with a 'fields' parameter.
+ * <p>
+ * A selection is used twice: the database only returns the selected fields, so less is
+ * read and decoded, and only the selected fields are written to the response, so less is
+ * serialized and sent. Field names and value formats are those of the JSON shape of a book.
+ * </p>
+ */
+public final class BookFields {
+    /**
+     * The fields that can be selected, in the order they are written.
+     */
+    public static final List<String> ALL = List.of("id", "isbn", "cogs", "datePurchased", "sold", "payout",
+            "profit", "title", "imageUrl", "authors", "publisher", "publishedDate", "pageCount", "version");
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE.withZone(ZoneOffset.UTC);
+
+    private BookFields() {
+    }
+
+    /**
+     * Parses the field selection of a request.
+     *
+     * @param selection the comma separated field names, in any order; null or blank for all fields.
+     * @return the selected fields in the order of {@link #ALL}.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    public static List<String> parse(String selection) {
+        if (selection == null || selection.isBlank()) {
+            return ALL;
+        }
+        List<String> requested = Arrays.stream(selection.split(",")).map(String::trim).toList();
+        for (String field : requested) {
+            if (!ALL.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        List<String> selected = new ArrayList<>();
+        for (String field : ALL) {
+            if (requested.contains(field)) {
+                selected.add(field);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Gets the value of a field of a book.
+     *
+     * @param book the book.
+     * @param field the field name.
+     * @return the value, or null if the book has none.
+     * @throws IllegalArgumentException if the field is unknown.
+     */
+    public static Object valueOf(Book book, String field) {
+        return switch (field) {
+            case "id" -> book.getId();
+            case "isbn" -> book.getISBN();
+            case "cogs" -> book.getCOGS();
+            case "datePurchased" -> book.getDatePurchased();
+            case "sold" -> book.getSold();
+            case "payout" -> book.getPayout();
+            case "profit" -> book.getProfit();
+            case "title" -> book.getTitle();
+            case "imageUrl" -> book.getImageUrl();
+            case "authors" -> book.getAuthors();
+            case "publisher" -> book.getPublisher();
+            case "publishedDate" -> book.getPublishedDate();
+            case "pageCount" -> book.getPageCount();
+            case "version" -> book.getVersion();
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    /**
+     * Formats a date field the way the JSON shape of a book does.
+     *
+     * @param date the date.
+     * @return the day in UTC as yyyy-MM-dd.
+     */
+    public static String formatDate(Date date) {
+        return DATE_FORMAT.format(date.toInstant());
+    }
+
+    /**
+     * Gets the selected fields of a book, to be written instead of the whole book.
+     *
+     * @param book the book, read with at least the selected fields.
+     * @param fields the selected fields.
+     * @return the values by field name in selection order, dates formatted as yyyy-MM-dd.
+     */
+    public static Map<String, Object> select(Book book, List<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object value = valueOf(book, field);
+            selected.put(field, value instanceof Date date ? formatDate(date) : value);
+        }
+        return selected;
+    }
+
+    /**
+     * Gets the selected fields of several books.
+     *
+     * @param books the books.
+     * @param fields the selected fields.
+     * @return the selected fields of each book, in the order of the books.
+     */
+    public static List<Map<String, Object>> select(List<Book> books, List<String> fields) {
+        return books.stream().map(book -> select(book, fields)).toList();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.demo.model;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Represents which books an export covers: all, sold or unsold books, optionally
+ * restricted to a date range on the purchase or the sold date.
+ * Both ends of the range are inclusive days in UTC, like the dates of a book.
+ */
+public class BookFilter {
+    /**
+     * The sale status a filter selects.
+     */
+    public enum Status {
+        ALL, SOLD, UNSOLD
+    }
+
+    private final Status status; //The sale status of the selected books.
+    private final String dateField; //The date the range applies to: datePurchased or sold.
+    private final LocalDate from; //The first day of the range, null for no lower bound.
+    private final LocalDate to; //The last day of the range, null for no upper bound.
+
+    private BookFilter(Status status, String dateField, LocalDate from, LocalDate to) {
+        this.status = status;
+        this.dateField = dateField;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Creates a filter selecting every book.
+     * @return the filter.
+     */
+    public static BookFilter all() {
+        return new BookFilter(Status.ALL, "datePurchased", null, null);
+    }
+
+    /**
+     * Creates a filter from the parameters of a request.
+     *
+     * @param status 'all', 'sold' or 'unsold' in any case; null for all.
+     * @param dateField 'datePurchased' or 'sold'; null for datePurchased.
+     * @param from the first day of the range, or null.
+     * @param to the last day of the range, or null.
+     * @return the filter.
+     * @throws IllegalArgumentException if the status or date field is unknown, the range is reversed,
+     *         or unsold books are filtered on their sold date.
+     */
+    public static BookFilter of(String status, String dateField, LocalDate from, LocalDate to) {
+        Status parsedStatus;
+        try {
+            parsedStatus = status == null ? Status.ALL : Status.valueOf(status.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status must be all, sold or unsold: " + status);
+        }
+        String field = dateField == null ? "datePurchased" : dateField;
+        if (!field.equals("datePurchased") && !field.equals("sold")) {
+            throw new IllegalArgumentException("Date field must be datePurchased or sold: " + dateField);
+        }
+        if (parsedStatus == Status.UNSOLD && field.equals("sold") && (from != null || to != null)) {
+            throw new IllegalArgumentException("Unsold books have no sold date to filter on.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("The range starts after it ends: " + from + " > " + to);
+        }
+        return new BookFilter(parsedStatus, field, from, to);
+    }
+
+    /**
+     * Gets the sale status of the selected books.
+     * @return the status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the date field the range applies to.
+     * @return datePurchased or sold.
+     */
+    public String getDateField() {
+        return dateField;
+    }
+
+    /**
+     * Gets the start of the range.
+     * @return the first instant of the first day, or null for no lower bound.
+     */
+    public Date getFromInclusive() {
+        return from == null ? null : Date.from(from.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    /**
+     * Gets the end of the range.
+     * @return the first instant after the last day, or null for no upper bound.
+     */
+    public Date getToExclusive() {
+        return to == null ? null : Date.from(to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    /**
+     * Checks if the filter restricts a date.
+     * @return true if the filter has a lower or upper bound.
+     */
+    public boolean hasRange() {
+        return from != null || to != null;
+    }
+}
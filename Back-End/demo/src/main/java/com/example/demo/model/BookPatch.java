@@ -0,0 +1,175 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a partial update of a book, built from the JSON body of a PATCH request.
+ * Only the fields present in the body are changed: a field with a value is set and a
+ * field with null is removed. The optional 'version' is the version the client last read;
+ * the patch only applies if the book still has that version.
+ *
+ * <p>Values are converted like the body of POST /create-book, so dates are written as yyyy-MM-dd.</p>
+ */
+public class BookPatch {
+    /**
+     * The fields a patch can change.
+     */
+    private static final List<String> FIELDS = List.of("isbn", "cogs", "datePurchased", "sold", "payout",
+            "profit", "title", "imageUrl", "authors", "publisher", "publishedDate", "pageCount");
+
+    /**
+     * Mapper converting the field values with the Jackson annotations of {@link Book}.
+     */
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Object> changes; //The changed fields with their new values, null to remove.
+    private final Long expectedVersion; //The version the patch is based on, null to skip the check.
+
+    private BookPatch(Map<String, Object> changes, Long expectedVersion) {
+        this.changes = changes;
+        this.expectedVersion = expectedVersion;
+    }
+
+    /**
+     * Creates a patch from the fields of a request body.
+     *
+     * @param body the request body, mapping field names to their new values.
+     * @return the patch.
+     * @throws IllegalArgumentException if a field is unknown or has an invalid value,
+     *         or if the ISBN or COGS would be removed.
+     */
+    public static BookPatch from(Map<String, Object> body) {
+        Map<String, Object> raw = new LinkedHashMap<>(body);
+        raw.remove("id"); //The ID is given by the path.
+        Object version = raw.remove("version");
+        for (String field : raw.keySet()) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown or read-only field: " + field);
+            }
+        }
+        Book values;
+        try {
+            values = MAPPER.convertValue(raw, Book.class);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid field value: " + e.getMessage());
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : raw.keySet()) {
+            changes.put(field, valueOf(values, field));
+        }
+        if (changes.containsKey("isbn") && (values.getISBN() == null || values.getISBN().trim().isEmpty())) {
+            throw new IllegalArgumentException("ISBN is a mandatory field.");
+        }
+        if (changes.containsKey("cogs") && changes.get("cogs") == null) {
+            throw new IllegalArgumentException("COGS is a mandatory field.");
+        }
+        Long expectedVersion;
+        if (version == null) {
+            expectedVersion = null;
+        } else if (version instanceof Number number) {
+            expectedVersion = number.longValue();
+        } else {
+            throw new IllegalArgumentException("Invalid version: " + version);
+        }
+        return new BookPatch(changes, expectedVersion);
+    }
+
+    /**
+     * Creates a patch setting some fields of a book to the values they have in another book.
+     * A field that is null in the values is removed. The patch applies to any version.
+     *
+     * @param values the book holding the new values.
+     * @param fields the fields to change.
+     * @return the patch.
+     * @throws IllegalArgumentException if a field is unknown.
+     */
+    public static BookPatch of(Book values, List<String> fields) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String field : fields) {
+            changes.put(field, valueOf(values, field));
+        }
+        return new BookPatch(changes, null);
+    }
+
+    /**
+     * Gets the changed fields with their new values.
+     * @return the changes by field name; a null value means the field is removed.
+     */
+    public Map<String, Object> getChanges() {
+        return Collections.unmodifiableMap(changes);
+    }
+
+    /**
+     * Gets the version the patch is based on.
+     * @return the expected version, or null if the patch applies to any version.
+     */
+    public Long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * Checks if the patch changes no field.
+     * @return true if the patch is empty.
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Applies the patch to a copy of a book, the way the database applies it.
+     *
+     * @param book the book before the patch.
+     * @return a new Book with the patched fields and the next version.
+     */
+    public Book applyTo(Book book) {
+        Book patched = book.copy();
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            set(patched, change.getKey(), change.getValue());
+        }
+        patched.setVersion(book.getVersion() == null ? 1L : book.getVersion() + 1);
+        return patched;
+    }
+
+    private static Object valueOf(Book book, String field) {
+        return switch (field) {
+            case "isbn" -> book.getISBN();
+            case "cogs" -> book.getCOGS();
+            case "datePurchased" -> book.getDatePurchased();
+            case "sold" -> book.getSold();
+            case "payout" -> book.getPayout();
+            case "profit" -> book.getProfit();
+            case "title" -> book.getTitle();
+            case "imageUrl" -> book.getImageUrl();
+            case "authors" -> book.getAuthors();
+            case "publisher" -> book.getPublisher();
+            case "publishedDate" -> book.getPublishedDate();
+            case "pageCount" -> book.getPageCount();
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void set(Book book, String field, Object value) {
+        switch (field) {
+            case "isbn" -> book.setISBN((String) value);
+            case "cogs" -> book.setCOGS((Double) value);
+            case "datePurchased" -> book.setDatePurchased((Date) value);
+            case "sold" -> book.setSold((Date) value);
+            case "payout" -> book.setPayout((Double) value);
+            case "profit" -> book.setProfit((Double) value);
+            case "title" -> book.setTitle((String) value);
+            case "imageUrl" -> book.setImageUrl((String) value);
+            case "authors" -> book.setAuthors((List<String>) value);
+            case "publisher" -> book.setPublisher((String) value);
+            case "publishedDate" -> book.setPublishedDate((String) value);
+            case "pageCount" -> book.setPageCount((Integer) value);
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+}
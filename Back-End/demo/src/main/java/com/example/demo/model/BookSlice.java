@@ -0,0 +1,73 @@
+package com.example.demo.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents one slice of books read with keyset (cursor) pagination.
+ * Unlike a page it carries no total count; instead it holds the opaque cursor
+ * to pass back to read the next slice.
+ */
+public class BookSlice {
+    private final List<Book> content; //The books of the slice.
+    private final String nextCursor; //The cursor of the next slice, null if this is the last one.
+
+    /**
+     * Creates a slice of books.
+     *
+     * @param content the books of the slice.
+     * @param nextCursor the cursor of the next slice, or null if this is the last slice.
+     */
+    public BookSlice(List<Book> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the books of the slice.
+     * @return the books.
+     */
+    public List<Book> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the cursor to pass as 'after' to read the next slice.
+     * @return the next cursor, or null if this is the last slice.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks if this is the last slice.
+     * @return true if no more books follow.
+     */
+    public boolean isLast() {
+        return nextCursor == null;
+    }
+
+    /**
+     * Gets the number of books in the slice.
+     * @return the number of books.
+     */
+    public int getNumberOfElements() {
+        return content.size();
+    }
+
+    /**
+     * Gets the slice in its JSON shape with only the selected fields of each book.
+     *
+     * @param fields the selected fields, see {@link BookFields#parse(String)}.
+     * @return the content, next cursor, last flag and number of elements by name.
+     */
+    public Map<String, Object> select(List<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        selected.put("content", BookFields.select(content, fields));
+        selected.put("nextCursor", nextCursor);
+        selected.put("last", isLast());
+        selected.put("numberOfElements", getNumberOfElements());
+        return selected;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.model;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Domain event published on the application event bus after books were written.
+ * It carries the IDs of the written books, the books as stored by the write and the change
+ * to the inventory totals, so listeners such as the live dashboard feed and the search
+ * indexes can follow the inventory without reading it.
+ *
+ * <p>A resync event carries no delta: the totals were recounted and must be read again.</p>
+ */
+public class BooksChangedEvent {
+    private final List<String> bookIds; //IDs of the written books.
+    private final List<Book> books; //The written books as stored, without the deleted ones.
+    private final InventorySummary delta; //Change to the inventory totals, null for a resync.
+
+    private BooksChangedEvent(List<String> bookIds, List<Book> books, InventorySummary delta) {
+        this.bookIds = bookIds;
+        this.books = books;
+        this.delta = delta;
+    }
+
+    /**
+     * Creates the event of a write to a single book.
+     *
+     * @param book the book as stored by the write.
+     * @param delta the change to the inventory totals.
+     * @return the event.
+     */
+    public static BooksChangedEvent of(Book book, InventorySummary delta) {
+        return new BooksChangedEvent(List.of(book.getId()), List.of(book), delta);
+    }
+
+    /**
+     * Creates the event of a write to several books.
+     *
+     * @param books the books as stored by the write.
+     * @param delta the combined change to the inventory totals.
+     * @return the event.
+     */
+    public static BooksChangedEvent of(Collection<Book> books, InventorySummary delta) {
+        return new BooksChangedEvent(books.stream().map(Book::getId).toList(), List.copyOf(books), delta);
+    }
+
+    /**
+     * Creates the event of the deletion of a book.
+     *
+     * @param bookId the ID of the deleted book.
+     * @param delta the change to the inventory totals.
+     * @return the event.
+     */
+    public static BooksChangedEvent deleted(String bookId, InventorySummary delta) {
+        return new BooksChangedEvent(List.of(bookId), List.of(), delta);
+    }
+
+    /**
+     * Creates the event of a recount of the inventory totals.
+     *
+     * @return the event.
+     */
+    public static BooksChangedEvent resync() {
+        return new BooksChangedEvent(List.of(), List.of(), null);
+    }
+
+    /**
+     * Gets the IDs of the written books.
+     * @return the book IDs, including the deleted ones, empty for a resync.
+     */
+    public List<String> getBookIds() {
+        return bookIds;
+    }
+
+    /**
+     * Gets the written books as stored, for the listeners indexing them.
+     * A written book that is missing here was deleted. The books are shared by every listener
+     * and must not be changed.
+     * @return the books, empty for a resync.
+     */
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    /**
+     * Gets the change to the inventory totals.
+     * @return the delta, or null for a resync.
+     */
+    public InventorySummary getDelta() {
+        return delta;
+    }
+
+    /**
+     * Checks if the inventory totals were recounted and must be read again.
+     * @return true for a resync.
+     */
+    public boolean isResync() {
+        return delta == null;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Represents everything the dashboard shows, read in a single database round trip.
+ * This class is not stored in its own collection; it is the result shape of the
+ * dashboard aggregation, which combines the inventory summary document with the
+ * number of books sold in the current month.
+ *
+ * <p>The per-card endpoints are thin views over this snapshot, see
+ * {@link #toInventoryStatus()} and {@link #toFinancialOverview()}.</p>
+ */
+public class DashboardSnapshot {
+    private InventorySummary totals; //The inventory counts and financial totals.
+    private long soldThisMonth; //Number of books sold in the current month.
+
+    /**
+     * Gets the inventory totals behind the snapshot.
+     * @return the inventory totals, never null.
+     */
+    @JsonIgnore
+    public InventorySummary getTotals() {
+        return totals != null ? totals : InventorySummary.of(null);
+    }
+
+    /**
+     * Sets the inventory totals behind the snapshot.
+     * @param totals the inventory totals.
+     */
+    public void setTotals(InventorySummary totals) {
+        this.totals = totals;
+    }
+
+    /**
+     * Gets the number of books in active inventory, meaning not sold yet.
+     * @return the active inventory count.
+     */
+    public long getActiveCount() {
+        return getTotals().getUnsoldCount();
+    }
+
+    /**
+     * Gets the number of sold books.
+     * @return the sold count.
+     */
+    public long getSoldCount() {
+        return getTotals().getSoldCount();
+    }
+
+    /**
+     * Gets the number of unsold books.
+     * @return the unsold count.
+     */
+    public long getUnsoldCount() {
+        return getTotals().getUnsoldCount();
+    }
+
+    /**
+     * Gets the financial totals of the inventory.
+     * @return the financial summary.
+     */
+    public FinancialSummary getFinancials() {
+        return getTotals().toFinancialSummary();
+    }
+
+    /**
+     * Gets the number of books sold in the current month.
+     * @return the number of books sold this month.
+     */
+    public long getSoldThisMonth() {
+        return soldThisMonth;
+    }
+
+    /**
+     * Sets the number of books sold in the current month.
+     * @param soldThisMonth the number of books sold this month.
+     */
+    public void setSoldThisMonth(long soldThisMonth) {
+        this.soldThisMonth = soldThisMonth;
+    }
+
+    /**
+     * Converts the snapshot to the response of the inventory status endpoint.
+     *
+     * @return a map with the 'sold' and 'unsold' counts.
+     */
+    public Map<String, Long> toInventoryStatus() {
+        Map<String, Long> status = new HashMap<>();
+        status.put("sold", getSoldCount());
+        status.put("unsold", getUnsoldCount());
+        return status;
+    }
+
+    /**
+     * Converts the snapshot to the response of the financial overview endpoint.
+     *
+     * @return a map with the financial totals, keeping the 'cogs' and 'profit' keys the dashboard reads.
+     */
+    public Map<String, Double> toFinancialOverview() {
+        FinancialSummary summary = getFinancials();
+        Map<String, Double> financials = new HashMap<>();
+        financials.put("cogs", summary.getTotalCogs());
+        financials.put("profit", summary.getTotalProfit());
+        financials.put("payout", summary.getTotalPayout());
+        financials.put("soldCogs", summary.getSoldCogs());
+        financials.put("unsoldCogs", summary.getUnsoldCogs());
+        financials.put("averageMargin", summary.getAverageMargin());
+        return financials;
+    }
+}
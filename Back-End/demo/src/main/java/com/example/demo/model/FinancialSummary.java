@@ -0,0 +1,122 @@
+package com.example.demo.model;
+
+/**
+ * Represents the financial totals of the whole book inventory.
+ * This class is not stored in its own collection; it is the result shape of the
+ * '$group' aggregation over the 'Book' collection, so the totals are computed
+ * inside MongoDB instead of loading every book into memory.
+ */
+public class FinancialSummary {
+    private double totalCogs; //Sum of the cost of goods sold of every book.
+    private double totalProfit; //Sum of the profit of every book.
+    private double totalPayout; //Sum of the payout of every book.
+    private double soldCogs; //Sum of the cost of goods sold of the sold books.
+    private double unsoldCogs; //Sum of the cost of goods sold of the books still in inventory.
+    private double averageMargin; //Average of profit / payout over the sold books with a payout.
+
+    /**
+     * Creates a summary with every total set to zero.
+     * This is what an empty collection aggregates to.
+     *
+     * @return an empty financial summary.
+     */
+    public static FinancialSummary empty() {
+        return new FinancialSummary();
+    }
+
+    /**
+     * Gets the total cost of goods sold.
+     * @return the total COGS.
+     */
+    public double getTotalCogs() {
+        return totalCogs;
+    }
+
+    /**
+     * Sets the total cost of goods sold.
+     * @param totalCogs the total COGS.
+     */
+    public void setTotalCogs(double totalCogs) {
+        this.totalCogs = totalCogs;
+    }
+
+    /**
+     * Gets the total profit.
+     * @return the total profit.
+     */
+    public double getTotalProfit() {
+        return totalProfit;
+    }
+
+    /**
+     * Sets the total profit.
+     * @param totalProfit the total profit.
+     */
+    public void setTotalProfit(double totalProfit) {
+        this.totalProfit = totalProfit;
+    }
+
+    /**
+     * Gets the total payout.
+     * @return the total payout.
+     */
+    public double getTotalPayout() {
+        return totalPayout;
+    }
+
+    /**
+     * Sets the total payout.
+     * @param totalPayout the total payout.
+     */
+    public void setTotalPayout(double totalPayout) {
+        this.totalPayout = totalPayout;
+    }
+
+    /**
+     * Gets the cost of goods sold of the sold books.
+     * @return the sold COGS.
+     */
+    public double getSoldCogs() {
+        return soldCogs;
+    }
+
+    /**
+     * Sets the cost of goods sold of the sold books.
+     * @param soldCogs the sold COGS.
+     */
+    public void setSoldCogs(double soldCogs) {
+        this.soldCogs = soldCogs;
+    }
+
+    /**
+     * Gets the cost of goods sold of the unsold books.
+     * @return the unsold COGS.
+     */
+    public double getUnsoldCogs() {
+        return unsoldCogs;
+    }
+
+    /**
+     * Sets the cost of goods sold of the unsold books.
+     * @param unsoldCogs the unsold COGS.
+     */
+    public void setUnsoldCogs(double unsoldCogs) {
+        this.unsoldCogs = unsoldCogs;
+    }
+
+    /**
+     * Gets the average margin (profit / payout) of the sold books.
+     * @return the average margin, or 0 if no sold book has a payout.
+     */
+    public double getAverageMargin() {
+        return averageMargin;
+    }
+
+    /**
+     * Sets the average margin of the sold books.
+     * @param averageMargin the average margin.
+     */
+    public void setAverageMargin(double averageMargin) {
+        this.averageMargin = averageMargin;
+    }
+}
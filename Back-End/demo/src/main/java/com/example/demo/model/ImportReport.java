@@ -0,0 +1,149 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of a bulk book import.
+ * Rows are numbered from 1, not counting a CSV header. Only the first {@link #MAX_ERRORS}
+ * row errors are kept, so the report stays small whatever the size of the file.
+ */
+public class ImportReport {
+    /**
+     * Maximum number of row errors kept in the report.
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    private long rowsRead; //Number of rows read from the file.
+    private long imported; //Number of books written.
+    private long failed; //Number of rows rejected or not written.
+    private long elapsedMillis; //Duration of the import.
+    private final List<RowError> errors = new ArrayList<>(); //The first row errors.
+
+    /**
+     * Counts a row read from the file.
+     */
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    /**
+     * Counts books written.
+     * @param count the number of books written.
+     */
+    public void imported(long count) {
+        imported += count;
+    }
+
+    /**
+     * Records a rejected row.
+     *
+     * @param row the row number.
+     * @param message why the row was rejected.
+     */
+    public void rowFailed(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    /**
+     * Gets the number of rows read from the file.
+     * @return the number of rows.
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * Gets the number of books written.
+     * @return the number of imported books.
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Gets the number of rows rejected or not written.
+     * @return the number of failed rows.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Gets the duration of the import.
+     * @return the duration in milliseconds.
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Sets the duration of the import.
+     * @param elapsedMillis the duration in milliseconds.
+     */
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets the import throughput.
+     * @return the number of rows read per second.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Gets the first row errors.
+     * @return the row errors, at most {@link #MAX_ERRORS}.
+     */
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Tells whether row errors were left out of the report.
+     * @return true if more rows failed than errors are listed.
+     */
+    public boolean isErrorsTruncated() {
+        return failed > errors.size();
+    }
+
+    /**
+     * Represents why one row was not imported.
+     */
+    public static class RowError {
+        private final long row; //The row number.
+        private final String message; //Why the row was not imported.
+
+        /**
+         * Creates a row error.
+         *
+         * @param row the row number.
+         * @param message the reason.
+         */
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        /**
+         * Gets the row number.
+         * @return the row number.
+         */
+        public long getRow() {
+            return row;
+        }
+
+        /**
+         * Gets why the row was not imported.
+         * @return the reason.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
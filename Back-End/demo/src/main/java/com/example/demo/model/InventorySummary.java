@@ -0,0 +1,281 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the running totals of the book inventory.
+ * This class is mapped to a MongoDB collection 'InventorySummary' that holds a single
+ * document, kept up to date with '$inc' deltas on every book write so the dashboard
+ * can read the counts and financial totals without scanning the 'Book' collection.
+ *
+ * <p>The same class is used for the deltas themselves: {@link #of(Book)} gives the
+ * contribution of one book and {@link #delta(Book, Book)} the change caused by a write.</p>
+ */
+@Document(collection = "InventorySummary")
+public class InventorySummary {
+    /**
+     * The ID of the single summary document of the 'Book' collection.
+     */
+    public static final String BOOKS_ID = "books";
+
+    @Id
+    private String id; //Unique identifier of the summary document.
+    private long soldCount; //Number of books that have been sold.
+    private long unsoldCount; //Number of books still in inventory.
+    private double totalCogs; //Sum of the cost of goods sold of every book.
+    private double soldCogs; //Sum of the cost of goods sold of the sold books.
+    private double totalPayout; //Sum of the payout of every book.
+    private double totalProfit; //Sum of the profit of every book.
+    private double marginSum; //Sum of profit / payout over the sold books with a payout.
+    private long marginCount; //Number of sold books with a payout, used to average the margin.
+
+    /**
+     * Gets the contribution of a single book to the totals.
+     *
+     * @param book the book, or null for no book.
+     * @return the contribution of the book, all zero if the book is null.
+     */
+    public static InventorySummary of(Book book) {
+        InventorySummary summary = new InventorySummary();
+        if (book == null) {
+            return summary;
+        }
+        boolean sold = book.getSold() != null;
+        double cogs = valueOf(book.getCOGS());
+        summary.soldCount = sold ? 1 : 0;
+        summary.unsoldCount = sold ? 0 : 1;
+        summary.totalCogs = cogs;
+        summary.soldCogs = sold ? cogs : 0;
+        summary.totalPayout = valueOf(book.getPayout());
+        summary.totalProfit = valueOf(book.getProfit());
+        if (sold && book.getPayout() != null && book.getPayout() > 0 && book.getProfit() != null) {
+            summary.marginSum = book.getProfit() / book.getPayout();
+            summary.marginCount = 1;
+        }
+        return summary;
+    }
+
+    /**
+     * Gets the change to the totals caused by replacing one state of a book with another.
+     * A create has no before state and a delete has no after state.
+     *
+     * @param before the book before the write, or null if it was created.
+     * @param after the book after the write, or null if it was deleted.
+     * @return the delta to add to the totals.
+     */
+    public static InventorySummary delta(Book before, Book after) {
+        return of(after).minus(of(before));
+    }
+
+    /**
+     * Adds another summary to this one.
+     *
+     * @param other the summary to add.
+     * @return a new summary holding the sum.
+     */
+    public InventorySummary plus(InventorySummary other) {
+        return combine(other, 1);
+    }
+
+    /**
+     * Subtracts another summary from this one.
+     *
+     * @param other the summary to subtract.
+     * @return a new summary holding the difference.
+     */
+    public InventorySummary minus(InventorySummary other) {
+        return combine(other, -1);
+    }
+
+    /**
+     * Checks if every total is zero, meaning a delta that does not need to be written.
+     *
+     * @return true if every total is zero.
+     */
+    @JsonIgnore
+    public boolean isZero() {
+        return soldCount == 0 && unsoldCount == 0 && marginCount == 0
+                && totalCogs == 0 && soldCogs == 0 && totalPayout == 0
+                && totalProfit == 0 && marginSum == 0;
+    }
+
+    /**
+     * Converts the totals to the financial view of the inventory.
+     *
+     * @return the financial summary.
+     */
+    public FinancialSummary toFinancialSummary() {
+        FinancialSummary financials = new FinancialSummary();
+        financials.setTotalCogs(totalCogs);
+        financials.setTotalProfit(totalProfit);
+        financials.setTotalPayout(totalPayout);
+        financials.setSoldCogs(soldCogs);
+        financials.setUnsoldCogs(totalCogs - soldCogs);
+        financials.setAverageMargin(marginCount > 0 ? marginSum / marginCount : 0);
+        return financials;
+    }
+
+    private InventorySummary combine(InventorySummary other, int sign) {
+        InventorySummary result = new InventorySummary();
+        result.id = id;
+        result.soldCount = soldCount + sign * other.soldCount;
+        result.unsoldCount = unsoldCount + sign * other.unsoldCount;
+        result.totalCogs = totalCogs + sign * other.totalCogs;
+        result.soldCogs = soldCogs + sign * other.soldCogs;
+        result.totalPayout = totalPayout + sign * other.totalPayout;
+        result.totalProfit = totalProfit + sign * other.totalProfit;
+        result.marginSum = marginSum + sign * other.marginSum;
+        result.marginCount = marginCount + sign * other.marginCount;
+        return result;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Gets the unique identifier of the summary.
+     * @return the summary ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the summary.
+     * @param id the ID to set.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the number of sold books.
+     * @return the sold count.
+     */
+    public long getSoldCount() {
+        return soldCount;
+    }
+
+    /**
+     * Sets the number of sold books.
+     * @param soldCount the sold count.
+     */
+    public void setSoldCount(long soldCount) {
+        this.soldCount = soldCount;
+    }
+
+    /**
+     * Gets the number of unsold books.
+     * @return the unsold count.
+     */
+    public long getUnsoldCount() {
+        return unsoldCount;
+    }
+
+    /**
+     * Sets the number of unsold books.
+     * @param unsoldCount the unsold count.
+     */
+    public void setUnsoldCount(long unsoldCount) {
+        this.unsoldCount = unsoldCount;
+    }
+
+    /**
+     * Gets the total cost of goods sold.
+     * @return the total COGS.
+     */
+    public double getTotalCogs() {
+        return totalCogs;
+    }
+
+    /**
+     * Sets the total cost of goods sold.
+     * @param totalCogs the total COGS.
+     */
+    public void setTotalCogs(double totalCogs) {
+        this.totalCogs = totalCogs;
+    }
+
+    /**
+     * Gets the cost of goods sold of the sold books.
+     * @return the sold COGS.
+     */
+    public double getSoldCogs() {
+        return soldCogs;
+    }
+
+    /**
+     * Sets the cost of goods sold of the sold books.
+     * @param soldCogs the sold COGS.
+     */
+    public void setSoldCogs(double soldCogs) {
+        this.soldCogs = soldCogs;
+    }
+
+    /**
+     * Gets the total payout.
+     * @return the total payout.
+     */
+    public double getTotalPayout() {
+        return totalPayout;
+    }
+
+    /**
+     * Sets the total payout.
+     * @param totalPayout the total payout.
+     */
+    public void setTotalPayout(double totalPayout) {
+        this.totalPayout = totalPayout;
+    }
+
+    /**
+     * Gets the total profit.
+     * @return the total profit.
+     */
+    public double getTotalProfit() {
+        return totalProfit;
+    }
+
+    /**
+     * Sets the total profit.
+     * @param totalProfit the total profit.
+     */
+    public void setTotalProfit(double totalProfit) {
+        this.totalProfit = totalProfit;
+    }
+
+    /**
+     * Gets the sum of the margins of the sold books.
+     * @return the margin sum.
+     */
+    public double getMarginSum() {
+        return marginSum;
+    }
+
+    /**
+     * Sets the sum of the margins of the sold books.
+     * @param marginSum the margin sum.
+     */
+    public void setMarginSum(double marginSum) {
+        this.marginSum = marginSum;
+    }
+
+    /**
+     * Gets the number of sold books with a margin.
+     * @return the margin count.
+     */
+    public long getMarginCount() {
+        return marginCount;
+    }
+
+    /**
+     * Sets the number of sold books with a margin.
+     * @param marginCount the margin count.
+     */
+    public void setMarginCount(long marginCount) {
+        this.marginCount = marginCount;
+    }
+}
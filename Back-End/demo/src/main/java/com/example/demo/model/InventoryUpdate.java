@@ -0,0 +1,152 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Represents one message of the live inventory feed, with the counts and financial totals
+ * the dashboard cards show.
+ * A snapshot holds the current totals; a delta holds the change to add to the last totals
+ * the client received. The message is not stored; it is the data of a server-sent event.
+ *
+ * <p>Updates can be merged with {@link #plus(InventoryUpdate)}, which is how the feed
+ * coalesces messages for clients that read slower than the inventory changes.</p>
+ */
+public class InventoryUpdate {
+    /**
+     * The kind of update, also used as the name of the server-sent event.
+     */
+    public enum Type {
+        SNAPSHOT, //The current totals.
+        DELTA //The change to the last totals.
+    }
+
+    private final Type type; //Snapshot or delta.
+    private final long sequence; //Number of the last change included, for the event ID.
+    private final long sold; //Number of sold books.
+    private final long unsold; //Number of unsold books, the active inventory.
+    private final double cogs; //Sum of the cost of goods sold of every book.
+    private final double soldCogs; //Sum of the cost of goods sold of the sold books.
+    private final double payout; //Sum of the payout of every book.
+    private final double profit; //Sum of the profit of every book.
+
+    private InventoryUpdate(Type type, long sequence, long sold, long unsold,
+                            double cogs, double soldCogs, double payout, double profit) {
+        this.type = type;
+        this.sequence = sequence;
+        this.sold = sold;
+        this.unsold = unsold;
+        this.cogs = cogs;
+        this.soldCogs = soldCogs;
+        this.payout = payout;
+        this.profit = profit;
+    }
+
+    /**
+     * Creates a snapshot of the inventory totals.
+     *
+     * @param summary the inventory summary.
+     * @param sequence the number of the last change included.
+     * @return the snapshot.
+     */
+    public static InventoryUpdate snapshot(InventorySummary summary, long sequence) {
+        return of(Type.SNAPSHOT, summary, sequence);
+    }
+
+    /**
+     * Creates a delta of the inventory totals.
+     *
+     * @param delta the change to the inventory summary.
+     * @param sequence the number of the change.
+     * @return the delta.
+     */
+    public static InventoryUpdate delta(InventorySummary delta, long sequence) {
+        return of(Type.DELTA, delta, sequence);
+    }
+
+    private static InventoryUpdate of(Type type, InventorySummary summary, long sequence) {
+        return new InventoryUpdate(type, sequence, summary.getSoldCount(), summary.getUnsoldCount(),
+                summary.getTotalCogs(), summary.getSoldCogs(), summary.getTotalPayout(), summary.getTotalProfit());
+    }
+
+    /**
+     * Merges a later update into this one.
+     * A later snapshot replaces this update; a later delta is added to it, so a snapshot
+     * followed by deltas is still a snapshot and several deltas are one delta.
+     *
+     * @param later the update that followed this one.
+     * @return the merged update.
+     */
+    public InventoryUpdate plus(InventoryUpdate later) {
+        if (later.type == Type.SNAPSHOT) {
+            return later;
+        }
+        return new InventoryUpdate(type, later.sequence, sold + later.sold, unsold + later.unsold,
+                cogs + later.cogs, soldCogs + later.soldCogs, payout + later.payout, profit + later.profit);
+    }
+
+    /**
+     * Gets the kind of update.
+     * @return snapshot or delta.
+     */
+    @JsonIgnore
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of the last change included in the update.
+     * @return the sequence number.
+     */
+    @JsonIgnore
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the number of sold books, or its change.
+     * @return the sold count.
+     */
+    public long getSold() {
+        return sold;
+    }
+
+    /**
+     * Gets the number of unsold books, or its change.
+     * @return the unsold count.
+     */
+    public long getUnsold() {
+        return unsold;
+    }
+
+    /**
+     * Gets the sum of the cost of goods sold of every book, or its change.
+     * @return the total COGS.
+     */
+    public double getCogs() {
+        return cogs;
+    }
+
+    /**
+     * Gets the sum of the cost of goods sold of the sold books, or its change.
+     * @return the sold COGS.
+     */
+    public double getSoldCogs() {
+        return soldCogs;
+    }
+
+    /**
+     * Gets the sum of the payout of every book, or its change.
+     * @return the total payout.
+     */
+    public double getPayout() {
+        return payout;
+    }
+
+    /**
+     * Gets the sum of the profit of every book, or its change.
+     * @return the total profit.
+     */
+    public double getProfit() {
+        return profit;
+    }
+}
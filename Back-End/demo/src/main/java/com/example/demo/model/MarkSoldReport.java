@@ -0,0 +1,134 @@
+package com.example.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the outcome of marking books sold in bulk, with one result per requested book
+ * in the order of the request.
+ */
+public class MarkSoldReport {
+    /**
+     * The outcome for one book.
+     */
+    public enum Status {
+        SOLD, //The book was marked sold.
+        NOT_FOUND, //No book has the ID.
+        CONFLICT, //The book changed while the request was applied; it was left untouched.
+        INVALID //The request item is incomplete or repeats an ID.
+    }
+
+    private final List<Result> results = new ArrayList<>(); //The results in request order.
+    private long sold; //Number of books marked sold.
+    private long failed; //Number of books not marked sold.
+
+    /**
+     * Adds the result of a book.
+     *
+     * @param result the result.
+     */
+    public void add(Result result) {
+        results.add(result);
+        if (result.getStatus() == Status.SOLD) {
+            sold++;
+        } else {
+            failed++;
+        }
+    }
+
+    /**
+     * Gets the results in request order.
+     * @return the results.
+     */
+    public List<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * Gets the number of books marked sold.
+     * @return the sold count.
+     */
+    public long getSold() {
+        return sold;
+    }
+
+    /**
+     * Gets the number of books not marked sold.
+     * @return the failed count.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Represents the outcome for one requested book.
+     */
+    public static class Result {
+        private final String id; //The requested ID.
+        private final Status status; //The outcome.
+        private final Double profit; //The computed profit, only for sold books.
+        private final String message; //Why the book was not marked sold.
+
+        private Result(String id, Status status, Double profit, String message) {
+            this.id = id;
+            this.status = status;
+            this.profit = profit;
+            this.message = message;
+        }
+
+        /**
+         * Creates the result of a book marked sold.
+         *
+         * @param id the book ID.
+         * @param profit the computed profit.
+         * @return the result.
+         */
+        public static Result sold(String id, double profit) {
+            return new Result(id, Status.SOLD, profit, null);
+        }
+
+        /**
+         * Creates the result of a book that was not marked sold.
+         *
+         * @param id the requested ID.
+         * @param status why the book was not marked sold.
+         * @param message the details.
+         * @return the result.
+         */
+        public static Result failed(String id, Status status, String message) {
+            return new Result(id, status, null, message);
+        }
+
+        /**
+         * Gets the requested ID.
+         * @return the ID.
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Gets the outcome.
+         * @return the status.
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Gets the computed profit.
+         * @return the profit, null if the book was not marked sold.
+         */
+        public Double getProfit() {
+            return profit;
+        }
+
+        /**
+         * Gets why the book was not marked sold.
+         * @return the message, null if the book was marked sold.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+}
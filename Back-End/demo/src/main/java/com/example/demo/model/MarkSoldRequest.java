@@ -0,0 +1,115 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Represents a request to mark many books sold at once, typically when a consignment payout arrives.
+ * Each book gets its own payout; the sold date applies to every book that does not set its own.
+ */
+public class MarkSoldRequest {
+    /**
+     * The default sold date of the books.
+     * Formatted as yyyy-MM-dd in UTC timezone.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd", timezone = "UTC")
+    private Date sold;
+    private List<Item> books = new ArrayList<>(); //The books to mark sold.
+
+    /**
+     * Gets the default sold date.
+     * @return the sold date, or null if every book sets its own.
+     */
+    public Date getSold() {
+        return sold;
+    }
+
+    /**
+     * Sets the default sold date.
+     * @param sold the sold date.
+     */
+    public void setSold(Date sold) {
+        this.sold = sold;
+    }
+
+    /**
+     * Gets the books to mark sold.
+     * @return the books.
+     */
+    public List<Item> getBooks() {
+        return books;
+    }
+
+    /**
+     * Sets the books to mark sold.
+     * @param books the books.
+     */
+    public void setBooks(List<Item> books) {
+        this.books = books;
+    }
+
+    /**
+     * Represents one book to mark sold.
+     */
+    public static class Item {
+        private String id; //The ID of the book.
+        private Double payout; //The amount paid out for the book.
+        /**
+         * The sold date of this book, overriding the default one.
+         * Formatted as yyyy-MM-dd in UTC timezone.
+         */
+        @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd", timezone = "UTC")
+        private Date sold;
+
+        /**
+         * Gets the ID of the book.
+         * @return the book ID.
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Sets the ID of the book.
+         * @param id the book ID.
+         */
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        /**
+         * Gets the payout of the book.
+         * @return the payout.
+         */
+        public Double getPayout() {
+            return payout;
+        }
+
+        /**
+         * Sets the payout of the book.
+         * @param payout the payout.
+         */
+        public void setPayout(Double payout) {
+            this.payout = payout;
+        }
+
+        /**
+         * Gets the sold date of this book.
+         * @return the sold date, or null to use the default one.
+         */
+        public Date getSold() {
+            return sold;
+        }
+
+        /**
+         * Sets the sold date of this book.
+         * @param sold the sold date.
+         */
+        public void setSold(Date sold) {
+            this.sold = sold;
+        }
+    }
+}
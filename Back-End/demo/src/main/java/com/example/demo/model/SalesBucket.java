@@ -0,0 +1,247 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Represents the sales of one day or one month.
+ * This class is mapped to a MongoDB collection 'SalesRollup' holding one document per
+ * period with sales, kept up to date with '$inc' deltas on every book write so a sales
+ * trend reads one small document per period instead of the sold books themselves.
+ * Books are counted in the period of their sold date, in UTC.
+ *
+ * <p>The same class is used for the deltas applied to the buckets, see {@link SalesRollupDelta}.</p>
+ */
+@Document(collection = "SalesRollup")
+@CompoundIndex(name = "granularity_start", def = "{ 'granularity': 1, 'start': 1 }")
+public class SalesBucket {
+    /**
+     * The length of the period of a bucket.
+     */
+    public enum Granularity {
+        DAY, MONTH;
+
+        /**
+         * Gets the granularity of a name, as given in a request parameter.
+         *
+         * @param name 'day' or 'month' in any case.
+         * @return the granularity.
+         * @throws IllegalArgumentException if the name is not a granularity.
+         */
+        public static Granularity fromName(String name) {
+            for (Granularity granularity : values()) {
+                if (granularity.name().equalsIgnoreCase(name)) {
+                    return granularity;
+                }
+            }
+            throw new IllegalArgumentException("Granularity must be day or month: " + name);
+        }
+
+        /**
+         * Gets the first day of the period a day falls in.
+         *
+         * @param day the day.
+         * @return the first day of its period.
+         */
+        public LocalDate truncate(LocalDate day) {
+            return this == DAY ? day : day.withDayOfMonth(1);
+        }
+
+        /**
+         * Gets the first day of the period after the one starting on a day.
+         *
+         * @param start the first day of a period.
+         * @return the first day of the next period.
+         */
+        public LocalDate next(LocalDate start) {
+            return this == DAY ? start.plusDays(1) : start.plusMonths(1);
+        }
+    }
+
+    @Id
+    private String id; //Unique identifier, e.g. 'MONTH:2024-03-01'.
+    private Granularity granularity; //The length of the period.
+    /**
+     * The first day of the period.
+     * Formatted as yyyy-MM-dd in UTC timezone.
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd", timezone = "UTC")
+    private Date start;
+    private long units; //Number of books sold in the period.
+    private double payout; //Sum of the payout of the books sold in the period.
+    private double cogs; //Sum of the cost of goods sold of the books sold in the period.
+    private double profit; //Sum of the profit of the books sold in the period.
+
+    /**
+     * Creates an empty bucket for the period starting on a day.
+     *
+     * @param granularity the length of the period.
+     * @param start the first day of the period.
+     * @return the bucket, with every total zero.
+     */
+    public static SalesBucket empty(Granularity granularity, LocalDate start) {
+        SalesBucket bucket = new SalesBucket();
+        bucket.id = idOf(granularity, start);
+        bucket.granularity = granularity;
+        bucket.start = Date.from(start.atStartOfDay(ZoneOffset.UTC).toInstant());
+        return bucket;
+    }
+
+    /**
+     * Gets the ID of the bucket of a period.
+     *
+     * @param granularity the length of the period.
+     * @param start the first day of the period.
+     * @return the bucket ID.
+     */
+    public static String idOf(Granularity granularity, LocalDate start) {
+        return granularity + ":" + start;
+    }
+
+    /**
+     * Adds the sale of a book to the bucket, or removes it with a negative sign.
+     *
+     * @param book the sold book.
+     * @param sign 1 to add the sale, -1 to remove it.
+     */
+    void add(Book book, int sign) {
+        units += sign;
+        payout += sign * valueOf(book.getPayout());
+        cogs += sign * valueOf(book.getCOGS());
+        profit += sign * valueOf(book.getProfit());
+    }
+
+    /**
+     * Checks if every total is zero, meaning a delta that does not need to be written.
+     *
+     * @return true if every total is zero.
+     */
+    @JsonIgnore
+    public boolean isZero() {
+        return units == 0 && payout == 0 && cogs == 0 && profit == 0;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0;
+    }
+
+    /**
+     * Gets the unique identifier of the bucket.
+     * @return the bucket ID.
+     */
+    @JsonIgnore
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the bucket.
+     * @param id the ID to set.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the length of the period.
+     * @return the granularity.
+     */
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    /**
+     * Sets the length of the period.
+     * @param granularity the granularity.
+     */
+    public void setGranularity(Granularity granularity) {
+        this.granularity = granularity;
+    }
+
+    /**
+     * Gets the first day of the period.
+     * @return the start of the period, at midnight UTC.
+     */
+    public Date getStart() {
+        return start;
+    }
+
+    /**
+     * Sets the first day of the period.
+     * @param start the start of the period, at midnight UTC.
+     */
+    public void setStart(Date start) {
+        this.start = start;
+    }
+
+    /**
+     * Gets the number of books sold in the period.
+     * @return the units sold.
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Sets the number of books sold in the period.
+     * @param units the units sold.
+     */
+    public void setUnits(long units) {
+        this.units = units;
+    }
+
+    /**
+     * Gets the payout of the books sold in the period.
+     * @return the payout.
+     */
+    public double getPayout() {
+        return payout;
+    }
+
+    /**
+     * Sets the payout of the books sold in the period.
+     * @param payout the payout.
+     */
+    public void setPayout(double payout) {
+        this.payout = payout;
+    }
+
+    /**
+     * Gets the cost of goods sold of the books sold in the period.
+     * @return the COGS.
+     */
+    public double getCogs() {
+        return cogs;
+    }
+
+    /**
+     * Sets the cost of goods sold of the books sold in the period.
+     * @param cogs the COGS.
+     */
+    public void setCogs(double cogs) {
+        this.cogs = cogs;
+    }
+
+    /**
+     * Gets the profit of the books sold in the period.
+     * @return the profit.
+     */
+    public double getProfit() {
+        return profit;
+    }
+
+    /**
+     * Sets the profit of the books sold in the period.
+     * @param profit the profit.
+     */
+    public void setProfit(double profit) {
+        this.profit = profit;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.model;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the changes that book writes make to the sales buckets.
+ * Each write moves a sale out of the day and month of the sold date before the write
+ * and into those of the sold date after it; a batch of writes is collected into one
+ * delta so it can be applied with a single bulk write.
+ */
+public class SalesRollupDelta {
+    private final Map<String, SalesBucket> buckets = new LinkedHashMap<>(); //The changed buckets by ID.
+
+    /**
+     * Gets the change to the buckets caused by a single book write.
+     *
+     * @param before the book before the write, or null if it was created.
+     * @param after the book after the write, or null if it was deleted.
+     * @return the delta.
+     */
+    public static SalesRollupDelta of(Book before, Book after) {
+        return new SalesRollupDelta().add(before, after);
+    }
+
+    /**
+     * Adds the change caused by a book write.
+     * A book that is not sold before or after the write contributes nothing on that side.
+     *
+     * @param before the book before the write, or null if it was created.
+     * @param after the book after the write, or null if it was deleted.
+     * @return this delta.
+     */
+    public SalesRollupDelta add(Book before, Book after) {
+        addSale(before, -1);
+        addSale(after, 1);
+        return this;
+    }
+
+    /**
+     * Gets the buckets that change, as deltas to add to the stored totals.
+     *
+     * @return the changed buckets; writes that cancel out are left out.
+     */
+    public Collection<SalesBucket> getBuckets() {
+        return buckets.values().stream().filter(bucket -> !bucket.isZero()).toList();
+    }
+
+    /**
+     * Checks if the delta changes no bucket.
+     *
+     * @return true if the delta is empty.
+     */
+    public boolean isEmpty() {
+        return getBuckets().isEmpty();
+    }
+
+    private void addSale(Book book, int sign) {
+        if (book == null || book.getSold() == null) {
+            return;
+        }
+        LocalDate day = LocalDate.ofInstant(book.getSold().toInstant(), ZoneOffset.UTC);
+        for (SalesBucket.Granularity granularity : SalesBucket.Granularity.values()) {
+            LocalDate start = granularity.truncate(day);
+            buckets.computeIfAbsent(SalesBucket.idOf(granularity, start), id -> SalesBucket.empty(granularity, start))
+                    .add(book, sign);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.demo.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -9,8 +11,16 @@ import java.util.Date;
  * Represents a Todo entity in the application.
  * This class models the todo data and is mapped to a MongoDB collection 'todos'.
  * It includes details such as title, description, due date, and completion status.
+ *
+ * <p>Both indexes end with 'dueDate' and '_id', the order todos are listed in: one serves the
+ * due date ranges and counts over all todos, the other the same queries restricted to open or
+ * completed todos.</p>
  */
 @Document(collection = "todos")
+@CompoundIndexes({
+        @CompoundIndex(name = "dueDate_id", def = "{ 'dueDate': 1, '_id': 1 }"),
+        @CompoundIndex(name = "completed_dueDate_id", def = "{ 'completed': 1, 'dueDate': 1, '_id': 1 }")
+})
 public class Todo {
     @Id
     private String id; //Unique identifier for the todo item.
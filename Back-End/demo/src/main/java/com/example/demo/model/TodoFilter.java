@@ -0,0 +1,117 @@
+package com.example.demo.model;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Represents which todos a list or a count covers: all, open or completed todos, optionally
+ * restricted to a range of due days, or only the open todos that are overdue.
+ * Both ends of the range are inclusive days in the time zone of the filter, UTC by default.
+ * Todos without a completed flag count as open.
+ */
+public class TodoFilter {
+    private final Boolean completed; //True for completed todos, false for open todos, null for both.
+    private final ZoneId zone; //The time zone of the days of the range.
+    private final LocalDate from; //The first due day of the range, null for no lower bound.
+    private final LocalDate to; //The last due day of the range, null for no upper bound.
+    private final Instant overdueAsOf; //The instant the selected todos are overdue at, null for no overdue restriction.
+
+    private TodoFilter(Boolean completed, ZoneId zone, LocalDate from, LocalDate to, Instant overdueAsOf) {
+        this.completed = completed;
+        this.zone = zone;
+        this.from = from;
+        this.to = to;
+        this.overdueAsOf = overdueAsOf;
+    }
+
+    /**
+     * Creates a filter selecting every todo.
+     * @return the filter.
+     */
+    public static TodoFilter all() {
+        return new TodoFilter(null, ZoneId.of("UTC"), null, null, null);
+    }
+
+    /**
+     * Creates a filter from the parameters of a request.
+     *
+     * @param completed true for completed todos, false for open todos, null for both.
+     * @param from the first due day of the range, or null.
+     * @param to the last due day of the range, or null.
+     * @param overdueAsOf selects only the open todos due before this instant; null for no such restriction.
+     * @param zone the time zone ID of the days, e.g. Europe/Paris; null for UTC.
+     * @return the filter.
+     * @throws IllegalArgumentException if the time zone is unknown, the range is reversed,
+     *         or overdue todos are asked among the completed ones.
+     */
+    public static TodoFilter of(Boolean completed, LocalDate from, LocalDate to, Instant overdueAsOf, String zone) {
+        ZoneId zoneId;
+        try {
+            zoneId = ZoneId.of(zone == null ? "UTC" : zone);
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + zone);
+        }
+        if (overdueAsOf != null && Boolean.TRUE.equals(completed)) {
+            throw new IllegalArgumentException("Completed todos are never overdue.");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("The range starts after it ends: " + from + " > " + to);
+        }
+        return new TodoFilter(overdueAsOf != null ? Boolean.FALSE : completed, zoneId, from, to, overdueAsOf);
+    }
+
+    /**
+     * Gets the completion status of the selected todos.
+     * @return true for completed todos, false for open todos, null for both.
+     */
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Gets the time zone of the days of the range.
+     * @return the time zone.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Gets the start of the due date range.
+     * @return the first instant of the first day, or null for no lower bound.
+     */
+    public Date getDueFromInclusive() {
+        return from == null ? null : Date.from(from.atStartOfDay(zone).toInstant());
+    }
+
+    /**
+     * Gets the end of the due date range, which is the overdue instant if that comes first.
+     * @return the first instant after the last day or the overdue instant, or null for no upper bound.
+     */
+    public Date getDueToExclusive() {
+        Instant end = to == null ? null : to.plusDays(1).atStartOfDay(zone).toInstant();
+        if (overdueAsOf != null && (end == null || overdueAsOf.isBefore(end))) {
+            end = overdueAsOf;
+        }
+        return end == null ? null : Date.from(end);
+    }
+
+    /**
+     * Gets the number of days in the range.
+     * @return the number of days, both ends included, or -1 if the range is open on a side.
+     */
+    public long getDayCount() {
+        return from == null || to == null ? -1 : to.toEpochDay() - from.toEpochDay() + 1;
+    }
+
+    /**
+     * Checks if the filter restricts the due date.
+     * @return true if the filter has a lower or upper bound, or selects overdue todos.
+     */
+    public boolean hasRange() {
+        return from != null || to != null || overdueAsOf != null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Represents the position after the last book of a keyset (cursor) page.
+ * A cursor holds the sort key, the sort value and the ID of the last book returned,
+ * so the next page can seek directly past it instead of skipping every previous book.
+ *
+ * <p>Cursors are handed to clients as opaque URL-safe strings, see {@link #encode()}
+ * and {@link #decode(String)}.</p>
+ */
+public final class BookCursor {
+    /**
+     * The sort keys a cursor can seek on, mapped to their MongoDB field names.
+     * Every sort is completed by '_id' so the order is total.
+     */
+    private static final Map<String, String> SORT_FIELDS = Map.of(
+            "id", "_id",
+            "title", "title",
+            "isbn", "isbn",
+            "datePurchased", "datePurchased",
+            "sold", "sold");
+
+    private static final char STRING = 's';
+    private static final char DATE = 'd';
+    private static final char NULL = 'n';
+
+    private final String sort; //The sort key of the page.
+    private final Object value; //The sort value of the last book, a String, a Date or null.
+    private final String id; //The ID of the last book.
+
+    private BookCursor(String sort, Object value, String id) {
+        this.sort = sort;
+        this.value = value;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor positioned after the given book.
+     *
+     * @param sort the sort key of the page.
+     * @param book the last book of the page.
+     * @return the cursor after the book.
+     */
+    public static BookCursor after(String sort, Book book) {
+        Object value = switch (checkSort(sort)) {
+            case "title" -> book.getTitle();
+            case "isbn" -> book.getISBN();
+            case "datePurchased" -> book.getDatePurchased();
+            case "sold" -> book.getSold();
+            default -> null;
+        };
+        return new BookCursor(sort, value, book.getId());
+    }
+
+    /**
+     * Checks that a sort key is supported.
+     *
+     * @param sort the sort key.
+     * @return the sort key.
+     * @throws IllegalArgumentException if the sort key is not supported.
+     */
+    public static String checkSort(String sort) {
+        if (!SORT_FIELDS.containsKey(sort)) {
+            throw new IllegalArgumentException("Unsupported sort key: " + sort);
+        }
+        return sort;
+    }
+
+    /**
+     * Gets the MongoDB field name of a sort key.
+     *
+     * @param sort the sort key.
+     * @return the field name.
+     */
+    public static String fieldOf(String sort) {
+        return SORT_FIELDS.get(checkSort(sort));
+    }
+
+    /**
+     * Encodes the cursor as an opaque, URL-safe string.
+     *
+     * @return the encoded cursor.
+     */
+    public String encode() {
+        String encodedValue;
+        if (value instanceof Date date) {
+            encodedValue = DATE + Long.toString(date.getTime());
+        } else if (value != null) {
+            encodedValue = STRING + value.toString();
+        } else {
+            encodedValue = String.valueOf(NULL);
+        }
+        // The value goes last since it is the only part that may contain the separator.
+        String raw = sort + "|" + id + "|" + encodedValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode()}.
+     *
+     * @param cursor the encoded cursor.
+     * @return the decoded cursor.
+     * @throws IllegalArgumentException if the cursor is malformed.
+     */
+    public static BookCursor decode(String cursor) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || parts[1].isEmpty() || parts[2].isEmpty() || !SORT_FIELDS.containsKey(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+        String encodedValue = parts[2];
+        Object value;
+        switch (encodedValue.charAt(0)) {
+            case STRING -> value = encodedValue.substring(1);
+            case NULL -> value = null;
+            case DATE -> {
+                try {
+                    value = new Date(Long.parseLong(encodedValue.substring(1)));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Malformed cursor.");
+                }
+            }
+            default -> throw new IllegalArgumentException("Malformed cursor.");
+        }
+        return new BookCursor(parts[0], value, parts[1]);
+    }
+
+    /**
+     * Gets the sort key of the cursor.
+     * @return the sort key.
+     */
+    public String getSort() {
+        return sort;
+    }
+
+    /**
+     * Gets the sort value of the last book.
+     * @return the sort value, a String, a Date or null.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * Gets the ID of the last book.
+     * @return the book ID.
+     */
+    public String getId() {
+        return id;
+    }
+}
@@ -4,8 +4,9 @@ package com.example.demo.repository;
 
 
 import com.example.demo.model.Book;
+import com.example.demo.model.InventorySummary;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
@@ -14,10 +15,11 @@ import java.util.List;
 /**
  * Repository interface for accessing the Book collection in MongoDB.
  * This interface extends MongoRepository, providing CRUD operations
- * and custom query methods for Book entities.
+ * and custom query methods for Book entities, and {@link BookRepositoryCustom}
+ * for operations implemented with MongoTemplate.
  */
 @Repository
-public interface BookRepository extends MongoRepository<Book, String> {
+public interface BookRepository extends MongoRepository<Book, String>, BookRepositoryCustom {
 
     /**
      * Finds books by their ISBN
@@ -36,13 +38,6 @@ public interface BookRepository extends MongoRepository<Book, String> {
      */
     List<Book> findBooksByDatePurchasedBetween(Date start, Date end);
 
-    /**
-     * Counts the number of books that are still in inventory (unsold).
-     *
-     * @return The count of unsold books.
-     */
-    long countBySoldIsNull();
-
     /**
      * Counts the number of books that have been sold
      *
@@ -51,14 +46,27 @@ public interface BookRepository extends MongoRepository<Book, String> {
     long countBySoldIsNotNull();
 
     /**
-     * Retrieves a summary of financial data for all books, focusing on 'cogs' and 'profit'.
-     * This custom aggregation query is used for financial analysis.
+     * Recounts the inventory totals of all books inside MongoDB.
+     * A single '$group' stage counts sold and unsold books, sums COGS, payout and profit
+     * and sums the margins of the sold books, so no Book document is transferred to the
+     * application. The result is used to rebuild the incrementally maintained summary.
      *
-     * @return A list of books with only 'cogs' and 'profit' fields  included.
+     * @return the recounted totals, or null if the collection is empty.
      */
-    @Query(value="{}", fields="{ 'cogs' : 1, 'profit' : 1 }")   // Aggregation queries to calculate the sum of 'cogs' and 'profit'
-    List<Book> findAllForFinancialSummary();
-
+    @Aggregation(pipeline = {
+            "{ '$addFields': { '_sold': { '$ne': [ { '$ifNull': [ '$sold', null ] }, null ] } } }",
+            "{ '$group': { '_id': null, "
+                    + "'soldCount': { '$sum': { '$cond': [ '$_sold', 1, 0 ] } }, "
+                    + "'unsoldCount': { '$sum': { '$cond': [ '$_sold', 0, 1 ] } }, "
+                    + "'totalCogs': { '$sum': '$cogs' }, "
+                    + "'soldCogs': { '$sum': { '$cond': [ '$_sold', '$cogs', 0 ] } }, "
+                    + "'totalPayout': { '$sum': '$payout' }, "
+                    + "'totalProfit': { '$sum': '$profit' }, "
+                    + "'marginSum': { '$sum': { '$cond': [ { '$and': [ '$_sold', { '$gt': [ '$payout', 0 ] }, { '$isNumber': '$profit' } ] }, { '$divide': [ '$profit', '$payout' ] }, 0 ] } }, "
+                    + "'marginCount': { '$sum': { '$cond': [ { '$and': [ '$_sold', { '$gt': [ '$payout', 0 ] }, { '$isNumber': '$profit' } ] }, 1, 0 ] } } } }",
+            "{ '$project': { '_id': 0 } }"
+    })
+    InventorySummary aggregateInventorySummary();
 
 }
 
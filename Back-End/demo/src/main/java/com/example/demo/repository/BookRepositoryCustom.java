@@ -0,0 +1,150 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookDetails;
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.BookPatch;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Custom repository interface for Book operations that cannot be expressed
+ * as derived queries. These methods are implemented in {@link BookRepositoryCustomImpl}
+ * with MongoTemplate and are available through {@link BookRepository}.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Deletes a book and returns the deleted document in one atomic operation.
+     *
+     * @param id the ID of the book to delete.
+     * @return the deleted book, or null if no book has the given ID.
+     */
+    Book findAndRemoveById(String id);
+
+    /**
+     * Retrieves the slice of books that comes after a cursor in keyset order.
+     * The query seeks on the sort key and '_id' instead of skipping previous books and
+     * does not count the collection, so its cost does not grow with the scroll depth.
+     *
+     * @param sort the sort key, see {@link BookCursor}.
+     * @param after the cursor after which the slice starts, or null for the first slice.
+     * @param limit the maximum number of books in the slice.
+     * @param fields the fields to read, or null for whole books; the ID and the sort key are always read.
+     * @return the slice of books, telling whether more books follow.
+     */
+    Slice<Book> findSliceAfter(String sort, BookCursor after, int limit, Collection<String> fields);
+
+    /**
+     * Retrieves a page of books with only the selected fields, like findAll(Pageable) does with whole books.
+     *
+     * @param pageable the page to retrieve.
+     * @param fields the fields to read; the ID is always read.
+     * @return the page of books, with the other fields null.
+     */
+    Page<Book> findPageWithFields(Pageable pageable, Collection<String> fields);
+
+    /**
+     * Retrieves the books with an ISBN with only the selected fields, like findByIsbn does with whole books.
+     *
+     * @param isbn the ISBN.
+     * @param fields the fields to read; the ID is always read.
+     * @return the matching books, with the other fields null.
+     */
+    List<Book> findByIsbnWithFields(String isbn, Collection<String> fields);
+
+    /**
+     * Retrieves books by ID with only the selected fields, like findAllById does with whole books.
+     *
+     * @param ids the IDs of the books.
+     * @param fields the fields to read; the ID is always read.
+     * @return the books found, in no particular order, with the other fields null.
+     */
+    List<Book> findAllByIdWithFields(Collection<String> ids, Collection<String> fields);
+
+    /**
+     * Retrieves the books purchased between two dates with only the selected fields,
+     * like findBooksByDatePurchasedBetween does with whole books.
+     *
+     * @param start the start of the period, exclusive.
+     * @param end the end of the period, exclusive.
+     * @param fields the fields to read; the ID is always read.
+     * @return the matching books, with the other fields null.
+     */
+    List<Book> findByDatePurchasedBetweenWithFields(Date start, Date end, Collection<String> fields);
+
+    /**
+     * Writes looked up metadata onto a book, only filling the fields that are still missing.
+     * Values already on the book, such as a title entered by hand, are never overwritten.
+     * The version of the book is incremented if it is written.
+     *
+     * @param id the ID of the book.
+     * @param details the looked up details.
+     * @return the book as written, or null if it is gone or already had every looked up field.
+     */
+    Book applyDetails(String id, BookDetails details);
+
+    /**
+     * Inserts books in one unordered bulk write. The server writes every book it can,
+     * so one failing book does not stop the others.
+     *
+     * @param books the books to insert, with their IDs already set.
+     * @return the positions in the list of the books that were not inserted, with the reason.
+     */
+    Map<Integer, String> insertUnordered(List<Book> books);
+
+    /**
+     * Applies a partial update in one findAndModify: '$set' for the changed fields,
+     * '$unset' for the removed ones and '$inc' of the version. If the patch has an expected
+     * version, the book only matches while it still has that version.
+     *
+     * @param id the ID of the book.
+     * @param patch the partial update.
+     * @return the book as it was before the patch, or null if no book has the ID and the expected version.
+     */
+    Book patchAndReturnPrevious(String id, BookPatch patch);
+
+    /**
+     * Sets the version of the books saved before versioning was introduced to 0,
+     * so they can be saved again; a book without a version would be saved as a new document.
+     *
+     * @return the number of books that got a version.
+     */
+    long initializeMissingVersions();
+
+    /**
+     * Writes the sale of many books in one unordered bulk write: the sold date, payout and
+     * profit of each book are set and its version incremented, if it still has the version it was read at.
+     *
+     * @param soldBooks the books with their ID, the version they were read at and their sale fields.
+     * @return the number of books written.
+     */
+    long markSoldUnordered(List<Book> soldBooks);
+
+    /**
+     * Tells which of some IDs are stored, reading only the IDs.
+     *
+     * @param ids the IDs of the books.
+     * @return the IDs that a book has.
+     */
+    Set<String> findExistingIds(Collection<String> ids);
+
+    /**
+     * Streams the books matching a filter from a server side cursor, in ID order.
+     * The cursor fetches one batch at a time as the stream is consumed, so the whole
+     * result is never held in memory. The stream must be closed to release the cursor.
+     *
+     * @param filter the books to stream.
+     * @param fields the fields to read; the ID is always read.
+     * @return the stream of books.
+     */
+    Stream<Book> streamBooks(BookFilter filter, Collection<String> fields);
+}
@@ -0,0 +1,303 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookDetails;
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.BookPatch;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.data.util.Pair;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * MongoTemplate based implementation of {@link BookRepositoryCustom}.
+ * Spring Data picks this class up by its name and merges it into {@link BookRepository}.
+ */
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    /**
+     * Template for running MongoDB operations on the 'Book' collection.
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Number of books fetched per cursor batch when streaming.
+     */
+    private static final int EXPORT_BATCH_SIZE = 500;
+
+    /**
+     * Autowired constructor for dependency injection of MongoTemplate.
+     *
+     * @param mongoTemplate the template for MongoDB operations.
+     */
+    @Autowired
+    public BookRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Book findAndRemoveById(String id) {
+        return mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Book.class);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Book> books) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        if (books.isEmpty()) {
+            return failures;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class).insert(books).execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failures.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public Book patchAndReturnPrevious(String id, BookPatch patch) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (patch.getExpectedVersion() != null) {
+            criteria = criteria.and("version").is(patch.getExpectedVersion());
+        }
+        Update update = new Update();
+        patch.getChanges().forEach((field, value) -> {
+            if (value == null) {
+                update.unset(field);
+            } else {
+                update.set(field, value);
+            }
+        });
+        update.inc("version", 1);
+        // The previous state is returned so the caller can compute the summary delta and the new state.
+        return mongoTemplate.findAndModify(Query.query(criteria), update,
+                FindAndModifyOptions.options().returnNew(false), Book.class);
+    }
+
+    @Override
+    public long markSoldUnordered(List<Book> soldBooks) {
+        if (soldBooks.isEmpty()) {
+            return 0;
+        }
+        List<Pair<Query, UpdateDefinition>> updates = new ArrayList<>(soldBooks.size());
+        for (Book book : soldBooks) {
+            Query query = Query.query(Criteria.where("_id").is(book.getId()).and("version").is(book.getVersion()));
+            Update update = new Update()
+                    .set("sold", book.getSold())
+                    .set("payout", book.getPayout())
+                    .set("profit", book.getProfit())
+                    .inc("version", 1);
+            updates.add(Pair.of(query, update));
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class)
+                .updateOne(updates)
+                .execute()
+                .getMatchedCount();
+    }
+
+    @Override
+    public Set<String> findExistingIds(Collection<String> ids) {
+        // A distinct on the ID is answered from the ID index, without decoding any book.
+        Set<String> existing = new HashSet<>();
+        for (Object id : mongoTemplate.findDistinct(Query.query(Criteria.where("_id").in(ids)), "_id", Book.class, Object.class)) {
+            existing.add(id.toString());
+        }
+        return existing;
+    }
+
+    @Override
+    public Stream<Book> streamBooks(BookFilter filter, Collection<String> fields) {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id")).cursorBatchSize(EXPORT_BATCH_SIZE);
+        Criteria range = null;
+        if (filter.hasRange()) {
+            range = Criteria.where(filter.getDateField());
+            if (filter.getFromInclusive() != null) {
+                range = range.gte(filter.getFromInclusive());
+            }
+            if (filter.getToExclusive() != null) {
+                range = range.lt(filter.getToExclusive());
+            }
+            query.addCriteria(range);
+        }
+        // A range on the sold date only matches sold books already, and a query can hold one criteria per field.
+        boolean soldInRange = range != null && filter.getDateField().equals("sold");
+        if (filter.getStatus() == BookFilter.Status.SOLD && !soldInRange) {
+            query.addCriteria(Criteria.where("sold").ne(null));
+        } else if (filter.getStatus() == BookFilter.Status.UNSOLD) {
+            query.addCriteria(Criteria.where("sold").is(null));
+        }
+        for (String field : fields) {
+            query.fields().include(field);
+        }
+        return mongoTemplate.stream(query, Book.class);
+    }
+
+    @Override
+    public long initializeMissingVersions() {
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L), Book.class).getModifiedCount();
+    }
+
+    @Override
+    public Slice<Book> findSliceAfter(String sort, BookCursor after, int limit, Collection<String> fields) {
+        String field = BookCursor.fieldOf(sort);
+        Sort order = "_id".equals(field)
+                ? Sort.by(Sort.Direction.ASC, "_id")
+                : Sort.by(Sort.Direction.ASC, field).and(Sort.by(Sort.Direction.ASC, "_id"));
+        Query query = new Query().with(order).limit(limit + 1);
+        if (after != null) {
+            query.addCriteria(seekAfter(field, after));
+        }
+        // The sort key is read even if it is not selected, the next cursor is built from it.
+        select(query, fields, field);
+        // One extra book tells whether another slice follows, without a count.
+        List<Book> books = mongoTemplate.find(query, Book.class);
+        boolean hasNext = books.size() > limit;
+        List<Book> content = hasNext ? books.subList(0, limit) : books;
+        return new SliceImpl<>(content, PageRequest.of(0, limit, order), hasNext);
+    }
+
+    @Override
+    public Page<Book> findPageWithFields(Pageable pageable, Collection<String> fields) {
+        Query query = select(new Query().with(pageable), fields);
+        List<Book> content = mongoTemplate.find(query, Book.class);
+        return PageableExecutionUtils.getPage(content, pageable, () -> mongoTemplate.count(new Query(), Book.class));
+    }
+
+    @Override
+    public List<Book> findByIsbnWithFields(String isbn, Collection<String> fields) {
+        return mongoTemplate.find(select(Query.query(Criteria.where("isbn").is(isbn)), fields), Book.class);
+    }
+
+    @Override
+    public List<Book> findAllByIdWithFields(Collection<String> ids, Collection<String> fields) {
+        return mongoTemplate.find(select(Query.query(Criteria.where("_id").in(ids)), fields), Book.class);
+    }
+
+    @Override
+    public List<Book> findByDatePurchasedBetweenWithFields(Date start, Date end, Collection<String> fields) {
+        // Between is exclusive on both ends, as in the derived query.
+        Query query = Query.query(Criteria.where("datePurchased").gt(start).lt(end));
+        return mongoTemplate.find(select(query, fields), Book.class);
+    }
+
+    @Override
+    public Book applyDetails(String id, BookDetails details) {
+        Document fields = new Document();
+        setIfMissing(fields, "title", details.getTitle());
+        setIfMissing(fields, "imageUrl", details.getImageUrl());
+        setIfMissing(fields, "authors", details.getAuthors());
+        setIfMissing(fields, "publisher", details.getPublisher());
+        setIfMissing(fields, "publishedDate", details.getPublishedDate());
+        setIfMissing(fields, "pageCount", details.getPageCount());
+        if (fields.isEmpty()) {
+            return null;
+        }
+        // Only a book missing one of the looked up fields is written, so a write always changes it
+        // and bumps its version: a save based on the book as it was before then fails on the version
+        // instead of silently dropping the details.
+        List<Criteria> missing = new ArrayList<>();
+        for (String field : fields.keySet()) {
+            missing.add(Criteria.where(field).is(null));
+        }
+        Query query = Query.query(Criteria.where("_id").is(id).orOperator(missing));
+        fields.append("version", new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L)));
+        // A pipeline update keeps the existing value of a field if there is one, in the same write,
+        // which also returns the book as written for the listeners of the change.
+        AggregationOperation set = context -> new Document("$set", fields);
+        return mongoTemplate.findAndModify(query, AggregationUpdate.from(List.of(set)),
+                FindAndModifyOptions.options().returnNew(true), Book.class);
+    }
+
+    /**
+     * Restricts a query to the selected fields, so the server only returns and the driver only
+     * decodes those. MongoDB always returns '_id'.
+     *
+     * @param query the query.
+     * @param fields the selected fields, or null to read whole books.
+     * @param required fields read even if they are not selected.
+     * @return the query.
+     */
+    private static Query select(Query query, Collection<String> fields, String... required) {
+        if (fields == null) {
+            return query;
+        }
+        Field projection = query.fields();
+        for (String field : fields) {
+            if (!field.equals("id")) {
+                projection.include(field);
+            }
+        }
+        for (String field : required) {
+            if (!field.equals("_id")) {
+                projection.include(field);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Adds a '$set' entry that keeps the current value of a field and falls back to the given value.
+     *
+     * @param fields the '$set' document.
+     * @param field the field name.
+     * @param value the value to use if the field is missing or null; nothing is added if it is null.
+     */
+    private static void setIfMissing(Document fields, String field, Object value) {
+        if (value != null) {
+            fields.append(field, new Document("$ifNull", List.of("$" + field, new Document("$literal", value))));
+        }
+    }
+
+    /**
+     * Builds the criteria matching the books after a cursor in ('field', '_id') order.
+     * MongoDB sorts null and missing values first in ascending order, so after a null
+     * value come the remaining nulls with a greater ID and then every non-null value.
+     *
+     * @param field the MongoDB field the books are sorted on.
+     * @param after the cursor.
+     * @return the seek criteria.
+     */
+    private static Criteria seekAfter(String field, BookCursor after) {
+        if ("_id".equals(field)) {
+            return Criteria.where("_id").gt(after.getId());
+        }
+        if (after.getValue() == null) {
+            return new Criteria().orOperator(
+                    Criteria.where(field).is(null).and("_id").gt(after.getId()),
+                    Criteria.where(field).ne(null));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(field).gt(after.getValue()),
+                Criteria.where(field).is(after.getValue()).and("_id").gt(after.getId()));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.InventorySummary;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+/**
+ * Repository interface for accessing the InventorySummary collection in MongoDB.
+ * Extends MongoRepository for reading and replacing the summary document, and
+ * {@link InventorySummaryRepositoryCustom} for applying atomic '$inc' deltas.
+ * It also serves the dashboard aggregation built around the summary document.
+ */
+@Repository
+public interface InventorySummaryRepository extends MongoRepository<InventorySummary, String>, InventorySummaryRepositoryCustom {
+
+    /**
+     * Reads the dashboard snapshot in a single round trip.
+     * The summary document is matched by its ID and joined with an uncorrelated
+     * '$lookup' that counts the books sold in the given period, so the whole dashboard
+     * costs one document read plus one range count on the 'sold' field.
+     *
+     * @param id the ID of the summary document.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the dashboard snapshot, or null if the summary document does not exist.
+     */
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$lookup': { 'from': 'Book', 'pipeline': [ "
+                    + "{ '$match': { 'sold': { '$gte': ?1, '$lt': ?2 } } }, "
+                    + "{ '$count': 'count' } ], 'as': 'soldInPeriod' } }",
+            "{ '$project': { '_id': 0, 'totals': '$$ROOT', "
+                    + "'soldThisMonth': { '$ifNull': [ { '$arrayElemAt': [ '$soldInPeriod.count', 0 ] }, 0 ] } } }"
+    })
+    DashboardSnapshot aggregateDashboard(String id, Date from, Date to);
+}
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.InventorySummary;
+
+/**
+ * Custom repository interface for atomic updates of the InventorySummary document.
+ * Implemented in {@link InventorySummaryRepositoryCustomImpl}.
+ */
+public interface InventorySummaryRepositoryCustom {
+
+    /**
+     * Adds a delta to every total of an existing summary document with a single '$inc'.
+     *
+     * @param id the ID of the summary document.
+     * @param delta the delta to add.
+     * @return true if the summary document exists and was updated, false if it does not exist.
+     */
+    boolean increment(String id, InventorySummary delta);
+}
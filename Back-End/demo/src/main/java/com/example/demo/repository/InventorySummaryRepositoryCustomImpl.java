@@ -0,0 +1,45 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.InventorySummary;
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * MongoTemplate based implementation of {@link InventorySummaryRepositoryCustom}.
+ */
+public class InventorySummaryRepositoryCustomImpl implements InventorySummaryRepositoryCustom {
+    /**
+     * Template for running MongoDB operations on the 'InventorySummary' collection.
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Autowired constructor for dependency injection of MongoTemplate.
+     *
+     * @param mongoTemplate the template for MongoDB operations.
+     */
+    @Autowired
+    public InventorySummaryRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean increment(String id, InventorySummary delta) {
+        Update update = new Update()
+                .inc("soldCount", delta.getSoldCount())
+                .inc("unsoldCount", delta.getUnsoldCount())
+                .inc("totalCogs", delta.getTotalCogs())
+                .inc("soldCogs", delta.getSoldCogs())
+                .inc("totalPayout", delta.getTotalPayout())
+                .inc("totalProfit", delta.getTotalProfit())
+                .inc("marginSum", delta.getMarginSum())
+                .inc("marginCount", delta.getMarginCount());
+        // No upsert: a missing document must be rebuilt from a full recount, not from a delta.
+        UpdateResult result = mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)), update, InventorySummary.class);
+        return result.getMatchedCount() > 0;
+    }
+}
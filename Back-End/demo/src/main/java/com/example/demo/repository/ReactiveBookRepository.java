@@ -0,0 +1,32 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Reactive repository for reading the 'Book' collection on the reactive stack.
+ * Only created with the 'reactive' profile; writes still go through {@link BookRepository}
+ * so the inventory summary and the rollups stay consistent.
+ */
+@Repository
+public interface ReactiveBookRepository extends ReactiveMongoRepository<Book, String> {
+
+    /**
+     * Finds a page of books.
+     *
+     * @param pageable the page to read.
+     * @return the books of the page.
+     */
+    Flux<Book> findAllBy(Pageable pageable);
+
+    /**
+     * Finds books by ISBN.
+     *
+     * @param isbn the ISBN to search.
+     * @return the books with the ISBN.
+     */
+    Flux<Book> findByIsbn(String isbn);
+}
@@ -0,0 +1,37 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.InventorySummary;
+import org.springframework.data.mongodb.repository.Aggregation;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+/**
+ * Reactive repository for reading the inventory summary on the reactive stack.
+ * Only created with the 'reactive' profile; see {@link InventorySummaryRepository}.
+ */
+@Repository
+public interface ReactiveInventorySummaryRepository extends ReactiveMongoRepository<InventorySummary, String> {
+
+    /**
+     * Reads the dashboard snapshot in one aggregation, like
+     * {@link InventorySummaryRepository#aggregateDashboard(String, Date, Date)}.
+     *
+     * @param id the ID of the summary document.
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the dashboard snapshot, empty if the summary document does not exist.
+     */
+    @Aggregation(pipeline = {
+            "{ '$match': { '_id': ?0 } }",
+            "{ '$lookup': { 'from': 'Book', 'pipeline': [ "
+                    + "{ '$match': { 'sold': { '$gte': ?1, '$lt': ?2 } } }, "
+                    + "{ '$count': 'count' } ], 'as': 'soldInPeriod' } }",
+            "{ '$project': { '_id': 0, 'totals': '$$ROOT', "
+                    + "'soldThisMonth': { '$ifNull': [ { '$arrayElemAt': [ '$soldInPeriod.count', 0 ] }, 0 ] } } }"
+    })
+    Mono<DashboardSnapshot> aggregateDashboard(String id, Date from, Date to);
+}
@@ -0,0 +1,30 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SalesBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository interface for accessing the SalesRollup collection in MongoDB.
+ * Extends MongoRepository for reading and replacing the buckets, and
+ * {@link SalesBucketRepositoryCustom} for applying atomic '$inc' deltas.
+ */
+@Repository
+public interface SalesBucketRepository extends MongoRepository<SalesBucket, String>, SalesBucketRepositoryCustom {
+
+    /**
+     * Retrieves the buckets of one granularity starting in a range, in chronological order.
+     * Served by the 'granularity_start' index.
+     *
+     * @param granularity the length of the periods.
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, exclusive.
+     * @return the buckets with sales in the range; periods without sales have no bucket.
+     */
+    @Query(value = "{ 'granularity': ?0, 'start': { '$gte': ?1, '$lt': ?2 } }", sort = "{ 'start': 1 }")
+    List<SalesBucket> findInRange(SalesBucket.Granularity granularity, Date from, Date to);
+}
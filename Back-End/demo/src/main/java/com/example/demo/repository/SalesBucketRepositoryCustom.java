@@ -0,0 +1,29 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SalesBucket;
+
+import java.util.Collection;
+
+/**
+ * Custom repository interface for atomic updates of the SalesRollup buckets.
+ * Implemented in {@link SalesBucketRepositoryCustomImpl}.
+ */
+public interface SalesBucketRepositoryCustom {
+
+    /**
+     * Adds deltas to the totals of their buckets in one unordered bulk write.
+     * Each bucket gets a single '$inc' and is created by the write if it does not exist yet.
+     *
+     * @param deltas the deltas, one per bucket.
+     */
+    void increment(Collection<SalesBucket> deltas);
+
+    /**
+     * Replaces the stored buckets with the given ones.
+     * Each bucket is written over the stored one with the same ID in one unordered bulk write,
+     * then the buckets that are not given are removed, so the collection is never empty in between.
+     *
+     * @param buckets the new buckets, with their full totals.
+     */
+    void replaceAll(Collection<SalesBucket> buckets);
+}
@@ -0,0 +1,72 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.SalesBucket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * MongoTemplate based implementation of {@link SalesBucketRepositoryCustom}.
+ */
+public class SalesBucketRepositoryCustomImpl implements SalesBucketRepositoryCustom {
+    /**
+     * Template for running MongoDB operations on the 'SalesRollup' collection.
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Autowired constructor for dependency injection of MongoTemplate.
+     *
+     * @param mongoTemplate the template for MongoDB operations.
+     */
+    @Autowired
+    public SalesBucketRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void increment(Collection<SalesBucket> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesBucket.class);
+        for (SalesBucket delta : deltas) {
+            Update update = new Update()
+                    .setOnInsert("granularity", delta.getGranularity())
+                    .setOnInsert("start", delta.getStart())
+                    .inc("units", delta.getUnits())
+                    .inc("payout", delta.getPayout())
+                    .inc("cogs", delta.getCogs())
+                    .inc("profit", delta.getProfit());
+            // Unlike the inventory summary, a bucket starts at zero, so a missing one is created by the delta.
+            bulk.upsert(Query.query(Criteria.where("_id").is(delta.getId())), update);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public void replaceAll(Collection<SalesBucket> buckets) {
+        if (!buckets.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesBucket.class);
+            for (SalesBucket bucket : buckets) {
+                Update update = new Update()
+                        .set("granularity", bucket.getGranularity())
+                        .set("start", bucket.getStart())
+                        .set("units", bucket.getUnits())
+                        .set("payout", bucket.getPayout())
+                        .set("cogs", bucket.getCogs())
+                        .set("profit", bucket.getProfit());
+                bulk.upsert(Query.query(Criteria.where("_id").is(bucket.getId())), update);
+            }
+            bulk.execute();
+        }
+        List<String> ids = buckets.stream().map(SalesBucket::getId).toList();
+        mongoTemplate.remove(Query.query(Criteria.where("_id").nin(ids)), SalesBucket.class);
+    }
+}
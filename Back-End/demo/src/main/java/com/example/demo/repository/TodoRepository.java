@@ -6,14 +6,14 @@ import org.springframework.stereotype.Repository;
 
 /**
  * Repository interface for accessing the Todo collection in MongoDB.
- * Extends MongoRepository  to provide standard CRUD operations for Todo entities.
- * This interface can be further extend to include custom query methods if needed.
+ * Extends MongoRepository  to provide standard CRUD operations for Todo entities,
+ * and {@link TodoRepositoryCustom} for the filtered queries implemented with MongoTemplate.
  *
  * The MongoRepository interface provides methods such as save, findAll, findbyId, delete, etc...
  * which can be directly used without explicit definition
  */
 @Repository
-    public interface TodoRepository extends MongoRepository<Todo, String> {
+    public interface TodoRepository extends MongoRepository<Todo, String>, TodoRepositoryCustom {
 
     }
 
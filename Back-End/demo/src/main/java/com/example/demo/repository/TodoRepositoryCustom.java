@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Todo;
+import com.example.demo.model.TodoFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+
+/**
+ * Custom repository interface for the filtered Todo queries, whose criteria depend on which
+ * filters are set. These methods are implemented in {@link TodoRepositoryCustomImpl}
+ * with MongoTemplate and are available through {@link TodoRepository}.
+ */
+public interface TodoRepositoryCustom {
+
+    /**
+     * Retrieves a page of the todos a filter selects, sorted by due date then ID.
+     * Todos without a due date come first, and are left out by any due date range.
+     *
+     * @param filter the todos to select.
+     * @param pageable the page to read; its sort is replaced by the due date order.
+     * @return the page of todos with the total count of the selected todos.
+     */
+    Page<Todo> findTodos(TodoFilter filter, Pageable pageable);
+
+    /**
+     * Counts the todos a filter selects per due day inside MongoDB, so no Todo document
+     * is transferred to the application.
+     *
+     * @param filter the todos to count; the days are taken in its time zone.
+     * @return the number of todos per due day as yyyy-MM-dd, in day order; days without todos are left out.
+     */
+    Map<String, Long> countByDueDay(TodoFilter filter);
+}
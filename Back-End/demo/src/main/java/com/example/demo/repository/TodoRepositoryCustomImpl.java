@@ -0,0 +1,96 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Todo;
+import com.example.demo.model.TodoFilter;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MongoTemplate based implementation of {@link TodoRepositoryCustom}.
+ * Spring Data picks this class up by its name and merges it into {@link TodoRepository}.
+ */
+public class TodoRepositoryCustomImpl implements TodoRepositoryCustom {
+    /**
+     * Template for running MongoDB operations on the 'todos' collection.
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * The order of the listed todos, served by the indexes declared on {@link Todo}.
+     */
+    private static final Sort DUE_DATE_ORDER = Sort.by(Sort.Direction.ASC, "dueDate", "_id");
+
+    /**
+     * Autowired constructor for dependency injection of MongoTemplate.
+     *
+     * @param mongoTemplate the template for MongoDB operations.
+     */
+    @Autowired
+    public TodoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Page<Todo> findTodos(TodoFilter filter, Pageable pageable) {
+        Pageable sorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), DUE_DATE_ORDER);
+        List<Todo> content = mongoTemplate.find(Query.query(criteria(filter)).with(sorted), Todo.class);
+        // The count only runs when the page does not already tell the total.
+        return PageableExecutionUtils.getPage(content, sorted,
+                () -> mongoTemplate.count(Query.query(criteria(filter)), Todo.class));
+    }
+
+    @Override
+    public Map<String, Long> countByDueDay(TodoFilter filter) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria(filter)),
+                Aggregation.project().and(DateOperators.DateToString.dateOf("dueDate").toString("%Y-%m-%d")
+                        .withTimezone(DateOperators.Timezone.fromZone(filter.getZone()))).as("day"),
+                Aggregation.group("day").count().as("count"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Document day : mongoTemplate.aggregate(aggregation, Todo.class, Document.class)) {
+            counts.put(day.getString("_id"), day.get("count", Number.class).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Builds the criteria of a filter. Open todos are matched with '$ne: true' so todos saved
+     * without a completed flag are open too.
+     *
+     * @param filter the filter.
+     * @return the criteria, empty for a filter selecting every todo.
+     */
+    private static Criteria criteria(TodoFilter filter) {
+        Criteria criteria = new Criteria();
+        if (Boolean.TRUE.equals(filter.getCompleted())) {
+            criteria.and("completed").is(true);
+        } else if (Boolean.FALSE.equals(filter.getCompleted())) {
+            criteria.and("completed").ne(true);
+        }
+        if (filter.hasRange()) {
+            Criteria range = criteria.and("dueDate");
+            if (filter.getDueFromInclusive() != null) {
+                range.gte(filter.getDueFromInclusive());
+            }
+            if (filter.getDueToExclusive() != null) {
+                range.lt(filter.getDueToExclusive());
+            }
+        }
+        return criteria;
+    }
+}
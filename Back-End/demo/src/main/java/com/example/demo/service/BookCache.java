@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BooksChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of books by ID, bounded by an estimate of the heap its entries use.
+ * <p>
+ * Eviction is Caffeine's W-TinyLFU, so books read again and again stay cached while one-off
+ * reads, such as a scan through the inventory, do not push them out. Every write publishes a
+ * {@link BooksChangedEvent} after it reached the database, and the changed books are dropped
+ * from the cache before the writing request returns. A load still running when its book is
+ * dropped finishes first and is dropped with it, so no read that starts after a write
+ * returns can see the book as it was before.
+ * </p>
+ * <p>
+ * Cached books are never handed out: callers get a copy they are free to change. Hits, misses
+ * and evictions are published as the cache.* meters tagged cache=books.by-id.
+ * </p>
+ */
+@Component
+public class BookCache {
+
+    /**
+     * Estimated heap of a cached entry besides the book's own fields: the cache node and the key.
+     */
+    private static final int ENTRY_OVERHEAD = 160;
+
+    /**
+     * Books by ID. Books that do not exist are not cached.
+     */
+    private final Cache<String, Book> cache;
+
+    /**
+     * The heap budget in bytes.
+     */
+    private final long maxBytes;
+
+    /**
+     * Autowired constructor for dependency injection of the heap budget and the meter registry.
+     *
+     * @param maxHeap the estimated heap the cached books may use; 0 disables the cache.
+     * @param meterRegistry the registry to publish the cache statistics in.
+     */
+    @Autowired
+    public BookCache(@Value("${books.cache.max-heap:32MB}") DataSize maxHeap, MeterRegistry meterRegistry) {
+        this.maxBytes = maxHeap.toBytes();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String id, Book book) -> estimateBytes(book))
+                // Run maintenance on the calling thread so the statistics are up to date when read.
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "books.by-id");
+    }
+
+    /**
+     * Gets a book from the cache, loading it on a miss. Concurrent misses for the same ID share one load.
+     *
+     * @param id the ID of the book.
+     * @param loader reads the book from the database, returning null if it does not exist.
+     * @return a copy of the book, or null if it does not exist.
+     */
+    public Book get(String id, Function<String, Book> loader) {
+        Book book = cache.get(id, loader);
+        return book == null ? null : book.copy();
+    }
+
+    /**
+     * Drops the changed books from the cache, or every book for a resync, which may follow
+     * changes made outside the application. Runs before the other listeners, so a listener
+     * that fails cannot leave a stale book behind.
+     *
+     * @param event the change.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (event.getBookIds().isEmpty()) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidateAll(event.getBookIds());
+        }
+    }
+
+    /**
+     * Retrieves the statistics of the cache.
+     *
+     * @return a map with the size, the estimated heap used and allowed, and the hit, miss and eviction counts.
+     */
+    public Map<String, Object> getStats() {
+        cache.cleanUp();
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("heapBytes", cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L));
+        result.put("maxHeapBytes", maxBytes);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        result.put("hitRate", stats.hitRate());
+        return result;
+    }
+
+    /**
+     * Estimates the heap used by a cached book, assuming a 64-bit JVM with compressed
+     * references.
+     *
+     * @param book the book.
+     * @return the estimated size in bytes.
+     */
+    static int estimateBytes(Book book) {
+        // The Book object with its fifteen fields, then its boxed numbers and dates.
+        int bytes = ENTRY_OVERHEAD + 72
+                + boxed(book.getCOGS()) + boxed(book.getPayout()) + boxed(book.getProfit())
+                + boxed(book.getPageCount()) + boxed(book.getVersion())
+                + (book.getDatePurchased() == null ? 0 : 24) + (book.getSold() == null ? 0 : 24)
+                + string(book.getId()) + string(book.getISBN()) + string(book.getTitle())
+                + string(book.getImageUrl()) + string(book.getPublisher()) + string(book.getPublishedDate());
+        List<String> authors = book.getAuthors();
+        if (authors != null) {
+            bytes += 40 + 4 * authors.size();
+            for (String author : authors) {
+                bytes += string(author);
+            }
+        }
+        return bytes;
+    }
+
+    private static int boxed(Object value) {
+        return value == null ? 0 : 16;
+    }
+
+    private static int string(String value) {
+        // The String object and its byte array, at two bytes a character to be safe with non-Latin-1 text.
+        return value == null ? 0 : 24 + ((16 + value.length() * 2 + 7) & ~7);
+    }
+}
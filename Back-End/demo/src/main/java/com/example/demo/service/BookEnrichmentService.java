@@ -0,0 +1,326 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookDetails;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
+import com.example.demo.util.RateLimiter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class for enriching books with metadata from the Google Books API in the background.
+ * When a book is created without a title or cover image it is queued here; a bounded pool of
+ * workers looks up the details under a rate limit and writes the title, cover URL, authors,
+ * publisher, publication date and page count onto the book, so rendering a book needs no
+ * external call. Failed lookups are retried with exponential backoff.
+ */
+@Service
+public class BookEnrichmentService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BookEnrichmentService.class);
+
+    /**
+     * Upper bound of the delay between two attempts.
+     */
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    /**
+     * Repository for writing the looked up details onto the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Service for looking up book details, with its cache.
+     */
+    private final GoogleBooksService googleBooksService;
+
+    /**
+     * Versions of the collections, bumped after details are applied for the conditional GET support.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Publisher of the book domain events. Applied details change no totals, but they can
+     * fill in a title, which the title search index must see.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Workers running the lookups, fed by a bounded queue.
+     */
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * Scheduler re-submitting failed lookups after their backoff.
+     */
+    private final ScheduledExecutorService retryScheduler;
+
+    /**
+     * Limits the rate of lookups across all workers.
+     */
+    private final RateLimiter rateLimiter;
+
+    private final int maxAttempts; //Number of attempts before a lookup is given up.
+    private final Duration initialBackoff; //Delay before the first retry, doubled for each further retry.
+
+    private final LongAdder queued = new LongAdder(); //Books accepted for enrichment.
+    private final LongAdder enriched = new LongAdder(); //Books whose details were written.
+    private final LongAdder alreadyComplete = new LongAdder(); //Books found with every looked up field already set.
+    private final LongAdder notFound = new LongAdder(); //Books the API does not know.
+    private final LongAdder retried = new LongAdder(); //Attempts scheduled again after a failure.
+    private final LongAdder failed = new LongAdder(); //Books given up after the last attempt.
+    private final LongAdder dropped = new LongAdder(); //Books rejected because the queue was full.
+    private final AtomicInteger pendingRetries = new AtomicInteger(); //Retries waiting for their backoff.
+    private final ThroughputCounter throughput = new ThroughputCounter(); //Books processed per second.
+
+    /**
+     * Autowired constructor for dependency injection of the services and the pipeline settings.
+     *
+     * @param bookRepository the repository for book data operations.
+     * @param googleBooksService the service for looking up book details.
+     * @param collectionVersions the versions of the collections.
+     * @param eventPublisher the publisher of the book domain events.
+     * @param workerCount the number of worker threads.
+     * @param queueCapacity the maximum number of books waiting for a worker.
+     * @param ratePerSecond the maximum number of lookups per second.
+     * @param maxAttempts the number of attempts before a lookup is given up.
+     * @param initialBackoff the delay before the first retry.
+     * @param virtualThreads true to run the workers on virtual threads.
+     */
+    @Autowired
+    public BookEnrichmentService(BookRepository bookRepository,
+                                 GoogleBooksService googleBooksService,
+                                 CollectionVersions collectionVersions,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${books.enrichment.workers:2}") int workerCount,
+                                 @Value("${books.enrichment.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${books.enrichment.rate-per-second:5}") double ratePerSecond,
+                                 @Value("${books.enrichment.max-attempts:5}") int maxAttempts,
+                                 @Value("${books.enrichment.initial-backoff:2s}") Duration initialBackoff,
+                                 @Value("${app.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.bookRepository = bookRepository;
+        this.googleBooksService = googleBooksService;
+        this.collectionVersions = collectionVersions;
+        this.eventPublisher = eventPublisher;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.rateLimiter = new RateLimiter(ratePerSecond);
+        AtomicInteger threadNumber = new AtomicInteger();
+        // The worker count still bounds the concurrent lookups; virtual workers only stop holding
+        // platform threads while they wait for the API.
+        ThreadFactory workerFactory = virtualThreads
+                ? Thread.ofVirtual().name("book-enrichment-", 1).factory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "book-enrichment-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), workerFactory);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "book-enrichment-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a book for enrichment if it misses metadata.
+     * Never blocks: if the queue is full the book is dropped and counted.
+     *
+     * @param book the saved book.
+     * @return true if the book was queued.
+     */
+    public boolean enqueueIfIncomplete(Book book) {
+        if (book == null || book.getId() == null || book.getISBN() == null || !book.needsEnrichment()) {
+            return false;
+        }
+        if (submit(book.getId(), book.getISBN(), 1)) {
+            queued.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Retrieves the statistics of the enrichment pipeline.
+     *
+     * @return a map with the queue depth, the outcome counters and the throughput.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueDepth", workers.getQueue().size());
+        stats.put("inProgress", workers.getActiveCount());
+        stats.put("pendingRetries", pendingRetries.get());
+        stats.put("queued", queued.sum());
+        stats.put("enriched", enriched.sum());
+        stats.put("alreadyComplete", alreadyComplete.sum());
+        stats.put("notFound", notFound.sum());
+        stats.put("retried", retried.sum());
+        stats.put("failed", failed.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("processedPerSecond", throughput.perSecond());
+        return stats;
+    }
+
+    /**
+     * Stops the workers when the application shuts down.
+     * Books still queued are not enriched; their metadata stays missing.
+     */
+    @PreDestroy
+    public void shutdown() {
+        retryScheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Hands a lookup to the workers.
+     *
+     * @param id the ID of the book.
+     * @param isbn the ISBN of the book.
+     * @param attempt the number of the attempt, starting at 1.
+     * @return true if the lookup was accepted.
+     */
+    private boolean submit(String id, String isbn, int attempt) {
+        try {
+            workers.execute(() -> enrich(id, isbn, attempt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            logger.warn("Enrichment queue is full, book {} will keep its missing metadata.", id);
+            return false;
+        }
+    }
+
+    /**
+     * Looks up the details of a book and writes them onto it, scheduling a retry on failure.
+     *
+     * @param id the ID of the book.
+     * @param isbn the ISBN of the book.
+     * @param attempt the number of the attempt, starting at 1.
+     */
+    void enrich(String id, String isbn, int attempt) {
+        try {
+            // Only a lookup that calls the API waits for a permit; the cache answers the others right away.
+            if (!googleBooksService.isCached(isbn)) {
+                rateLimiter.acquire();
+            }
+            Optional<BookDetails> details = googleBooksService.findByIsbn(isbn);
+            if (details.isPresent()) {
+                // Nothing changed if the book is gone or already had every field, so the cached reads stay valid.
+                Book enrichedBook = bookRepository.applyDetails(id, details.get());
+                if (enrichedBook != null) {
+                    collectionVersions.bump(CollectionVersions.BOOKS);
+                    eventPublisher.publishEvent(BooksChangedEvent.of(enrichedBook, new InventorySummary()));
+                    enriched.increment();
+                    logger.info("Book {} enriched with details for ISBN: {}", id, isbn);
+                } else {
+                    alreadyComplete.increment();
+                }
+            } else {
+                notFound.increment();
+            }
+            throughput.record();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalArgumentException e) {
+            // The ISBN cannot be looked up; trying again would not help.
+            failed.increment();
+            throughput.record();
+            logger.warn("Cannot enrich book {} with ISBN {}: {}", id, isbn, e.getMessage());
+        } catch (Exception e) {
+            retryOrGiveUp(id, isbn, attempt, e);
+        }
+    }
+
+    /**
+     * Schedules the next attempt of a failed lookup, or gives it up after the last attempt.
+     */
+    private void retryOrGiveUp(String id, String isbn, int attempt, Exception error) {
+        if (attempt >= maxAttempts) {
+            failed.increment();
+            throughput.record();
+            logger.error("Giving up enriching book {} after {} attempts: {}", id, attempt, error.getMessage());
+            return;
+        }
+        long delayMillis = backoffMillis(attempt);
+        retried.increment();
+        pendingRetries.incrementAndGet();
+        logger.warn("Enriching book {} failed (attempt {}), retrying in {} ms: {}", id, attempt, delayMillis, error.getMessage());
+        try {
+            retryScheduler.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                submit(id, isbn, attempt + 1);
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The application is shutting down.
+            pendingRetries.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the delay before the attempt following the given one: the initial backoff
+     * doubled for every further attempt, up to {@link #MAX_BACKOFF}.
+     *
+     * @param attempt the number of the failed attempt, starting at 1.
+     * @return the delay in milliseconds.
+     */
+    long backoffMillis(int attempt) {
+        long delay = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        return Math.min(delay, MAX_BACKOFF.toMillis());
+    }
+
+    /**
+     * Counts events in one-second buckets over the last minute.
+     */
+    private static final class ThroughputCounter {
+        private static final int WINDOW_SECONDS = 60;
+        private final long[] seconds = new long[WINDOW_SECONDS];
+        private final long[] counts = new long[WINDOW_SECONDS];
+
+        synchronized void record() {
+            long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            int bucket = (int) (now % WINDOW_SECONDS);
+            if (seconds[bucket] != now) {
+                seconds[bucket] = now;
+                counts[bucket] = 0;
+            }
+            counts[bucket]++;
+        }
+
+        synchronized double perSecond() {
+            long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+            long total = 0;
+            for (int i = 0; i < WINDOW_SECONDS; i++) {
+                if (now - seconds[i] < WINDOW_SECONDS) {
+                    total += counts[i];
+                }
+            }
+            return (double) total / WINDOW_SECONDS;
+        }
+    }
+}
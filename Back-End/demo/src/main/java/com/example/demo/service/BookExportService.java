@@ -0,0 +1,85 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import com.example.demo.model.BookFilter;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.BookExportWriter;
+import com.example.demo.util.BookFileFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Service class for exporting the inventory as a CSV or NDJSON file.
+ * <p>
+ * Books are read from a MongoDB cursor and written to the output one at a time, so
+ * the heap holds at most one cursor batch however many books are exported. Only the
+ * selected fields are read from the database.
+ * </p>
+ */
+@Service
+public class BookExportService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BookExportService.class);
+
+    /**
+     * Repository streaming the exported books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Mapper providing the JSON generator, configured like the one writing response bodies.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Autowired constructor for dependency injection of the repository and the mapper.
+     *
+     * @param bookRepository the repository for book data operations.
+     * @param objectMapper the mapper for NDJSON exports.
+     */
+    @Autowired
+    public BookExportService(BookRepository bookRepository, ObjectMapper objectMapper) {
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Exports the books matching a filter.
+     *
+     * @param out the output the export is written to; it is not closed.
+     * @param format the export format.
+     * @param filter the books to export.
+     * @param fields the fields to export, see {@link BookFields#parse(String)}.
+     * @return the number of exported books.
+     * @throws IOException if the output cannot be written, e.g. because the client went away.
+     */
+    public long exportBooks(OutputStream out, BookFileFormat format, BookFilter filter, List<String> fields)
+            throws IOException {
+        long start = System.nanoTime();
+        try (Stream<Book> books = bookRepository.streamBooks(filter, fields);
+             BookExportWriter writer = new BookExportWriter(out, format, fields, objectMapper)) {
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            logger.info("Exported {} books as {} in {} ms.", writer.getWritten(), format,
+                    (System.nanoTime() - start) / 1_000_000);
+            return writer.getWritten();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.ImportReport;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.model.SalesRollupDelta;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.BookFileFormat;
+import com.example.demo.util.BookImportReader;
+import com.example.demo.util.CollectionVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for importing books in bulk from CSV or NDJSON inventory files.
+ * <p>
+ * The file is read one row at a time and valid books are written in unordered bulk
+ * batches, so memory use depends on the batch size, not on the size of the file.
+ * Rows are validated like {@link BookService#createBook(Book)}; rejected rows are
+ * reported by row number and do not stop the import. The inventory summary and the
+ * sales rollups are updated once per batch and incomplete books are queued
+ * for enrichment, as on create.
+ * </p>
+ */
+@Service
+public class BookImportService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    /**
+     * Repository for writing the imported books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Service providing the validation of new books.
+     */
+    private final BookService bookService;
+
+    /**
+     * Service maintaining the inventory counts and financial totals.
+     */
+    private final InventorySummaryService inventorySummaryService;
+
+    /**
+     * Service filling in missing book metadata in the background.
+     */
+    private final BookEnrichmentService bookEnrichmentService;
+
+    /**
+     * Service maintaining the per-day and per-month sales rollups.
+     */
+    private final SalesRollupService salesRollupService;
+
+    /**
+     * Versions of the collections, bumped after every batch for the conditional GET support.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Publishes a {@link BooksChangedEvent} after every batch.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Mapper for the rows of NDJSON files, configured like the one reading request bodies.
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Number of books written per bulk write.
+     */
+    private final int batchSize;
+
+    /**
+     * Autowired constructor for dependency injection of the repository, the services and the batch size.
+     *
+     * @param bookRepository the repository for book data operations.
+     * @param bookService the service validating new books.
+     * @param inventorySummaryService the service maintaining the inventory summary.
+     * @param bookEnrichmentService the service filling in missing book metadata.
+     * @param salesRollupService the service maintaining the sales rollups.
+     * @param collectionVersions the versions of the collections.
+     * @param eventPublisher the publisher of the book domain events.
+     * @param objectMapper the mapper for NDJSON rows.
+     * @param batchSize the number of books written per bulk write.
+     */
+    @Autowired
+    public BookImportService(BookRepository bookRepository,
+                             BookService bookService,
+                             InventorySummaryService inventorySummaryService,
+                             BookEnrichmentService bookEnrichmentService,
+                             SalesRollupService salesRollupService,
+                             CollectionVersions collectionVersions,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${books.import.batch-size:500}") int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Import batch size must be at least 1.");
+        }
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.inventorySummaryService = inventorySummaryService;
+        this.bookEnrichmentService = bookEnrichmentService;
+        this.salesRollupService = salesRollupService;
+        this.collectionVersions = collectionVersions;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports the books of a file streamed from a request body.
+     *
+     * @param content the file content.
+     * @param format the file format.
+     * @param charset the character set of the file.
+     * @return the report of the import, with the reason of every rejected row.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the CSV header is invalid or a row is too long.
+     */
+    public ImportReport importBooks(InputStream content, BookFileFormat format, Charset charset)
+            throws IOException {
+        try (BookImportReader reader = new BookImportReader(new InputStreamReader(content, charset), format, objectMapper)) {
+            return importBooks(reader);
+        }
+    }
+
+    /**
+     * Imports the books of a file.
+     *
+     * @param reader the reader over the file.
+     * @return the report of the import, with the reason of every rejected row.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if a row is too long; the batches written before are kept.
+     */
+    public ImportReport importBooks(BookImportReader reader) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        List<Book> batch = new ArrayList<>(batchSize);
+        List<Long> rowNumbers = new ArrayList<>(batchSize);
+        BookImportReader.Row row;
+        while ((row = reader.next()) != null) {
+            report.rowRead();
+            if (row.getError() != null) {
+                report.rowFailed(row.getNumber(), row.getError());
+                continue;
+            }
+            Book book = row.getBook();
+            try {
+                bookService.validateBook(book);
+            } catch (IllegalArgumentException e) {
+                report.rowFailed(row.getNumber(), e.getMessage());
+                continue;
+            }
+            // IDs are assigned here so the written books can be queued for enrichment by ID.
+            // Bulk inserts do not initialize the version like save does.
+            book.setId(new ObjectId().toHexString());
+            book.setVersion(0L);
+            batch.add(book);
+            rowNumbers.add(row.getNumber());
+            if (batch.size() == batchSize) {
+                writeBatch(batch, rowNumbers, report);
+            }
+        }
+        writeBatch(batch, rowNumbers, report);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        logger.info("Imported {} of {} rows in {} ms, {} failed.",
+                report.getImported(), report.getRowsRead(), report.getElapsedMillis(), report.getFailed());
+        return report;
+    }
+
+    /**
+     * Writes a batch, reports the books that were not written and records the written ones
+     * in the inventory summary. Clears the batch afterwards.
+     */
+    private void writeBatch(List<Book> batch, List<Long> rowNumbers, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // The repository gets a copy: the batch is cleared and refilled once written.
+        Map<Integer, String> failures = bookRepository.insertUnordered(List.copyOf(batch));
+        InventorySummary delta = InventorySummary.of(null);
+        SalesRollupDelta salesDelta = new SalesRollupDelta();
+        List<Book> importedBooks = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String failure = failures.get(i);
+            if (failure != null) {
+                report.rowFailed(rowNumbers.get(i), failure);
+                continue;
+            }
+            Book book = batch.get(i);
+            delta = delta.plus(InventorySummary.of(book));
+            salesDelta.add(null, book);
+            importedBooks.add(book);
+            bookEnrichmentService.enqueueIfIncomplete(book);
+        }
+        report.imported(batch.size() - failures.size());
+        inventorySummaryService.apply(delta);
+        salesRollupService.apply(salesDelta);
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        if (!importedBooks.isEmpty()) {
+            eventPublisher.publishEvent(BooksChangedEvent.of(importedBooks, delta));
+        }
+        batch.clear();
+        rowNumbers.clear();
+    }
+}
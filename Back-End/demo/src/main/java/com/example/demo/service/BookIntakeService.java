@@ -0,0 +1,425 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.model.SalesRollupDelta;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class for the write-behind intake of books scanned at a high rate.
+ * <p>
+ * A book is validated like on create, given its ID and acknowledged right away; it is then
+ * held in a bounded buffer and written by a single flusher thread in unordered bulk inserts,
+ * as soon as a batch is full or the flush interval has passed since its first book. When the
+ * buffer is full a caller waits up to the offer timeout for room and is then rejected, so a
+ * slow database pushes back on the scanners instead of growing the heap. The inventory
+ * summary, the sales rollups and the enrichment queue are updated once per batch, as on import.
+ * </p>
+ * <p>
+ * A batch that cannot be written is retried until it is, so acknowledged books are not lost
+ * while the application runs. A failed attempt may have written part of the batch, so a retry
+ * only inserts the books that are not stored yet. On shutdown the intake stops accepting books and the flusher
+ * writes what is buffered, within the drain timeout.
+ * </p>
+ */
+@Service
+public class BookIntakeService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BookIntakeService.class);
+
+    /**
+     * Number of failed books kept for the status.
+     */
+    private static final int RECENT_FAILURES = 100;
+
+    /**
+     * Offered on shutdown to wake the flusher from waiting for books that will not come.
+     */
+    private static final Book WAKE_UP = new Book();
+
+    /**
+     * Longest wait for books once closed, while callers may still be putting their last ones in.
+     */
+    private static final Duration CLOSING_POLL = Duration.ofMillis(10);
+
+    /**
+     * Repository for writing the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Service providing the validation of new books.
+     */
+    private final BookService bookService;
+
+    /**
+     * Service maintaining the inventory counts and financial totals.
+     */
+    private final InventorySummaryService inventorySummaryService;
+
+    /**
+     * Service filling in missing book metadata in the background.
+     */
+    private final BookEnrichmentService bookEnrichmentService;
+
+    /**
+     * Service maintaining the per-day and per-month sales rollups.
+     */
+    private final SalesRollupService salesRollupService;
+
+    /**
+     * Versions of the collections, bumped after every batch for the conditional GET support.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Publishes a {@link BooksChangedEvent} after every batch.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Books acknowledged and not yet written.
+     */
+    private final BlockingQueue<Book> buffer;
+
+    /**
+     * Thread writing the buffered books.
+     */
+    private final Thread flusher;
+
+    private final int batchSize; //Maximum number of books per bulk insert.
+    private final Duration flushInterval; //Longest time a book waits for its batch to fill.
+    private final Duration offerTimeout; //Longest time a caller waits for room in a full buffer.
+    private final Duration retryBackoff; //Delay before a failed batch is written again.
+    private final Duration drainTimeout; //Longest time the shutdown waits for the buffer to be written.
+
+    private volatile boolean closed; //Set on shutdown; no book is accepted afterwards.
+    private volatile long drainDeadline = Long.MAX_VALUE; //System.nanoTime() after which a failed batch is given up.
+    private final AtomicInteger offering = new AtomicInteger(); //Callers between the closed check and the buffer.
+    private final AtomicInteger pending = new AtomicInteger(); //Books acknowledged and not yet written or failed.
+
+    private final LongAdder accepted = new LongAdder(); //Books acknowledged.
+    private final LongAdder written = new LongAdder(); //Books inserted.
+    private final LongAdder failed = new LongAdder(); //Books the database refused.
+    private final LongAdder rejected = new LongAdder(); //Books refused because the buffer was full or closed.
+    private final LongAdder batches = new LongAdder(); //Bulk inserts run.
+    private final LongAdder retries = new LongAdder(); //Bulk inserts run again after an error.
+    private final LongAdder lost = new LongAdder(); //Books given up when the drain timed out.
+    private final Deque<Map<String, String>> recentFailures = new ArrayDeque<>(); //Last failed books, guarded by itself.
+    private volatile long lastFlushMillis; //Duration of the last bulk insert.
+
+    /**
+     * Autowired constructor for dependency injection of the repository, the services and the intake settings.
+     *
+     * @param bookRepository the repository for book data operations.
+     * @param bookService the service validating new books.
+     * @param inventorySummaryService the service maintaining the inventory summary.
+     * @param bookEnrichmentService the service filling in missing book metadata.
+     * @param salesRollupService the service maintaining the sales rollups.
+     * @param collectionVersions the versions of the collections.
+     * @param eventPublisher the publisher of the book domain events.
+     * @param bufferCapacity the maximum number of books waiting to be written.
+     * @param batchSize the maximum number of books per bulk insert.
+     * @param flushInterval the longest time a book waits for its batch to fill.
+     * @param offerTimeout the longest time a caller waits for room in a full buffer.
+     * @param retryBackoff the delay before a failed batch is written again.
+     * @param drainTimeout the longest time the shutdown waits for the buffer to be written.
+     */
+    @Autowired
+    public BookIntakeService(BookRepository bookRepository,
+                             BookService bookService,
+                             InventorySummaryService inventorySummaryService,
+                             BookEnrichmentService bookEnrichmentService,
+                             SalesRollupService salesRollupService,
+                             CollectionVersions collectionVersions,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${books.intake.buffer-capacity:5000}") int bufferCapacity,
+                             @Value("${books.intake.batch-size:500}") int batchSize,
+                             @Value("${books.intake.flush-interval:250ms}") Duration flushInterval,
+                             @Value("${books.intake.offer-timeout:2s}") Duration offerTimeout,
+                             @Value("${books.intake.retry-backoff:1s}") Duration retryBackoff,
+                             @Value("${books.intake.drain-timeout:30s}") Duration drainTimeout) {
+        if (bufferCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Intake buffer capacity and batch size must be at least 1.");
+        }
+        this.bookRepository = bookRepository;
+        this.bookService = bookService;
+        this.inventorySummaryService = inventorySummaryService;
+        this.bookEnrichmentService = bookEnrichmentService;
+        this.salesRollupService = salesRollupService;
+        this.collectionVersions = collectionVersions;
+        this.eventPublisher = eventPublisher;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.retryBackoff = retryBackoff;
+        this.drainTimeout = drainTimeout;
+        this.flusher = new Thread(this::flushUntilClosed, "book-intake-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Validates a book, gives it its ID and buffers it for writing.
+     * Waits for room if the buffer is full.
+     *
+     * @param book the book to create.
+     * @return the book with its ID; it can be read once written.
+     * @throws IllegalArgumentException if essential fields like ISBN and COGS are missing.
+     * @throws RejectedExecutionException if the buffer stayed full for the offer timeout, or the
+     *         application is shutting down.
+     */
+    public Book accept(Book book) {
+        bookService.validateBook(book);
+        // IDs are assigned here so the client can refer to the book before it is written.
+        // Bulk inserts do not initialize the version like save does.
+        book.setId(new ObjectId().toHexString());
+        book.setVersion(0L);
+        offering.incrementAndGet();
+        try {
+            if (closed) {
+                rejected.increment();
+                throw new RejectedExecutionException("Book intake is shutting down.");
+            }
+            pending.incrementAndGet();
+            if (!buffer.offer(book, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                pending.decrementAndGet();
+                rejected.increment();
+                throw new RejectedExecutionException("Book intake buffer is full, try again later.");
+            }
+        } catch (InterruptedException e) {
+            pending.decrementAndGet();
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the intake buffer.");
+        } finally {
+            offering.decrementAndGet();
+        }
+        accepted.increment();
+        return book;
+    }
+
+    /**
+     * Retrieves the status of the intake.
+     *
+     * @return a map with the pending books, the buffer usage, the outcome counters and the recent failures.
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("accepting", !closed);
+        status.put("pending", pending.get());
+        status.put("buffered", buffer.size());
+        status.put("bufferCapacity", buffer.size() + buffer.remainingCapacity());
+        status.put("accepted", accepted.sum());
+        status.put("written", written.sum());
+        status.put("failed", failed.sum());
+        status.put("rejected", rejected.sum());
+        status.put("batches", batches.sum());
+        status.put("retries", retries.sum());
+        status.put("lost", lost.sum());
+        status.put("lastFlushMillis", lastFlushMillis);
+        synchronized (recentFailures) {
+            status.put("recentFailures", new ArrayList<>(recentFailures));
+        }
+        return status;
+    }
+
+    /**
+     * Stops accepting books and waits for the buffered ones to be written, up to the drain timeout.
+     */
+    @PreDestroy
+    public void shutdown() {
+        drainDeadline = System.nanoTime() + drainTimeout.toNanos();
+        closed = true;
+        // If the buffer is full the flusher is not waiting anyway.
+        buffer.offer(WAKE_UP);
+        try {
+            flusher.join(drainTimeout.toMillis() + retryBackoff.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            flusher.interrupt();
+        }
+        int unwritten = pending.get();
+        if (unwritten > 0) {
+            logger.error("Book intake stopped with {} books not written.", unwritten);
+        } else {
+            logger.info("Book intake drained: {} books written, {} failed.", written.sum(), failed.sum());
+        }
+    }
+
+    /**
+     * Runs on the flusher thread: collects batches from the buffer and writes them, until the
+     * intake is closed and nothing is left to write.
+     */
+    private void flushUntilClosed() {
+        List<Book> batch = new ArrayList<>(batchSize);
+        try {
+            while (true) {
+                Duration wait = closed ? CLOSING_POLL : flushInterval;
+                Book first = buffer.poll(wait.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null || first == WAKE_UP) {
+                    if (closed && offering.get() == 0 && buffer.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    // Once closed there is nothing to wait for; the buffer only empties.
+                    if (batch.size() == batchSize || closed || remaining <= 0) {
+                        break;
+                    }
+                    Book next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batch.removeIf(book -> book == WAKE_UP);
+                Map<Integer, String> failures = insertUntilDone(batch);
+                if (failures != null) {
+                    try {
+                        record(batch, failures);
+                    } catch (RuntimeException e) {
+                        // The books are written; the totals are corrected by the next reconcile.
+                        logger.error("Could not record {} written intake books: {}", batch.size(), e.getMessage());
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // Only interrupted when the drain timed out.
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inserts a batch, retrying after an error until it is written or the drain has timed out.
+     * Only the insert is retried, so the books written are counted once. A retry reads which
+     * books the failed attempts already stored and inserts the others; a duplicate key on the
+     * ID of one of them means a failed attempt stored it after all, so it counts as written.
+     *
+     * @return the books the database refused by position in the batch, or null if the batch was given up.
+     */
+    private Map<Integer, String> insertUntilDone(List<Book> batch) throws InterruptedException {
+        boolean retrying = false;
+        while (true) {
+            try {
+                List<Integer> positions = new ArrayList<>(batch.size());
+                List<Book> unwritten = new ArrayList<>(batch.size());
+                Set<String> stored = retrying
+                        ? bookRepository.findExistingIds(batch.stream().map(Book::getId).toList())
+                        : Set.of();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (!stored.contains(batch.get(i).getId())) {
+                        positions.add(i);
+                        unwritten.add(batch.get(i));
+                    }
+                }
+                long start = System.nanoTime();
+                Map<Integer, String> attemptFailures = bookRepository.insertUnordered(unwritten);
+                lastFlushMillis = (System.nanoTime() - start) / 1_000_000;
+                batches.increment();
+                Map<Integer, String> failures = new LinkedHashMap<>();
+                for (Map.Entry<Integer, String> failure : attemptFailures.entrySet()) {
+                    if (!(retrying && isDuplicateId(failure.getValue()))) {
+                        failures.put(positions.get(failure.getKey()), failure.getValue());
+                    }
+                }
+                return failures;
+            } catch (RuntimeException e) {
+                if (System.nanoTime() - drainDeadline > 0) {
+                    lost.add(batch.size());
+                    pending.addAndGet(-batch.size());
+                    logger.error("Gave up writing {} intake books on shutdown: {}", batch.size(), e.getMessage());
+                    return null;
+                }
+                retrying = true;
+                retries.increment();
+                logger.warn("Could not write {} intake books, retrying in {}: {}", batch.size(), retryBackoff, e.getMessage());
+                TimeUnit.NANOSECONDS.sleep(retryBackoff.toNanos());
+            }
+        }
+    }
+
+    /**
+     * Records the written books of a batch in the inventory summary, the sales rollups and the
+     * enrichment queue, and the refused ones in the recent failures.
+     */
+    private void record(List<Book> batch, Map<Integer, String> failures) {
+        InventorySummary delta = InventorySummary.of(null);
+        SalesRollupDelta salesDelta = new SalesRollupDelta();
+        List<Book> writtenBooks = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Book book = batch.get(i);
+            String failure = failures.get(i);
+            if (failure != null) {
+                recordFailure(book, failure);
+                continue;
+            }
+            delta = delta.plus(InventorySummary.of(book));
+            salesDelta.add(null, book);
+            writtenBooks.add(book);
+            bookEnrichmentService.enqueueIfIncomplete(book);
+        }
+        written.add(writtenBooks.size());
+        failed.add(failures.size());
+        pending.addAndGet(-batch.size());
+        if (writtenBooks.isEmpty()) {
+            return;
+        }
+        inventorySummaryService.apply(delta);
+        salesRollupService.apply(salesDelta);
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        eventPublisher.publishEvent(BooksChangedEvent.of(writtenBooks, delta));
+    }
+
+    /**
+     * Tells whether a write error is a duplicate key on the ID, the only unique key of the books.
+     */
+    private static boolean isDuplicateId(String message) {
+        return message != null && message.contains("E11000") && message.contains("_id");
+    }
+
+    private void recordFailure(Book book, String message) {
+        logger.error("Intake book {} with ISBN {} was not written: {}", book.getId(), book.getISBN(), message);
+        synchronized (recentFailures) {
+            if (recentFailures.size() == RECENT_FAILURES) {
+                recentFailures.removeFirst();
+            }
+            recentFailures.addLast(Map.of("id", book.getId(), "isbn", book.getISBN(), "message", message));
+        }
+    }
+}
@@ -1,15 +1,31 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import com.example.demo.model.BookPatch;
+import com.example.demo.model.BookSlice;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.model.MarkSoldReport;
+import com.example.demo.model.MarkSoldRequest;
+import com.example.demo.model.SalesRollupDelta;
+import com.example.demo.repository.BookCursor;
 import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.time.YearMonth;
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
@@ -31,13 +47,74 @@ public class BookService {
     private final BookRepository bookRepository;
 
     /**
-     * Autowired constructor for dependency injection of BookRepository.
+     * Service maintaining the inventory counts and financial totals.
+     */
+    private final InventorySummaryService inventorySummaryService;
+
+    /**
+     * Service filling in missing book metadata in the background.
+     */
+    private final BookEnrichmentService bookEnrichmentService;
+
+    /**
+     * Service maintaining the per-day and per-month sales rollups.
+     */
+    private final SalesRollupService salesRollupService;
+
+    /**
+     * Versions of the collections, bumped after every write for the conditional GET support.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Publishes a {@link BooksChangedEvent} after every write.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Cache of the books read by ID, emptied of the changed books by the change events.
+     */
+    private final BookCache bookCache;
+
+    /**
+     * Maximum number of books marked sold by one request.
+     */
+    static final int MAX_MARK_SOLD = 10_000;
+
+    /**
+     * The fields a sale writes, read back to tell which sales applied.
+     */
+    private static final List<String> SALE_FIELDS = List.of("version", "sold", "payout", "profit");
+
+    /**
+     * The fields a full update of a book replaces.
+     */
+    private static final List<String> UPDATED_FIELDS = List.of("isbn", "cogs", "datePurchased", "sold", "payout",
+            "profit", "title");
+
+    /**
+     * Autowired constructor for dependency injection of BookRepository and the services it works with.
      *
      * @param bookRepository the repository for handling book data operations.
+     * @param inventorySummaryService the service maintaining the inventory summary.
+     * @param bookEnrichmentService the service filling in missing book metadata.
+     * @param salesRollupService the service maintaining the sales rollups.
+     * @param collectionVersions the versions of the collections.
+     * @param eventPublisher the publisher of the book domain events.
+     * @param bookCache the cache of the books read by ID.
      */
     @Autowired
-    public BookService(BookRepository bookRepository){
+    public BookService(BookRepository bookRepository, InventorySummaryService inventorySummaryService,
+                       BookEnrichmentService bookEnrichmentService, SalesRollupService salesRollupService,
+                       CollectionVersions collectionVersions, ApplicationEventPublisher eventPublisher,
+                       BookCache bookCache){
         this.bookRepository = bookRepository;
+        this.inventorySummaryService = inventorySummaryService;
+        this.bookEnrichmentService = bookEnrichmentService;
+        this.salesRollupService = salesRollupService;
+        this.collectionVersions = collectionVersions;
+        this.eventPublisher = eventPublisher;
+        this.bookCache = bookCache;
     }
 
     /**
@@ -79,19 +156,46 @@ public class BookService {
         return bookRepository.findBooksByDatePurchasedBetween(startOfMonth, endOfMonth);
     }
 
+    /**
+     * Retrieves the books of {@link #getBooksSoldInMonth(int, int)} with only the selected fields.
+     *
+     * @param year The year to filter the sold books.
+     * @param month The month to filter the sold books.
+     * @param fields the fields to read, see {@link BookFields#parse(String)}.
+     * @return A list of books with only the selected fields set.
+     */
+    public List<Book> getBooksSoldInMonth(int year, int month, List<String> fields) {
+        YearMonth period = YearMonth.of(year, month);
+        Date start = Date.from(period.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date end = Date.from(period.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        // The same bounds as above: the end is the last millisecond of the month.
+        return bookRepository.findByDatePurchasedBetweenWithFields(start, new Date(end.getTime() - 1), fields);
+    }
+
     /**
      * Fetches a book by its unique identifier.
+     * Books are read through the {@link BookCache}, so a book read again is not fetched from the database.
      *
      * @param id The ID of the book to retrieve.
      * @return The found Book object or null if no book is found with the provided ID.
      */
     public Book getBookById(String id){
-        return bookRepository.findById(id).orElse(null);
+        return bookCache.get(id, bookId -> bookRepository.findById(bookId).orElse(null));
+    }
+
+    /**
+     * Retrieves the statistics of the cache of books read by ID.
+     *
+     * @return a map with the size, the estimated heap used and allowed, and the hit, miss and eviction counts.
+     */
+    public Map<String, Object> getBookCacheStats() {
+        return bookCache.getStats();
     }
 
     /**
      * Creates a new book record.
      * Validates the provided Book object and saves it to the repository.
+     * A book saved without title or cover image is queued for background enrichment.
      *
      *
      * @param book The Book object to create.
@@ -101,24 +205,48 @@ public class BookService {
     public Book createBook(Book book){
         logger.info("Attempting to create book with ISBN: {}", book.getISBN());
 
-        // Inline validation logic
+        try {
+            validateBook(book);
+        } catch (IllegalArgumentException e) {
+            logger.error("Book was rejected: {}", e.getMessage());
+            throw e;
+        }
+       // logActivity(book.getId(), "created");
+
+        // A version sent by the client would make the save an update; a new book starts unversioned.
+        book.setVersion(null);
+        // Assume profit calculation and other logic already included
+        Book savedBook = saveBook(book);
+        inventorySummaryService.applyChange(null, savedBook);
+        salesRollupService.applyChange(null, savedBook);
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        eventPublisher.publishEvent(BooksChangedEvent.of(savedBook, InventorySummary.delta(null, savedBook)));
+        //Look up the title and cover image in the background if they are missing.
+        bookEnrichmentService.enqueueIfIncomplete(savedBook);
+        return savedBook;
+    }
+
+    /**
+     * Checks that a new book has the mandatory fields.
+     * Shared by the single create and the bulk import, so both accept the same books.
+     * Does not log, since an import may reject many rows; callers report the rejection.
+     *
+     * @param book The Book object to check.
+     * @throws IllegalArgumentException if essential fields like ISBN and COGS are missing
+     */
+    public void validateBook(Book book) {
         if (book.getISBN() == null || book.getISBN().trim().isEmpty()) {
-            logger.error("ISBN is a mandatory field and was not provided.");
             throw new IllegalArgumentException("ISBN is a mandatory field.");
         }
         if (book.getCOGS() == null) {
-            logger.error("COGS is a mandatory field and was not provided.");
             throw new IllegalArgumentException("COGS is a mandatory field.");
         }
-       // logActivity(book.getId(), "created");
-
-        // Assume profit calculation and other logic already included
-        return saveBook(book);
     }
 
     /**
      * Updates the details of an existing book identified by its ID.
-     * Retrieves the book from the repository and updates the details with the provided updatedBook object.
+     * Writes the details of the provided updatedBook object in a single round trip, which also returns
+     * the previous state for the inventory summary and the sales rollups.
      * Throws IllegalArgumentException if the book with the given ID is not found.
      *
      * @param id The ID of the book to be updated.
@@ -127,32 +255,185 @@ public class BookService {
      * @throws IllegalArgumentException If no book is found with the provided ID.
      */
     public Book updateBook(String id, Book updatedBook) {
-        Book existingBook = bookRepository.findById(id).orElseThrow(() ->
-                new IllegalArgumentException("Book with ID: " + id + " not found."));
-
-        // Update the existing book details with updatedBook details
-        // Assuming that you have setters in Book class for each field you want to update
-        existingBook.setISBN(updatedBook.getISBN());
-        existingBook.setCOGS(updatedBook.getCOGS());
-        existingBook.setDatePurchased(updatedBook.getDatePurchased());
-        existingBook.setSold(updatedBook.getSold());
-        existingBook.setPayout(updatedBook.getPayout());
-        existingBook.setProfit(updatedBook.getProfit());
-        existingBook.setTitle(updatedBook.getTitle());
+        BookPatch patch = BookPatch.of(updatedBook, UPDATED_FIELDS);
+        // The state before the update comes from the write itself, so a concurrent update
+        // of the same book can not be counted twice in the summary.
+        Book previousBook = bookRepository.patchAndReturnPrevious(id, patch);
+        if (previousBook == null) {
+            throw new IllegalArgumentException("Book with ID: " + id + " not found.");
+        }
        // logActivity(id, "updated");
-        // Save and return the updated book
-        return saveBook(existingBook);
+        Book savedBook = patch.applyTo(previousBook);
+        logger.info("Book successfully saved with ISBN: {}", savedBook.getISBN());
+        inventorySummaryService.applyChange(previousBook, savedBook);
+        salesRollupService.applyChange(previousBook, savedBook);
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        eventPublisher.publishEvent(BooksChangedEvent.of(savedBook, InventorySummary.delta(previousBook, savedBook)));
+        return savedBook;
+    }
+
+    /**
+     * Applies a partial update to a book in a single database round trip.
+     * Only the fields in the patch are written, so concurrent edits of other fields are kept.
+     * If the patch carries the version the client read, it only applies to that version.
+     *
+     * @param id the ID of the book to patch.
+     * @param patch the partial update.
+     * @return the patched book, or null if no book has the given ID.
+     * @throws OptimisticLockingFailureException if the book was changed since the expected version.
+     */
+    public Book patchBook(String id, BookPatch patch) {
+        if (patch.isEmpty()) {
+            Book book = getBookById(id);
+            if (book != null && patch.getExpectedVersion() != null && !patch.getExpectedVersion().equals(book.getVersion())) {
+                throw conflict(id, patch);
+            }
+            return book;
+        }
+        Book previousBook = bookRepository.patchAndReturnPrevious(id, patch);
+        if (previousBook == null) {
+            // Nothing matched: only now tell a missing book from a version conflict.
+            if (patch.getExpectedVersion() != null && bookRepository.existsById(id)) {
+                throw conflict(id, patch);
+            }
+            return null;
+        }
+        Book patchedBook = patch.applyTo(previousBook);
+        inventorySummaryService.applyChange(previousBook, patchedBook);
+        salesRollupService.applyChange(previousBook, patchedBook);
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        eventPublisher.publishEvent(BooksChangedEvent.of(patchedBook, InventorySummary.delta(previousBook, patchedBook)));
+        return patchedBook;
+    }
+
+    private static OptimisticLockingFailureException conflict(String id, BookPatch patch) {
+        return new OptimisticLockingFailureException(
+                "Book with ID: " + id + " is no longer at version " + patch.getExpectedVersion() + ".");
+    }
+
+    /**
+     * Marks many books sold at once, typically when a consignment payout arrives.
+     * The books are read in one query, their profit is computed from the stored COGS as
+     * payout - COGS, and every sale is written in one unordered bulk write. Each write only
+     * applies if the book has not changed since it was read; a book changed in between is
+     * reported as a conflict and left untouched.
+     *
+     * @param request the books with their payout and sold date.
+     * @return one result per requested book, in request order.
+     * @throws IllegalArgumentException if the request holds more books than allowed.
+     */
+    public MarkSoldReport markSold(MarkSoldRequest request) {
+        List<MarkSoldRequest.Item> items = request.getBooks() != null ? request.getBooks() : List.of();
+        if (items.size() > MAX_MARK_SOLD) {
+            throw new IllegalArgumentException("At most " + MAX_MARK_SOLD + " books can be marked sold at once.");
+        }
+        // Validate the items and read every valid book in one query.
+        Map<String, MarkSoldReport.Result> invalid = new HashMap<>();
+        Set<String> ids = new LinkedHashSet<>();
+        for (MarkSoldRequest.Item item : items) {
+            String problem = item.getId() == null ? "ID is a mandatory field."
+                    : item.getPayout() == null ? "Payout is a mandatory field."
+                    : item.getSold() == null && request.getSold() == null ? "Sold date is a mandatory field."
+                    : !ids.add(item.getId()) ? "ID is repeated in the request." : null;
+            if (problem != null) {
+                ids.remove(item.getId());
+                invalid.put(item.getId(), MarkSoldReport.Result.failed(item.getId(), MarkSoldReport.Status.INVALID, problem));
+            }
+        }
+        Map<String, Book> previousBooks = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            previousBooks.put(book.getId(), book);
+        }
+
+        List<Book> soldBooks = new ArrayList<>();
+        for (MarkSoldRequest.Item item : items) {
+            Book previousBook = previousBooks.get(item.getId());
+            if (previousBook == null || invalid.containsKey(item.getId())) {
+                continue;
+            }
+            Book soldBook = previousBook.copy();
+            soldBook.setSold(item.getSold() != null ? item.getSold() : request.getSold());
+            soldBook.setPayout(item.getPayout());
+            soldBook.setProfit(item.getPayout() - (previousBook.getCOGS() != null ? previousBook.getCOGS() : 0));
+            soldBooks.add(soldBook);
+        }
+        long written = bookRepository.markSoldUnordered(soldBooks);
+
+        // Usually every write applied; otherwise find out which ones did by reading the books back.
+        // A concurrent write also produces the next version, so a book only counts as sold here
+        // if it holds the very sale written, at that version.
+        Set<String> conflicts = new HashSet<>();
+        if (written < soldBooks.size()) {
+            Map<String, Book> storedBooks = new HashMap<>();
+            for (Book storedBook : bookRepository.findAllByIdWithFields(
+                    soldBooks.stream().map(Book::getId).toList(), SALE_FIELDS)) {
+                storedBooks.put(storedBook.getId(), storedBook);
+            }
+            for (Book soldBook : soldBooks) {
+                Book storedBook = storedBooks.get(soldBook.getId());
+                long expectedVersion = soldBook.getVersion() == null ? 1 : soldBook.getVersion() + 1;
+                if (storedBook == null || !Objects.equals(storedBook.getVersion(), expectedVersion)
+                        || !Objects.equals(storedBook.getSold(), soldBook.getSold())
+                        || !Objects.equals(storedBook.getPayout(), soldBook.getPayout())
+                        || !Objects.equals(storedBook.getProfit(), soldBook.getProfit())) {
+                    conflicts.add(soldBook.getId());
+                }
+            }
+        }
+
+        MarkSoldReport report = new MarkSoldReport();
+        InventorySummary delta = InventorySummary.of(null);
+        SalesRollupDelta salesDelta = new SalesRollupDelta();
+        List<Book> writtenBooks = new ArrayList<>();
+        Map<String, Book> soldById = new HashMap<>();
+        for (Book soldBook : soldBooks) {
+            soldById.put(soldBook.getId(), soldBook);
+        }
+        for (MarkSoldRequest.Item item : items) {
+            MarkSoldReport.Result failure = invalid.get(item.getId());
+            Book soldBook = soldById.get(item.getId());
+            if (failure != null) {
+                report.add(failure);
+            } else if (soldBook == null) {
+                report.add(MarkSoldReport.Result.failed(item.getId(), MarkSoldReport.Status.NOT_FOUND, "Book not found."));
+            } else if (conflicts.contains(item.getId())) {
+                report.add(MarkSoldReport.Result.failed(item.getId(), MarkSoldReport.Status.CONFLICT,
+                        "Book was changed while it was marked sold."));
+            } else {
+                delta = delta.plus(InventorySummary.delta(previousBooks.get(item.getId()), soldBook));
+                salesDelta.add(previousBooks.get(item.getId()), soldBook);
+                // The sale is stored at the next version.
+                Book writtenBook = soldBook.copy();
+                writtenBook.setVersion(soldBook.getVersion() == null ? 1 : soldBook.getVersion() + 1);
+                writtenBooks.add(writtenBook);
+                report.add(MarkSoldReport.Result.sold(item.getId(), soldBook.getProfit()));
+            }
+        }
+        inventorySummaryService.apply(delta);
+        salesRollupService.apply(salesDelta);
+        if (report.getSold() > 0) {
+            collectionVersions.bump(CollectionVersions.BOOKS);
+            eventPublisher.publishEvent(BooksChangedEvent.of(writtenBooks, delta));
+        }
+        logger.info("Marked {} books sold, {} failed.", report.getSold(), report.getFailed());
+        return report;
     }
 
     /**
      * Deletes a book identified by its ID.
-     * If the book is found, it is deleted from the repository.
+     * If the book is found, it is deleted from the repository and removed from the inventory summary.
      *
      * @param id the ID of the book to be deleted.
      */
     public void deleteBook(String id){
       //  logActivity(id, "deleted");
-        bookRepository.deleteById(id);
+        Book deletedBook = bookRepository.findAndRemoveById(id);
+        if (deletedBook != null) {
+            inventorySummaryService.applyChange(deletedBook, null);
+            salesRollupService.applyChange(deletedBook, null);
+            collectionVersions.bump(CollectionVersions.BOOKS);
+            eventPublisher.publishEvent(BooksChangedEvent.deleted(id, InventorySummary.delta(deletedBook, null)));
+        }
     }
 
     /**
@@ -168,6 +449,62 @@ public class BookService {
         return bookRepository.findAll(pageable);
     }
 
+    /**
+     * Retrieves a paginated list of books with only the selected fields.
+     *
+     * @param page The page number to retrieve , starting from 0.
+     * @param limit The maximum number of books to return in a single page.
+     * @param fields the fields to read, see {@link BookFields#parse(String)}.
+     * @return A Page of books with only the selected fields set.
+     */
+    public Page<Book> getBooks(int page, int limit, List<String> fields) {
+        return bookRepository.findPageWithFields(PageRequest.of(page, limit), fields);
+    }
+
+    /**
+     * Retrieves a slice of books with keyset (cursor) pagination.
+     * Each slice seeks past the last book of the previous one on the sort key and ID,
+     * so unlike {@link #getBooks(int, int)} the cost does not grow with the depth and
+     * no count of the collection is needed.
+     *
+     * @param after the cursor returned with the previous slice, or null/empty for the first slice.
+     * @param sort the sort key: id, title, isbn, datePurchased or sold.
+     * @param limit The maximum number of books to return in a single slice.
+     * @return A slice of books together with the cursor of the next slice.
+     * @throws IllegalArgumentException if the sort key or the cursor is invalid.
+     */
+    public BookSlice getBooksAfter(String after, String sort, int limit) {
+        return getBooksAfter(after, sort, limit, null);
+    }
+
+    /**
+     * Retrieves a slice of books with keyset (cursor) pagination, reading only the selected fields.
+     *
+     * @param after the cursor returned with the previous slice, or null/empty for the first slice.
+     * @param sort the sort key: id, title, isbn, datePurchased or sold.
+     * @param limit The maximum number of books to return in a single slice.
+     * @param fields the fields to read, or null for whole books.
+     * @return A slice of books together with the cursor of the next slice.
+     * @throws IllegalArgumentException if the sort key or the cursor is invalid.
+     */
+    public BookSlice getBooksAfter(String after, String sort, int limit, List<String> fields) {
+        BookCursor.checkSort(sort);
+        BookCursor cursor = null;
+        if (after != null && !after.isEmpty()) {
+            cursor = BookCursor.decode(after);
+            if (!cursor.getSort().equals(sort)) {
+                throw new IllegalArgumentException("Cursor was created for sort key: " + cursor.getSort());
+            }
+        }
+        Slice<Book> slice = bookRepository.findSliceAfter(sort, cursor, limit, fields);
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            List<Book> content = slice.getContent();
+            nextCursor = BookCursor.after(sort, content.get(content.size() - 1)).encode();
+        }
+        return new BookSlice(slice.getContent(), nextCursor);
+    }
+
     /**
      * Searches for books by their ISBN.
      *
@@ -178,6 +515,17 @@ public class BookService {
         return bookRepository.findByIsbn(isbn); // Returns a list of books
     }
 
+    /**
+     * Searches for books by their ISBN, reading only the selected fields.
+     *
+     * @param isbn the International Standard Book Number (ISBN) to search.
+     * @param fields the fields to read, see {@link BookFields#parse(String)}.
+     * @return A list of books with only the selected fields set.
+     */
+    public List<Book> searchByIsbn(String isbn, List<String> fields) {
+        return bookRepository.findByIsbnWithFields(isbn, fields);
+    }
+
     /**
      * Saves a Book object to the repository.
      * This method attempts to save the provided books and logs the outcome.
@@ -197,71 +545,28 @@ public class BookService {
     }
 
     /**
-     * Counts the number of active inventory books if 'date' is null.
-     *
-     * @return The count of active inventory books.
-     */
-    public long countActiveInventory() {
-        return bookRepository.countBySoldIsNull();
-    }
-
-    /**
-     * Provides a financial overview of all books.
-     * This method calculates the total cost of goods sold (COGS) and total profit
-     * from all books and returns them in a map.
-     *
-     * @return A map containing the total COGS and total profit.
-     */
-    public Map<String, Double> getFinancialOverview() {
-        //Retrieve the list of all books with only 'cogs' and 'profit' field.
-        List<Book> books = bookRepository.findAllForFinancialSummary();
-
-        //Calculate total COGS
-        //Stream through the list of the books
-        double totalCOGS = books.stream()
-                //Filter out books with COGS  is null to avoid NullPointerException.
-                .filter(book -> book.getCOGS() != null)
-                //Convert each Book object to its COGS value.
-                .mapToDouble(Book::getCOGS)
-                //Sum up all COGS values to get the total.
-                .sum();
-        double totalProfit = books.stream()
-                //Filter out books with profit is null to avoid NullPointerException.
-                .filter(book -> book.getProfit() != null)
-                //Convert each Book object to its profit value.
-                .mapToDouble(Book::getProfit)
-                //Sum up all profit values to get the total.
-                .sum();
-        //Create a map to store and return financial data.
-        Map<String, Double> financials = new HashMap<>();
-        //Put total COGS in the map with key 'cogs'
-        financials.put("cogs", totalCOGS);
-        //Put total profit in the map with key 'profit'
-        financials.put("profit", totalProfit);
-        //Return the map containing total COGS and total profit
-        return financials;
-    }
-
-    /**
-     * Counts the number of books that have been sold, indicated by
-     * 'sold' being not null.
+     * Retrieves everything the dashboard shows in a single database round trip:
+     * the sold and unsold counts, the financial totals and this month's sales count.
      *
-     * @return The count of sold books.
+     * @return the dashboard snapshot.
      */
-    public long countBySoldIsNotNull() {
-        return bookRepository.countBySoldIsNotNull();
+    public DashboardSnapshot getDashboard() {
+        //The current month in UTC, the timezone the dates are stored in.
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        Date startOfMonth = Date.from(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date startOfNextMonth = Date.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        return inventorySummaryService.getDashboard(startOfMonth, startOfNextMonth);
     }
 
     /**
-     * Counts the number of books that have not sold, indicated by
-     * 'sold' being null.
+     * Recounts the inventory summary from the books and rewrites it if it drifted.
      *
-     * @return The count of unsold books.
+     * @return the reconciled inventory summary.
      */
-    public long countBySoldIsNull() {
-        return bookRepository.countBySoldIsNull();
+    public InventorySummary reconcileInventorySummary() {
+        InventorySummary summary = inventorySummaryService.reconcile();
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        eventPublisher.publishEvent(BooksChangedEvent.resync());
+        return summary;
     }
-
-
-
 }
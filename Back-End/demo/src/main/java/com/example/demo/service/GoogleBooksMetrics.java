@@ -0,0 +1,78 @@
+package com.example.demo.service;
+
+import com.example.demo.util.CircuitBreakerOpenException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+/**
+ * Records the calls to the Google Books API in the 'google.books.requests' timer, shared by the
+ * blocking and the reactive lookup.
+ * <p>
+ * Every call is tagged with the HTTP status it got, or with IO_ERROR for timeouts and connection
+ * failures and CIRCUIT_OPEN for calls the circuit breaker rejected, and with the outcome
+ * (SUCCESS, CLIENT_ERROR, SERVER_ERROR or UNKNOWN). The error rate is the share of calls whose
+ * outcome is not SUCCESS. Cache hits make no call and are not recorded.
+ * </p>
+ */
+final class GoogleBooksMetrics {
+
+    static final String REQUESTS = "google.books.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    GoogleBooksMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Starts timing a call.
+     *
+     * @return the running sample.
+     */
+    Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Records a call that got a response.
+     *
+     * @param sample the sample started before the call.
+     * @param statusCode the HTTP status of the response.
+     */
+    void record(Timer.Sample sample, int statusCode) {
+        stop(sample, String.valueOf(statusCode), Outcome.forStatus(statusCode).name());
+    }
+
+    /**
+     * Records a call that failed.
+     *
+     * @param sample the sample started before the call.
+     * @param error the failure.
+     */
+    void record(Timer.Sample sample, Throwable error) {
+        if (error instanceof RestClientResponseException response) {
+            record(sample, response.getStatusCode().value());
+        } else if (error instanceof WebClientResponseException response) {
+            record(sample, response.getStatusCode().value());
+        } else if (error instanceof CircuitBreakerOpenException) {
+            stop(sample, "CIRCUIT_OPEN", Outcome.UNKNOWN.name());
+        } else if (error instanceof ResourceAccessException || error instanceof WebClientRequestException) {
+            stop(sample, "IO_ERROR", Outcome.UNKNOWN.name());
+        } else {
+            stop(sample, "ERROR", Outcome.UNKNOWN.name());
+        }
+    }
+
+    private void stop(Timer.Sample sample, String status, String outcome) {
+        sample.stop(Timer.builder(REQUESTS)
+                .description("Calls to the Google Books API")
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BookDetails;
+import com.example.demo.util.IsbnUtils;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class for looking up book details in the Google Books API.
+ * Lookups are cached in a bounded in-process cache keyed by the normalized ISBN:
+ * <ul>
+ *     <li>found details expire after a TTL and the least valuable entries are evicted above a maximum size,</li>
+ *     <li>"not found" answers are cached too, with their own shorter TTL,</li>
+ *     <li>concurrent lookups of the same ISBN share a single upstream call.</li>
+ * </ul>
+ * Upstream errors are not cached, so the next lookup tries again.
+ * Every upstream call is timed by status, see {@link GoogleBooksMetrics}.
+ */
+@Service
+public class GoogleBooksService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(GoogleBooksService.class);
+
+    /**
+     * RestTemplate for calling the Google Books API.
+     */
+    private final RestTemplate restTemplate;
+
+    /**
+     * Base URL of the volumes endpoint of the Google Books API.
+     */
+    private final String apiUrl;
+
+    /**
+     * API key for the Google Books API.
+     */
+    private final String apiKey;
+
+    /**
+     * Cache of lookups by normalized ISBN. An empty Optional caches a "not found" answer.
+     * In-flight lookups are cached as incomplete futures, which is what coalesces concurrent lookups.
+     */
+    private final AsyncCache<String, Optional<BookDetails>> cache;
+
+    /**
+     * Metrics of the upstream calls.
+     */
+    private final GoogleBooksMetrics metrics;
+
+    private final LongAdder hits = new LongAdder(); //Lookups answered from a cached value.
+    private final LongAdder misses = new LongAdder(); //Lookups that started an upstream call.
+    private final LongAdder coalesced = new LongAdder(); //Lookups that joined another in-flight call.
+    private final LongAdder evictions = new LongAdder(); //Entries removed because of the size bound.
+    private final LongAdder expirations = new LongAdder(); //Entries removed because their TTL passed.
+
+    /**
+     * Autowired constructor for dependency injection of the RestTemplate and the API and cache settings.
+     *
+     * @param restTemplate the template for making HTTP requests.
+     * @param apiUrl the base URL of the volumes endpoint.
+     * @param apiKey the Google Books API key.
+     * @param maxSize the maximum number of cached ISBNs.
+     * @param ttl how long found details stay cached.
+     * @param negativeTtl how long "not found" answers stay cached.
+     * @param meterRegistry the registry to record the upstream calls in.
+     */
+    @Autowired
+    public GoogleBooksService(RestTemplate restTemplate,
+                              @Value("${google.books.api.url:https://www.googleapis.com/books/v1/volumes}") String apiUrl,
+                              @Value("${google.books.api.key}") String apiKey,
+                              @Value("${google.books.cache.max-size:10000}") long maxSize,
+                              @Value("${google.books.cache.ttl:24h}") Duration ttl,
+                              @Value("${google.books.cache.negative-ttl:1h}") Duration negativeTtl,
+                              MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.metrics = new GoogleBooksMetrics(meterRegistry);
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LookupExpiry(ttl, negativeTtl))
+                // Run maintenance on the calling thread so the statistics are up to date when read.
+                .executor(Runnable::run)
+                .removalListener((String isbn, Optional<BookDetails> details, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        evictions.increment();
+                    } else if (cause == RemovalCause.EXPIRED) {
+                        expirations.increment();
+                    }
+                })
+                .buildAsync();
+    }
+
+    /**
+     * Looks up the details of a book by ISBN, from the cache if possible.
+     *
+     * @param isbn the ISBN, with or without separators.
+     * @return the book details, or an empty Optional if the API does not know the ISBN.
+     * @throws IllegalArgumentException if the ISBN has no ISBN characters.
+     * @throws RuntimeException if the API call fails; the failure is not cached.
+     */
+    public Optional<BookDetails> findByIsbn(String isbn) {
+        String key = IsbnUtils.normalize(isbn);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("ISBN is a mandatory field.");
+        }
+        CompletableFuture<Optional<BookDetails>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<BookDetails>> cached = cache.get(key, (isbnKey, executor) -> lookup);
+        if (cached != lookup) {
+            if (cached.isDone()) {
+                hits.increment();
+            } else {
+                coalesced.increment();
+            }
+            return join(cached);
+        }
+        // This thread owns the lookup; every concurrent caller for the same ISBN waits on it.
+        misses.increment();
+        try {
+            lookup.complete(fetch(key));
+        } catch (RuntimeException e) {
+            // A failed future is removed from the cache, so errors are never cached.
+            lookup.completeExceptionally(e);
+        }
+        return join(lookup);
+    }
+
+    /**
+     * Tells whether a lookup of an ISBN would be answered from the cache, without calling the API.
+     * Does not count as a lookup in the statistics.
+     *
+     * @param isbn the ISBN, with or without separators.
+     * @return true if the details or the "not found" answer of the ISBN are cached.
+     */
+    public boolean isCached(String isbn) {
+        CompletableFuture<Optional<BookDetails>> cached = cache.getIfPresent(IsbnUtils.normalize(isbn));
+        return cached != null && cached.isDone() && !cached.isCompletedExceptionally();
+    }
+
+    /**
+     * Retrieves the statistics of the lookup cache.
+     *
+     * @return a map with the cache size and the hit, miss, coalesced, eviction and expiration counts.
+     */
+    public Map<String, Object> getCacheStats() {
+        cache.synchronous().cleanUp();
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum() + coalesced.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.synchronous().estimatedSize());
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("hitRate", requestCount == 0 ? 0.0 : (double) hitCount / requestCount);
+        return stats;
+    }
+
+    /**
+     * Calls the Google Books API and extracts the details of the first matching volume.
+     *
+     * @param isbn the normalized ISBN.
+     * @return the book details, or an empty Optional if no volume matches.
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<BookDetails> fetch(String isbn) {
+        logger.info("Looking up book details for ISBN: {}", isbn);
+        Timer.Sample sample = metrics.start();
+        ResponseEntity<Map> response;
+        try {
+            response = restTemplate.getForEntity(volumesUri(apiUrl, apiKey, isbn), Map.class);
+        } catch (RuntimeException e) {
+            metrics.record(sample, e);
+            throw e;
+        }
+        metrics.record(sample, response.getStatusCode().value());
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return Optional.empty();
+        }
+        return parseVolumes(response.getBody());
+    }
+
+    /**
+     * Builds the URI of the volumes query for an ISBN.
+     *
+     * @param apiUrl the base URL of the volumes endpoint.
+     * @param apiKey the Google Books API key.
+     * @param isbn the normalized ISBN.
+     * @return the query URI.
+     */
+    static URI volumesUri(String apiUrl, String apiKey, String isbn) {
+        return UriComponentsBuilder.fromHttpUrl(apiUrl)
+                .queryParam("q", "isbn:" + isbn)
+                .queryParam("key", apiKey)
+                .build()
+                .toUri();
+    }
+
+    /**
+     * Extracts the details of the first volume of a volumes query response.
+     *
+     * @param body the parsed response body, may be null.
+     * @return the book details, or an empty Optional if no volume matches.
+     */
+    @SuppressWarnings("unchecked")
+    static Optional<BookDetails> parseVolumes(Map<String, Object> body) {
+        if (body == null) {
+            return Optional.empty();
+        }
+        List<Map<String, Object>> items = (List<Map<String, Object>>) body.get("items");
+        if (items == null || items.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Object> volumeInfo = (Map<String, Object>) items.get(0).get("volumeInfo");
+        if (volumeInfo == null) {
+            return Optional.empty();
+        }
+        Map<String, Object> imageLinks = (Map<String, Object>) volumeInfo.get("imageLinks");
+        BookDetails details = new BookDetails();
+        details.setTitle((String) volumeInfo.get("title"));
+        details.setAuthors((List<String>) volumeInfo.get("authors"));
+        details.setPublisher((String) volumeInfo.get("publisher"));
+        details.setPublishedDate((String) volumeInfo.get("publishedDate"));
+        Object pageCount = volumeInfo.get("pageCount");
+        details.setPageCount(pageCount instanceof Number number ? number.intValue() : null);
+        details.setImageUrl(imageLinks != null ? (String) imageLinks.get("thumbnail") : null);
+        return Optional.of(details);
+    }
+
+    /**
+     * Waits for a lookup and rethrows its failure unwrapped.
+     *
+     * @param lookup the lookup future.
+     * @return the result of the lookup.
+     */
+    private static Optional<BookDetails> join(CompletableFuture<Optional<BookDetails>> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Expiry policy giving found details and "not found" answers different TTLs.
+     */
+    static final class LookupExpiry implements Expiry<String, Optional<BookDetails>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        LookupExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String isbn, Optional<BookDetails> details, long currentTime) {
+            return details.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String isbn, Optional<BookDetails> details, long currentTime, long currentDuration) {
+            return expireAfterCreate(isbn, details, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String isbn, Optional<BookDetails> details, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
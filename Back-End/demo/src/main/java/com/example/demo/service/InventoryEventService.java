@@ -0,0 +1,280 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventoryUpdate;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Service class for pushing the inventory totals to connected dashboards as server-sent events.
+ * A subscriber first receives a snapshot of the totals and then a delta for every
+ * {@link BooksChangedEvent}, so the dashboard stays current without polling.
+ *
+ * <p>Writes only put the update into a small buffer per subscriber; a shared pool of senders
+ * writes the buffers to the connections. When a slow client lets its buffer fill up, the
+ * newest updates are merged into the last buffered one instead of being queued, so the client
+ * receives fewer but still correct totals and a write never waits for a client.</p>
+ */
+@Service
+public class InventoryEventService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(InventoryEventService.class);
+
+    /**
+     * Service providing the totals for the snapshots.
+     */
+    private final InventorySummaryService inventorySummaryService;
+
+    /**
+     * Threads writing the buffered updates to the connections.
+     */
+    private final ExecutorService senders;
+
+    private final long timeoutMillis; //Time after which a connection is closed; clients reconnect on their own.
+    private final int bufferSize; //Maximum number of updates buffered per subscriber.
+    private final int maxSubscribers; //Maximum number of open connections.
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet(); //The open connections.
+    private final AtomicLong sequence = new AtomicLong(); //Number of the last change.
+    private final LongAdder sent = new LongAdder(); //Updates written to a connection.
+    private final LongAdder coalesced = new LongAdder(); //Updates merged because a buffer was full.
+    private final LongAdder rejected = new LongAdder(); //Subscriptions refused at the connection limit.
+
+    /**
+     * Autowired constructor for dependency injection of the summary service and the feed settings.
+     *
+     * @param inventorySummaryService the service maintaining the inventory summary.
+     * @param timeout the time after which a connection is closed.
+     * @param bufferSize the maximum number of updates buffered per subscriber.
+     * @param maxSubscribers the maximum number of open connections.
+     * @param senderCount the number of threads writing to the connections.
+     */
+    @Autowired
+    public InventoryEventService(InventorySummaryService inventorySummaryService,
+                                 @Value("${books.events.timeout:30m}") Duration timeout,
+                                 @Value("${books.events.buffer-size:16}") int bufferSize,
+                                 @Value("${books.events.max-subscribers:1000}") int maxSubscribers,
+                                 @Value("${books.events.senders:4}") int senderCount) {
+        this.inventorySummaryService = inventorySummaryService;
+        this.timeoutMillis = timeout.toMillis();
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderCount, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-events-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a connection to the feed, starting with a snapshot of the current totals.
+     *
+     * @return the emitter of the connection.
+     * @throws IllegalStateException if the maximum number of connections is open.
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            rejected.increment();
+            throw new IllegalStateException("Too many open inventory event connections.");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscribers.remove(subscriber));
+        // Registered before the totals are read, so a write after the read is not missed;
+        // the snapshot replaces whatever was buffered in between.
+        subscribers.add(subscriber);
+        subscriber.offer(InventoryUpdate.snapshot(inventorySummaryService.getSummary(), sequence.get()));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Buffers the change of a book write for every subscriber.
+     * A recount is sent as a new snapshot.
+     *
+     * @param event the domain event of the write.
+     */
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        InventoryUpdate update;
+        if (event.isResync()) {
+            update = InventoryUpdate.snapshot(inventorySummaryService.getSummary(), sequence.incrementAndGet());
+        } else if (event.getDelta().isZero()) {
+            return;
+        } else {
+            update = InventoryUpdate.delta(event.getDelta(), sequence.incrementAndGet());
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.offer(update)) {
+                coalesced.increment();
+            }
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Retrieves the statistics of the feed.
+     *
+     * @return a map with the number of connections and the update counters.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("sequence", sequence.get());
+        stats.put("sent", sent.sum());
+        stats.put("coalesced", coalesced.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    /**
+     * Closes every connection when the application shuts down.
+     */
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    /**
+     * Hands a subscriber to the senders unless a sender is already writing its buffer.
+     *
+     * @param subscriber the subscriber with buffered updates.
+     */
+    private void schedule(Subscriber subscriber) {
+        if (!subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            senders.execute(() -> send(subscriber));
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    /**
+     * Writes the buffered updates of a subscriber until its buffer is empty.
+     * A connection that fails is closed and removed.
+     *
+     * @param subscriber the subscriber to write to.
+     */
+    private void send(Subscriber subscriber) {
+        while (true) {
+            List<InventoryUpdate> updates = subscriber.drain();
+            if (updates.isEmpty()) {
+                subscriber.scheduled.set(false);
+                // An update buffered after the drain but before the flag was cleared found the
+                // flag still set and was not scheduled; pick it up here.
+                if (subscriber.isEmpty() || !subscriber.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                for (InventoryUpdate update : updates) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(update.getSequence()))
+                            .name(update.getType().name().toLowerCase())
+                            .data(update, MediaType.APPLICATION_JSON));
+                    sent.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Inventory event connection closed: {}", e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * An open connection with its bounded buffer of updates not written yet.
+     */
+    static class Subscriber {
+        private final SseEmitter emitter; //The connection.
+        private final int capacity; //Maximum number of buffered updates.
+        private final ArrayDeque<InventoryUpdate> buffer = new ArrayDeque<>(); //Updates not written yet.
+        private final AtomicBoolean scheduled = new AtomicBoolean(); //True while a sender owns the subscriber.
+
+        Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.capacity = Math.max(capacity, 1);
+        }
+
+        /**
+         * Buffers an update. A snapshot replaces the whole buffer; when the buffer is full
+         * the update is merged into the last buffered one.
+         *
+         * @param update the update.
+         * @return false if the update was merged because the buffer was full.
+         */
+        synchronized boolean offer(InventoryUpdate update) {
+            if (update.getType() == InventoryUpdate.Type.SNAPSHOT) {
+                buffer.clear();
+                buffer.add(update);
+                return true;
+            }
+            if (buffer.size() < capacity) {
+                buffer.add(update);
+                return true;
+            }
+            buffer.add(buffer.pollLast().plus(update));
+            return false;
+        }
+
+        /**
+         * Takes every buffered update.
+         *
+         * @return the updates in order, empty if none are buffered.
+         */
+        synchronized List<InventoryUpdate> drain() {
+            List<InventoryUpdate> updates = new ArrayList<>(buffer);
+            buffer.clear();
+            return updates;
+        }
+
+        /**
+         * Checks if no update is buffered.
+         *
+         * @return true if the buffer is empty.
+         */
+        synchronized boolean isEmpty() {
+            return buffer.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.InventorySummaryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+/**
+ * Service class for maintaining the inventory summary document.
+ * Every book write is turned into a delta of the counts and financial totals and applied
+ * with a single atomic '$inc', so the dashboard reads one small document instead of
+ * scanning the 'Book' collection. A full recount is available to rebuild the document
+ * or to reconcile it if it drifted.
+ */
+@Service
+public class InventorySummaryService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(InventorySummaryService.class);
+
+    /**
+     * Maximum difference between a stored and a recounted amount before it counts as drift.
+     * Repeated '$inc' of doubles accumulates rounding errors that are not worth a rewrite.
+     */
+    private static final double AMOUNT_TOLERANCE = 0.005;
+
+    /**
+     * Repository for the summary document.
+     */
+    private final InventorySummaryRepository summaryRepository;
+
+    /**
+     * Repository used to recount the totals from the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Autowired constructor for dependency injection of the repositories.
+     *
+     * @param summaryRepository the repository for the summary document.
+     * @param bookRepository the repository for book data operations.
+     */
+    @Autowired
+    public InventorySummaryService(InventorySummaryRepository summaryRepository, BookRepository bookRepository) {
+        this.summaryRepository = summaryRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Makes sure the summary document exists once the application is ready.
+     * Failures are only logged so the application still starts without a database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (!summaryRepository.existsById(InventorySummary.BOOKS_ID)) {
+                logger.info("Inventory summary not found, building it from the book collection.");
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.error("Could not initialize the inventory summary: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the current inventory summary.
+     * Builds it with a full recount if it does not exist yet.
+     *
+     * @return the inventory summary.
+     */
+    public InventorySummary getSummary() {
+        return summaryRepository.findById(InventorySummary.BOOKS_ID).orElseGet(this::rebuild);
+    }
+
+    /**
+     * Retrieves the dashboard snapshot: the inventory summary together with the
+     * number of books sold in the given period, in a single aggregation.
+     * Builds the summary with a full recount if it does not exist yet.
+     *
+     * @param from the start of the period, inclusive.
+     * @param to the end of the period, exclusive.
+     * @return the dashboard snapshot.
+     */
+    public DashboardSnapshot getDashboard(Date from, Date to) {
+        DashboardSnapshot snapshot = summaryRepository.aggregateDashboard(InventorySummary.BOOKS_ID, from, to);
+        if (snapshot == null) {
+            rebuild();
+            snapshot = summaryRepository.aggregateDashboard(InventorySummary.BOOKS_ID, from, to);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Applies the change caused by a single book write to the summary.
+     *
+     * @param before the book before the write, or null if it was created.
+     * @param after the book after the write, or null if it was deleted.
+     */
+    public void applyChange(Book before, Book after) {
+        apply(InventorySummary.delta(before, after));
+    }
+
+    /**
+     * Applies a delta to the summary with a single atomic '$inc'.
+     * If the summary document is missing it is rebuilt instead, which already
+     * includes the write the delta describes.
+     *
+     * @param delta the delta to apply.
+     */
+    public void apply(InventorySummary delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        if (!summaryRepository.increment(InventorySummary.BOOKS_ID, delta)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the summary document from a full recount of the books.
+     * Writes that happen while the recount runs may be lost, so this is meant
+     * for startup and maintenance, not for the request path.
+     *
+     * @return the rebuilt summary.
+     */
+    public InventorySummary rebuild() {
+        InventorySummary summary = recount();
+        InventorySummary saved = summaryRepository.save(summary);
+        logger.info("Inventory summary rebuilt: {} sold, {} unsold.", saved.getSoldCount(), saved.getUnsoldCount());
+        return saved;
+    }
+
+    /**
+     * Compares the summary document with a full recount of the books and rewrites it if they differ.
+     *
+     * @return the reconciled summary.
+     */
+    public InventorySummary reconcile() {
+        InventorySummary stored = summaryRepository.findById(InventorySummary.BOOKS_ID).orElse(null);
+        InventorySummary recounted = recount();
+        if (stored != null && matches(stored, recounted)) {
+            return stored;
+        }
+        logger.warn("Inventory summary drifted from the book collection, rewriting it.");
+        return summaryRepository.save(recounted);
+    }
+
+    /**
+     * Recounts the totals of all books with an aggregation.
+     *
+     * @return the recounted summary with the summary document ID set.
+     */
+    private InventorySummary recount() {
+        InventorySummary summary = bookRepository.aggregateInventorySummary();
+        //An empty collection produces no group at all.
+        if (summary == null) {
+            summary = InventorySummary.of(null);
+        }
+        summary.setId(InventorySummary.BOOKS_ID);
+        return summary;
+    }
+
+    /**
+     * Checks if two summaries hold the same counts and, within rounding, the same amounts.
+     *
+     * @param a the first summary.
+     * @param b the second summary.
+     * @return true if the summaries match.
+     */
+    static boolean matches(InventorySummary a, InventorySummary b) {
+        InventorySummary difference = a.minus(b);
+        return difference.getSoldCount() == 0
+                && difference.getUnsoldCount() == 0
+                && difference.getMarginCount() == 0
+                && Math.abs(difference.getTotalCogs()) < AMOUNT_TOLERANCE
+                && Math.abs(difference.getSoldCogs()) < AMOUNT_TOLERANCE
+                && Math.abs(difference.getTotalPayout()) < AMOUNT_TOLERANCE
+                && Math.abs(difference.getTotalProfit()) < AMOUNT_TOLERANCE
+                && Math.abs(difference.getMarginSum()) < AMOUNT_TOLERANCE;
+    }
+}
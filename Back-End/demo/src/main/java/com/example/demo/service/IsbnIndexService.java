@@ -0,0 +1,218 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.IsbnIndex;
+import com.example.demo.util.IsbnUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class answering whether an ISBN is in the inventory, and with how many copies,
+ * without a database round trip.
+ * <p>
+ * The answers come from an in-memory {@link IsbnIndex}, built at startup by streaming the ID and
+ * ISBN of every book, and kept up to date from the books carried by the change events like the
+ * title search, without reading the database; a write that keeps the ISBN of a copy leaves it as is.
+ * Until the first build has finished the index is not ready, and callers must ask the database.
+ * </p>
+ */
+@Service
+public class IsbnIndexService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(IsbnIndexService.class);
+
+    /**
+     * The fields read to index a book.
+     */
+    private static final List<String> INDEXED_FIELDS = List.of("isbn", "version");
+
+    /**
+     * Repository for reading the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * The index answering the requests, replaced as a whole by a rebuild.
+     */
+    private volatile IsbnIndex index = new IsbnIndex();
+    private volatile boolean ready;
+
+    /**
+     * IDs of the books changed while a rebuild is running.
+     */
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    /**
+     * Autowired constructor for dependency injection of BookRepository.
+     *
+     * @param bookRepository the repository for book data operations.
+     */
+    @Autowired
+    public IsbnIndexService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Tells whether the index has been built and answers for the whole collection.
+     *
+     * @return true once the first build has finished.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Counts the copies of an ISBN in the inventory.
+     *
+     * @param isbn the ISBN-10 or ISBN-13, with or without separators.
+     * @return the number of copies, 0 for an unknown or invalid ISBN.
+     */
+    public int countCopies(String isbn) {
+        return index.countCopies(isbn);
+    }
+
+    /**
+     * Gets the IDs of the copies of an ISBN in the inventory.
+     *
+     * @param isbn the ISBN-10 or ISBN-13, with or without separators.
+     * @return the IDs of the copies, empty for an unknown or invalid ISBN.
+     */
+    public List<String> getCopyIds(String isbn) {
+        return index.copyIds(isbn);
+    }
+
+    /**
+     * Tells whether an ISBN is known not to be in the inventory, so a search for it can be
+     * answered without the database. An invalid ISBN is never indexed, so only the database
+     * can tell whether a book was saved with it.
+     *
+     * @param isbn the ISBN as searched.
+     * @return true if the index is ready, the ISBN valid and no copy of it indexed.
+     */
+    public boolean isAbsent(String isbn) {
+        return ready && IsbnUtils.toLong(isbn) != IsbnUtils.INVALID && index.countCopies(isbn) == 0;
+    }
+
+    /**
+     * Tells whether the inventory has a copy of an ISBN, from the index once it is ready and
+     * from the database before, or for an ISBN the index cannot hold.
+     *
+     * @param isbn the ISBN as entered.
+     * @return true if there is at least one copy.
+     */
+    public boolean hasCopies(String isbn) {
+        if (ready && IsbnUtils.toLong(isbn) != IsbnUtils.INVALID) {
+            return index.countCopies(isbn) > 0;
+        }
+        return !bookRepository.findByIsbn(isbn).isEmpty();
+    }
+
+    /**
+     * Retrieves the size of the index.
+     *
+     * @return the number of copies and ISBNs, the estimated heap used in total and per copy,
+     *         and whether the index is ready.
+     */
+    public Map<String, Object> getStats() {
+        IsbnIndex current = index;
+        int copies = current.size();
+        long bytes = current.memoryBytes();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("copies", copies);
+        stats.put("isbns", current.isbnCount());
+        stats.put("memoryBytes", bytes);
+        stats.put("bytesPerCopy", copies == 0 ? 0 : bytes / copies);
+        return stats;
+    }
+
+    /**
+     * Builds the index from the books in the database once the application is ready.
+     * Failures are only logged so the application still starts without a database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding = true;
+        try {
+            long start = System.nanoTime();
+            IsbnIndex rebuilt;
+            try (Stream<Book> books = bookRepository.streamBooks(BookFilter.all(), INDEXED_FIELDS)) {
+                rebuilt = IsbnIndex.of(books);
+            }
+            index = rebuilt;
+            ready = true;
+            logger.info("Indexed {} ISBNs of {} books in {} ms, ~{} bytes per book.", rebuilt.isbnCount(), rebuilt.size(),
+                    (System.nanoTime() - start) / 1_000_000, rebuilt.size() == 0 ? 0 : rebuilt.memoryBytes() / rebuilt.size());
+        } catch (Exception e) {
+            logger.error("Could not build the ISBN index: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            Set<String> changed = new HashSet<>(changedDuringRebuild);
+            changedDuringRebuild.removeAll(changed);
+            if (!changed.isEmpty()) {
+                refresh(changed);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the books of a change from the books it carries.
+     *
+     * @param event the change.
+     */
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        // A resync recomputes the totals; the ISBNs did not change.
+        if (event.getBookIds().isEmpty()) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.addAll(event.getBookIds());
+        }
+        update(event.getBookIds(), event.getBooks());
+    }
+
+    /**
+     * Reads the ISBNs of books changed during a rebuild again and updates the index.
+     *
+     * @param ids the IDs of the books.
+     */
+    private void refresh(Collection<String> ids) {
+        update(ids, bookRepository.findAllByIdWithFields(ids, INDEXED_FIELDS));
+    }
+
+    /**
+     * Updates the index with the current state of books, removing the books that no longer exist.
+     *
+     * @param ids the IDs of the books.
+     * @param books the books that still exist.
+     */
+    private void update(Collection<String> ids, List<Book> books) {
+        IsbnIndex current = index;
+        Set<String> missing = new HashSet<>(ids);
+        for (Book book : books) {
+            current.put(book);
+            missing.remove(book.getId());
+        }
+        missing.forEach(current::remove);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.ReactiveBookRepository;
+import com.example.demo.repository.ReactiveInventorySummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Date;
+
+/**
+ * Service class for the book reads of the reactive stack.
+ * Reads the same data as {@link BookService} through the reactive MongoDB driver, so no
+ * thread waits for the database. The inventory summary is still maintained by the blocking
+ * services; when it is missing it is rebuilt by them on the bounded elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBookService {
+    /**
+     * Reactive repository for reading books.
+     */
+    private final ReactiveBookRepository bookRepository;
+
+    /**
+     * Reactive repository for reading the inventory summary.
+     */
+    private final ReactiveInventorySummaryRepository summaryRepository;
+
+    /**
+     * Service maintaining the inventory summary, used to rebuild a missing summary.
+     */
+    private final InventorySummaryService inventorySummaryService;
+
+    /**
+     * Autowired constructor for dependency injection of the repositories and the summary service.
+     *
+     * @param bookRepository the reactive repository for books.
+     * @param summaryRepository the reactive repository for the inventory summary.
+     * @param inventorySummaryService the service maintaining the inventory summary.
+     */
+    @Autowired
+    public ReactiveBookService(ReactiveBookRepository bookRepository,
+                               ReactiveInventorySummaryRepository summaryRepository,
+                               InventorySummaryService inventorySummaryService) {
+        this.bookRepository = bookRepository;
+        this.summaryRepository = summaryRepository;
+        this.inventorySummaryService = inventorySummaryService;
+    }
+
+    /**
+     * Retrieves a paginated list of books, like {@link BookService#getBooks(int, int)}.
+     * The page and the total count are read concurrently.
+     *
+     * @param page The page number to retrieve, starting from 0.
+     * @param limit The maximum number of books to return in a single page.
+     * @return the page of books.
+     */
+    public Mono<Page<Book>> getBooks(int page, int limit) {
+        Pageable pageable = PageRequest.of(page, limit);
+        return Mono.zip(bookRepository.findAllBy(pageable).collectList(), bookRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    /**
+     * Fetches a book by its unique identifier.
+     *
+     * @param id The ID of the book to retrieve.
+     * @return the book, empty if no book has the ID.
+     */
+    public Mono<Book> getBookById(String id) {
+        return bookRepository.findById(id);
+    }
+
+    /**
+     * Searches for books by their ISBN.
+     *
+     * @param isbn the International Standard Book Number (ISBN) to search.
+     * @return the books that match the given ISBN.
+     */
+    public Flux<Book> searchByIsbn(String isbn) {
+        return bookRepository.findByIsbn(isbn);
+    }
+
+    /**
+     * Retrieves the dashboard snapshot in one aggregation, like {@link BookService#getDashboard()}.
+     *
+     * @return the dashboard snapshot.
+     */
+    public Mono<DashboardSnapshot> getDashboard() {
+        //The current month in UTC, the timezone the dates are stored in.
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        Date startOfMonth = Date.from(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date startOfNextMonth = Date.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Mono<DashboardSnapshot> dashboard = summaryRepository.aggregateDashboard(
+                InventorySummary.BOOKS_ID, startOfMonth, startOfNextMonth);
+        return dashboard.switchIfEmpty(Mono.fromCallable(inventorySummaryService::rebuild)
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(dashboard));
+    }
+}
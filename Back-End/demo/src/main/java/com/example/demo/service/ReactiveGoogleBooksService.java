@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BookDetails;
+import com.example.demo.util.IsbnUtils;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Service class for looking up book details in the Google Books API without blocking,
+ * used by the reactive stack. Lookups are cached like in {@link GoogleBooksService}:
+ * found details and "not found" answers with their own TTLs, concurrent lookups of the same
+ * ISBN sharing one upstream call, and errors never cached.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveGoogleBooksService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveGoogleBooksService.class);
+
+    /**
+     * Type of the parsed volumes response.
+     */
+    private static final ParameterizedTypeReference<Map<String, Object>> VOLUMES =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * Non-blocking client for calling the Google Books API.
+     */
+    private final WebClient webClient;
+
+    private final String apiUrl; //Base URL of the volumes endpoint.
+    private final String apiKey; //API key for the Google Books API.
+
+    /**
+     * Cache of lookups by normalized ISBN. An empty Optional caches a "not found" answer.
+     */
+    private final AsyncCache<String, Optional<BookDetails>> cache;
+
+    /**
+     * Metrics of the upstream calls, shared with {@link GoogleBooksService}.
+     */
+    private final GoogleBooksMetrics metrics;
+
+    /**
+     * Autowired constructor for dependency injection of the WebClient and the API and cache settings.
+     *
+     * @param outboundWebClient the client for making HTTP requests.
+     * @param apiUrl the base URL of the volumes endpoint.
+     * @param apiKey the Google Books API key.
+     * @param maxSize the maximum number of cached ISBNs.
+     * @param ttl how long found details stay cached.
+     * @param negativeTtl how long "not found" answers stay cached.
+     * @param meterRegistry the registry to record the upstream calls in.
+     */
+    @Autowired
+    public ReactiveGoogleBooksService(WebClient outboundWebClient,
+                                      @Value("${google.books.api.url:https://www.googleapis.com/books/v1/volumes}") String apiUrl,
+                                      @Value("${google.books.api.key}") String apiKey,
+                                      @Value("${google.books.cache.max-size:10000}") long maxSize,
+                                      @Value("${google.books.cache.ttl:24h}") Duration ttl,
+                                      @Value("${google.books.cache.negative-ttl:1h}") Duration negativeTtl,
+                                      MeterRegistry meterRegistry) {
+        this.webClient = outboundWebClient;
+        this.metrics = new GoogleBooksMetrics(meterRegistry);
+        this.apiUrl = apiUrl;
+        this.apiKey = apiKey;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new GoogleBooksService.LookupExpiry(ttl, negativeTtl))
+                .executor(Runnable::run)
+                .buildAsync();
+    }
+
+    /**
+     * Looks up the details of a book by ISBN, from the cache if possible.
+     *
+     * @param isbn the ISBN, with or without separators.
+     * @return the book details, or an empty Optional if the API does not know the ISBN;
+     *         fails with IllegalArgumentException if the ISBN has no ISBN characters, or with
+     *         the client error if the API call fails.
+     */
+    public Mono<Optional<BookDetails>> findByIsbn(String isbn) {
+        String key = IsbnUtils.normalize(isbn);
+        if (key.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("ISBN is a mandatory field."));
+        }
+        // The cached future is shared by every concurrent lookup; a failed one is dropped from the cache.
+        return Mono.fromFuture(() -> cache.get(key, (isbnKey, executor) -> fetch(isbnKey).toFuture()));
+    }
+
+    /**
+     * Calls the Google Books API and extracts the details of the first matching volume.
+     *
+     * @param isbn the normalized ISBN.
+     * @return the book details, or an empty Optional if no volume matches.
+     */
+    private Mono<Optional<BookDetails>> fetch(String isbn) {
+        logger.info("Looking up book details for ISBN: {}", isbn);
+        return Mono.defer(() -> {
+            Timer.Sample sample = metrics.start();
+            return webClient.get()
+                    .uri(GoogleBooksService.volumesUri(apiUrl, apiKey, isbn))
+                    .retrieve()
+                    .toEntity(VOLUMES)
+                    .doOnNext(response -> metrics.record(sample, response.getStatusCode().value()))
+                    .doOnError(e -> metrics.record(sample, e))
+                    .map(response -> GoogleBooksService.parseVolumes(response.getBody()));
+        });
+    }
+}
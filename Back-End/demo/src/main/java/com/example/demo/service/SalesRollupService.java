@@ -0,0 +1,232 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.SalesBucket;
+import com.example.demo.model.SalesRollupDelta;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.SalesBucketRepository;
+import com.example.demo.util.CollectionVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Service class for maintaining the per-day and per-month sales rollups.
+ * Every book write is turned into a delta of the buckets of its sold date and applied with
+ * '$inc', so a sales trend over any number of periods reads one document per period with
+ * sales instead of loading the sold books. A backfill rebuilds the buckets from the books.
+ */
+@Service
+public class SalesRollupService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    /**
+     * Maximum number of periods in one trend, about ten years of days.
+     */
+    static final int MAX_PERIODS = 3660;
+
+    /**
+     * The fields a sale is rolled up from, read by the backfill.
+     */
+    private static final List<String> SALE_FIELDS = List.of("sold", "payout", "cogs", "profit");
+
+    /**
+     * Number of times a rebuild rolls up the books before it blocks the deltas for its last try.
+     */
+    static final int REBUILD_ATTEMPTS = 3;
+
+    /**
+     * Repository for the sales buckets.
+     */
+    private final SalesBucketRepository salesBucketRepository;
+
+    /**
+     * Repository used to backfill the buckets from the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Versions of the collections, bumped after a rebuild for the conditional GET support.
+     */
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Held shared while a delta is applied and exclusively while a rebuild writes the buckets.
+     */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    /**
+     * Number of deltas applied so far, for a rebuild to detect the ones applied while it streamed.
+     */
+    private final AtomicLong appliedDeltas = new AtomicLong();
+
+    /**
+     * Autowired constructor for dependency injection of the repositories.
+     *
+     * @param salesBucketRepository the repository for the sales buckets.
+     * @param bookRepository the repository for book data operations.
+     * @param collectionVersions the versions of the collections.
+     */
+    @Autowired
+    public SalesRollupService(SalesBucketRepository salesBucketRepository, BookRepository bookRepository,
+                              CollectionVersions collectionVersions) {
+        this.salesBucketRepository = salesBucketRepository;
+        this.bookRepository = bookRepository;
+        this.collectionVersions = collectionVersions;
+    }
+
+    /**
+     * Backfills the buckets once the application is ready if there are sold books but no buckets,
+     * as after the first start with rollups on an existing inventory.
+     * Failures are only logged so the application still starts without a database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            if (salesBucketRepository.count() == 0 && bookRepository.countBySoldIsNotNull() > 0) {
+                logger.info("Sales rollups not found, backfilling them from the book collection.");
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.error("Could not initialize the sales rollups: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the change caused by a single book write to the buckets.
+     *
+     * @param before the book before the write, or null if it was created.
+     * @param after the book after the write, or null if it was deleted.
+     */
+    public void applyChange(Book before, Book after) {
+        apply(SalesRollupDelta.of(before, after));
+    }
+
+    /**
+     * Applies a delta to the buckets with one bulk write.
+     *
+     * @param delta the delta to apply.
+     */
+    public void apply(SalesRollupDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        rebuildLock.readLock().lock();
+        try {
+            appliedDeltas.incrementAndGet();
+            salesBucketRepository.increment(delta.getBuckets());
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds every bucket from the sold books.
+     * The sold books are streamed with only their sale fields and rolled up in memory, which
+     * holds one entry per day and month with sales. The rollup is only written if no delta was
+     * applied while the books were streamed, since the stream may have missed that write and
+     * overwriting its '$inc' would lose it; otherwise the books are rolled up again. The last of
+     * {@link #REBUILD_ATTEMPTS} tries blocks the deltas while it streams, so a steady write load
+     * cannot starve the rebuild. A write whose book is streamed before its delta is applied is still
+     * counted twice, so this is meant for startup and maintenance, not for the request path.
+     *
+     * @return the number of buckets written.
+     */
+    public int rebuild() {
+        for (int attempt = 1; attempt < REBUILD_ATTEMPTS; attempt++) {
+            long applied = appliedDeltas.get();
+            SalesRollupDelta rollup = rollUpSoldBooks();
+            rebuildLock.writeLock().lock();
+            try {
+                if (appliedDeltas.get() == applied) {
+                    return write(rollup);
+                }
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+            logger.info("Sales changed while the rollups were rebuilt, rolling up the books again.");
+        }
+        rebuildLock.writeLock().lock();
+        try {
+            return write(rollUpSoldBooks());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private SalesRollupDelta rollUpSoldBooks() {
+        SalesRollupDelta rollup = new SalesRollupDelta();
+        try (Stream<Book> soldBooks = bookRepository.streamBooks(BookFilter.of("sold", null, null, null), SALE_FIELDS)) {
+            for (Book book : (Iterable<Book>) soldBooks::iterator) {
+                rollup.add(null, book);
+            }
+        }
+        return rollup;
+    }
+
+    private int write(SalesRollupDelta rollup) {
+        List<SalesBucket> buckets = new ArrayList<>(rollup.getBuckets());
+        salesBucketRepository.replaceAll(buckets);
+        collectionVersions.bump(CollectionVersions.BOOKS);
+        logger.info("Sales rollups rebuilt into {} buckets.", buckets.size());
+        return buckets.size();
+    }
+
+    /**
+     * Retrieves the sales of every period in a range, served from the buckets only.
+     * Periods without sales are included with zero totals, so the trend has no gaps.
+     *
+     * @param from a day in the first period.
+     * @param to a day in the last period.
+     * @param granularity the length of the periods.
+     * @return the buckets of the periods, in chronological order.
+     * @throws IllegalArgumentException if the range is reversed or has more than {@link #MAX_PERIODS} periods.
+     */
+    public List<SalesBucket> getTrend(LocalDate from, LocalDate to, SalesBucket.Granularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("The range starts after it ends: " + from + " > " + to);
+        }
+        LocalDate first = granularity.truncate(from);
+        LocalDate end = granularity.next(granularity.truncate(to));
+        long periods = granularity == SalesBucket.Granularity.DAY
+                ? ChronoUnit.DAYS.between(first, end)
+                : ChronoUnit.MONTHS.between(first, end);
+        if (periods > MAX_PERIODS) {
+            throw new IllegalArgumentException("A trend can have at most " + MAX_PERIODS + " periods.");
+        }
+        Map<String, SalesBucket> stored = new HashMap<>();
+        for (SalesBucket bucket : salesBucketRepository.findInRange(granularity, toDate(first), toDate(end))) {
+            stored.put(bucket.getId(), bucket);
+        }
+        List<SalesBucket> trend = new ArrayList<>((int) periods);
+        for (LocalDate start = first; start.isBefore(end); start = granularity.next(start)) {
+            SalesBucket bucket = stored.get(SalesBucket.idOf(granularity, start));
+            trend.add(bucket != null ? bucket : SalesBucket.empty(granularity, start));
+        }
+        return trend;
+    }
+
+    private static Date toDate(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFilter;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.TitleIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Service class for the typeahead search of books by title.
+ * <p>
+ * The search is answered from an in-memory {@link TitleIndex}, built at startup by streaming
+ * the ID, ISBN and title of every book, and kept up to date from the book change events: the
+ * books as written, carried by the events, are re-indexed and the deleted ones removed, so a
+ * write does not read the database again. Books changed while the index is being built are
+ * read again once it is in place, so no change is lost.
+ * </p>
+ */
+@Service
+public class TitleSearchService {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(TitleSearchService.class);
+
+    /**
+     * The fields read to index a book.
+     */
+    private static final List<String> INDEXED_FIELDS = List.of("isbn", "title", "version");
+
+    /**
+     * Repository for reading the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * The index searched by the requests, replaced as a whole by a rebuild.
+     */
+    private volatile TitleIndex index = new TitleIndex();
+
+    /**
+     * IDs of the books changed while a rebuild is running.
+     */
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    /**
+     * Autowired constructor for dependency injection of BookRepository.
+     *
+     * @param bookRepository the repository for book data operations.
+     */
+    @Autowired
+    public TitleSearchService(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Searches the books whose title matches a typeahead query.
+     *
+     * @param query the query as typed.
+     * @param limit the maximum number of results.
+     * @return the matching books with their ID, ISBN and title, best matches first.
+     */
+    public List<Book> searchByTitle(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    /**
+     * Builds the index from the books in the database once the application is ready.
+     * Failures are only logged so the application still starts without a database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilding = true;
+        try {
+            long start = System.nanoTime();
+            TitleIndex rebuilt;
+            try (Stream<Book> books = bookRepository.streamBooks(BookFilter.all(), INDEXED_FIELDS)) {
+                rebuilt = TitleIndex.of(books);
+            }
+            index = rebuilt;
+            logger.info("Indexed the titles of {} books in {} ms.", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            logger.error("Could not build the title index: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+            Set<String> changed = new HashSet<>(changedDuringRebuild);
+            changedDuringRebuild.removeAll(changed);
+            if (!changed.isEmpty()) {
+                refresh(changed);
+            }
+        }
+    }
+
+    /**
+     * Re-indexes the books of a change from the books it carries.
+     *
+     * @param event the change.
+     */
+    @EventListener
+    public void onBooksChanged(BooksChangedEvent event) {
+        // A resync recomputes the totals; the titles did not change.
+        if (event.getBookIds().isEmpty()) {
+            return;
+        }
+        if (rebuilding) {
+            changedDuringRebuild.addAll(event.getBookIds());
+        }
+        update(event.getBookIds(), event.getBooks());
+    }
+
+    /**
+     * Reads the titles of books changed during a rebuild again and updates the index.
+     *
+     * @param ids the IDs of the books.
+     */
+    private void refresh(Collection<String> ids) {
+        update(ids, bookRepository.findAllByIdWithFields(ids, INDEXED_FIELDS));
+    }
+
+    /**
+     * Updates the index with the current state of books, removing the books that no longer exist.
+     *
+     * @param ids the IDs of the books.
+     * @param books the books that still exist.
+     */
+    private void update(Collection<String> ids, List<Book> books) {
+        TitleIndex current = index;
+        Set<String> missing = new HashSet<>(ids);
+        for (Book book : books) {
+            current.put(book);
+            missing.remove(book.getId());
+        }
+        missing.forEach(current::remove);
+    }
+}
@@ -1,41 +1,88 @@
 package com.example.demo.service;
 
 import com.example.demo.model.Todo;
+import com.example.demo.model.TodoFilter;
 import com.example.demo.repository.TodoRepository;
+import com.example.demo.util.CollectionVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
+import java.util.Map;
 
 /**
  * Service class for managing Todo-related operations.
  * Provides business logic for operations on Todo entries,
- * such as retrieving all todos, adding a new todo, updating an existing todo, and
- * deleting a todo.
+ * such as retrieving a filtered page of todos, counting todos per due day, adding a new todo,
+ * updating an existing todo, and deleting a todo.
  */
 @Service
 public class TodoService {
+    /**
+     * The largest page of todos a request can read.
+     */
+    public static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * The longest range of due days a count can cover.
+     */
+    public static final int MAX_COUNT_DAYS = 366;
+
     /**
      * Repository for handling CRUD operations on todos.
      */
     private final TodoRepository todoRepository;
 
+    /**
+     * Versions of the collections, bumped after every write for the conditional GET support.
+     */
+    private final CollectionVersions collectionVersions;
+
     /**
      * Autowired constructor for dependency injection of TodoRepository.
      * @param todoRepository the repository for handling Todo data operations.
+     * @param collectionVersions the versions of the collections.
      */
     @Autowired
-    public TodoService(TodoRepository todoRepository) {
+    public TodoService(TodoRepository todoRepository, CollectionVersions collectionVersions) {
         this.todoRepository = todoRepository;
+        this.collectionVersions = collectionVersions;
+    }
+
+    /**
+     * Retrieves a page of the Todo items a filter selects, sorted by due date.
+     *
+     * @param filter the todos to select.
+     * @param page the page number to retrieve, starting from 0.
+     * @param limit the maximum number of todos in the page, at most {@link #MAX_PAGE_SIZE}.
+     * @return the page of todos with the total count of the selected todos.
+     * @throws IllegalArgumentException if the page is negative or the limit out of bounds.
+     */
+    public Page<Todo> findTodos(TodoFilter filter, int page, int limit) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return todoRepository.findTodos(filter, PageRequest.of(page, limit));
     }
 
     /**
-     * Retrieves a list of all Todo items.
+     * Counts the Todo items a filter selects per due day, e.g. for the days of a calendar.
      *
-     * @return A list of Todo objects representing all todos in the database.
+     * @param filter the todos to count, with a range of at most {@link #MAX_COUNT_DAYS} days.
+     * @return the number of todos per due day as yyyy-MM-dd, in day order; days without todos are left out.
+     * @throws IllegalArgumentException if the range is open or too long.
      */
-    public List<Todo> findAllTodos() {
-        return todoRepository.findAll();
+    public Map<String, Long> countByDueDay(TodoFilter filter) {
+        long days = filter.getDayCount();
+        if (days < 1 || days > MAX_COUNT_DAYS) {
+            throw new IllegalArgumentException("The range must have a first and a last day and cover at most "
+                    + MAX_COUNT_DAYS + " days");
+        }
+        return todoRepository.countByDueDay(filter);
     }
 
     /**
@@ -46,7 +93,9 @@ public class TodoService {
      * @return The added Todo object with generated ID and other details.
      */
     public Todo addTodo(Todo todo) {
-        return todoRepository.save(todo);
+        Todo savedTodo = todoRepository.save(todo);
+        collectionVersions.bump(CollectionVersions.TODOS);
+        return savedTodo;
     }
 
     /**
@@ -59,7 +108,9 @@ public class TodoService {
      */
     public Todo updateTodo(String id, Todo todo) {
         todo.setId(id);
-        return todoRepository.save(todo);
+        Todo savedTodo = todoRepository.save(todo);
+        collectionVersions.bump(CollectionVersions.TODOS);
+        return savedTodo;
     }
 
     /**
@@ -70,5 +121,6 @@ public class TodoService {
      */
     public void deleteTodo(String id) {
         todoRepository.deleteById(id);
+        collectionVersions.bump(CollectionVersions.TODOS);
     }
 }
@@ -1,10 +1,21 @@
 package com.example.demo.util;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Configuration class for application-wide beans and properties.
  * <p>
@@ -30,18 +41,99 @@ public class AppConfig {
         return googleBooksApiKey;
     }
 
+    /**
+     * Bean definition for the connection pool of the outbound HTTP client.
+     * Exposed as its own bean so its usage can be reported as metrics.
+     *
+     * @param maxConnections the maximum number of pooled connections.
+     * @param maxConnectionsPerRoute the maximum number of pooled connections to one host.
+     * @param connectTimeout the timeout for establishing a connection.
+     * @param responseTimeout the timeout for waiting for the response.
+     * @return the connection pool.
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager outboundConnectionManager(
+            @Value("${outbound.http.max-connections:50}") int maxConnections,
+            @Value("${outbound.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${outbound.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${outbound.http.response-timeout:5s}") Duration responseTimeout) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(responseTimeout))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Bean definition for the pooled HTTP client used for outbound calls.
+     * <p>
+     * Connections are pooled and kept alive between calls, and every phase of a call is time-bounded:
+     * waiting for a pooled connection, connecting and waiting for the response. A slow upstream
+     * therefore holds a request thread for at most these timeouts instead of indefinitely.
+     * Spring closes the client, and its pool, on shutdown.
+     * </p>
+     *
+     * @param outboundConnectionManager the connection pool.
+     * @param connectionRequestTimeout the timeout for obtaining a connection from the pool.
+     * @param responseTimeout the timeout for waiting for the response.
+     * @param keepAlive how long an idle connection is kept for reuse.
+     * @return the pooled HTTP client.
+     */
+    @Bean
+    public CloseableHttpClient outboundHttpClient(
+            PoolingHttpClientConnectionManager outboundConnectionManager,
+            @Value("${outbound.http.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${outbound.http.response-timeout:5s}") Duration responseTimeout,
+            @Value("${outbound.http.keep-alive:30s}") Duration keepAlive) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(outboundConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                // Reuse a connection for the keep-alive time unless the server asks for less.
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+    }
+
+    /**
+     * Bean definition for the circuit breaker guarding outbound calls.
+     *
+     * @param failureThreshold the number of consecutive failures that opens the breaker of a host.
+     * @param openDuration how long the breaker stays open before a trial call.
+     * @return the circuit breaker interceptor.
+     */
+    @Bean
+    public CircuitBreakerInterceptor circuitBreakerInterceptor(
+            @Value("${outbound.http.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${outbound.http.circuit-breaker.open-duration:30s}") Duration openDuration) {
+        return new CircuitBreakerInterceptor(failureThreshold, openDuration);
+    }
+
     /**
      * Bean definition for {@link RestTemplate}.
      * <p>
      * The {@link RestTemplate} is used for making HTTP requests in the application.
-     * This method provides a centrally defined {@link RestTemplate} bean that can be autowired
+     * This method provides a centrally defined {@link RestTemplate} bean, backed by the pooled
+     * HTTP client and guarded by the circuit breaker, that can be autowired
      * and used in various components of the application.
      * </p>
      *
+     * @param outboundHttpClient the pooled HTTP client.
+     * @param circuitBreakerInterceptor the circuit breaker.
      * @return A new instance of {@link RestTemplate}.
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(CloseableHttpClient outboundHttpClient,
+                                     CircuitBreakerInterceptor circuitBreakerInterceptor) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(outboundHttpClient));
+        restTemplate.getInterceptors().add(circuitBreakerInterceptor);
+        return restTemplate;
     }
 }
@@ -0,0 +1,171 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes books one at a time to a CSV or NDJSON export.
+ * <p>
+ * Each book is written as soon as it is handed over and nothing is kept afterwards, so
+ * exports of any size can be written to a response body. The output is flushed every
+ * {@link #FLUSH_INTERVAL} books; the servlet container sends each flush as a chunk and
+ * blocks while a slow client has not read the previous ones.
+ * </p>
+ * <ul>
+ *     <li>CSV exports start with a header naming the selected columns and can be imported
+ *         again with POST /import. Dates are written as yyyy-MM-dd and authors are separated by ';'.</li>
+ *     <li>NDJSON exports hold one book per line, in the JSON shape of GET /{id},
+ *         with only the selected fields.</li>
+ * </ul>
+ */
+public class BookExportWriter implements Closeable {
+    /**
+     * Number of books written between two flushes of the output.
+     */
+    static final int FLUSH_INTERVAL = 500;
+
+    private final OutputStream out;
+    private final List<String> fields; //The selected fields in export order.
+    private final Writer csv; //The CSV output, null for NDJSON.
+    private final JsonGenerator json; //The NDJSON output, null for CSV.
+    private long written; //Number of books written.
+
+    /**
+     * Creates a writer and, for CSV, writes the header.
+     *
+     * @param out the output the export is written to; it is flushed but not closed.
+     * @param format the export format.
+     * @param fields the fields to write, see {@link BookFields#parse(String)}.
+     * @param objectMapper the mapper providing the JSON generator for NDJSON.
+     * @throws IOException if the output cannot be written.
+     */
+    public BookExportWriter(OutputStream out, BookFileFormat format, List<String> fields, ObjectMapper objectMapper)
+            throws IOException {
+        this.out = out;
+        this.fields = fields;
+        if (format == BookFileFormat.CSV) {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.json = null;
+            csv.write(String.join(",", fields));
+            csv.write('\n');
+        } else {
+            this.csv = null;
+            this.json = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null); //Books are separated by the line breaks written after them.
+        }
+    }
+
+    /**
+     * Writes a book.
+     *
+     * @param book the book, read with at least the selected fields.
+     * @throws IOException if the output cannot be written, e.g. because the client went away.
+     */
+    public void write(Book book) throws IOException {
+        if (csv != null) {
+            writeCsv(book);
+        } else {
+            writeJson(book);
+        }
+        if (++written % FLUSH_INTERVAL == 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Gets the number of books written.
+     * @return the number of books.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Flushes the remaining books. The output itself stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        if (json != null) {
+            json.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        if (csv != null) {
+            csv.flush();
+        } else {
+            json.flush();
+        }
+        out.flush();
+    }
+
+    private void writeCsv(Book book) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                csv.write(',');
+            }
+            Object value = BookFields.valueOf(book, fields.get(i));
+            if (value instanceof List<?> list) {
+                csv.write(escapeCsv(String.join(";", list.stream().map(String::valueOf).toList())));
+            } else if (value instanceof Date date) {
+                csv.write(BookFields.formatDate(date));
+            } else if (value != null) {
+                csv.write(escapeCsv(value.toString()));
+            }
+        }
+        csv.write('\n');
+    }
+
+    private void writeJson(Book book) throws IOException {
+        json.writeStartObject();
+        for (String field : fields) {
+            Object value = BookFields.valueOf(book, field);
+            json.writeFieldName(field);
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Date date) {
+                json.writeString(BookFields.formatDate(date));
+            } else if (value instanceof Double number) {
+                json.writeNumber(number);
+            } else if (value instanceof Integer number) {
+                json.writeNumber(number);
+            } else if (value instanceof Long number) {
+                json.writeNumber(number);
+            } else if (value instanceof List<?> list) {
+                json.writeStartArray();
+                for (Object item : list) {
+                    json.writeString(String.valueOf(item));
+                }
+                json.writeEndArray();
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    /**
+     * Quotes a CSV field if it holds a separator, a quote or a line break.
+     */
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.util;
+
+import java.util.Locale;
+
+/**
+ * The file formats books are imported from and exported to.
+ */
+public enum BookFileFormat {
+    /**
+     * Comma separated values with a header naming the columns.
+     */
+    CSV("text/csv"),
+    /**
+     * Newline delimited JSON, one book per line.
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String contentType; //The content type of the format.
+
+    BookFileFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    /**
+     * Gets the content type of the format.
+     * @return the content type.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Gets the format of a content type.
+     *
+     * @param contentType the content type, e.g. text/csv or application/x-ndjson.
+     * @return the format.
+     * @throws IllegalArgumentException if the content type is not supported.
+     */
+    public static BookFileFormat fromContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (type.startsWith("application/x-ndjson") || type.startsWith("application/ndjson")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported content type: " + contentType);
+    }
+
+    /**
+     * Gets the format of a name, as given in a request parameter.
+     *
+     * @param name the name, 'csv' or 'ndjson' in any case.
+     * @return the format.
+     * @throws IllegalArgumentException if the name is not a supported format.
+     */
+    public static BookFileFormat fromName(String name) {
+        for (BookFileFormat format : values()) {
+            if (format.name().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported format: " + name);
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Reads books one row at a time from a CSV or NDJSON inventory file.
+ * <p>
+ * Only the current row is held in memory, so files of any size can be read from a request
+ * body as it arrives. A row that cannot be parsed does not stop the reader: it is returned
+ * with an error message and reading goes on with the next row.
+ * </p>
+ * <ul>
+ *     <li>CSV files start with a header naming the columns, in any order and case:
+ *         isbn, cogs, datePurchased, sold, payout, profit, title, imageUrl, authors
+ *         (separated by ';'), publisher, publishedDate and pageCount. Dates are written
+ *         as yyyy-MM-dd. Fields may be quoted, with "" for a quote inside a field.
+ *         The id and version columns of an export are accepted and ignored.</li>
+ *     <li>NDJSON files hold one book per line, in the JSON shape of POST /create-book.</li>
+ * </ul>
+ * Blank lines are skipped. Rows are numbered from 1, not counting the CSV header.
+ */
+public class BookImportReader implements Closeable {
+
+    /**
+     * Longest row accepted, in characters. Longer rows abort the import instead of filling the heap.
+     */
+    static final int MAX_ROW_LENGTH = 64 * 1024;
+
+    private final BufferedReader reader;
+    private final BookFileFormat format;
+    private final ObjectMapper objectMapper;
+    private final String[] columns; //The CSV columns in file order, null for NDJSON.
+    private long rowNumber; //Number of the last row returned.
+
+    /**
+     * Creates a reader and, for CSV, reads the header.
+     *
+     * @param reader the file content.
+     * @param format the file format.
+     * @param objectMapper the mapper for NDJSON rows.
+     * @throws IOException if the content cannot be read.
+     * @throws IllegalArgumentException if the CSV header is missing or names an unknown column.
+     */
+    public BookImportReader(Reader reader, BookFileFormat format, ObjectMapper objectMapper) throws IOException {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.columns = format == BookFileFormat.CSV ? readHeader() : null;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return the row, or null at the end of the file.
+     * @throws IOException if the content cannot be read.
+     * @throws IllegalArgumentException if a row is longer than {@link #MAX_ROW_LENGTH}.
+     */
+    public Row next() throws IOException {
+        String line = nextNonBlankLine();
+        if (line == null) {
+            return null;
+        }
+        rowNumber++;
+        try {
+            Book book = format == BookFileFormat.CSV ? toBook(splitCsv(line)) : toBook(line);
+            return new Row(rowNumber, book, null);
+        } catch (RowException e) {
+            return new Row(rowNumber, null, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private String[] readHeader() throws IOException {
+        String line = nextNonBlankLine();
+        if (line == null) {
+            throw new IllegalArgumentException("CSV header is missing.");
+        }
+        String[] header;
+        try {
+            header = splitCsv(line).toArray(new String[0]);
+        } catch (RowException e) {
+            throw new IllegalArgumentException("CSV header is malformed: " + e.getMessage());
+        }
+        for (int i = 0; i < header.length; i++) {
+            header[i] = canonicalColumn(header[i].trim());
+        }
+        if (!Arrays.asList(header).contains("isbn")) {
+            throw new IllegalArgumentException("CSV header has no isbn column.");
+        }
+        return header;
+    }
+
+    private static String canonicalColumn(String name) {
+        for (String column : List.of("id", "version", "isbn", "cogs", "datePurchased", "sold", "payout", "profit", "title",
+                "imageUrl", "authors", "publisher", "publishedDate", "pageCount")) {
+            if (column.equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown CSV column: " + name);
+    }
+
+    private String nextNonBlankLine() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+        } while (line != null && line.isBlank());
+        return line;
+    }
+
+    /**
+     * Splits a CSV record into its fields, reading further lines while a quoted field is open.
+     */
+    private List<String> splitCsv(String line) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            if (i == length) {
+                if (!quoted) {
+                    break;
+                }
+                // The quoted field goes on in the next line.
+                String next = reader.readLine();
+                if (next == null) {
+                    throw new RowException("Unterminated quoted field.");
+                }
+                field.append('\n');
+                line = next;
+                length = line.length();
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c == '"' && i < length && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+            if (field.length() > MAX_ROW_LENGTH) {
+                throw new IllegalArgumentException("Row " + (rowNumber == 0 ? "header" : rowNumber)
+                        + " is longer than " + MAX_ROW_LENGTH + " characters.");
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private Book toBook(List<String> fields) {
+        if (fields.size() != columns.length) {
+            throw new RowException("Expected " + columns.length + " fields but found " + fields.size() + ".");
+        }
+        Book book = new Book();
+        for (int i = 0; i < columns.length; i++) {
+            String value = fields.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (columns[i]) {
+                case "id", "version" -> {
+                    // Imported books are new documents, whatever they were when exported.
+                }
+                case "isbn" -> book.setISBN(value);
+                case "cogs" -> book.setCOGS(parseDouble("cogs", value));
+                case "datePurchased" -> book.setDatePurchased(parseDate("datePurchased", value));
+                case "sold" -> book.setSold(parseDate("sold", value));
+                case "payout" -> book.setPayout(parseDouble("payout", value));
+                case "profit" -> book.setProfit(parseDouble("profit", value));
+                case "title" -> book.setTitle(value);
+                case "imageUrl" -> book.setImageUrl(value);
+                case "authors" -> book.setAuthors(Arrays.stream(value.split(";")).map(String::trim).toList());
+                case "publisher" -> book.setPublisher(value);
+                case "publishedDate" -> book.setPublishedDate(value);
+                case "pageCount" -> book.setPageCount((int) parseDouble("pageCount", value));
+                default -> throw new IllegalStateException("Unmapped column: " + columns[i]);
+            }
+        }
+        return book;
+    }
+
+    private Book toBook(String json) {
+        if (json.length() > MAX_ROW_LENGTH) {
+            throw new IllegalArgumentException("Row " + rowNumber + " is longer than " + MAX_ROW_LENGTH + " characters.");
+        }
+        try {
+            return objectMapper.readValue(json, Book.class);
+        } catch (JsonProcessingException e) {
+            throw new RowException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static double parseDouble(String column, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new RowException("Invalid number in " + column + ": " + value);
+        }
+    }
+
+    private static Date parseDate(String column, String value) {
+        try {
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new RowException("Invalid date in " + column + ", expected yyyy-MM-dd: " + value);
+        }
+    }
+
+    /**
+     * Represents one row of the file: the parsed book, or why it could not be parsed.
+     */
+    public static class Row {
+        private final long number; //The row number.
+        private final Book book; //The parsed book, null if the row is malformed.
+        private final String error; //Why the row is malformed, null if it was parsed.
+
+        Row(long number, Book book, String error) {
+            this.number = number;
+            this.book = book;
+            this.error = error;
+        }
+
+        /**
+         * Gets the row number.
+         * @return the row number, starting at 1.
+         */
+        public long getNumber() {
+            return number;
+        }
+
+        /**
+         * Gets the parsed book.
+         * @return the book, or null if the row is malformed.
+         */
+        public Book getBook() {
+            return book;
+        }
+
+        /**
+         * Gets why the row could not be parsed.
+         * @return the error message, or null if the row was parsed.
+         */
+        public String getError() {
+            return error;
+        }
+    }
+
+    /**
+     * Signals a malformed row; the reader turns it into a row error and goes on.
+     */
+    private static final class RowException extends RuntimeException {
+        private RowException(String message) {
+            super(message);
+        }
+    }
+}
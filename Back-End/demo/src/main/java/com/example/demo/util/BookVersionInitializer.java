@@ -0,0 +1,60 @@
+package com.example.demo.util;
+
+import com.example.demo.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives a version to the books saved before the 'version' field was introduced.
+ * <p>
+ * Spring Data treats a versioned entity without a version as new, so saving such a book
+ * would insert it again instead of updating it. At startup this component sets the version
+ * of every book that has none to 0. The update only touches books without a version,
+ * so running it again is a no-op.
+ * </p>
+ */
+@Component
+public class BookVersionInitializer {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(BookVersionInitializer.class);
+
+    /**
+     * Repository for updating the books.
+     */
+    private final BookRepository bookRepository;
+
+    /**
+     * Autowired constructor for dependency injection of BookRepository.
+     *
+     * @param bookRepository the repository for book data operations.
+     */
+    @Autowired
+    public BookVersionInitializer(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    /**
+     * Sets the missing versions once the application is ready, right after the indexes are created.
+     * Failures are only logged so the application still starts without a database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    public void initialize() {
+        try {
+            long updated = bookRepository.initializeMissingVersions();
+            if (updated > 0) {
+                logger.info("Initialized the version of {} books.", updated);
+            }
+        } catch (Exception e) {
+            logger.error("Could not initialize the book versions: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RestTemplate interceptor keeping one circuit breaker per upstream host.
+ * <p>
+ * A breaker opens after a number of consecutive failures, meaning I/O errors such as timeouts
+ * or refused connections, and 5xx responses. While it is open every call to that host fails
+ * immediately with a {@link CircuitBreakerOpenException}, so a degraded upstream cannot hold
+ * request threads. Once the open duration has passed a single trial call is let through:
+ * its success closes the breaker, its failure opens it again.
+ * </p>
+ */
+public class CircuitBreakerInterceptor implements ClientHttpRequestInterceptor {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerInterceptor.class);
+
+    /**
+     * The states of a breaker.
+     */
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold; //Consecutive failures that open a breaker.
+    private final long openNanos; //How long a breaker stays open before a trial call.
+    private final Map<String, Breaker> breakers = new ConcurrentHashMap<>(); //Breakers by host.
+
+    /**
+     * Creates the interceptor.
+     *
+     * @param failureThreshold the number of consecutive failures that opens a breaker, at least 1.
+     * @param openDuration how long a breaker stays open before a trial call is let through.
+     * @throws IllegalArgumentException if the threshold is lower than 1.
+     */
+    public CircuitBreakerInterceptor(int failureThreshold, Duration openDuration) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold must be at least 1.");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = request.getURI().getHost();
+        Breaker breaker = breakers.computeIfAbsent(host, key -> new Breaker());
+        if (!breaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(host);
+        }
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            breaker.onFailure(host);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            breaker.onFailure(host);
+        } else {
+            breaker.onSuccess(host);
+        }
+        return response;
+    }
+
+    /**
+     * Gets the state of the breaker of a host.
+     *
+     * @param host the upstream host.
+     * @return the state, CLOSED if the host was never called.
+     */
+    public State getState(String host) {
+        Breaker breaker = breakers.get(host);
+        return breaker != null ? breaker.state() : State.CLOSED;
+    }
+
+    /**
+     * The breaker of one host. All transitions happen under its lock, which is never held during a call.
+     */
+    private final class Breaker {
+        private State state = State.CLOSED;
+        private int failures; //Consecutive failures while closed.
+        private long openedAt; //When the breaker last opened, from System.nanoTime().
+        private boolean trialInFlight; //Whether the single half-open trial call is running.
+
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+            }
+            return state == State.CLOSED;
+        }
+
+        synchronized void onSuccess(String host) {
+            if (state != State.CLOSED) {
+                logger.info("Circuit breaker for {} closed.", host);
+            }
+            state = State.CLOSED;
+            failures = 0;
+            trialInFlight = false;
+        }
+
+        synchronized void onFailure(String host) {
+            trialInFlight = false;
+            if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+                if (state != State.OPEN) {
+                    logger.warn("Circuit breaker for {} opened after {} consecutive failures.", host, Math.max(failures, 1));
+                }
+                state = State.OPEN;
+                openedAt = System.nanoTime();
+                failures = 0;
+            }
+        }
+
+        synchronized State state() {
+            return state;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.util;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown instead of calling an upstream host whose circuit breaker is open.
+ * The call fails immediately, without using a connection or waiting for a timeout.
+ */
+public class CircuitBreakerOpenException extends RestClientException {
+
+    /**
+     * Creates the exception for a host.
+     *
+     * @param host the upstream host.
+     */
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker is open for " + host + ", failing fast.");
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.demo.util;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps an in-memory modification version per collection, bumped after every write.
+ * <p>
+ * The version tells whether anything a read endpoint returns can have changed since a
+ * client last read it, without asking the database, so conditional requests can be
+ * answered from memory; see {@link ConditionalGetInterceptor}. Versions start again at 0
+ * on every start, so tags also hold a random epoch of the running instance and never
+ * match a tag handed out before a restart. Tags also hold the current UTC day, since some
+ * reads, such as the books sold this month, depend on the date as well as on the data.
+ * </p>
+ * Writes must bump the version after they are applied, so a tag never describes data
+ * older than the version it carries.
+ */
+@Component
+public class CollectionVersions {
+    /**
+     * The version of the 'Book' collection and everything derived from it: the inventory
+     * summary, the sales rollups and the dashboard.
+     */
+    public static final String BOOKS = "Book";
+
+    /**
+     * The version of the 'Todo' collection.
+     */
+    public static final String TODOS = "Todo";
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+    private final ConcurrentHashMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the current version of a collection.
+     *
+     * @param collection the collection.
+     * @return the number of writes since the start.
+     */
+    public long current(String collection) {
+        return version(collection).get();
+    }
+
+    /**
+     * Records that a collection was written.
+     *
+     * @param collection the collection.
+     */
+    public void bump(String collection) {
+        version(collection).incrementAndGet();
+    }
+
+    /**
+     * Gets the strong entity tag of the current state of a collection.
+     *
+     * @param collection the collection.
+     * @return the quoted tag.
+     */
+    public String etag(String collection) {
+        return "\"" + collection + "-" + epoch + "-" + current(collection) + "-" + LocalDate.now(ZoneOffset.UTC) + "\"";
+    }
+
+    private AtomicLong version(String collection) {
+        return versions.computeIfAbsent(collection, name -> new AtomicLong());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+
+/**
+ * Answers conditional GET requests on the read endpoints of a collection.
+ * <p>
+ * Every GET response gets the entity tag of the collection version. A request whose
+ * If-None-Match holds the current tag is answered with 304 Not Modified before the
+ * handler runs, so it costs no database call at all. Responses are marked 'no-cache'
+ * so browsers keep them but revalidate before every reuse.
+ * </p>
+ * <p>
+ * Requests whose answer also depends on the clock, such as the overdue todos, are left alone:
+ * their answer changes without the collection changing.
+ * </p>
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final CollectionVersions collectionVersions;
+    private final String collection; //The collection the intercepted endpoints read.
+    private final List<String> clockParameters; //The flags that make an answer depend on the clock when true.
+
+    /**
+     * Creates an interceptor for the read endpoints of a collection.
+     *
+     * @param collectionVersions the versions of the collections.
+     * @param collection the collection the endpoints read, see {@link CollectionVersions}.
+     * @param clockParameters the request parameters that, when true, make an answer depend on the clock.
+     */
+    public ConditionalGetInterceptor(CollectionVersions collectionVersions, String collection, String... clockParameters) {
+        this.collectionVersions = collectionVersions;
+        this.collection = collection;
+        this.clockParameters = List.of(clockParameters);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        for (String parameter : clockParameters) {
+            if (Boolean.parseBoolean(request.getParameter(parameter))) {
+                return true;
+            }
+        }
+        // The tag is taken before the handler reads, so it is never newer than the data sent with it.
+        String etag = collectionVersions.etag(collection);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Sets the ETag header, and the 304 status if the client already has this version.
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,395 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Compact in-memory index from ISBN to the IDs of the copies in the inventory.
+ * <p>
+ * ISBNs are encoded as the number of their ISBN-13 with {@link IsbnUtils#toLong(String)}, so
+ * the ISBN-10 and ISBN-13 of a book and any way of writing them share an entry. The index is
+ * two open-addressing hash tables over primitive arrays instead of maps of boxed keys: ISBN to
+ * copies, where a single copy is stored as its ID and several as an array of IDs, and copy ID
+ * to ISBN and version, to move or remove a copy knowing only its ID and to ignore an older
+ * state of it. Books with a missing or invalid ISBN are not indexed. Reads run concurrently;
+ * writes are exclusive.
+ * </p>
+ */
+public class IsbnIndex {
+
+    /**
+     * Marks a free slot of the ISBN table; an encoded ISBN-13 starts with 978 or 979.
+     */
+    private static final long FREE = 0;
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Marks an unknown version of a copy; versions start at 0.
+     */
+    private static final long UNKNOWN_VERSION = -1;
+
+    private long[] isbns;
+    private Object[] copies;
+    private int isbnCount;
+
+    private String[] ids;
+    private long[] idIsbns;
+    private long[] idVersions;
+    private int copyCount;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Creates an empty index.
+     */
+    public IsbnIndex() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty index sized for a number of copies.
+     *
+     * @param expectedCopies the number of copies expected.
+     */
+    public IsbnIndex(int expectedCopies) {
+        int capacity = capacityFor(expectedCopies);
+        isbns = new long[capacity];
+        copies = new Object[capacity];
+        ids = new String[capacity];
+        idIsbns = new long[capacity];
+        idVersions = new long[capacity];
+    }
+
+    /**
+     * Builds an index from books.
+     *
+     * @param books the books, with at least their ID, ISBN and version.
+     * @return the index.
+     */
+    public static IsbnIndex of(Stream<Book> books) {
+        IsbnIndex index = new IsbnIndex();
+        books.forEach(index::put);
+        return index;
+    }
+
+    /**
+     * Adds a copy to the index, or moves it to its new ISBN. A copy without a valid ISBN is removed.
+     * A copy with a lower version than the indexed one is an older state and is ignored.
+     *
+     * @param book the book, with at least its ID and ISBN, and its version if known.
+     * @return true if the copy is indexed.
+     */
+    public boolean put(Book book) {
+        long isbn = IsbnUtils.toLong(book.getISBN());
+        long version = book.getVersion() == null ? UNKNOWN_VERSION : book.getVersion();
+        String id = book.getId();
+        lock.writeLock().lock();
+        try {
+            int slot = idSlot(id);
+            if (ids[slot] != null) {
+                if (version != UNKNOWN_VERSION && version < idVersions[slot]) {
+                    return true;
+                }
+                if (idIsbns[slot] == isbn) {
+                    idVersions[slot] = Math.max(idVersions[slot], version);
+                    return true;
+                }
+                removeCopy(idIsbns[slot], ids[slot]);
+                removeIdAt(slot);
+            }
+            if (isbn == IsbnUtils.INVALID) {
+                return false;
+            }
+            // Both tables share a capacity: there are never more ISBNs than copies.
+            if ((copyCount + 1) * 4L > ids.length * 3L) {
+                resize(ids.length * 2);
+            }
+            slot = idSlot(id);
+            ids[slot] = id;
+            idIsbns[slot] = isbn;
+            idVersions[slot] = version;
+            copyCount++;
+            addCopy(isbn, id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a copy from the index.
+     *
+     * @param id the ID of the copy.
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            int slot = idSlot(id);
+            if (ids[slot] != null) {
+                removeCopy(idIsbns[slot], ids[slot]);
+                removeIdAt(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the copies of an ISBN.
+     *
+     * @param isbn the ISBN-10 or ISBN-13, with or without separators.
+     * @return the number of copies, 0 for an unknown or invalid ISBN.
+     */
+    public int countCopies(String isbn) {
+        long key = IsbnUtils.toLong(isbn);
+        if (key == IsbnUtils.INVALID) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            Object value = copies[isbnSlot(key)];
+            if (value == null) {
+                return 0;
+            }
+            return value instanceof String ? 1 : ((String[]) value).length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the IDs of the copies of an ISBN.
+     *
+     * @param isbn the ISBN-10 or ISBN-13, with or without separators.
+     * @return the IDs of the copies, empty for an unknown or invalid ISBN.
+     */
+    public List<String> copyIds(String isbn) {
+        long key = IsbnUtils.toLong(isbn);
+        if (key == IsbnUtils.INVALID) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Object value = copies[isbnSlot(key)];
+            if (value == null) {
+                return List.of();
+            }
+            return value instanceof String id ? List.of(id) : List.of((String[]) value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of copies in the index.
+     *
+     * @return the number of copies.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return copyCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of distinct ISBNs in the index.
+     *
+     * @return the number of ISBNs.
+     */
+    public int isbnCount() {
+        lock.readLock().lock();
+        try {
+            return isbnCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimates the heap used by the index, including the ID strings, assuming a 64-bit JVM
+     * with compressed references and compact strings.
+     *
+     * @return the estimated size in bytes.
+     */
+    public long memoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = arrayBytes(isbns.length, 8) + arrayBytes(copies.length, 4)
+                    + arrayBytes(ids.length, 4) + arrayBytes(idIsbns.length, 8) + arrayBytes(idVersions.length, 8);
+            for (Object value : copies) {
+                if (value instanceof String[] several) {
+                    bytes += arrayBytes(several.length, 4);
+                }
+            }
+            for (String id : ids) {
+                if (id != null) {
+                    // The String object and its byte array.
+                    bytes += 24 + arrayBytes(id.length(), 1);
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addCopy(long isbn, String id) {
+        int slot = isbnSlot(isbn);
+        Object value = copies[slot];
+        if (value == null) {
+            isbns[slot] = isbn;
+            copies[slot] = id;
+            isbnCount++;
+        } else if (value instanceof String single) {
+            copies[slot] = new String[]{single, id};
+        } else {
+            String[] several = (String[]) value;
+            String[] grown = Arrays.copyOf(several, several.length + 1);
+            grown[several.length] = id;
+            copies[slot] = grown;
+        }
+    }
+
+    private void removeCopy(long isbn, String id) {
+        int slot = isbnSlot(isbn);
+        Object value = copies[slot];
+        if (value instanceof String) {
+            removeIsbnAt(slot);
+            return;
+        }
+        String[] several = (String[]) value;
+        if (several.length == 2) {
+            copies[slot] = several[0].equals(id) ? several[1] : several[0];
+            return;
+        }
+        String[] shrunk = new String[several.length - 1];
+        int next = 0;
+        for (String copy : several) {
+            if (!copy.equals(id)) {
+                shrunk[next++] = copy;
+            }
+        }
+        copies[slot] = shrunk;
+    }
+
+    /**
+     * Finds the slot of an ISBN, or the free slot where it belongs.
+     */
+    private int isbnSlot(long isbn) {
+        int mask = isbns.length - 1;
+        int slot = hash(isbn) & mask;
+        while (isbns[slot] != FREE && isbns[slot] != isbn) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot of a copy ID, or the free slot where it belongs.
+     */
+    private int idSlot(String id) {
+        int mask = ids.length - 1;
+        int slot = hash(id.hashCode()) & mask;
+        while (ids[slot] != null && !ids[slot].equals(id)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Frees a slot of the ISBN table, shifting back the entries after it that would otherwise
+     * no longer be found from their home slot.
+     */
+    private void removeIsbnAt(int slot) {
+        int mask = isbns.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; isbns[next] != FREE; next = (next + 1) & mask) {
+            int home = hash(isbns[next]) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                isbns[free] = isbns[next];
+                copies[free] = copies[next];
+                free = next;
+            }
+        }
+        isbns[free] = FREE;
+        copies[free] = null;
+        isbnCount--;
+    }
+
+    /**
+     * Frees a slot of the ID table, like {@link #removeIsbnAt(int)}.
+     */
+    private void removeIdAt(int slot) {
+        int mask = ids.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; ids[next] != null; next = (next + 1) & mask) {
+            int home = hash(ids[next].hashCode()) & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                ids[free] = ids[next];
+                idIsbns[free] = idIsbns[next];
+                idVersions[free] = idVersions[next];
+                free = next;
+            }
+        }
+        ids[free] = null;
+        idIsbns[free] = FREE;
+        idVersions[free] = UNKNOWN_VERSION;
+        copyCount--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIsbns = isbns;
+        Object[] oldCopies = copies;
+        String[] oldIds = ids;
+        long[] oldIdIsbns = idIsbns;
+        long[] oldIdVersions = idVersions;
+        isbns = new long[capacity];
+        copies = new Object[capacity];
+        ids = new String[capacity];
+        idIsbns = new long[capacity];
+        idVersions = new long[capacity];
+        for (int i = 0; i < oldIsbns.length; i++) {
+            if (oldIsbns[i] != FREE) {
+                int slot = isbnSlot(oldIsbns[i]);
+                isbns[slot] = oldIsbns[i];
+                copies[slot] = oldCopies[i];
+            }
+            if (oldIds[i] != null) {
+                int slot = idSlot(oldIds[i]);
+                ids[slot] = oldIds[i];
+                idIsbns[slot] = oldIdIsbns[i];
+                idVersions[slot] = oldIdVersions[i];
+            }
+        }
+    }
+
+    private static int capacityFor(int expected) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3L < expected * 4L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads the bits of a key, as consecutive ISBNs and similar IDs would otherwise cluster.
+     */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return (16 + (long) length * elementBytes + 7) & ~7L;
+    }
+}
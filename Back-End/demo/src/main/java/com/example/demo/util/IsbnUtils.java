@@ -0,0 +1,105 @@
+package com.example.demo.util;
+
+/**
+ * Utility methods for working with ISBNs.
+ */
+public final class IsbnUtils {
+
+    /**
+     * Returned by {@link #toLong(String)} for a value that is not a valid ISBN.
+     */
+    public static final long INVALID = -1;
+
+    private IsbnUtils() {
+    }
+
+    /**
+     * Normalizes an ISBN by removing hyphens, spaces and any other separator
+     * and upper-casing the 'X' check digit of an ISBN-10.
+     *
+     * @param isbn the ISBN as entered, may be null.
+     * @return the normalized ISBN, empty if the input is null or has no ISBN characters.
+     */
+    public static String normalize(String isbn) {
+        if (isbn == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(isbn.length());
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c >= '0' && c <= '9') {
+                normalized.append(c);
+            } else if (c == 'x' || c == 'X') {
+                normalized.append('X');
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Encodes an ISBN-10 or ISBN-13 as the number of its ISBN-13, so both forms of the same
+     * book give the same value. An ISBN-10 is converted by prefixing 978 and recomputing the
+     * check digit. Separators are ignored, as in {@link #normalize(String)}.
+     *
+     * @param isbn the ISBN as entered, may be null.
+     * @return the ISBN-13 as a number, or {@link #INVALID} if the input has the wrong length,
+     *         prefix or check digit.
+     */
+    public static long toLong(String isbn) {
+        String normalized = normalize(isbn);
+        if (normalized.length() == 10) {
+            int sum = 0;
+            for (int i = 0; i < 10; i++) {
+                char c = normalized.charAt(i);
+                int digit;
+                if (c == 'X') {
+                    if (i != 9) {
+                        return INVALID;
+                    }
+                    digit = 10;
+                } else {
+                    digit = c - '0';
+                }
+                sum += (10 - i) * digit;
+            }
+            if (sum % 11 != 0) {
+                return INVALID;
+            }
+            long value = 978;
+            for (int i = 0; i < 9; i++) {
+                value = value * 10 + (normalized.charAt(i) - '0');
+            }
+            return value * 10 + isbn13CheckDigit(value);
+        }
+        if (normalized.length() == 13 && normalized.indexOf('X') < 0
+                && (normalized.startsWith("978") || normalized.startsWith("979"))) {
+            long value = Long.parseLong(normalized);
+            return isbn13CheckDigit(value / 10) == value % 10 ? value : INVALID;
+        }
+        return INVALID;
+    }
+
+    /**
+     * Formats a value returned by {@link #toLong(String)} as an ISBN-13.
+     *
+     * @param isbn the encoded ISBN.
+     * @return the 13 digits of the ISBN.
+     */
+    public static String toIsbn13(long isbn) {
+        return Long.toString(isbn);
+    }
+
+    /**
+     * Computes the check digit of an ISBN-13 from its first 12 digits.
+     */
+    private static int isbn13CheckDigit(long first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = (int) (first12 % 10);
+            // Counted from the right, the 12th digit has weight 3, the 11th weight 1, and so on.
+            sum += i % 2 == 0 ? 3 * digit : digit;
+            first12 /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.demo.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the application metrics, exposed for scraping at /actuator/prometheus.
+ * <p>
+ * Spring Boot already records the HTTP endpoints ('http.server.requests', per URI template),
+ * the JVM memory, GC and threads and the MongoDB connection pool. This adds the latency of
+ * every MongoDB command per collection, with a slow-command log, and the state of the
+ * outbound HTTP connection pool. The Google Books calls are timed by the services making them.
+ * </p>
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Bean definition for the MongoDB command listener.
+     *
+     * @param meterRegistry the registry to record the command timers in.
+     * @param slowThreshold the duration above which a command is logged as slow.
+     * @return the listener.
+     */
+    @Bean
+    public MongoCommandMetrics mongoCommandMetrics(
+            MeterRegistry meterRegistry,
+            @Value("${mongodb.slow-query-threshold:200ms}") Duration slowThreshold) {
+        return new MongoCommandMetrics(meterRegistry, slowThreshold);
+    }
+
+    /**
+     * Registers the command listener with the MongoDB client, blocking or reactive.
+     *
+     * @param mongoCommandMetrics the command listener.
+     * @return the customizer of the client settings.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MongoCommandMetrics mongoCommandMetrics) {
+        return builder -> builder.addCommandListener(mongoCommandMetrics);
+    }
+
+    /**
+     * Gauges of the outbound HTTP connection pool used for the Google Books API.
+     * A growing 'pending' count means callers wait for a connection.
+     *
+     * @param outboundConnectionManager the pool of the outbound HTTP client.
+     * @return the binder registering the gauges.
+     */
+    @Bean
+    public MeterBinder outboundConnectionPoolMetrics(PoolingHttpClientConnectionManager outboundConnectionManager) {
+        return registry -> {
+            Gauge.builder("outbound.http.pool.leased", outboundConnectionManager, pool -> pool.getTotalStats().getLeased())
+                    .description("Connections in use").register(registry);
+            Gauge.builder("outbound.http.pool.available", outboundConnectionManager, pool -> pool.getTotalStats().getAvailable())
+                    .description("Idle connections kept for reuse").register(registry);
+            Gauge.builder("outbound.http.pool.pending", outboundConnectionManager, pool -> pool.getTotalStats().getPending())
+                    .description("Requests waiting for a connection").register(registry);
+            Gauge.builder("outbound.http.pool.max", outboundConnectionManager, pool -> pool.getTotalStats().getMax())
+                    .description("Maximum number of connections").register(registry);
+        };
+    }
+}
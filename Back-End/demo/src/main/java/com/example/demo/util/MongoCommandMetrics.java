@@ -0,0 +1,99 @@
+package com.example.demo.util;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoDB command listener recording the latency of every command sent by the driver.
+ * <p>
+ * Each command is timed in 'mongodb.commands', tagged with the command name, the collection
+ * and whether it succeeded, so the latency of, e.g., the aggregations on 'Book' can be told
+ * apart from the updates of 'InventorySummary'. Commands slower than the threshold are also
+ * logged as a warning.
+ * </p>
+ */
+public class MongoCommandMetrics implements CommandListener {
+    /**
+     * Logger for the slow commands.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(MongoCommandMetrics.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+
+    /**
+     * The collection of each command in flight, by request id. The command document is only
+     * readable while the started event is handled, so the collection is taken from it there.
+     */
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the listener.
+     *
+     * @param meterRegistry the registry to record the command timers in.
+     * @param slowThreshold the duration above which a command is logged as slow.
+     */
+    public MongoCommandMetrics(MeterRegistry meterRegistry, Duration slowThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collectionOf(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "SUCCESS");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), "FAILED");
+    }
+
+    private void record(int requestId, String command, long nanos, String status) {
+        String collection = collections.remove(requestId);
+        if (collection == null) {
+            collection = "none";
+        }
+        Timer.builder("mongodb.commands")
+                .description("Latency of the commands sent to MongoDB")
+                .tag("command", command)
+                .tag("collection", collection)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos > slowThresholdNanos) {
+            logger.warn("Slow MongoDB command: {} on {} took {} ms ({})",
+                    command, collection, TimeUnit.NANOSECONDS.toMillis(nanos), status);
+        }
+    }
+
+    /**
+     * Finds the collection a command works on. Most commands name it as the value of the command
+     * name, e.g. {"find": "Book"}; getMore names it in its 'collection' field.
+     *
+     * @param command the command name.
+     * @param document the command document.
+     * @return the collection name, or 'none' for commands not bound to a collection.
+     */
+    static String collectionOf(String command, BsonDocument document) {
+        BsonValue value = "getMore".equals(command) ? document.get("collection") : document.get(command);
+        return value != null && value.isString() ? value.asString().getValue() : "none";
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.SalesBucket;
+import com.example.demo.model.Todo;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates and verifies the MongoDB indexes declared on the document classes.
+ * <p>
+ * Spring Boot does not create indexes automatically, so at startup this component resolves
+ * the indexes declared with annotations on each indexed document class, creates the missing
+ * ones and reports any declared index that is still missing, any index that exists in the
+ * database without being declared, and any index that has not been used since the server started.
+ * </p>
+ */
+@Component
+public class MongoIndexInitializer {
+    /**
+     * Logger for logging information and errors.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    /**
+     * The document classes whose declared indexes are created at startup.
+     */
+    private static final List<Class<?>> INDEXED_TYPES = List.of(Book.class, SalesBucket.class, Todo.class);
+
+    /**
+     * Name of the index MongoDB creates on '_id' for every collection.
+     */
+    private static final String ID_INDEX = "_id_";
+
+    /**
+     * Template for running MongoDB operations.
+     */
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Autowired constructor for dependency injection of MongoTemplate.
+     *
+     * @param mongoTemplate the template for MongoDB operations.
+     */
+    @Autowired
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Creates and verifies the declared indexes once the application is ready.
+     * Runs before the other startup tasks so their queries already find the indexes.
+     * Failures are only logged so the application still starts without a database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void initialize() {
+        for (Class<?> type : INDEXED_TYPES) {
+            try {
+                Set<String> declared = ensureIndexes(type);
+                verifyIndexes(type, declared);
+            } catch (Exception e) {
+                logger.error("Could not initialize the indexes of {}: {}", type.getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Creates the indexes declared on a document class if they do not exist yet.
+     *
+     * @param type the document class.
+     * @return the names of the declared indexes.
+     */
+    Set<String> ensureIndexes(Class<?> type) {
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        IndexOperations indexOperations = mongoTemplate.indexOps(type);
+        Set<String> declared = new LinkedHashSet<>();
+        for (IndexDefinition index : resolver.resolveIndexFor(type)) {
+            declared.add(indexOperations.ensureIndex(index));
+        }
+        return declared;
+    }
+
+    /**
+     * Reports the declared indexes that are missing, the existing indexes that are not declared
+     * and the declared indexes that have not been used since the server started.
+     *
+     * @param type the document class.
+     * @param declared the names of the declared indexes.
+     */
+    void verifyIndexes(Class<?> type, Set<String> declared) {
+        String collection = mongoTemplate.getCollectionName(type);
+        Set<String> existing = new LinkedHashSet<>();
+        for (IndexInfo index : mongoTemplate.indexOps(type).getIndexInfo()) {
+            existing.add(index.getName());
+        }
+        for (String name : declared) {
+            if (!existing.contains(name)) {
+                logger.error("Index {} declared on {} is missing from collection {}.", name, type.getSimpleName(), collection);
+            }
+        }
+        for (String name : existing) {
+            if (!ID_INDEX.equals(name) && !declared.contains(name)) {
+                logger.warn("Index {} exists on collection {} but is not declared on {}.", name, collection, type.getSimpleName());
+            }
+        }
+        List<String> unused = findUnusedIndexes(collection);
+        if (!unused.isEmpty()) {
+            logger.warn("Indexes on collection {} not used since the server started: {}", collection, unused);
+        }
+        logger.info("Verified {} declared indexes on collection {}.", declared.size(), collection);
+    }
+
+    /**
+     * Finds the indexes of a collection that have no recorded access, using '$indexStats'.
+     * The statistics are reset when the server restarts, so this is a hint, not a proof.
+     *
+     * @param collection the collection name.
+     * @return the names of the unused indexes, excluding the '_id' index.
+     */
+    private List<String> findUnusedIndexes(String collection) {
+        List<String> unused = new ArrayList<>();
+        List<Document> pipeline = List.of(new Document("$indexStats", new Document()));
+        for (Document stats : mongoTemplate.getCollection(collection).aggregate(pipeline)) {
+            Document accesses = stats.get("accesses", Document.class);
+            Number ops = accesses != null ? accesses.get("ops", Number.class) : null;
+            String name = stats.getString("name");
+            if (!ID_INDEX.equals(name) && (ops == null || ops.longValue() == 0)) {
+                unused.add(name);
+            }
+        }
+        return unused;
+    }
+}
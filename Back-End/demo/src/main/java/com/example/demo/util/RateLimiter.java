@@ -0,0 +1,52 @@
+package com.example.demo.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simple blocking rate limiter that spaces permits evenly in time.
+ * Each caller reserves the next free slot and sleeps until it is reached, so at most
+ * {@code permitsPerSecond} permits are handed out per second across all threads.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos; //Time between two permits.
+    private long nextFreeNanos; //Time at which the next permit is available.
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param permitsPerSecond the number of permits per second, must be positive.
+     * @throws IllegalArgumentException if the rate is not positive.
+     */
+    public RateLimiter(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive.");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    /**
+     * Waits until a permit is available.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * Reserves the next permit.
+     *
+     * @return how long the caller has to wait for its permit, in nanoseconds.
+     */
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long permitAt = Math.max(now, nextFreeNanos);
+        nextFreeNanos = permitAt + intervalNanos;
+        return permitAt - now;
+    }
+}
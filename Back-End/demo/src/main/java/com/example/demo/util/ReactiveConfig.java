@@ -0,0 +1,57 @@
+package com.example.demo.util;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the reactive stack, active with the 'reactive' profile.
+ * <p>
+ * With this profile the application runs on Netty instead of Tomcat and the read endpoints
+ * are served by the reactive controllers, so a small event-loop pool serves many concurrent
+ * requests that wait on MongoDB or on the Google Books API. The outbound client is bounded
+ * and time-limited with the same settings as the pooled client of {@link AppConfig}.
+ * </p>
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    /**
+     * Bean definition for the non-blocking HTTP client used for outbound calls.
+     *
+     * @param builder the WebClient builder configured by Spring Boot.
+     * @param maxConnections the maximum number of pooled connections.
+     * @param connectTimeout the timeout for establishing a connection.
+     * @param connectionRequestTimeout the timeout for obtaining a connection from the pool.
+     * @param responseTimeout the timeout for waiting for the response.
+     * @param keepAlive how long an idle connection is kept for reuse.
+     * @return the WebClient.
+     */
+    @Bean
+    public WebClient outboundWebClient(
+            WebClient.Builder builder,
+            @Value("${outbound.http.max-connections:50}") int maxConnections,
+            @Value("${outbound.http.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${outbound.http.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${outbound.http.response-timeout:5s}") Duration responseTimeout,
+            @Value("${outbound.http.keep-alive:30s}") Duration keepAlive) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("outbound")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(keepAlive)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of book titles for typeahead search.
+ * <p>
+ * Titles are normalized to lower case words without accents or punctuation. The index keeps
+ * the normalized titles sorted, for titles starting with the query, and a sorted dictionary
+ * of words with the books containing them, for titles with a word starting with each query
+ * term. Both are prefix range scans, so a search does not look at titles that cannot match.
+ * </p>
+ * <p>
+ * Results are ranked in two tiers: first the titles starting with the whole query, in title
+ * order, then the titles matching every term at a word start, those with more whole-word
+ * matches, an earlier first match and a shorter title first. Reads run concurrently; writes
+ * are exclusive.
+ * </p>
+ */
+public class TitleIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Orders entries by normalized title, then by ID to keep books with the same title apart.
+     */
+    private static final Comparator<Entry> TITLE_ORDER = (first, second) -> {
+        int order = first.normalized.compareTo(second.normalized);
+        return order != 0 ? order : first.id.compareTo(second.id);
+    };
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byTitle = new TreeSet<>(TITLE_ORDER);
+    private final TreeMap<String, List<Entry>> byWord = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Adds a book to the index, or updates it. A book without a title is removed.
+     * A book with a lower version than the indexed one is an older state and is ignored, so
+     * writes of the same book indexed out of order leave the newest state in the index.
+     *
+     * @param book the book, with at least its ID and title, and its version if known.
+     */
+    public void put(Book book) {
+        String normalized = book.getTitle() == null ? "" : normalize(book.getTitle());
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(book.getId());
+            if (existing != null) {
+                if (book.getVersion() != null && existing.version != null && book.getVersion() < existing.version) {
+                    return;
+                }
+                if (existing.normalized.equals(normalized) && existing.title.equals(book.getTitle())
+                        && Objects.equals(existing.isbn, book.getISBN())) {
+                    if (book.getVersion() != null) {
+                        existing.version = book.getVersion();
+                    }
+                    return;
+                }
+                unlink(existing);
+            }
+            if (normalized.isEmpty()) {
+                return;
+            }
+            link(new Entry(book.getId(), book.getISBN(), book.getTitle(), normalized, book.getVersion()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a book from the index.
+     *
+     * @param id the ID of the book.
+     */
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(id);
+            if (existing != null) {
+                unlink(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the number of books in the index.
+     *
+     * @return the number of books.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the titles matching a typeahead query.
+     *
+     * @param query the query as typed; every word is matched as a word prefix.
+     * @param limit the maximum number of results.
+     * @return the matching books with their ID, ISBN and title, best matches first.
+     */
+    public List<Book> search(String query, int limit) {
+        String phrase = normalize(query);
+        if (phrase.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        String[] terms = phrase.split(" ");
+        List<Book> results = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            // First tier: titles starting with the query, already in title order.
+            for (Entry entry : byTitle.subSet(probe(phrase), true, probe(phrase + Character.MAX_VALUE), false)) {
+                if (results.size() == limit) {
+                    return results;
+                }
+                results.add(entry.toBook());
+            }
+            for (Scored scored : matchWords(phrase, terms, limit - results.size())) {
+                results.add(scored.entry.toBook());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the best titles with a word starting with every term, other than the titles starting with the phrase.
+     * The candidates come from the term with the fewest books, and are checked against the other terms.
+     */
+    private List<Scored> matchWords(String phrase, String[] terms, int limit) {
+        NavigableMap<String, List<Entry>> candidates = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String term : terms) {
+            NavigableMap<String, List<Entry>> range = byWord.subMap(term, true, term + Character.MAX_VALUE, false);
+            int count = 0;
+            for (List<Entry> postings : range.values()) {
+                count += postings.size();
+            }
+            if (count < fewest) {
+                fewest = count;
+                candidates = range;
+            }
+        }
+        if (fewest == 0) {
+            return List.of();
+        }
+        // The worst of the best results so far is at the head, to be replaced by a better one.
+        PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, Scored.RANKING.reversed());
+        // A title with several words starting with the term is listed under each of them.
+        Set<Entry> seen = candidates.size() > 1 ? new HashSet<>() : null;
+        for (List<Entry> postings : candidates.values()) {
+            for (Entry entry : postings) {
+                if (entry.normalized.startsWith(phrase) || (seen != null && !seen.add(entry))) {
+                    continue;
+                }
+                Scored scored = score(entry, terms);
+                if (scored != null) {
+                    best.offer(scored);
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(Scored.RANKING);
+        return ranked;
+    }
+
+    /**
+     * Scores a title against the terms: 2 for a term matching a whole word, 1 for a word prefix.
+     *
+     * @return the score, or null if a term matches no word of the title.
+     */
+    private static Scored score(Entry entry, String[] terms) {
+        String title = entry.normalized;
+        int score = 0;
+        int firstMatch = -1;
+        for (String term : terms) {
+            int best = 0;
+            for (int from = title.indexOf(term); from >= 0 && best < 2; from = title.indexOf(term, from + 1)) {
+                if (from > 0 && title.charAt(from - 1) != ' ') {
+                    continue;
+                }
+                int end = from + term.length();
+                int match = end == title.length() || title.charAt(end) == ' ' ? 2 : 1;
+                if (match > best) {
+                    best = match;
+                    if (firstMatch < 0 || from < firstMatch) {
+                        firstMatch = from;
+                    }
+                }
+            }
+            if (best == 0) {
+                return null;
+            }
+            score += best;
+        }
+        return new Scored(entry, score, firstMatch);
+    }
+
+    private void link(Entry entry) {
+        entries.put(entry.id, entry);
+        byTitle.add(entry);
+        for (String word : words(entry.normalized)) {
+            byWord.computeIfAbsent(word, key -> new ArrayList<>()).add(entry);
+        }
+    }
+
+    private void unlink(Entry entry) {
+        entries.remove(entry.id);
+        byTitle.remove(entry);
+        for (String word : words(entry.normalized)) {
+            List<Entry> postings = byWord.get(word);
+            if (postings != null) {
+                postings.remove(entry);
+                if (postings.isEmpty()) {
+                    byWord.remove(word);
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalizes a title or a query: accents and punctuation removed, lower case words separated by one space.
+     *
+     * @param text the text.
+     * @return the normalized text, empty if it has no letters or digits.
+     */
+    static String normalize(String text) {
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            // Most titles are plain ASCII and have no accents to remove.
+            if (text.charAt(i) >= 0x80) {
+                folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean separated = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (separated && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                separated = false;
+            } else {
+                separated = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Gets the distinct words of a normalized title.
+     *
+     * @param normalized the normalized title.
+     * @return the words, each once.
+     */
+    private static List<String> words(String normalized) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        while (start < normalized.length()) {
+            int end = normalized.indexOf(' ', start);
+            if (end < 0) {
+                end = normalized.length();
+            }
+            String word = normalized.substring(start, end);
+            if (!words.contains(word)) {
+                words.add(word);
+            }
+            start = end + 1;
+        }
+        return words;
+    }
+
+    /**
+     * Builds the index of many books at once.
+     * The titles are sorted before they are indexed, which is several times faster than
+     * adding them in the order of the books.
+     *
+     * @param books the books, with at least their ID, title and version, each book once.
+     * @return the index.
+     */
+    public static TitleIndex of(Stream<Book> books) {
+        List<Entry> sorted = new ArrayList<>();
+        books.forEach(book -> {
+            String normalized = book.getTitle() == null ? "" : normalize(book.getTitle());
+            if (!normalized.isEmpty()) {
+                sorted.add(new Entry(book.getId(), book.getISBN(), book.getTitle(), normalized, book.getVersion()));
+            }
+        });
+        sorted.sort(TITLE_ORDER);
+        TitleIndex index = new TitleIndex();
+        sorted.forEach(index::link);
+        return index;
+    }
+
+    private static Entry probe(String normalized) {
+        return new Entry("", null, "", normalized, null);
+    }
+
+    /**
+     * An indexed title.
+     */
+    private static final class Entry {
+        private final String id;
+        private final String isbn;
+        private final String title;
+        private final String normalized;
+        private Long version; //The version of the indexed state, null if unknown.
+
+        private Entry(String id, String isbn, String title, String normalized, Long version) {
+            this.id = id;
+            this.isbn = isbn;
+            this.title = title;
+            this.normalized = normalized;
+            this.version = version;
+        }
+
+        private Book toBook() {
+            Book book = new Book();
+            book.setId(id);
+            book.setISBN(isbn);
+            book.setTitle(title);
+            return book;
+        }
+    }
+
+    /**
+     * A second tier match with its rank.
+     */
+    private record Scored(Entry entry, int score, int firstMatch) {
+        private static final Comparator<Scored> RANKING = Comparator.comparingInt((Scored scored) -> -scored.score)
+                .thenComparingInt(Scored::firstMatch)
+                .thenComparingInt(scored -> scored.entry.normalized.length())
+                .thenComparing(Scored::entry, TITLE_ORDER);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.util;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration of the virtual-thread execution mode, enabled with 'app.threads.virtual.enabled=true'.
+ * <p>
+ * Every request path blocks on the MongoDB driver or on the Google Books API. On platform threads
+ * each blocked request holds one of the Tomcat workers, so a slow upstream exhausts the pool.
+ * In this mode Tomcat runs every request on a new virtual thread, which releases its carrier
+ * thread while it waits, and the asynchronous MVC work (streamed exports, event feeds) runs on
+ * virtual threads too. The Google Books lookups run on the request thread, so they are covered
+ * as well; concurrency towards the upstream stays bounded by the outbound connection pool.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Bean definition replacing the Tomcat worker pool with a virtual thread per request.
+     *
+     * @return the Tomcat protocol handler customizer.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("http-virtual-", 1).factory()));
+    }
+
+    /**
+     * Bean definition for the executor of the asynchronous MVC work, in place of the
+     * platform thread pool Spring Boot would create.
+     *
+     * @return the virtual thread executor.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("task-virtual-", 1).factory()));
+    }
+}
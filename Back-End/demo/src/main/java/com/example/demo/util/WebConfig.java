@@ -0,0 +1,44 @@
+package com.example.demo.util;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Spring MVC configuration of the REST endpoints.
+ * Registers the conditional GET support on the read endpoints whose responses only depend
+ * on the data of one collection. Endpoints that read outside data or stream, such as the
+ * Google Books lookup, the enrichment, cache, copy and intake statistics, the export and the
+ * live event feed, are left out.
+ * The reactive stack has no servlet interceptors, so this is off with the 'reactive' profile.
+ */
+@Configuration
+@Profile("!reactive")
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CollectionVersions collectionVersions;
+
+    /**
+     * Autowired constructor for dependency injection of the collection versions.
+     *
+     * @param collectionVersions the versions of the collections.
+     */
+    @Autowired
+    public WebConfig(CollectionVersions collectionVersions) {
+        this.collectionVersions = collectionVersions;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(collectionVersions, CollectionVersions.BOOKS))
+                .addPathPatterns("/api/books/**")
+                .excludePathPatterns("/api/books/book-details/**", "/api/books/enrichment/**", "/api/books/export",
+                        "/api/books/events/**", "/api/books/cache/**", "/api/books/copies/stats",
+                        "/api/books/intake/**");
+        // Overdue todos change as time passes, so they are not tagged with the collection version.
+        registry.addInterceptor(new ConditionalGetInterceptor(collectionVersions, CollectionVersions.TODOS, "overdue"))
+                .addPathPatterns("/api/todos/**");
+    }
+}
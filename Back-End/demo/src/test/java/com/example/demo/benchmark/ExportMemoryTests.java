@@ -0,0 +1,135 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import com.example.demo.model.BookFilter;
+import com.example.demo.service.BookExportService;
+import com.example.demo.util.BookFileFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that GET /export streams: the heap used while exporting stays flat as the
+ * collection grows, instead of growing with the number of exported books.
+ * The heap is sampled after a GC every few megabytes of output.
+ * Runs against the configured MongoDB in a separate database that is dropped afterwards.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ExportMemoryTests {
+
+	private static final int[] SIZES = {50_000, 200_000, 500_000};
+
+	/**
+	 * Heap growth tolerated between the smallest and the largest export, far below the size of the largest result.
+	 */
+	private static final long SLACK_BYTES = 16L * 1024 * 1024;
+
+	@Autowired
+	private BookExportService bookExportService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void heapStaysFlatAsTheCollectionGrows() throws Exception {
+		long smallestPeak = -1;
+		int seeded = 0;
+		for (int size : SIZES) {
+			seeded = seed(seeded, size);
+			for (BookFileFormat format : BookFileFormat.values()) {
+				long baseline = usedHeap();
+				HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+				long exported = bookExportService.exportBooks(out, format, BookFilter.all(), BookFields.ALL);
+				long peak = out.peak - baseline;
+
+				System.out.printf(Locale.ROOT, "n=%-7d %-6s %8d KB written   peak heap growth %8d KB%n",
+						size, format, out.bytes / 1024, peak / 1024);
+				assertEquals(size, exported);
+				if (smallestPeak < 0) {
+					smallestPeak = peak;
+				}
+				assertTrue(peak < smallestPeak + SLACK_BYTES,
+						"Heap grew by " + peak / 1024 + " KB exporting " + size + " books");
+			}
+		}
+	}
+
+	/**
+	 * Inserts books until the collection holds the given number.
+	 */
+	private int seed(int from, int to) {
+		List<Book> batch = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			Book book = new Book();
+			book.setISBN(String.format("978%010d", i));
+			book.setTitle("Benchmark book " + i);
+			book.setCOGS(1.0 + i % 10);
+			book.setAuthors(List.of("Author " + i % 100));
+			book.setVersion(0L);
+			batch.add(book);
+			if (batch.size() == 10_000) {
+				mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class).insert(batch).execute();
+				batch.clear();
+			}
+		}
+		if (!batch.isEmpty()) {
+			mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class).insert(batch).execute();
+		}
+		return to;
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * Discards the export and samples the used heap every few megabytes.
+	 */
+	private static final class HeapSamplingOutputStream extends OutputStream {
+		private static final long SAMPLE_INTERVAL = 4L * 1024 * 1024;
+
+		private long bytes;
+		private long nextSample = SAMPLE_INTERVAL;
+		private long peak;
+
+		@Override
+		public void write(int b) {
+			count(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count(len);
+		}
+
+		private void count(int len) {
+			bytes += len;
+			if (bytes >= nextSample) {
+				peak = Math.max(peak, usedHeap());
+				nextSample += SAMPLE_INTERVAL;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.ImportReport;
+import com.example.demo.service.BookImportService;
+import com.example.demo.service.BookService;
+import com.example.demo.util.BookFileFormat;
+import com.example.demo.util.BookImportReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the throughput, in rows per second, of importing books through POST /import
+ * with creating them one at a time as POST /create-book does. The import file is generated
+ * while it is read, so it never exists in memory as a whole.
+ * Runs against the configured MongoDB in a separate database that is dropped afterwards.
+ */
+@SpringBootTest(properties = {
+		"spring.data.mongodb.database=inventory_benchmark",
+		"books.enrichment.queue-capacity=1"})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ImportBenchmarkTests {
+
+	private static final int ONE_AT_A_TIME_ROWS = 5_000;
+	private static final int IMPORT_ROWS = 200_000;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookImportService bookImportService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void bulkImportAgainstOneAtATimeCreate() throws Exception {
+		long start = System.nanoTime();
+		for (int i = 0; i < ONE_AT_A_TIME_ROWS; i++) {
+			Book book = new Book();
+			book.setISBN(isbn(i));
+			book.setCOGS(1.0 + i % 10);
+			book.setTitle("Title " + i);
+			book.setImageUrl("http://covers.example/" + i + ".jpg");
+			bookService.createBook(book);
+		}
+		double oneAtATime = ONE_AT_A_TIME_ROWS / ((System.nanoTime() - start) / 1e9);
+
+		long heapBefore = usedHeap();
+		ImportReport report = bookImportService.importBooks(new GeneratedCsv(IMPORT_ROWS),
+				BookFileFormat.CSV, StandardCharsets.UTF_8);
+		long heapAfter = usedHeap();
+
+		System.out.printf(Locale.ROOT, "%-40s n=%-7d %10.0f rows/s%n", "one at a time (create-book)", ONE_AT_A_TIME_ROWS, oneAtATime);
+		System.out.printf(Locale.ROOT, "%-40s n=%-7d %10.0f rows/s%n", "bulk import (csv)", IMPORT_ROWS, report.getRowsPerSecond());
+		System.out.printf(Locale.ROOT, "heap growth over the import: %d KB%n", (heapAfter - heapBefore) / 1024);
+		assertEquals(IMPORT_ROWS, report.getImported());
+		assertEquals(0, report.getFailed());
+	}
+
+	private static String isbn(int i) {
+		return String.format("978%010d", i);
+	}
+
+	private static long usedHeap() {
+		System.gc();
+		Runtime runtime = Runtime.getRuntime();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	/**
+	 * A CSV file produced row by row as it is read.
+	 */
+	private static final class GeneratedCsv extends InputStream {
+		private final int rows;
+		private int next = -1;
+		private byte[] current = "isbn,cogs,title,imageUrl,datePurchased\n".getBytes(StandardCharsets.UTF_8);
+		private int position;
+
+		private GeneratedCsv(int rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public int read() {
+			if (position == current.length) {
+				if (++next == rows) {
+					return -1;
+				}
+				current = (isbn(next) + "," + (1 + next % 10) + ",Title " + next
+						+ ",http://covers.example/" + next + ".jpg,2024-01-15\n").getBytes(StandardCharsets.UTF_8);
+				position = 0;
+			}
+			return current[position++];
+		}
+	}
+
+}
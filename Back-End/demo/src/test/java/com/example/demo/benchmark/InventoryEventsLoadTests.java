@@ -0,0 +1,205 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.service.BookService;
+import com.example.demo.service.InventoryEventService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Connects hundreds of clients to GET /api/books/events on a local server, some of them
+ * deliberately slow, writes books from several threads and checks that every client ends
+ * up with the same totals as the inventory summary. Prints how long the fan-out took and
+ * how many updates were coalesced for the slow clients. Runs against the configured MongoDB
+ * in a separate database that is dropped afterwards.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.data.mongodb.database=inventory_benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InventoryEventsLoadTests {
+
+	private static final int SUBSCRIBERS = 500;
+	private static final int SLOW_SUBSCRIBERS = 20;
+	private static final long SLOW_LINE_MILLIS = 5;
+	private static final int WRITERS = 8;
+	private static final int WRITES = 2_000;
+	private static final double COGS = 2.5;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private InventoryEventService inventoryEventService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void everySubscriberConvergesOnTheFinalTotals() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+		List<EventClient> clients = new ArrayList<>();
+		for (int i = 0; i < SUBSCRIBERS; i++) {
+			EventClient eventClient = new EventClient(connected, i < SLOW_SUBSCRIBERS ? SLOW_LINE_MILLIS : 0);
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/books/events"))
+					.header("Accept", "text/event-stream").build();
+			eventClient.response = client.sendAsync(request, HttpResponse.BodyHandlers.fromLineSubscriber(eventClient));
+			clients.add(eventClient);
+		}
+		assertTrue(connected.await(30, TimeUnit.SECONDS), "not every client received its snapshot");
+
+		long start = System.nanoTime();
+		ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+		List<Future<?>> writes = new ArrayList<>();
+		for (int i = 0; i < WRITES; i++) {
+			writes.add(writers.submit(() -> bookService.createBook(book())));
+		}
+		for (Future<?> write : writes) {
+			write.get();
+		}
+		writers.shutdown();
+		double writeMillis = (System.nanoTime() - start) / 1e6;
+
+		for (EventClient eventClient : clients) {
+			assertTrue(eventClient.awaitUnsold(WRITES, 120_000), "client stuck at " + eventClient.unsold);
+		}
+		double convergedMillis = (System.nanoTime() - start) / 1e6;
+
+		System.out.printf("%d subscribers (%d slow), %d writes: written in %.0f ms, all converged after %.0f ms%n",
+				SUBSCRIBERS, SLOW_SUBSCRIBERS, WRITES, writeMillis, convergedMillis);
+		System.out.println("feed: " + inventoryEventService.getStats());
+		for (EventClient eventClient : clients) {
+			assertEquals(WRITES, eventClient.unsold);
+			assertEquals(WRITES * COGS, eventClient.cogs, 1e-6);
+			eventClient.response.cancel(true);
+		}
+	}
+
+	private static Book book() {
+		Book book = new Book();
+		book.setISBN("9780306406157");
+		book.setCOGS(COGS);
+		book.setDatePurchased(new Date());
+		book.setTitle("Load test");
+		book.setImageUrl("http://localhost/cover.png");
+		return book;
+	}
+
+	/**
+	 * A minimal event stream client applying snapshots and deltas to its own totals.
+	 */
+	private class EventClient implements Flow.Subscriber<String> {
+		private final CountDownLatch connected;
+		private final long lineDelayMillis;
+		private CompletableFuture<HttpResponse<Void>> response;
+		private Flow.Subscription subscription;
+		private String event;
+		private String data;
+		private volatile long unsold;
+		private volatile double cogs;
+
+		EventClient(CountDownLatch connected, long lineDelayMillis) {
+			this.connected = connected;
+			this.lineDelayMillis = lineDelayMillis;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(1);
+		}
+
+		@Override
+		public void onNext(String line) {
+			if (line.startsWith("event:")) {
+				event = line.substring(6).trim();
+			} else if (line.startsWith("data:")) {
+				data = line.substring(5).trim();
+			} else if (line.isEmpty() && data != null) {
+				apply(event, data);
+				event = null;
+				data = null;
+			}
+			if (lineDelayMillis > 0) {
+				try {
+					Thread.sleep(lineDelayMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			subscription.request(1);
+		}
+
+		private synchronized void apply(String name, String json) {
+			try {
+				JsonNode update = objectMapper.readTree(json);
+				if ("snapshot".equals(name)) {
+					unsold = update.get("unsold").asLong();
+					cogs = update.get("cogs").asDouble();
+					connected.countDown();
+				} else {
+					unsold += update.get("unsold").asLong();
+					cogs += update.get("cogs").asDouble();
+				}
+				notifyAll();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		synchronized boolean awaitUnsold(long expected, long timeoutMillis) throws InterruptedException {
+			long deadline = System.currentTimeMillis() + timeoutMillis;
+			while (unsold != expected) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0) {
+					return false;
+				}
+				wait(remaining);
+			}
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+		}
+
+		@Override
+		public void onComplete() {
+		}
+	}
+}
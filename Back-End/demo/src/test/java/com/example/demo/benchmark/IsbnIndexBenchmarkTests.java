@@ -0,0 +1,122 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.util.IsbnIndex;
+import com.example.demo.util.IsbnUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the ISBN index with the obvious HashMap&lt;String, List&lt;String&gt;&gt; from normalized
+ * ISBN to copy IDs, over one million copies of about 700,000 ISBNs: the heap retained by each,
+ * ID strings included, and the latency of looking up ISBNs in the inventory and ISBNs not in
+ * it. Checks that the index needs less memory per copy. Needs no database.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class IsbnIndexBenchmarkTests {
+
+	private static final int COPIES = 1_000_000;
+	private static final int ISBNS = 700_000;
+	private static final int LOOKUPS = 200_000;
+
+	@Test
+	void indexAgainstHashMapBaseline() {
+		long before = usedHeap();
+		IsbnIndex index = new IsbnIndex();
+		generate(book -> index.put(book));
+		long indexBytes = usedHeap() - before;
+
+		before = usedHeap();
+		Map<String, List<String>> baseline = new HashMap<>();
+		generate(book -> baseline.computeIfAbsent(IsbnUtils.normalize(book.getISBN()), isbn -> new ArrayList<>(1))
+				.add(book.getId()));
+		long baselineBytes = usedHeap() - before;
+
+		assertEquals(COPIES, index.size());
+		assertEquals(baseline.size(), index.isbnCount());
+
+		List<String> queries = new ArrayList<>(LOOKUPS);
+		Random random = new Random(11);
+		for (int i = 0; i < LOOKUPS; i++) {
+			// Half in the inventory, half not, written with hyphens as users type them.
+			long first12 = 978_000_000_000L + (i % 2 == 0 ? random.nextInt(ISBNS) : ISBNS + random.nextInt(ISBNS));
+			String isbn = isbn13(first12);
+			queries.add(isbn.substring(0, 3) + "-" + isbn.substring(3));
+		}
+		LatencyRecorder indexLookups = lookups("IsbnIndex countCopies", queries, index::countCopies);
+		LatencyRecorder baselineLookups = lookups("HashMap<String, List<String>> get", queries, query -> {
+			List<String> ids = baseline.get(IsbnUtils.normalize(query));
+			return ids == null ? 0 : ids.size();
+		});
+
+		System.out.printf(Locale.ROOT, "%-40s %6d bytes per copy (estimated %d)%n", "IsbnIndex",
+				indexBytes / COPIES, index.memoryBytes() / COPIES);
+		System.out.printf(Locale.ROOT, "%-40s %6d bytes per copy%n", "HashMap<String, List<String>>", baselineBytes / COPIES);
+		System.out.println(indexLookups);
+		System.out.println(baselineLookups);
+		assertTrue(indexBytes < baselineBytes);
+	}
+
+	/**
+	 * Generates the same copies every time, with strings of their own, so each structure is
+	 * measured with the IDs it retains.
+	 */
+	private static void generate(Consumer<Book> consumer) {
+		Random random = new Random(3);
+		for (int i = 0; i < COPIES; i++) {
+			Book book = new Book();
+			book.setId(String.format("%024x", i));
+			// Every ISBN once, then more copies of random ones.
+			book.setISBN(isbn13(978_000_000_000L + (i < ISBNS ? i : random.nextInt(ISBNS))));
+			consumer.accept(book);
+		}
+	}
+
+	private static LatencyRecorder lookups(String name, List<String> queries, ToIntFunction<String> lookup) {
+		int found = 0;
+		for (int round = 0; round < 3; round++) {
+			for (String query : queries) {
+				found += lookup.applyAsInt(query);
+			}
+		}
+		LatencyRecorder recorder = new LatencyRecorder(name, queries.size());
+		for (String query : queries) {
+			long start = System.nanoTime();
+			found += lookup.applyAsInt(query);
+			recorder.record(System.nanoTime() - start);
+		}
+		assertTrue(found > 0);
+		return recorder;
+	}
+
+	private static String isbn13(long first12) {
+		int sum = 0;
+		long digits = first12;
+		for (int i = 0; i < 12; i++) {
+			int digit = (int) (digits % 10);
+			sum += i % 2 == 0 ? 3 * digit : digit;
+			digits /= 10;
+		}
+		return first12 + String.valueOf((10 - sum % 10) % 10);
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.demo.benchmark;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Records the latency of repeated runs of an operation and reports percentiles.
+ * Shared by the benchmark tests, which only run with -Dbenchmark=true.
+ */
+final class LatencyRecorder {
+
+	private final String name;
+	private final long[] nanos;
+	private int count;
+
+	LatencyRecorder(String name, int capacity) {
+		this.name = name;
+		this.nanos = new long[capacity];
+	}
+
+	/**
+	 * Runs the operation a number of times without recording, then records each run.
+	 */
+	static LatencyRecorder measure(String name, int warmups, int runs, Runnable operation) {
+		for (int i = 0; i < warmups; i++) {
+			operation.run();
+		}
+		LatencyRecorder recorder = new LatencyRecorder(name, runs);
+		for (int i = 0; i < runs; i++) {
+			long start = System.nanoTime();
+			operation.run();
+			recorder.record(System.nanoTime() - start);
+		}
+		return recorder;
+	}
+
+	synchronized void record(long elapsedNanos) {
+		if (count < nanos.length) {
+			nanos[count++] = elapsedNanos;
+		}
+	}
+
+	synchronized double percentileMillis(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long[] sorted = Arrays.copyOf(nanos, count);
+		Arrays.sort(sorted);
+		int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+		return sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+	}
+
+	synchronized int count() {
+		return count;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "%-40s n=%-6d p50=%8.3f ms  p99=%8.3f ms  max=%8.3f ms",
+				name, count(), percentileMillis(50), percentileMillis(99), percentileMillis(100));
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.MarkSoldReport;
+import com.example.demo.model.MarkSoldRequest;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.BookService;
+import com.example.demo.service.InventorySummaryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares marking N books sold with N individual updates, as N PUT /api/books/{id} requests
+ * do (findById + save each), and with one POST /api/books/mark-sold (one read + one bulk write).
+ * Runs against the configured MongoDB in a separate database that is dropped afterwards.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MarkSoldBenchmarkTests {
+
+	private static final int[] SIZES = {100, 1_000, 10_000};
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private InventorySummaryService inventorySummaryService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void individualUpdatesAgainstOneBulkWrite() {
+		for (int size : SIZES) {
+			List<Book> books = seed(size);
+			Date sold = new Date();
+			long start = System.nanoTime();
+			for (Book book : books) {
+				Book update = book.copy();
+				update.setSold(sold);
+				update.setPayout(20.0);
+				update.setProfit(20.0 - book.getCOGS());
+				bookService.updateBook(book.getId(), update);
+			}
+			double individualMillis = (System.nanoTime() - start) / 1e6;
+
+			mongoTemplate.dropCollection(Book.class);
+			books = seed(size);
+			MarkSoldRequest request = new MarkSoldRequest();
+			request.setSold(sold);
+			List<MarkSoldRequest.Item> items = new ArrayList<>();
+			for (Book book : books) {
+				MarkSoldRequest.Item item = new MarkSoldRequest.Item();
+				item.setId(book.getId());
+				item.setPayout(20.0);
+				items.add(item);
+			}
+			request.setBooks(items);
+			start = System.nanoTime();
+			MarkSoldReport report = bookService.markSold(request);
+			double bulkMillis = (System.nanoTime() - start) / 1e6;
+
+			System.out.printf(Locale.ROOT, "n=%-6d individual updates %10.1f ms   mark-sold %8.1f ms   speedup %6.1fx%n",
+					size, individualMillis, bulkMillis, individualMillis / bulkMillis);
+			assertEquals(size, report.getSold());
+			mongoTemplate.dropCollection(Book.class);
+		}
+	}
+
+	private List<Book> seed(int count) {
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Book book = new Book();
+			book.setISBN(String.format("978%010d", i));
+			book.setTitle("Benchmark book " + i);
+			book.setCOGS(1.0 + i % 10);
+			books.add(book);
+		}
+		List<Book> saved = bookRepository.insert(books);
+		inventorySummaryService.rebuild();
+		return saved;
+	}
+
+}
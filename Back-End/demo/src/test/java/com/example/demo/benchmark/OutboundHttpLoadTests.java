@@ -0,0 +1,123 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.GoogleBooksService;
+import com.example.demo.support.StubGoogleBooksServer;
+import com.example.demo.util.AppConfig;
+import com.example.demo.util.CircuitBreakerInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires book detail lookups from a fixed pool of "request threads", the way Tomcat workers
+ * would, against a slow and then a failing stub of the Google Books API. Compares the bare
+ * RestTemplate with the pooled, time-bounded and circuit-broken one from AppConfig, and checks
+ * that with the latter no request thread is held longer than the response timeout.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class OutboundHttpLoadTests {
+
+	private static final int REQUEST_THREADS = 20;
+	private static final int REQUESTS = 400;
+	private static final long STUB_DELAY_MILLIS = 3000;
+	private static final Duration RESPONSE_TIMEOUT = Duration.ofMillis(250);
+	private static final int FAILURE_THRESHOLD = 5;
+
+	private StubGoogleBooksServer stub;
+	private CloseableHttpClient httpClient;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		stub = new StubGoogleBooksServer();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		if (httpClient != null) {
+			httpClient.close();
+		}
+		stub.close();
+	}
+
+	@Test
+	void slowUpstreamHoldsRequestThreadsOnlyWithTheBareClient() throws Exception {
+		stub.withDelay(STUB_DELAY_MILLIS);
+
+		// The bare client waits for every slow response; a single wave of requests is enough to show it.
+		LatencyRecorder bare = load("bare RestTemplate, slow upstream", new RestTemplate(), REQUEST_THREADS);
+		LatencyRecorder pooled = load("pooled + breaker, slow upstream", pooledRestTemplate(), REQUESTS);
+
+		System.out.println(bare);
+		System.out.println(pooled);
+		System.out.println("upstream requests: " + stub.requestCount());
+		assertTrue(bare.percentileMillis(50) >= STUB_DELAY_MILLIS);
+		assertTrue(pooled.percentileMillis(100) < RESPONSE_TIMEOUT.toMillis() * 4);
+	}
+
+	@Test
+	void failingUpstreamIsCutOffByTheBreaker() throws Exception {
+		stub.withStatus(503);
+
+		LatencyRecorder pooled = load("pooled + breaker, failing upstream", pooledRestTemplate(), REQUESTS);
+
+		System.out.println(pooled);
+		System.out.println("upstream requests: " + stub.requestCount());
+		// Only the calls already in flight when the breaker opened reach the upstream.
+		assertTrue(stub.requestCount() <= FAILURE_THRESHOLD + REQUEST_THREADS);
+		assertTrue(pooled.percentileMillis(90) < 5);
+	}
+
+	private RestTemplate pooledRestTemplate() {
+		AppConfig config = new AppConfig();
+		httpClient = config.outboundHttpClient(
+				config.outboundConnectionManager(50, 20, Duration.ofSeconds(1), RESPONSE_TIMEOUT),
+				Duration.ofSeconds(1), RESPONSE_TIMEOUT, Duration.ofSeconds(30));
+		CircuitBreakerInterceptor breaker = config.circuitBreakerInterceptor(FAILURE_THRESHOLD, Duration.ofMinutes(1));
+		return config.restTemplate(httpClient, breaker);
+	}
+
+	/**
+	 * Runs lookups of distinct ISBNs, so the cache does not hide the upstream, and records how long
+	 * each one held its request thread, whether it succeeded or failed.
+	 */
+	private LatencyRecorder load(String name, RestTemplate restTemplate, int requests) throws Exception {
+		GoogleBooksService service = new GoogleBooksService(restTemplate, stub.url(), "test-key", 10_000,
+				Duration.ofHours(1), Duration.ofMinutes(5), new SimpleMeterRegistry());
+		LatencyRecorder recorder = new LatencyRecorder(name, requests);
+		ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+		List<Future<?>> results = new ArrayList<>();
+		for (int i = 0; i < requests; i++) {
+			String isbn = String.format("978%010d", i);
+			results.add(requestThreads.submit(() -> {
+				long start = System.nanoTime();
+				try {
+					service.findByIsbn(isbn);
+				} catch (RuntimeException e) {
+					// Timeouts, upstream errors and open-breaker failures all free the thread.
+				}
+				recorder.record(System.nanoTime() - start);
+			}));
+		}
+		for (Future<?> result : results) {
+			result.get();
+		}
+		requestThreads.shutdown();
+		requestThreads.awaitTermination(1, TimeUnit.MINUTES);
+		return recorder;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookSlice;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.BookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the latency of the first and the 500th page of /all-books with offset
+ * pagination (skip + count) and with keyset pagination (seek on the cursor).
+ * Runs against the configured MongoDB in a separate database that is dropped afterwards.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PaginationBenchmarkTests {
+
+	private static final int PAGE_SIZE = 20;
+	private static final int DEEP_PAGE = 500;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void firstAndDeepPageLatencyInBothModes() {
+		seed(PAGE_SIZE * (DEEP_PAGE + 1));
+
+		// Walk the cursor chain once to find the cursor of the deep page.
+		String deepCursor = "";
+		for (int page = 1; page < DEEP_PAGE; page++) {
+			deepCursor = bookService.getBooksAfter(deepCursor, "id", PAGE_SIZE).getNextCursor();
+		}
+		String cursor = deepCursor;
+
+		List<LatencyRecorder> results = List.of(
+				LatencyRecorder.measure("offset page 1", 20, 200, () -> bookService.getBooks(0, PAGE_SIZE)),
+				LatencyRecorder.measure("offset page " + DEEP_PAGE, 20, 200, () -> bookService.getBooks(DEEP_PAGE - 1, PAGE_SIZE)),
+				LatencyRecorder.measure("cursor page 1", 20, 200, () -> bookService.getBooksAfter("", "id", PAGE_SIZE)),
+				LatencyRecorder.measure("cursor page " + DEEP_PAGE, 20, 200, () -> bookService.getBooksAfter(cursor, "id", PAGE_SIZE)));
+		results.forEach(System.out::println);
+
+		BookSlice deepSlice = bookService.getBooksAfter(cursor, "id", PAGE_SIZE);
+		assertEquals(PAGE_SIZE, deepSlice.getNumberOfElements());
+	}
+
+	private void seed(int count) {
+		List<Book> batch = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Book book = new Book();
+			book.setISBN(String.format("978%010d", i));
+			book.setTitle("Benchmark book " + i);
+			book.setCOGS(1.0 + i % 50);
+			batch.add(book);
+			if (batch.size() == 1000) {
+				bookRepository.insert(batch);
+				batch = new ArrayList<>();
+			}
+		}
+		bookRepository.insert(batch);
+	}
+
+}
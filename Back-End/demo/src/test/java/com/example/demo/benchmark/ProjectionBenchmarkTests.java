@@ -0,0 +1,102 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.BookService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a page of /all-books with whole books and with the fields of the list view
+ * (fields=id,title,isbn,sold): the bytes of the serialized page and the latency of reading
+ * and serializing it with the application's ObjectMapper, as the endpoint does.
+ * Runs against the configured MongoDB in a separate database that is dropped afterwards.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProjectionBenchmarkTests {
+
+	private static final int BOOKS = 10_000;
+	private static final int PAGE_SIZE = 100;
+	private static final List<String> LIST_VIEW = BookFields.parse("id,title,isbn,sold");
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void wholeBooksAgainstListViewFields() {
+		seed();
+
+		Supplier<Object> whole = () -> bookService.getBooksAfter("", "id", PAGE_SIZE);
+		Supplier<Object> listView = () -> bookService.getBooksAfter("", "id", PAGE_SIZE, LIST_VIEW).select(LIST_VIEW);
+		int wholeBytes = serialize(whole.get()).length;
+		int listViewBytes = serialize(listView.get()).length;
+
+		System.out.println(LatencyRecorder.measure("whole books, read + serialize", 50, 500, () -> serialize(whole.get())));
+		System.out.println(LatencyRecorder.measure("list view fields, read + serialize", 50, 500, () -> serialize(listView.get())));
+		System.out.printf(Locale.ROOT, "bytes per page of %d: whole books %d, list view fields %d (%.0f%%)%n",
+				PAGE_SIZE, wholeBytes, listViewBytes, 100.0 * listViewBytes / wholeBytes);
+		assertTrue(listViewBytes < wholeBytes);
+	}
+
+	private byte[] serialize(Object page) {
+		try {
+			return objectMapper.writeValueAsBytes(page);
+		} catch (JsonProcessingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void seed() {
+		List<Book> batch = new ArrayList<>();
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book();
+			book.setISBN(String.format("978%010d", i));
+			book.setTitle("Benchmark book " + i);
+			book.setCOGS(1.0 + i % 50);
+			book.setDatePurchased(new Date());
+			book.setImageUrl("http://books.google.com/books/content?id=" + i + "&printsec=frontcover&img=1&zoom=1");
+			book.setAuthors(List.of("First Author " + i % 100, "Second Author " + i % 70));
+			book.setPublisher("Benchmark Publishing House");
+			book.setPublishedDate("2004-05-01");
+			book.setPageCount(320);
+			batch.add(book);
+			if (batch.size() == 1000) {
+				bookRepository.insert(batch);
+				batch = new ArrayList<>();
+			}
+		}
+		bookRepository.insert(batch);
+	}
+
+}
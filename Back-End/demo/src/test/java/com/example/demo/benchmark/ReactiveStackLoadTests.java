@@ -0,0 +1,205 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.InventoryV2Application;
+import com.example.demo.model.Book;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.service.InventorySummaryService;
+import com.example.demo.support.StubGoogleBooksServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the same read workload against the servlet stack and the 'reactive' profile side by side,
+ * with thousands of concurrent users and the Google Books API replaced by a slow local stub.
+ * Each stack gets its own application context on a random port. Reports throughput, p50/p99 per
+ * endpoint, errors and the peak number of platform threads, and checks that the reactive stack
+ * serves more requests with fewer threads. Runs against the configured MongoDB in a separate
+ * database that is dropped afterwards.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReactiveStackLoadTests {
+
+	private static final int USERS = 2_000;
+	private static final long STUB_DELAY_MILLIS = 300;
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+	private static final int SEEDED_BOOKS = 2_000;
+	private static final int MAX_SAMPLES = 4_000_000;
+
+	private StubGoogleBooksServer stub;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		stub = new StubGoogleBooksServer().withDelay(STUB_DELAY_MILLIS);
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.close();
+	}
+
+	@Test
+	void reactiveStackServesMoreConcurrentUsersWithFewerThreads() throws Exception {
+		Result servlet = run(false);
+		Result reactive = run(true);
+
+		System.out.println(servlet);
+		System.out.println(reactive);
+		assertTrue(reactive.throughput > servlet.throughput);
+		assertTrue(reactive.peakPlatformThreads < servlet.peakPlatformThreads);
+	}
+
+	private Result run(boolean reactive) throws Exception {
+		SpringApplicationBuilder builder = new SpringApplicationBuilder(InventoryV2Application.class)
+				.properties(
+						"server.port=0",
+						"spring.data.mongodb.database=inventory_benchmark",
+						"google.books.api.url=" + stub.url(),
+						"google.books.api.key=test-key",
+						// The connection pool must not be what limits the lookups on either stack.
+						"outbound.http.max-connections=" + USERS,
+						"outbound.http.max-connections-per-route=" + USERS,
+						"outbound.http.connection-request-timeout=30s");
+		if (reactive) {
+			builder.profiles("reactive");
+		}
+		ConfigurableApplicationContext context = builder.run();
+		try {
+			seed(context);
+			int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+			return load(reactive ? "reactive" : "servlet", port);
+		} finally {
+			context.getBean(MongoTemplate.class).getDb().drop();
+			context.close();
+		}
+	}
+
+	private static void seed(ConfigurableApplicationContext context) {
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < SEEDED_BOOKS; i++) {
+			Book book = new Book();
+			book.setISBN(String.format("979%010d", i));
+			book.setCOGS(2.0);
+			book.setDatePurchased(new Date());
+			book.setTitle("Seeded " + i);
+			book.setImageUrl("http://covers.example/" + i + ".jpg");
+			books.add(book);
+		}
+		context.getBean(BookRepository.class).saveAll(books);
+		context.getBean(InventorySummaryService.class).rebuild();
+	}
+
+	/**
+	 * Lets every simulated user alternate between uncached book detail lookups, which wait for
+	 * the slow stub, and dashboard reads, which wait for MongoDB.
+	 */
+	private Result load(String stack, int port) throws Exception {
+		HttpClient client = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		String base = "http://localhost:" + port + "/api/books";
+		LatencyRecorder details = new LatencyRecorder(stack + " /book-details", MAX_SAMPLES);
+		LatencyRecorder dashboard = new LatencyRecorder(stack + " /dashboard", MAX_SAMPLES);
+		LatencyRecorder all = new LatencyRecorder(stack + " all", MAX_SAMPLES);
+		AtomicLong errors = new AtomicLong();
+		AtomicInteger isbns = new AtomicInteger();
+
+		AtomicInteger peakPlatformThreads = new AtomicInteger();
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+
+		long measureFrom = System.nanoTime() + WARMUP.toNanos();
+		long stopAt = measureFrom + MEASUREMENT.toNanos();
+		sampler.scheduleAtFixedRate(() -> {
+			if (System.nanoTime() < measureFrom) {
+				return;
+			}
+			int platform = 0;
+			for (Thread thread : Thread.getAllStackTraces().keySet()) {
+				if (!thread.getName().startsWith("stub-google-books-")) {
+					platform++;
+				}
+			}
+			peakPlatformThreads.accumulateAndGet(platform, Math::max);
+		}, 0, 200, TimeUnit.MILLISECONDS);
+
+		try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int u = 0; u < USERS; u++) {
+				int user = u;
+				users.submit(() -> {
+					for (int i = 0; System.nanoTime() < stopAt; i++) {
+						String uri;
+						LatencyRecorder recorder;
+						if ((user + i) % 2 == 0) {
+							// A new ISBN every time, so the lookup cache does not hide the upstream.
+							uri = base + "/book-details?isbn=" + String.format("978%010d", isbns.incrementAndGet());
+							recorder = details;
+						} else {
+							uri = base + "/dashboard";
+							recorder = dashboard;
+						}
+						long start = System.nanoTime();
+						try {
+							HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(uri))
+									.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.discarding());
+							// Unknown ISBNs are answered with 404 by design.
+							if (response.statusCode() >= 500) {
+								errors.incrementAndGet();
+							}
+						} catch (Exception e) {
+							errors.incrementAndGet();
+						}
+						long end = System.nanoTime();
+						if (start >= measureFrom && end <= stopAt) {
+							recorder.record(end - start);
+							all.record(end - start);
+						}
+					}
+				});
+			}
+		} finally {
+			sampler.shutdownNow();
+		}
+		double throughput = all.count() / (double) MEASUREMENT.toSeconds();
+		return new Result(stack, throughput, errors.get(), peakPlatformThreads.get(),
+				List.of(details, dashboard, all));
+	}
+
+	private record Result(String stack, double throughput, long errors, int peakPlatformThreads,
+						  List<LatencyRecorder> latencies) {
+
+		@Override
+		public String toString() {
+			StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+					"%-8s %8.1f req/s  errors=%d  peak platform threads=%d%n",
+					stack, throughput, errors, peakPlatformThreads));
+			for (LatencyRecorder latency : latencies) {
+				report.append("  ").append(latency).append(System.lineSeparator());
+			}
+			return report.toString();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.model.Book;
+import com.example.demo.util.TitleIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds the title index over 500,000 generated titles and measures the typeahead queries a
+ * user produces while typing: one to three letter prefixes and prefixes of several words.
+ * Reports the build time, the heap used per indexed book and the p50/p99 latency, and checks
+ * that the p99 stays well below what a keystroke can afford. Needs no database.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TitleSearchBenchmarkTests {
+
+	private static final int BOOKS = 500_000;
+	private static final int WARMUP_QUERIES = 20_000;
+	private static final int QUERIES = 50_000;
+	private static final long P99_LIMIT_MILLIS = 20;
+
+	private static final String[] WORDS = {
+			"the", "of", "and", "a", "in", "history", "garden", "river", "night", "shadow", "empire", "secret",
+			"winter", "stone", "house", "war", "love", "city", "island", "dragon", "kingdom", "silent", "lost",
+			"road", "letters", "dark", "light", "north", "ocean", "memory", "music", "fire", "glass", "harvest",
+			"machine", "mountain", "crown", "children", "stars", "song", "hunter", "queen", "iron", "salt",
+			"paper", "golden", "forest", "journey", "storm", "last", "first", "little", "wild", "blue"};
+
+	@Test
+	void typeaheadQueriesOverHalfAMillionTitles() {
+		Random random = new Random(42);
+		List<Book> books = new ArrayList<>(BOOKS);
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book();
+			book.setId(String.format("%024x", i));
+			book.setISBN(String.format("978%010d", i));
+			book.setTitle(title(random) + " " + i);
+			books.add(book);
+		}
+
+		long heapBefore = usedHeap();
+		long start = System.nanoTime();
+		TitleIndex index = TitleIndex.of(books.stream());
+		long buildMillis = (System.nanoTime() - start) / 1_000_000;
+		long heapAfter = usedHeap();
+
+		List<String> queries = IntStream.range(0, 1_000).mapToObj(i -> query(random)).toList();
+		for (int i = 0; i < WARMUP_QUERIES; i++) {
+			index.search(queries.get(i % queries.size()), 10);
+		}
+		LatencyRecorder latency = new LatencyRecorder("title search", QUERIES);
+		int empty = 0;
+		for (int i = 0; i < QUERIES; i++) {
+			String query = queries.get(i % queries.size());
+			long queryStart = System.nanoTime();
+			List<Book> results = index.search(query, 10);
+			latency.record(System.nanoTime() - queryStart);
+			if (results.isEmpty()) {
+				empty++;
+			}
+		}
+
+		System.out.printf(Locale.ROOT, "indexed %d titles in %d ms, ~%d bytes per book, %d of %d queries without results%n",
+				index.size(), buildMillis, (heapAfter - heapBefore) / BOOKS, empty, QUERIES);
+		System.out.println(latency);
+		assertFalse(index.search("the", 10).isEmpty());
+		assertTrue(latency.percentileMillis(99) < P99_LIMIT_MILLIS);
+	}
+
+	private static String title(Random random) {
+		int words = 2 + random.nextInt(5);
+		StringBuilder title = new StringBuilder();
+		for (int w = 0; w < words; w++) {
+			String word = WORDS[random.nextInt(WORDS.length)];
+			if (w > 0) {
+				title.append(' ');
+			}
+			title.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+		}
+		return title.toString();
+	}
+
+	/**
+	 * A query as typed so far: a prefix of one to three letters, or a few whole words followed by
+	 * the prefix of the next one.
+	 */
+	private static String query(Random random) {
+		String last = WORDS[random.nextInt(WORDS.length)];
+		String prefix = last.substring(0, Math.min(last.length(), 1 + random.nextInt(3)));
+		if (random.nextBoolean()) {
+			return prefix;
+		}
+		StringBuilder query = new StringBuilder();
+		for (int w = 1 + random.nextInt(2); w > 0; w--) {
+			query.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		return query.append(prefix).toString();
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
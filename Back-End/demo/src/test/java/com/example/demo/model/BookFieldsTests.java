@@ -0,0 +1,39 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookFieldsTests {
+
+	@Test
+	void selectionIsParsedInCanonicalOrder() {
+		assertEquals(List.of("id", "isbn", "sold", "title"), BookFields.parse("title, sold,id,isbn"));
+		assertEquals(BookFields.ALL, BookFields.parse(" "));
+		assertThrows(IllegalArgumentException.class, () -> BookFields.parse("isbn,price"));
+	}
+
+	@Test
+	void onlyTheSelectedFieldsAreWritten() {
+		Book book = new Book();
+		book.setId("1");
+		book.setISBN("9780306406157");
+		book.setTitle("Dune");
+		book.setCOGS(12.5);
+		book.setSold(Date.from(LocalDate.of(2024, 3, 1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+
+		Map<String, Object> selected = BookFields.select(book, BookFields.parse("id,title,isbn,sold"));
+
+		assertEquals(List.of("id", "isbn", "sold", "title"), List.copyOf(selected.keySet()));
+		assertEquals("2024-03-01", selected.get("sold"));
+		assertEquals("Dune", selected.get("title"));
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookPatchTests {
+
+	@Test
+	void onlyFieldsInTheBodyAreChangedAndNullRemovesAField() {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("payout", 20);
+		body.put("sold", "2024-03-01");
+		body.put("title", null);
+		body.put("version", 3);
+
+		BookPatch patch = BookPatch.from(body);
+
+		assertEquals(3L, patch.getExpectedVersion());
+		assertEquals(List.of("payout", "sold", "title"), List.copyOf(patch.getChanges().keySet()));
+		assertEquals(20.0, patch.getChanges().get("payout"));
+		assertEquals(utc(2024, 3, 1), patch.getChanges().get("sold"));
+		assertTrue(patch.getChanges().containsKey("title"));
+		assertNull(patch.getChanges().get("title"));
+	}
+
+	@Test
+	void applyToChangesACopyAndIncrementsTheVersion() {
+		Book book = new Book();
+		book.setId("1");
+		book.setISBN("9780306406157");
+		book.setCOGS(10.0);
+		book.setTitle("Old");
+		book.setVersion(3L);
+		Map<String, Object> body = new HashMap<>();
+		body.put("cogs", 12.5);
+		body.put("title", null);
+
+		Book patched = BookPatch.from(body).applyTo(book);
+
+		assertEquals(12.5, patched.getCOGS());
+		assertNull(patched.getTitle());
+		assertEquals("9780306406157", patched.getISBN());
+		assertEquals(4L, patched.getVersion());
+		assertEquals("Old", book.getTitle());
+	}
+
+	@Test
+	void invalidPatchesAreRejected() {
+		Map<String, Object> removedIsbn = new HashMap<>();
+		removedIsbn.put("isbn", null);
+		Map<String, Object> removedCogs = new HashMap<>();
+		removedCogs.put("cogs", null);
+
+		assertThrows(IllegalArgumentException.class, () -> BookPatch.from(Map.of("price", 1)));
+		assertThrows(IllegalArgumentException.class, () -> BookPatch.from(removedIsbn));
+		assertThrows(IllegalArgumentException.class, () -> BookPatch.from(removedCogs));
+		assertThrows(IllegalArgumentException.class, () -> BookPatch.from(Map.of("sold", "01/03/2024")));
+		assertThrows(IllegalArgumentException.class, () -> BookPatch.from(Map.of("version", "three")));
+	}
+
+	private static Date utc(int year, int month, int day) {
+		return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant());
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InventorySummaryTests {
+
+	@Test
+	void unchangedBookProducesZeroDelta() {
+		Book book = randomBook(new Random(7), "1");
+		assertEquals(true, InventorySummary.delta(book, book.copy()).isZero());
+	}
+
+	private static Book randomBook(Random random, String id) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN("978" + random.nextInt(1_000_000_000));
+		book.setCOGS(random.nextInt(10) == 0 ? null : random.nextInt(5000) / 100.0);
+		if (random.nextBoolean()) {
+			double payout = random.nextInt(8000) / 100.0;
+			book.setSold(new Date());
+			book.setPayout(payout);
+			book.setProfit(book.getCOGS() != null ? payout - book.getCOGS() : null);
+		}
+		return book;
+	}
+
+}
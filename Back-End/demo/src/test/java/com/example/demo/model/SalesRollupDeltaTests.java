@@ -0,0 +1,73 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SalesRollupDeltaTests {
+
+	@Test
+	void saleIsCountedInItsDayAndMonth() {
+		Map<String, SalesBucket> buckets = byId(SalesRollupDelta.of(null, sold(LocalDate.of(2024, 3, 15), 20.0, 5.0)).getBuckets());
+
+		assertEquals(2, buckets.size());
+		SalesBucket month = buckets.get("MONTH:2024-03-01");
+		assertEquals(1, month.getUnits());
+		assertEquals(20.0, month.getPayout());
+		assertEquals(5.0, month.getCogs());
+		assertEquals(15.0, month.getProfit());
+		assertEquals(1, buckets.get("DAY:2024-03-15").getUnits());
+	}
+
+	@Test
+	void changingTheSoldDateMovesTheSale() {
+		Book before = sold(LocalDate.of(2024, 3, 31), 20.0, 5.0);
+		Book after = sold(LocalDate.of(2024, 4, 1), 20.0, 5.0);
+
+		Map<String, SalesBucket> buckets = byId(SalesRollupDelta.of(before, after).getBuckets());
+
+		assertEquals(-1, buckets.get("MONTH:2024-03-01").getUnits());
+		assertEquals(-15.0, buckets.get("DAY:2024-03-31").getProfit());
+		assertEquals(1, buckets.get("MONTH:2024-04-01").getUnits());
+		assertEquals(1, buckets.get("DAY:2024-04-01").getUnits());
+	}
+
+	@Test
+	void writesThatDoNotTouchASaleChangeNothing() {
+		Book unsold = new Book();
+		unsold.setCOGS(5.0);
+		Book sold = sold(LocalDate.of(2024, 3, 15), 20.0, 5.0);
+		Book retitled = sold.copy();
+		retitled.setTitle("New title");
+
+		assertTrue(SalesRollupDelta.of(null, unsold).isEmpty());
+		assertTrue(SalesRollupDelta.of(sold, retitled).isEmpty());
+		assertTrue(new SalesRollupDelta().add(null, sold).add(sold, null).isEmpty());
+	}
+
+	private static Map<String, SalesBucket> byId(Collection<SalesBucket> buckets) {
+		Map<String, SalesBucket> byId = new HashMap<>();
+		for (SalesBucket bucket : buckets) {
+			byId.put(bucket.getId(), bucket);
+		}
+		return byId;
+	}
+
+	private static Book sold(LocalDate day, double payout, double cogs) {
+		Book book = new Book();
+		book.setSold(Date.from(day.atStartOfDay(ZoneOffset.UTC).toInstant()));
+		book.setPayout(payout);
+		book.setCOGS(cogs);
+		book.setProfit(payout - cogs);
+		return book;
+	}
+
+}
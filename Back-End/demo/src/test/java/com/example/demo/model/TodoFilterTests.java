@@ -0,0 +1,60 @@
+package com.example.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TodoFilterTests {
+
+	@Test
+	void rangeCoversWholeDaysInTheTimeZone() {
+		TodoFilter filter = TodoFilter.of(null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), null, "Europe/Paris");
+
+		assertEquals(Date.from(Instant.parse("2024-02-29T23:00:00Z")), filter.getDueFromInclusive());
+		// Summer time starts on March 31, so the month ends at 22:00 UTC.
+		assertEquals(Date.from(Instant.parse("2024-03-31T22:00:00Z")), filter.getDueToExclusive());
+		assertEquals(31, filter.getDayCount());
+	}
+
+	@Test
+	void overdueSelectsOpenTodosDueBeforeTheInstant() {
+		Instant now = Instant.parse("2024-03-15T10:30:00Z");
+
+		TodoFilter overdue = TodoFilter.of(null, null, null, now, null);
+		assertEquals(Boolean.FALSE, overdue.getCompleted());
+		assertNull(overdue.getDueFromInclusive());
+		assertEquals(Date.from(now), overdue.getDueToExclusive());
+
+		TodoFilter overdueInMonth = TodoFilter.of(false, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), now, null);
+		assertEquals(Date.from(now), overdueInMonth.getDueToExclusive());
+
+		TodoFilter overdueLastMonth = TodoFilter.of(null, LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29), now, null);
+		assertEquals(Date.from(Instant.parse("2024-03-01T00:00:00Z")), overdueLastMonth.getDueToExclusive());
+	}
+
+	@Test
+	void allHasNoRestriction() {
+		TodoFilter all = TodoFilter.all();
+
+		assertNull(all.getCompleted());
+		assertFalse(all.hasRange());
+		assertEquals(-1, all.getDayCount());
+	}
+
+	@Test
+	void invalidParametersAreRejected() {
+		Instant now = Instant.now();
+		assertThrows(IllegalArgumentException.class, () -> TodoFilter.of(true, null, null, now, null));
+		assertThrows(IllegalArgumentException.class,
+				() -> TodoFilter.of(null, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 1), null, null));
+		assertThrows(IllegalArgumentException.class, () -> TodoFilter.of(null, null, null, null, "Mars/Olympus"));
+	}
+
+}
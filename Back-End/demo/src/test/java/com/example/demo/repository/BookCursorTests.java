@@ -0,0 +1,48 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookCursorTests {
+
+	@Test
+	void roundTripsStringValuesContainingTheSeparator() {
+		Book book = book("65a0c0ffee0000000000abcd");
+		book.setTitle("Title | with | pipes");
+
+		BookCursor cursor = BookCursor.decode(BookCursor.after("title", book).encode());
+
+		assertEquals("title", cursor.getSort());
+		assertEquals("Title | with | pipes", cursor.getValue());
+		assertEquals("65a0c0ffee0000000000abcd", cursor.getId());
+	}
+
+	@Test
+	void roundTripsDateAndNullValues() {
+		Book book = book("65a0c0ffee0000000000abcd");
+		book.setDatePurchased(new Date(1_700_000_000_000L));
+
+		assertEquals(new Date(1_700_000_000_000L), BookCursor.decode(BookCursor.after("datePurchased", book).encode()).getValue());
+		assertNull(BookCursor.decode(BookCursor.after("sold", book).encode()).getValue());
+	}
+
+	@Test
+	void rejectsMalformedCursorsAndUnknownSortKeys() {
+		assertThrows(IllegalArgumentException.class, () -> BookCursor.decode("not a cursor!"));
+		assertThrows(IllegalArgumentException.class, () -> BookCursor.decode("YWJj"));
+		assertThrows(IllegalArgumentException.class, () -> BookCursor.after("cogs", book("1")));
+	}
+
+	private static Book book(String id) {
+		Book book = new Book();
+		book.setId(id);
+		return book;
+	}
+
+}
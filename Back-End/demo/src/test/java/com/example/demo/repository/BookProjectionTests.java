@@ -0,0 +1,73 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookProjectionTests {
+
+	private static final List<String> LIST_VIEW = BookFields.parse("id,title,isbn,sold");
+
+	private MongoTemplate mongoTemplate;
+	private BookRepositoryCustomImpl repository;
+
+	@BeforeEach
+	void setUp() {
+		mongoTemplate = mock(MongoTemplate.class);
+		when(mongoTemplate.find(any(Query.class), eq(Book.class))).thenReturn(List.of());
+		repository = new BookRepositoryCustomImpl(mongoTemplate);
+	}
+
+	@Test
+	void pageReadsOnlyTheSelectedFields() {
+		repository.findPageWithFields(PageRequest.of(0, 20), LIST_VIEW);
+
+		assertEquals(new Document("isbn", 1).append("sold", 1).append("title", 1), executedQuery().getFieldsObject());
+	}
+
+	@Test
+	void searchAndMonthReadOnlyTheSelectedFields() {
+		repository.findByIsbnWithFields("9780306406157", List.of("id", "title"));
+		assertEquals(new Document("title", 1), executedQuery().getFieldsObject());
+
+		reset(mongoTemplate);
+		repository.findByDatePurchasedBetweenWithFields(new Date(0), new Date(), List.of("sold"));
+		assertEquals(new Document("sold", 1), executedQuery().getFieldsObject());
+	}
+
+	@Test
+	void sliceAlsoReadsTheSortKeyForTheNextCursor() {
+		repository.findSliceAfter("datePurchased", null, 20, List.of("id", "title"));
+
+		assertEquals(new Document("title", 1).append("datePurchased", 1), executedQuery().getFieldsObject());
+	}
+
+	@Test
+	void wholeBooksAreReadWithoutSelection() {
+		repository.findSliceAfter("id", null, 20, null);
+
+		assertTrue(executedQuery().getFieldsObject().isEmpty());
+	}
+
+	private Query executedQuery() {
+		ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+		verify(mongoTemplate).find(query.capture(), eq(Book.class));
+		return query.getValue();
+	}
+
+}
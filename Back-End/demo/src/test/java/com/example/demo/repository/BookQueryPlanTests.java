@@ -0,0 +1,107 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Book;
+import com.example.demo.util.MongoIndexInitializer;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs explain() on every query BookRepository sends and fails if one falls back to a
+ * collection scan. Runs against the configured MongoDB in a separate database that is
+ * dropped afterwards, and only with -Dintegration=true.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_integration")
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+class BookQueryPlanTests {
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MongoIndexInitializer mongoIndexInitializer;
+
+	@BeforeEach
+	void createIndexesAndData() {
+		mongoIndexInitializer.initialize();
+		List<Book> books = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			Book book = new Book();
+			book.setISBN(String.format("978%010d", i));
+			book.setTitle("Book " + i);
+			book.setCOGS(5.0);
+			book.setDatePurchased(new Date(1_700_000_000_000L + i * 86_400_000L));
+			book.setSold(i % 2 == 0 ? new Date(1_700_000_000_000L + i * 86_400_000L) : null);
+			books.add(book);
+		}
+		mongoTemplate.insertAll(books);
+	}
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void findByIsbnUsesAnIndex() {
+		assertNoCollectionScan(explainFind(new Document("isbn", "9780000000042"), null));
+	}
+
+	@Test
+	void findBooksByDatePurchasedBetweenUsesAnIndex() {
+		Document range = new Document("$gt", new Date(1_700_000_000_000L)).append("$lt", new Date(1_705_000_000_000L));
+		assertNoCollectionScan(explainFind(new Document("datePurchased", range), null));
+	}
+
+	@Test
+	void soldCountsUseAnIndex() {
+		assertNoCollectionScan(explainCount(new Document("sold", null)));
+		assertNoCollectionScan(explainCount(new Document("sold", new Document("$ne", null))));
+	}
+
+	@Test
+	void monthlySalesCountUsesAnIndex() {
+		Document range = new Document("$gte", new Date(1_700_000_000_000L)).append("$lt", new Date(1_702_600_000_000L));
+		assertNoCollectionScan(explainCount(new Document("sold", range)));
+	}
+
+	@Test
+	void keysetSlicesUseAnIndexForFilterAndSort() {
+		for (String field : List.of("title", "isbn", "datePurchased", "sold")) {
+			Document after = new Document("$or", List.of(
+					new Document(field, new Document("$gt", "Book 5")),
+					new Document(field, "Book 5").append("_id", new Document("$gt", "000000000000000000000000"))));
+			assertNoCollectionScan(explainFind(after, new Document(field, 1).append("_id", 1)));
+		}
+	}
+
+	private Document explainFind(Document filter, Document sort) {
+		Document find = new Document("find", "Book").append("filter", filter).append("limit", 21);
+		if (sort != null) {
+			find.append("sort", sort);
+		}
+		return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+	}
+
+	private Document explainCount(Document query) {
+		Document count = new Document("count", "Book").append("query", query);
+		return mongoTemplate.getDb().runCommand(new Document("explain", count).append("verbosity", "queryPlanner"));
+	}
+
+	private static void assertNoCollectionScan(Document explain) {
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		assertFalse(winningPlan.toJson().contains("COLLSCAN"), "Query fell back to a collection scan: " + winningPlan.toJson());
+	}
+
+}
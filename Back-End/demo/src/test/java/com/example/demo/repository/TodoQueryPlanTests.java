@@ -0,0 +1,137 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.Todo;
+import com.example.demo.model.TodoFilter;
+import com.example.demo.util.MongoIndexInitializer;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks the filtered Todo queries against the configured MongoDB, and runs explain() on them
+ * to fail if one falls back to a collection scan or sorts in memory. Runs in a separate database
+ * that is dropped afterwards, and only with -Dintegration=true.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_integration")
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+class TodoQueryPlanTests {
+
+	private static final long DAY = 86_400_000L;
+
+	private static final long START = Instant.parse("2024-03-01T09:00:00Z").toEpochMilli();
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private MongoIndexInitializer mongoIndexInitializer;
+
+	@Autowired
+	private TodoRepository todoRepository;
+
+	@BeforeEach
+	void createIndexesAndData() {
+		mongoIndexInitializer.initialize();
+		List<Todo> todos = new ArrayList<>();
+		// Two todos a day through March and April, the even ones completed, and one without a due date.
+		for (int i = 0; i < 122; i++) {
+			Todo todo = new Todo();
+			todo.setTitle("Todo " + i);
+			todo.setDueDate(new Date(START + (i / 2) * DAY));
+			todo.setCompleted(i % 2 == 0 ? true : null);
+			todos.add(todo);
+		}
+		Todo undated = new Todo();
+		undated.setTitle("Someday");
+		todos.add(undated);
+		mongoTemplate.insertAll(todos);
+	}
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void filtersAndPagesByDueDate() {
+		TodoFilter march = TodoFilter.of(null, LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), null, null);
+		Page<Todo> page = todoRepository.findTodos(march, PageRequest.of(1, 20));
+		assertEquals(62, page.getTotalElements());
+		assertEquals("Todo 20", page.getContent().get(0).getTitle());
+
+		TodoFilter open = TodoFilter.of(false, null, null, null, null);
+		assertEquals(62, todoRepository.findTodos(open, PageRequest.of(0, 10)).getTotalElements());
+
+		TodoFilter overdue = TodoFilter.of(null, null, null, Instant.parse("2024-03-11T00:00:00Z"), null);
+		assertEquals(10, todoRepository.findTodos(overdue, PageRequest.of(0, 100)).getTotalElements());
+	}
+
+	@Test
+	void countsTodosPerDueDay() {
+		TodoFilter april = TodoFilter.of(null, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30), null, null);
+		Map<String, Long> counts = todoRepository.countByDueDay(april);
+		assertEquals(30, counts.size());
+		assertEquals(2L, counts.get("2024-04-01"));
+
+		TodoFilter openInApril = TodoFilter.of(false, LocalDate.of(2024, 4, 1), LocalDate.of(2024, 4, 30), null, null);
+		assertEquals(1L, todoRepository.countByDueDay(openInApril).get("2024-04-30"));
+	}
+
+	@Test
+	void listedPagesUseAnIndexForFilterAndSort() {
+		Document range = new Document("$gte", new Date(START)).append("$lt", new Date(START + 31 * DAY));
+		Document sort = new Document("dueDate", 1).append("_id", 1);
+		assertIndexedWithoutSort(explainFind(new Document(), sort));
+		assertIndexedWithoutSort(explainFind(new Document("dueDate", range), sort));
+		assertIndexedWithoutSort(explainFind(new Document("completed", true).append("dueDate", range), sort));
+		Document overdue = new Document("completed", new Document("$ne", true))
+				.append("dueDate", new Document("$lt", new Date(START + 10 * DAY)));
+		assertNoCollectionScan(explainFind(overdue, sort));
+	}
+
+	@Test
+	void dayCountsUseAnIndex() {
+		Document range = new Document("$gte", new Date(START)).append("$lt", new Date(START + 31 * DAY));
+		assertNoCollectionScan(explainCount(new Document("dueDate", range)));
+		assertNoCollectionScan(explainCount(new Document("completed", new Document("$ne", true)).append("dueDate", range)));
+	}
+
+	private Document explainFind(Document filter, Document sort) {
+		Document find = new Document("find", "todos").append("filter", filter).append("sort", sort).append("limit", 20);
+		return mongoTemplate.getDb().runCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+	}
+
+	private Document explainCount(Document query) {
+		Document count = new Document("count", "todos").append("query", query);
+		return mongoTemplate.getDb().runCommand(new Document("explain", count).append("verbosity", "queryPlanner"));
+	}
+
+	private static void assertIndexedWithoutSort(Document explain) {
+		assertNoCollectionScan(explain);
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		assertFalse(winningPlan.toJson().contains("\"SORT\""), "Query sorted in memory: " + winningPlan.toJson());
+	}
+
+	private static void assertNoCollectionScan(Document explain) {
+		Document winningPlan = explain.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+		assertFalse(winningPlan.toJson().contains("COLLSCAN"), "Query fell back to a collection scan: " + winningPlan.toJson());
+	}
+
+}
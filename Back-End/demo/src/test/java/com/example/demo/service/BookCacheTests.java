@@ -0,0 +1,181 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookPatch;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BookCacheTests {
+
+	private BookRepository bookRepository;
+	private BookCache bookCache;
+	private BookService bookService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		bookCache = new BookCache(DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+		// Events are delivered to the cache as the application context does, before the write returns.
+		bookService = new BookService(bookRepository, mock(InventorySummaryService.class),
+				mock(BookEnrichmentService.class), mock(SalesRollupService.class), new CollectionVersions(),
+				event -> bookCache.onBooksChanged((BooksChangedEvent) event), bookCache);
+	}
+
+	@Test
+	void repeatedReadsAreServedFromTheCache() {
+		when(bookRepository.findById("1")).thenReturn(Optional.of(book("1", "Dune")));
+
+		assertEquals("Dune", bookService.getBookById("1").getTitle());
+		assertEquals("Dune", bookService.getBookById("1").getTitle());
+
+		verify(bookRepository, times(1)).findById("1");
+		assertEquals(1L, bookCache.getStats().get("hits"));
+		assertEquals(0.5, bookCache.getStats().get("hitRate"));
+	}
+
+	@Test
+	void callersGetCopiesTheyCanChange() {
+		Book stored = book("1", "Dune");
+		stored.setSold(new Date(0));
+		stored.setAuthors(new ArrayList<>(List.of("Frank Herbert")));
+		when(bookRepository.findById("1")).thenReturn(Optional.of(stored));
+
+		Book read = bookService.getBookById("1");
+		read.setTitle("Changed by a caller");
+		read.getSold().setTime(1_000);
+		read.getAuthors().add("Brian Herbert");
+
+		Book readAgain = bookService.getBookById("1");
+		assertEquals("Dune", readAgain.getTitle());
+		assertEquals(new Date(0), readAgain.getSold());
+		assertEquals(List.of("Frank Herbert"), readAgain.getAuthors());
+	}
+
+	@Test
+	void missingBooksAreNotCached() {
+		when(bookRepository.findById("missing")).thenReturn(Optional.empty());
+
+		assertNull(bookService.getBookById("missing"));
+		assertNull(bookService.getBookById("missing"));
+
+		verify(bookRepository, times(2)).findById("missing");
+	}
+
+	@Test
+	void changedBooksAreReadAgainAndAResyncDropsEverything() {
+		when(bookRepository.findById(anyString())).thenAnswer(invocation -> Optional.of(book(invocation.getArgument(0), "Dune")));
+		bookService.getBookById("1");
+		bookService.getBookById("2");
+
+		bookCache.onBooksChanged(BooksChangedEvent.of(book("1", "Dune Messiah"), new InventorySummary()));
+		bookService.getBookById("1");
+		bookService.getBookById("2");
+		verify(bookRepository, times(2)).findById("1");
+		verify(bookRepository, times(1)).findById("2");
+
+		bookCache.onBooksChanged(BooksChangedEvent.resync());
+		bookService.getBookById("2");
+		verify(bookRepository, times(2)).findById("2");
+	}
+
+	@Test
+	void theCacheStaysWithinItsHeapBudget() {
+		bookCache = new BookCache(DataSize.ofKilobytes(64), new SimpleMeterRegistry());
+		for (int i = 0; i < 5_000; i++) {
+			String id = String.valueOf(i);
+			bookCache.get(id, key -> book(key, "A title long enough to weigh something " + key));
+		}
+
+		Map<String, Object> stats = bookCache.getStats();
+		assertTrue((long) stats.get("heapBytes") <= DataSize.ofKilobytes(64).toBytes());
+		assertTrue((long) stats.get("size") < 5_000);
+		assertTrue((long) stats.get("evictions") > 0);
+	}
+
+	@Test
+	void noReadReturnsABookOlderThanTheLastCompletedUpdate() throws Exception {
+		// The repository is a map; reads hold on to what they read for a while, as a slow query
+		// would, so loads overlap the updates.
+		Map<String, Book> stored = new ConcurrentHashMap<>();
+		stored.put("1", book("1", "0"));
+		when(bookRepository.findById("1")).thenAnswer(invocation -> {
+			Book read = stored.get("1").copy();
+			TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(500));
+			return Optional.of(read);
+		});
+		when(bookRepository.patchAndReturnPrevious(anyString(), any(BookPatch.class))).thenAnswer(invocation -> {
+			String id = invocation.getArgument(0);
+			Book previous = stored.get(id);
+			stored.put(id, ((BookPatch) invocation.getArgument(1)).applyTo(previous));
+			return previous.copy();
+		});
+
+		int updates = 300;
+		AtomicInteger completed = new AtomicInteger();
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicInteger staleReads = new AtomicInteger();
+		ExecutorService readers = Executors.newFixedThreadPool(8);
+		List<Future<?>> results = new ArrayList<>();
+		try {
+			for (int r = 0; r < 8; r++) {
+				results.add(readers.submit(() -> {
+					while (!done.get()) {
+						int before = completed.get();
+						if (Integer.parseInt(bookService.getBookById("1").getTitle()) < before) {
+							staleReads.incrementAndGet();
+						}
+					}
+				}));
+			}
+			for (int i = 1; i <= updates; i++) {
+				bookService.updateBook("1", book("1", String.valueOf(i)));
+				completed.set(i);
+			}
+			done.set(true);
+			for (Future<?> result : results) {
+				result.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			readers.shutdownNow();
+		}
+
+		assertEquals(0, staleReads.get());
+		assertEquals(String.valueOf(updates), bookService.getBookById("1").getTitle());
+	}
+
+	private static Book book(String id, String title) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN("9780306406157");
+		book.setCOGS(1.0);
+		book.setTitle(title);
+		return book;
+	}
+}
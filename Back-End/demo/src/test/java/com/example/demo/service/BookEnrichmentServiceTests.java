@@ -0,0 +1,156 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookDetails;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookEnrichmentServiceTests {
+
+	private BookRepository bookRepository;
+	private GoogleBooksService googleBooksService;
+	private CollectionVersions collectionVersions;
+	private BookEnrichmentService enrichmentService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		googleBooksService = mock(GoogleBooksService.class);
+		collectionVersions = new CollectionVersions();
+		enrichmentService = new BookEnrichmentService(bookRepository, googleBooksService, collectionVersions,
+				event -> { }, 2, 100, 1000, 3, Duration.ofMillis(20), false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		enrichmentService.shutdown();
+	}
+
+	@Test
+	void completeBookIsNotQueued() {
+		Book book = new Book();
+		book.setId("1");
+		book.setISBN("9780306406157");
+		book.setTitle("Title");
+		book.setImageUrl("http://example.com/cover.jpg");
+
+		assertFalse(enrichmentService.enqueueIfIncomplete(book));
+		verifyNoInteractions(googleBooksService);
+	}
+
+	@Test
+	void foundDetailsAreWrittenOntoTheBook() {
+		BookDetails details = new BookDetails();
+		details.setTitle("Title");
+		when(googleBooksService.findByIsbn("9780306406157")).thenReturn(Optional.of(details));
+
+		when(bookRepository.applyDetails("1", details)).thenReturn(enriched("1"));
+
+		enrichmentService.enrich("1", "9780306406157", 1);
+
+		verify(bookRepository).applyDetails("1", details);
+		assertEquals(1L, enrichmentService.getStats().get("enriched"));
+	}
+
+	@Test
+	void aBookThatAlreadyHadTheDetailsIsNotCountedAsEnriched() {
+		BookDetails details = new BookDetails();
+		details.setTitle("Title");
+		when(googleBooksService.findByIsbn("9780306406157")).thenReturn(Optional.of(details));
+		when(bookRepository.applyDetails("1", details)).thenReturn(null);
+
+		enrichmentService.enrich("1", "9780306406157", 1);
+
+		assertEquals(0L, enrichmentService.getStats().get("enriched"));
+		assertEquals(1L, enrichmentService.getStats().get("alreadyComplete"));
+	}
+
+	@Test
+	void cachedLookupsDoNotWaitForTheRateLimit() {
+		// One permit every two seconds: a second lookup calling the API would wait for it.
+		BookEnrichmentService slowService = new BookEnrichmentService(bookRepository, googleBooksService,
+				collectionVersions, event -> { }, 1, 100, 0.5, 3, Duration.ofMillis(20), false);
+		when(googleBooksService.isCached("9780306406157")).thenReturn(true);
+		when(googleBooksService.findByIsbn("9780306406157")).thenReturn(Optional.empty());
+		try {
+			long start = System.nanoTime();
+			for (int i = 0; i < 3; i++) {
+				slowService.enrich(String.valueOf(i), "9780306406157", 1);
+			}
+
+			assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+			assertEquals(3L, slowService.getStats().get("notFound"));
+		} finally {
+			slowService.shutdown();
+		}
+	}
+
+	@Test
+	void cachedReadsStayValidWhenNothingWasWritten() {
+		BookDetails details = new BookDetails();
+		details.setTitle("Title");
+		when(googleBooksService.findByIsbn("9780306406157")).thenReturn(Optional.of(details));
+		String etag = collectionVersions.etag(CollectionVersions.BOOKS);
+
+		when(bookRepository.applyDetails("1", details)).thenReturn(null);
+		enrichmentService.enrich("1", "9780306406157", 1);
+		assertEquals(etag, collectionVersions.etag(CollectionVersions.BOOKS));
+
+		when(bookRepository.applyDetails("1", details)).thenReturn(enriched("1"));
+		enrichmentService.enrich("1", "9780306406157", 1);
+		assertNotEquals(etag, collectionVersions.etag(CollectionVersions.BOOKS));
+	}
+
+	@Test
+	void failedLookupIsRetriedUntilItSucceeds() {
+		BookDetails details = new BookDetails();
+		when(googleBooksService.findByIsbn(anyString()))
+				.thenThrow(new RuntimeException("503"))
+				.thenReturn(Optional.of(details));
+
+		enrichmentService.enrich("1", "9780306406157", 1);
+
+		verify(bookRepository, timeout(2000)).applyDetails(eq("1"), any(BookDetails.class));
+		assertEquals(1L, enrichmentService.getStats().get("retried"));
+	}
+
+	@Test
+	void lookupIsGivenUpAfterTheLastAttempt() {
+		when(googleBooksService.findByIsbn(anyString())).thenThrow(new RuntimeException("503"));
+
+		enrichmentService.enrich("1", "9780306406157", 3);
+
+		assertEquals(1L, enrichmentService.getStats().get("failed"));
+		verifyNoInteractions(bookRepository);
+	}
+
+	@Test
+	void backoffDoublesUpToTheCap() {
+		assertEquals(20, enrichmentService.backoffMillis(1));
+		assertEquals(40, enrichmentService.backoffMillis(2));
+		assertEquals(80, enrichmentService.backoffMillis(3));
+		assertEquals(Duration.ofMinutes(5).toMillis(), enrichmentService.backoffMillis(40));
+	}
+
+	private static Book enriched(String id) {
+		Book book = new Book();
+		book.setId(id);
+		book.setTitle("Title");
+		return book;
+	}
+}
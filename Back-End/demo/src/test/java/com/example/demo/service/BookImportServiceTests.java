@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.ImportReport;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.BookFileFormat;
+import com.example.demo.util.BookImportReader;
+import com.example.demo.util.CollectionVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BookImportServiceTests {
+
+	private BookRepository bookRepository;
+	private InventorySummaryService inventorySummaryService;
+	private BookEnrichmentService bookEnrichmentService;
+	private BookImportService importService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		inventorySummaryService = mock(InventorySummaryService.class);
+		bookEnrichmentService = mock(BookEnrichmentService.class);
+		SalesRollupService salesRollupService = mock(SalesRollupService.class);
+		BookService bookService = new BookService(bookRepository, inventorySummaryService, bookEnrichmentService,
+				salesRollupService, new CollectionVersions(), event -> { }, new BookCache(DataSize.ofMegabytes(1), new SimpleMeterRegistry()));
+		importService = new BookImportService(bookRepository, bookService, inventorySummaryService,
+				bookEnrichmentService, salesRollupService, new CollectionVersions(), event -> { }, new ObjectMapper(), 2);
+	}
+
+	@Test
+	void validRowsAreWrittenInBatchesAndRejectedRowsReported() throws Exception {
+		when(bookRepository.insertUnordered(anyList())).thenReturn(Map.of());
+
+		ImportReport report = importCsv("isbn,cogs\n"
+				+ "9780306406157,1.0\n"
+				+ ",2.0\n"
+				+ "9780306406157,\n"
+				+ "9780306406157,3.0\n"
+				+ "9780306406157,4.0\n");
+
+		assertEquals(5, report.getRowsRead());
+		assertEquals(3, report.getImported());
+		assertEquals(2, report.getFailed());
+		assertEquals(2, report.getErrors().get(0).getRow());
+		assertEquals("ISBN is a mandatory field.", report.getErrors().get(0).getMessage());
+		assertEquals("COGS is a mandatory field.", report.getErrors().get(1).getMessage());
+		verify(bookRepository).insertUnordered(argThat((List<Book> batch) -> batch.size() == 2));
+		verify(bookRepository).insertUnordered(argThat((List<Book> batch) -> batch.size() == 1));
+		verify(bookRepository, never()).save(any(Book.class));
+	}
+
+	@Test
+	void booksTheServerRejectsAreReportedAndLeftOutOfTheSummary() throws Exception {
+		when(bookRepository.insertUnordered(anyList())).thenReturn(Map.of(1, "E11000 duplicate key"));
+
+		ImportReport report = importCsv("isbn,cogs\n9780306406157,1.0\n9780306406157,2.0\n");
+
+		assertEquals(1, report.getImported());
+		assertEquals(2, report.getErrors().get(0).getRow());
+		assertEquals("E11000 duplicate key", report.getErrors().get(0).getMessage());
+		verify(inventorySummaryService).apply(argThat((InventorySummary delta) ->
+				delta.getUnsoldCount() == 1 && delta.getTotalCogs() == 1.0));
+		verify(bookEnrichmentService, times(1)).enqueueIfIncomplete(any(Book.class));
+	}
+
+	private ImportReport importCsv(String csv) throws Exception {
+		return importService.importBooks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+				BookFileFormat.CSV, StandardCharsets.UTF_8);
+	}
+
+}
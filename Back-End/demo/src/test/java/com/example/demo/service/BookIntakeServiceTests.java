@@ -0,0 +1,211 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BookIntakeServiceTests {
+
+	private BookRepository bookRepository;
+	private BookService bookService;
+	private BookIntakeService intakeService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		when(bookRepository.insertUnordered(anyList())).thenReturn(Map.of());
+		bookService = new BookService(bookRepository, mock(InventorySummaryService.class),
+				mock(BookEnrichmentService.class), mock(SalesRollupService.class), new CollectionVersions(), event -> { },
+				new BookCache(DataSize.ofMegabytes(1), new SimpleMeterRegistry()));
+	}
+
+	@AfterEach
+	void tearDown() {
+		intakeService.shutdown();
+	}
+
+	@Test
+	void fullBatchesAreWrittenWithoutWaitingForTheInterval() {
+		List<Integer> batchSizes = recordBatchSizes(Map.of());
+		intakeService = intake(100, 3, Duration.ofSeconds(10), Duration.ofMillis(50));
+
+		for (int i = 0; i < 3; i++) {
+			assertNotNull(intakeService.accept(book()).getId());
+		}
+
+		// Well within the ten second interval, so only a full batch can have been written.
+		waitUntilWritten(3);
+		assertEquals(List.of(3), batchSizes);
+	}
+
+	@Test
+	void partialBatchesAreWrittenAfterTheFlushInterval() {
+		List<Integer> batchSizes = recordBatchSizes(Map.of());
+		intakeService = intake(100, 100, Duration.ofMillis(50), Duration.ofMillis(50));
+
+		intakeService.accept(book());
+		intakeService.accept(book());
+
+		waitUntilWritten(2);
+		// The batch never fills; whether both books made the same one depends on the flusher's timing.
+		assertEquals(2, batchSizes.stream().mapToInt(Integer::intValue).sum());
+		assertEquals(0, intakeService.getStatus().get("pending"));
+	}
+
+	@Test
+	void invalidBooksAreRejectedBeforeBuffering() {
+		intakeService = intake(100, 100, Duration.ofMillis(50), Duration.ofMillis(50));
+		Book book = book();
+		book.setCOGS(null);
+
+		assertThrows(IllegalArgumentException.class, () -> intakeService.accept(book));
+		assertEquals(0L, intakeService.getStatus().get("accepted"));
+	}
+
+	@Test
+	void aFullBufferPushesBackOnCallers() throws Exception {
+		CountDownLatch inserting = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(bookRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+			inserting.countDown();
+			release.await();
+			return Map.of();
+		});
+		intakeService = intake(1, 1, Duration.ofMillis(10), Duration.ofMillis(50));
+
+		intakeService.accept(book());
+		assertTrue(inserting.await(2, TimeUnit.SECONDS));
+		intakeService.accept(book());
+
+		assertThrows(RejectedExecutionException.class, () -> intakeService.accept(book()));
+		assertEquals(1L, intakeService.getStatus().get("rejected"));
+		assertEquals(2, intakeService.getStatus().get("pending"));
+		release.countDown();
+		waitUntilWritten(2);
+	}
+
+	@Test
+	void shutdownWritesTheBufferedBooksAndStopsAccepting() {
+		intakeService = intake(100, 100, Duration.ofSeconds(10), Duration.ofMillis(50));
+		intakeService.accept(book());
+		intakeService.accept(book());
+		intakeService.accept(book());
+
+		intakeService.shutdown();
+
+		verify(bookRepository).insertUnordered(argThat((List<Book> batch) -> batch.size() == 3));
+		assertEquals(3L, intakeService.getStatus().get("written"));
+		assertThrows(RejectedExecutionException.class, () -> intakeService.accept(book()));
+	}
+
+	@Test
+	void failedInsertsAreRetried() {
+		when(bookRepository.insertUnordered(anyList()))
+				.thenThrow(new IllegalStateException("connection reset"))
+				.thenReturn(Map.of());
+		intakeService = intake(100, 1, Duration.ofMillis(10), Duration.ofMillis(50));
+
+		intakeService.accept(book());
+
+		verify(bookRepository, timeout(2000).times(2)).insertUnordered(anyList());
+		waitUntilWritten(1);
+		assertEquals(1L, intakeService.getStatus().get("retries"));
+	}
+
+	@Test
+	void aRetryOnlyInsertsTheBooksNotStoredYet() {
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		when(bookRepository.insertUnordered(anyList()))
+				.thenThrow(new IllegalStateException("connection reset"))
+				.thenAnswer(invocation -> {
+					batchSizes.add(invocation.<List<Book>>getArgument(0).size());
+					// The reset attempt stored the second book after all, before the retry reached the server.
+					return Map.of(0, "E11000 duplicate key error collection: inventory.Book index: _id_ dup key: { _id: ... }");
+				});
+		// The reset attempt stored the first book.
+		when(bookRepository.findExistingIds(anyCollection())).thenAnswer(invocation ->
+				Set.of(List.copyOf(invocation.<Collection<String>>getArgument(0)).get(0)));
+		intakeService = intake(100, 3, Duration.ofSeconds(10), Duration.ofMillis(50));
+
+		for (int i = 0; i < 3; i++) {
+			intakeService.accept(book());
+		}
+
+		waitUntilWritten(3);
+		assertEquals(List.of(2), batchSizes);
+		assertEquals(0L, intakeService.getStatus().get("failed"));
+	}
+
+	@Test
+	void booksTheDatabaseRefusesAreReported() {
+		when(bookRepository.insertUnordered(anyList())).thenReturn(Map.of(0, "E11000 duplicate key"));
+		intakeService = intake(100, 1, Duration.ofMillis(10), Duration.ofMillis(50));
+
+		String id = intakeService.accept(book()).getId();
+
+		verify(bookRepository, timeout(2000)).insertUnordered(anyList());
+		intakeService.shutdown();
+		assertEquals(1L, intakeService.getStatus().get("failed"));
+		assertEquals(List.of(Map.of("id", id, "isbn", "9780306406157", "message", "E11000 duplicate key")),
+				intakeService.getStatus().get("recentFailures"));
+	}
+
+	private BookIntakeService intake(int capacity, int batchSize, Duration flushInterval, Duration offerTimeout) {
+		return new BookIntakeService(bookRepository, bookService, mock(InventorySummaryService.class),
+				mock(BookEnrichmentService.class), mock(SalesRollupService.class), new CollectionVersions(),
+				event -> { }, capacity, batchSize, flushInterval, offerTimeout, Duration.ofMillis(10), Duration.ofSeconds(5));
+	}
+
+	private List<Integer> recordBatchSizes(Map<Integer, String> failures) {
+		List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+		when(bookRepository.insertUnordered(anyList())).thenAnswer(invocation -> {
+			batchSizes.add(invocation.<List<Book>>getArgument(0).size());
+			return failures;
+		});
+		return batchSizes;
+	}
+
+	private void waitUntilWritten(long books) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while ((long) intakeService.getStatus().get("written") < books && System.nanoTime() < deadline) {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		assertEquals(books, intakeService.getStatus().get("written"));
+	}
+
+	private static Book book() {
+		Book book = new Book();
+		book.setISBN("9780306406157");
+		book.setCOGS(1.0);
+		return book;
+	}
+}
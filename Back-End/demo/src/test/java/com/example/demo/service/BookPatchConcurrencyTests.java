@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookPatch;
+import com.example.demo.repository.BookRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races concurrent PATCH requests on the same book against the configured MongoDB, in a
+ * separate database that is dropped afterwards. Only runs with -Dintegration=true.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_integration")
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+class BookPatchConcurrencyTests {
+
+	private static final int WRITERS = 16;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private InventorySummaryService inventorySummaryService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void patchesBasedOnTheSameVersionLetExactlyOneWin() throws Exception {
+		Book book = createBook();
+
+		List<Future<Book>> results = race(i -> () -> bookService.patchBook(book.getId(),
+				BookPatch.from(Map.of("payout", 10.0 + i, "version", book.getVersion()))));
+
+		int winners = 0;
+		for (Future<Book> result : results) {
+			try {
+				result.get();
+				winners++;
+			} catch (ExecutionException e) {
+				assertInstanceOf(OptimisticLockingFailureException.class, e.getCause());
+			}
+		}
+		assertEquals(1, winners);
+		assertEquals(book.getVersion() + 1, bookRepository.findById(book.getId()).get().getVersion());
+		assertTrue(InventorySummaryService.matches(inventorySummaryService.getSummary(), inventorySummaryService.rebuild()));
+	}
+
+	@Test
+	void unversionedPatchesOfDifferentFieldsAreAllKept() throws Exception {
+		Book book = createBook();
+
+		List<Future<Book>> results = race(i -> () -> bookService.patchBook(book.getId(),
+				BookPatch.from(Map.of(i % 2 == 0 ? "title" : "publisher", "Value " + i))));
+		for (Future<Book> result : results) {
+			result.get();
+		}
+
+		Document stored = mongoTemplate.findById(book.getId(), Document.class, "Book");
+		assertTrue(stored.getString("title").startsWith("Value "));
+		assertTrue(stored.getString("publisher").startsWith("Value "));
+		assertEquals(book.getVersion() + WRITERS, stored.get("version", Number.class).longValue());
+		assertEquals(12.5, stored.getDouble("cogs"));
+	}
+
+	private Book createBook() {
+		Book book = new Book();
+		book.setISBN("9780306406157");
+		book.setCOGS(12.5);
+		book.setTitle("Title");
+		book.setImageUrl("http://covers.example/9780306406157.jpg");
+		inventorySummaryService.rebuild();
+		return bookService.createBook(book);
+	}
+
+	private List<Future<Book>> race(IntFunction<Callable<Book>> writer) {
+		ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Book>> results = new ArrayList<>();
+		for (int i = 0; i < WRITERS; i++) {
+			Callable<Book> patch = writer.apply(i);
+			results.add(executor.submit(() -> {
+				start.await();
+				return patch.call();
+			}));
+		}
+		start.countDown();
+		executor.shutdown();
+		return results;
+	}
+
+}
@@ -0,0 +1,306 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookPatch;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.DashboardSnapshot;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.model.MarkSoldReport;
+import com.example.demo.model.MarkSoldRequest;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.util.CollectionVersions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.util.unit.DataSize;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class BookServiceTests {
+
+	private BookRepository bookRepository;
+	private InventorySummaryService inventorySummaryService;
+	private BookEnrichmentService bookEnrichmentService;
+	private SalesRollupService salesRollupService;
+	private ApplicationEventPublisher eventPublisher;
+	private BookService bookService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		inventorySummaryService = mock(InventorySummaryService.class);
+		bookEnrichmentService = mock(BookEnrichmentService.class);
+		salesRollupService = mock(SalesRollupService.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+		bookService = new BookService(bookRepository, inventorySummaryService, bookEnrichmentService, salesRollupService,
+				new CollectionVersions(), eventPublisher, new BookCache(DataSize.ofMegabytes(1), new SimpleMeterRegistry()));
+	}
+
+	@Test
+	void financialOverviewIsReadFromSummaryWithoutLoadingBooks() {
+		InventorySummary summary = new InventorySummary();
+		summary.setTotalCogs(30.0);
+		summary.setSoldCogs(12.5);
+		summary.setTotalProfit(12.5);
+		summary.setTotalPayout(25.0);
+		summary.setMarginSum(1.0);
+		summary.setMarginCount(2);
+		DashboardSnapshot snapshot = new DashboardSnapshot();
+		snapshot.setTotals(summary);
+		when(inventorySummaryService.getDashboard(any(Date.class), any(Date.class))).thenReturn(snapshot);
+
+		Map<String, Double> financials = bookService.getDashboard().toFinancialOverview();
+
+		assertEquals(30.0, financials.get("cogs"));
+		assertEquals(12.5, financials.get("profit"));
+		assertEquals(25.0, financials.get("payout"));
+		assertEquals(12.5, financials.get("soldCogs"));
+		assertEquals(17.5, financials.get("unsoldCogs"));
+		assertEquals(0.5, financials.get("averageMargin"));
+		// No Book entity is ever read to build the overview.
+		verifyNoInteractions(bookRepository);
+	}
+
+	@Test
+	void dashboardCountsSalesOfTheCurrentUtcMonth() {
+		when(inventorySummaryService.getDashboard(any(Date.class), any(Date.class))).thenReturn(new DashboardSnapshot());
+
+		bookService.getDashboard();
+
+		YearMonth month = YearMonth.now(ZoneOffset.UTC);
+		Date start = Date.from(month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+		Date end = Date.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+		verify(inventorySummaryService).getDashboard(start, end);
+	}
+
+	@Test
+	void createQueuesTheSavedBookForEnrichment() {
+		Book saved = book("1", 10.0, null);
+		when(bookRepository.save(any(Book.class))).thenReturn(saved);
+
+		bookService.createBook(book(null, 10.0, null));
+
+		verify(bookEnrichmentService).enqueueIfIncomplete(same(saved));
+	}
+
+	@Test
+	void createPublishesTheDeltaOfTheNewBook() {
+		Book saved = book("1", 10.0, null);
+		when(bookRepository.save(any(Book.class))).thenReturn(saved);
+
+		bookService.createBook(book(null, 10.0, null));
+
+		verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BooksChangedEvent changed
+				&& changed.getBookIds().equals(List.of("1"))
+				&& changed.getDelta().getUnsoldCount() == 1
+				&& changed.getDelta().getTotalCogs() == 10.0));
+	}
+
+	@Test
+	void reconcilePublishesAResync() {
+		bookService.reconcileInventorySummary();
+
+		verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BooksChangedEvent changed
+				&& changed.isResync()));
+	}
+
+	@Test
+	void deleteRemovesTheSaleFromTheRollups() {
+		Book deleted = book("1", 10.0, new Date());
+		when(bookRepository.findAndRemoveById("1")).thenReturn(deleted);
+
+		bookService.deleteBook("1");
+
+		verify(salesRollupService).applyChange(same(deleted), isNull());
+	}
+
+	@Test
+	void updateAppliesDeltaBetweenPreviousAndSavedState() {
+		Book existing = book("1", 10.0, null);
+		when(bookRepository.patchAndReturnPrevious(eq("1"), any(BookPatch.class))).thenReturn(existing);
+
+		Book updated = book("1", 10.0, new Date());
+		updated.setPayout(15.0);
+		updated.setProfit(5.0);
+		bookService.updateBook("1", updated);
+
+		verify(inventorySummaryService).applyChange(
+				argThat(before -> before.getSold() == null && before.getPayout() == null),
+				argThat(after -> after.getSold() != null && after.getPayout() == 15.0));
+	}
+
+	@Test
+	void updateOfAMissingBookFails() {
+		when(bookRepository.patchAndReturnPrevious(eq("1"), any(BookPatch.class))).thenReturn(null);
+
+		assertThrows(IllegalArgumentException.class, () -> bookService.updateBook("1", book("1", 10.0, null)));
+		verify(inventorySummaryService, never()).applyChange(any(), any());
+	}
+
+	@Test
+	void deleteRemovesTheDeletedBookFromSummary() {
+		Book existing = book("1", 10.0, null);
+		when(bookRepository.findAndRemoveById("1")).thenReturn(existing);
+
+		bookService.deleteBook("1");
+
+		verify(inventorySummaryService).applyChange(same(existing), isNull());
+	}
+
+	@Test
+	void deleteOfMissingBookLeavesSummaryUntouched() {
+		when(bookRepository.findAndRemoveById("missing")).thenReturn(null);
+
+		bookService.deleteBook("missing");
+
+		verifyNoInteractions(inventorySummaryService);
+	}
+
+	@Test
+	void patchAppliesDeltaBetweenPreviousAndPatchedState() {
+		Book previous = book("1", 10.0, null);
+		previous.setVersion(2L);
+		when(bookRepository.patchAndReturnPrevious(eq("1"), any(BookPatch.class))).thenReturn(previous);
+
+		Book patched = bookService.patchBook("1", BookPatch.from(Map.of("sold", "2024-03-01", "payout", 15.0, "version", 2)));
+
+		assertEquals(3L, patched.getVersion());
+		assertEquals(15.0, patched.getPayout());
+		verify(inventorySummaryService).applyChange(same(previous), same(patched));
+		verify(bookRepository, never()).save(any(Book.class));
+		verify(bookRepository, never()).findById(any());
+	}
+
+	@Test
+	void patchOfAChangedVersionIsAConflict() {
+		when(bookRepository.patchAndReturnPrevious(eq("1"), any(BookPatch.class))).thenReturn(null);
+		when(bookRepository.existsById("1")).thenReturn(true);
+
+		assertThrows(OptimisticLockingFailureException.class,
+				() -> bookService.patchBook("1", BookPatch.from(Map.of("payout", 15.0, "version", 2))));
+		verifyNoInteractions(inventorySummaryService);
+	}
+
+	@Test
+	void patchOfMissingBookReturnsNull() {
+		when(bookRepository.patchAndReturnPrevious(eq("missing"), any(BookPatch.class))).thenReturn(null);
+		when(bookRepository.existsById("missing")).thenReturn(false);
+
+		assertNull(bookService.patchBook("missing", BookPatch.from(Map.of("payout", 15.0, "version", 2))));
+	}
+
+	@Test
+	void markSoldComputesProfitFromStoredCogsInOneBulkWrite() {
+		Book first = book("1", 10.0, null);
+		first.setVersion(0L);
+		Book second = book("2", 4.0, null);
+		second.setVersion(5L);
+		when(bookRepository.findAllById(any())).thenReturn(List.of(first, second));
+		when(bookRepository.markSoldUnordered(anyList())).thenReturn(2L);
+
+		MarkSoldReport report = bookService.markSold(markSold(item("1", 25.0), item("missing", 5.0), item("2", 3.0), item(null, 1.0)));
+
+		assertEquals(2, report.getSold());
+		assertEquals(List.of(MarkSoldReport.Status.SOLD, MarkSoldReport.Status.NOT_FOUND,
+				MarkSoldReport.Status.SOLD, MarkSoldReport.Status.INVALID),
+				report.getResults().stream().map(MarkSoldReport.Result::getStatus).toList());
+		assertEquals(15.0, report.getResults().get(0).getProfit());
+		assertEquals(-1.0, report.getResults().get(2).getProfit());
+		verify(bookRepository).markSoldUnordered(argThat((List<Book> books) -> books.size() == 2
+				&& books.get(0).getVersion() == 0L && books.get(0).getSold() != null));
+		verify(bookRepository, never()).save(any(Book.class));
+		verify(inventorySummaryService).apply(argThat((InventorySummary delta) ->
+				delta.getSoldCount() == 2 && delta.getUnsoldCount() == -2 && delta.getTotalProfit() == 14.0));
+	}
+
+	@Test
+	void markSoldReportsBooksChangedInBetweenAsConflicts() {
+		Book first = book("1", 10.0, null);
+		first.setVersion(0L);
+		Book second = book("2", 4.0, null);
+		second.setVersion(5L);
+		when(bookRepository.findAllById(any())).thenReturn(List.of(first, second));
+		when(bookRepository.markSoldUnordered(anyList())).thenReturn(1L);
+		MarkSoldRequest request = markSold(item("1", 25.0), item("2", 3.0));
+		when(bookRepository.findAllByIdWithFields(any(), any()))
+				.thenReturn(List.of(stored("1", 1L, request.getSold(), 25.0, 15.0), stored("2", 7L, null, null, null)));
+
+		MarkSoldReport report = bookService.markSold(request);
+
+		assertEquals(MarkSoldReport.Status.SOLD, report.getResults().get(0).getStatus());
+		assertEquals(MarkSoldReport.Status.CONFLICT, report.getResults().get(1).getStatus());
+		verify(inventorySummaryService).apply(argThat((InventorySummary delta) -> delta.getSoldCount() == 1));
+	}
+
+	@Test
+	void markSoldDoesNotTakeAConcurrentWriteAtTheNextVersionForItsSale() {
+		Book first = book("1", 10.0, null);
+		first.setVersion(0L);
+		Book second = book("2", 4.0, null);
+		second.setVersion(5L);
+		when(bookRepository.findAllById(any())).thenReturn(List.of(first, second));
+		when(bookRepository.markSoldUnordered(anyList())).thenReturn(1L);
+		MarkSoldRequest request = markSold(item("1", 25.0), item("2", 3.0));
+		// Both books are at the next version, but the second one got there by another write.
+		when(bookRepository.findAllByIdWithFields(any(), any()))
+				.thenReturn(List.of(stored("1", 1L, request.getSold(), 25.0, 15.0), stored("2", 6L, null, 8.0, null)));
+
+		MarkSoldReport report = bookService.markSold(request);
+
+		assertEquals(MarkSoldReport.Status.SOLD, report.getResults().get(0).getStatus());
+		assertEquals(MarkSoldReport.Status.CONFLICT, report.getResults().get(1).getStatus());
+		assertEquals(1, report.getSold());
+		verify(inventorySummaryService).apply(argThat((InventorySummary delta) ->
+				delta.getSoldCount() == 1 && delta.getTotalProfit() == 15.0));
+	}
+
+	private static Book stored(String id, long version, Date sold, Double payout, Double profit) {
+		Book book = new Book();
+		book.setId(id);
+		book.setVersion(version);
+		book.setSold(sold);
+		book.setPayout(payout);
+		book.setProfit(profit);
+		return book;
+	}
+
+	private static MarkSoldRequest markSold(MarkSoldRequest.Item... items) {
+		MarkSoldRequest request = new MarkSoldRequest();
+		request.setSold(new Date());
+		request.setBooks(List.of(items));
+		return request;
+	}
+
+	private static MarkSoldRequest.Item item(String id, double payout) {
+		MarkSoldRequest.Item item = new MarkSoldRequest.Item();
+		item.setId(id);
+		item.setPayout(payout);
+		return item;
+	}
+
+	private static Book book(String id, Double cogs, Date sold) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN("9780306406157");
+		book.setCOGS(cogs);
+		book.setSold(sold);
+		return book;
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.example.demo.service;
+
+import com.example.demo.model.BookDetails;
+import com.example.demo.support.StubGoogleBooksServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GoogleBooksServiceTests {
+
+	private StubGoogleBooksServer stub;
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		stub = new StubGoogleBooksServer().withVolume("9780306406157", "Stub Title");
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.close();
+	}
+
+	@Test
+	void repeatedLookupsOfTheSameNormalizedIsbnCallUpstreamOnce() {
+		GoogleBooksService service = service(100);
+
+		Optional<BookDetails> first = service.findByIsbn("978-0-306-40615-7");
+		Optional<BookDetails> second = service.findByIsbn("9780306406157");
+
+		assertTrue(first.isPresent());
+		assertEquals("Stub Title", second.get().getTitle());
+		assertEquals("http://covers.example/9780306406157.jpg", second.get().getImageUrl());
+		assertEquals(1, stub.requestCount());
+		Map<String, Object> stats = service.getCacheStats();
+		assertEquals(1L, stats.get("hits"));
+		assertEquals(1L, stats.get("misses"));
+	}
+
+	@Test
+	void notFoundAnswersAreCached() {
+		GoogleBooksService service = service(100);
+
+		assertFalse(service.findByIsbn("9781234567897").isPresent());
+		assertFalse(service.findByIsbn("9781234567897").isPresent());
+
+		assertEquals(1, stub.requestCount());
+	}
+
+	@Test
+	void upstreamErrorsAreNotCached() {
+		GoogleBooksService service = service(100);
+		stub.withStatus(503);
+
+		assertThrows(HttpServerErrorException.class, () -> service.findByIsbn("9780306406157"));
+		stub.withStatus(200);
+
+		assertTrue(service.findByIsbn("9780306406157").isPresent());
+		assertEquals(2, stub.requestCount());
+	}
+
+	@Test
+	void onlyAnsweredLookupsAreReportedAsCached() {
+		GoogleBooksService service = service(100);
+		stub.withStatus(503);
+
+		assertFalse(service.isCached("9780306406157"));
+		assertThrows(HttpServerErrorException.class, () -> service.findByIsbn("9780306406157"));
+		assertFalse(service.isCached("9780306406157"));
+		stub.withStatus(200);
+		service.findByIsbn("9780306406157");
+
+		assertTrue(service.isCached("978-0-306-40615-7"));
+		assertEquals(0L, service.getCacheStats().get("hits"));
+	}
+
+	@Test
+	void concurrentLookupsOfTheSameIsbnShareOneUpstreamCall() throws Exception {
+		GoogleBooksService service = service(100);
+		stub.withDelay(300);
+		int callers = 32;
+		ExecutorService executor = Executors.newFixedThreadPool(callers);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Optional<BookDetails>>> results = new ArrayList<>();
+		for (int i = 0; i < callers; i++) {
+			results.add(executor.submit(() -> {
+				start.await();
+				return service.findByIsbn("9780306406157");
+			}));
+		}
+		start.countDown();
+		for (Future<Optional<BookDetails>> result : results) {
+			assertEquals("Stub Title", result.get().get().getTitle());
+		}
+		executor.shutdown();
+
+		assertEquals(1, stub.requestCount());
+		Map<String, Object> stats = service.getCacheStats();
+		assertEquals(1L, stats.get("misses"));
+		assertEquals((long) callers - 1, (long) stats.get("hits") + (long) stats.get("coalesced"));
+	}
+
+	@Test
+	void entriesAboveTheMaximumSizeAreEvicted() {
+		GoogleBooksService service = service(2);
+
+		for (int i = 0; i < 10; i++) {
+			service.findByIsbn("978000000000" + i);
+		}
+
+		Map<String, Object> stats = service.getCacheStats();
+		assertTrue((long) stats.get("size") <= 2);
+		assertEquals(8L, stats.get("evictions"));
+	}
+
+	@Test
+	void upstreamCallsAreTimedByStatusAndOutcome() {
+		GoogleBooksService service = service(100);
+
+		service.findByIsbn("9780306406157");
+		service.findByIsbn("9780306406157");
+		stub.withStatus(503);
+		assertThrows(HttpServerErrorException.class, () -> service.findByIsbn("9781234567897"));
+
+		assertEquals(1, meterRegistry.get("google.books.requests")
+				.tags("status", "200", "outcome", "SUCCESS").timer().count());
+		assertEquals(1, meterRegistry.get("google.books.requests")
+				.tags("status", "503", "outcome", "SERVER_ERROR").timer().count());
+	}
+
+	@Test
+	void connectionFailuresAreCountedAsIoErrors() {
+		GoogleBooksService service = new GoogleBooksService(new RestTemplate(), "http://localhost:1/volumes", "test-key",
+				100, Duration.ofHours(1), Duration.ofMinutes(5), meterRegistry);
+
+		assertThrows(RuntimeException.class, () -> service.findByIsbn("9780306406157"));
+
+		assertEquals(1, meterRegistry.get("google.books.requests").tags("status", "IO_ERROR").timer().count());
+	}
+
+	private GoogleBooksService service(long maxSize) {
+		return new GoogleBooksService(new RestTemplate(), stub.url(), "test-key", maxSize, Duration.ofHours(1),
+				Duration.ofMinutes(5), meterRegistry);
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.model.InventoryUpdate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class InventoryEventServiceTests {
+
+	private InventorySummaryService inventorySummaryService;
+	private InventoryEventService eventService;
+
+	@BeforeEach
+	void setUp() {
+		inventorySummaryService = mock(InventorySummaryService.class);
+		when(inventorySummaryService.getSummary()).thenReturn(InventorySummary.of(null));
+		eventService = new InventoryEventService(inventorySummaryService, Duration.ofMinutes(1), 4, 2, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		eventService.shutdown();
+	}
+
+	@Test
+	void aFullBufferMergesDeltasWithoutLosingTheTotals() {
+		InventoryEventService.Subscriber subscriber = new InventoryEventService.Subscriber(new SseEmitter(), 3);
+		subscriber.offer(InventoryUpdate.snapshot(summary(10, 5, 100.0), 0));
+
+		int merged = 0;
+		for (int i = 1; i <= 20; i++) {
+			if (!subscriber.offer(InventoryUpdate.delta(summary(1, -1, 2.5), i))) {
+				merged++;
+			}
+		}
+
+		List<InventoryUpdate> updates = subscriber.drain();
+		assertEquals(3, updates.size());
+		assertEquals(18, merged);
+		InventoryUpdate total = updates.get(0);
+		for (InventoryUpdate update : updates.subList(1, updates.size())) {
+			total = total.plus(update);
+		}
+		assertEquals(InventoryUpdate.Type.SNAPSHOT, total.getType());
+		assertEquals(30, total.getSold());
+		assertEquals(-15, total.getUnsold());
+		assertEquals(150.0, total.getCogs(), 1e-9);
+		assertEquals(20, total.getSequence());
+		assertTrue(subscriber.isEmpty());
+	}
+
+	@Test
+	void aSnapshotReplacesTheBufferedUpdates() {
+		InventoryEventService.Subscriber subscriber = new InventoryEventService.Subscriber(new SseEmitter(), 3);
+		subscriber.offer(InventoryUpdate.delta(summary(1, 0, 1.0), 1));
+		subscriber.offer(InventoryUpdate.delta(summary(1, 0, 1.0), 2));
+
+		subscriber.offer(InventoryUpdate.snapshot(summary(7, 3, 50.0), 3));
+
+		List<InventoryUpdate> updates = subscriber.drain();
+		assertEquals(1, updates.size());
+		assertEquals(InventoryUpdate.Type.SNAPSHOT, updates.get(0).getType());
+		assertEquals(7, updates.get(0).getSold());
+	}
+
+	@Test
+	void subscriptionsAboveTheLimitAreRefused() {
+		eventService.subscribe();
+		eventService.subscribe();
+
+		assertThrows(IllegalStateException.class, () -> eventService.subscribe());
+		assertEquals(2, eventService.getStats().get("subscribers"));
+		assertEquals(1L, eventService.getStats().get("rejected"));
+	}
+
+	@Test
+	void writesWithoutSubscribersAreIgnored() {
+		Book book = new Book();
+		book.setId("1");
+		book.setCOGS(4.0);
+		book.setSold(new Date());
+
+		eventService.onBooksChanged(BooksChangedEvent.of(book, InventorySummary.delta(null, book)));
+		eventService.onBooksChanged(BooksChangedEvent.resync());
+
+		assertEquals(0L, eventService.getStats().get("sequence"));
+		verify(inventorySummaryService, never()).getSummary();
+	}
+
+	@Test
+	void resyncReadsTheTotalsOnceForAllSubscribers() {
+		eventService.subscribe();
+		eventService.subscribe();
+		clearInvocations(inventorySummaryService);
+
+		eventService.onBooksChanged(BooksChangedEvent.resync());
+
+		verify(inventorySummaryService, times(1)).getSummary();
+		assertEquals(1L, eventService.getStats().get("sequence"));
+	}
+
+	private static InventorySummary summary(long sold, long unsold, double cogs) {
+		InventorySummary summary = new InventorySummary();
+		summary.setSoldCount(sold);
+		summary.setUnsoldCount(unsold);
+		summary.setTotalCogs(cogs);
+		return summary;
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the incrementally maintained inventory summary against the aggregation recount
+ * after randomized writes through the service, on the configured MongoDB in a separate
+ * database that is dropped afterwards. Only runs with -Dintegration=true.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_integration")
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+class InventorySummaryRecountTests {
+
+	private static final int WRITES = 500;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private InventorySummaryService inventorySummaryService;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void deltasMatchTheAggregationAfterRandomizedWrites() {
+		Random random = new Random(42);
+		List<String> ids = new ArrayList<>();
+		inventorySummaryService.rebuild();
+
+		for (int i = 0; i < WRITES; i++) {
+			int operation = ids.isEmpty() ? 0 : random.nextInt(3);
+			if (operation == 0) {
+				ids.add(bookService.createBook(randomBook(random)).getId());
+			} else {
+				String id = ids.get(random.nextInt(ids.size()));
+				if (operation == 1) {
+					bookService.updateBook(id, randomBook(random));
+				} else {
+					bookService.deleteBook(id);
+					ids.remove(id);
+				}
+			}
+		}
+
+		InventorySummary recount = bookRepository.aggregateInventorySummary();
+		InventorySummary running = inventorySummaryService.getSummary();
+		assertTrue(InventorySummaryService.matches(running, recount),
+				() -> "Summary " + running + " drifted from the recount " + recount);
+		assertEquals(ids.size(), running.getSoldCount() + running.getUnsoldCount());
+	}
+
+	private static Book randomBook(Random random) {
+		Book book = new Book();
+		book.setISBN("978" + random.nextInt(1_000_000_000));
+		book.setCOGS(random.nextInt(5000) / 100.0);
+		//Complete books are not queued for the metadata lookup.
+		book.setTitle("Title");
+		book.setImageUrl("http://covers.example/" + book.getISBN() + ".jpg");
+		if (random.nextBoolean()) {
+			double payout = random.nextInt(8000) / 100.0;
+			book.setSold(new Date());
+			book.setPayout(payout);
+			book.setProfit(payout - book.getCOGS());
+		}
+		return book;
+	}
+
+}
@@ -0,0 +1,66 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class IsbnIndexServiceTests {
+
+	private BookRepository bookRepository;
+	private IsbnIndexService isbnIndexService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		isbnIndexService = new IsbnIndexService(bookRepository);
+	}
+
+	@Test
+	void writtenBooksAreReindexedAndDeletedOnesRemovedWithoutReadingThem() {
+		when(bookRepository.streamBooks(any(), anyCollection()))
+				.thenReturn(Stream.of(book("1", "9780306406157"), book("2", "9780306406157")));
+		isbnIndexService.rebuild();
+
+		isbnIndexService.onBooksChanged(BooksChangedEvent.of(book("1", "9780804429573"), new InventorySummary()));
+		isbnIndexService.onBooksChanged(BooksChangedEvent.deleted("2", new InventorySummary()));
+
+		assertEquals(0, isbnIndexService.countCopies("9780306406157"));
+		assertEquals(List.of("1"), isbnIndexService.getCopyIds("9780804429573"));
+		verify(bookRepository, never()).findAllById(any());
+		verify(bookRepository, never()).findAllByIdWithFields(any(), any());
+	}
+
+	@Test
+	void changesDuringTheRebuildAreReadAgainWithTheIndexedFieldsOnly() {
+		// The ISBN is corrected while the stream still returns the old one.
+		when(bookRepository.streamBooks(any(), anyCollection()))
+				.thenReturn(Stream.of(book("1", "9780306406157")).peek(book -> isbnIndexService.onBooksChanged(
+						BooksChangedEvent.of(book("1", "9780804429573"), new InventorySummary()))));
+		when(bookRepository.findAllByIdWithFields(anyCollection(), anyCollection()))
+				.thenReturn(List.of(book("1", "9780804429573")));
+
+		isbnIndexService.rebuild();
+
+		assertEquals(1, isbnIndexService.countCopies("9780804429573"));
+		verify(bookRepository).findAllByIdWithFields(Set.of("1"), List.of("isbn", "version"));
+	}
+
+	private static Book book(String id, String isbn) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN(isbn);
+		return book;
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.SalesBucket;
+import com.example.demo.repository.BookRepository;
+import com.example.demo.repository.SalesBucketRepository;
+import com.example.demo.util.CollectionVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class SalesRollupServiceTests {
+
+	private SalesBucketRepository salesBucketRepository;
+	private BookRepository bookRepository;
+	private SalesRollupService salesRollupService;
+
+	@BeforeEach
+	void setUp() {
+		salesBucketRepository = mock(SalesBucketRepository.class);
+		bookRepository = mock(BookRepository.class);
+		salesRollupService = new SalesRollupService(salesBucketRepository, bookRepository, new CollectionVersions());
+	}
+
+	@Test
+	void rebuildReplacesTheBucketsByIdInsteadOfDeletingThem() {
+		when(bookRepository.streamBooks(any(), any())).thenAnswer(invocation -> Stream.of(sold(2024, 3, 5)));
+
+		assertEquals(2, salesRollupService.rebuild());
+
+		verify(salesBucketRepository).replaceAll(argThat(buckets -> buckets.size() == 2));
+		verify(salesBucketRepository, never()).deleteAll();
+	}
+
+	@Test
+	void rebuildRollsUpAgainWhenASaleIsAppliedWhileItStreams() {
+		AtomicInteger streams = new AtomicInteger();
+		when(bookRepository.streamBooks(any(), any())).thenAnswer(invocation -> {
+			if (streams.incrementAndGet() == 1) {
+				//A concurrent write the first stream may have missed.
+				salesRollupService.applyChange(null, sold(2024, 4, 1));
+				return Stream.of(sold(2024, 3, 5));
+			}
+			return Stream.of(sold(2024, 3, 5), sold(2024, 4, 1));
+		});
+
+		assertEquals(4, salesRollupService.rebuild());
+
+		assertEquals(2, streams.get());
+		verify(salesBucketRepository, times(1)).replaceAll(argThat(buckets -> buckets.size() == 4));
+	}
+
+	@Test
+	void rebuildBlocksTheDeltasOnItsLastAttempt() {
+		AtomicInteger streams = new AtomicInteger();
+		when(bookRepository.streamBooks(any(), any())).thenAnswer(invocation -> {
+			if (streams.incrementAndGet() < SalesRollupService.REBUILD_ATTEMPTS) {
+				salesRollupService.applyChange(null, sold(2024, 4, 1));
+			}
+			return Stream.of(sold(2024, 3, 5));
+		});
+
+		salesRollupService.rebuild();
+
+		assertEquals(SalesRollupService.REBUILD_ATTEMPTS, streams.get());
+		verify(salesBucketRepository, times(1)).replaceAll(any());
+	}
+
+	@Test
+	void trendIsReadWithOneQueryAndHasEveryPeriod() {
+		SalesBucket march = SalesBucket.empty(SalesBucket.Granularity.MONTH, LocalDate.of(2024, 3, 1));
+		march.setUnits(4);
+		when(salesBucketRepository.findInRange(SalesBucket.Granularity.MONTH, date(2024, 1, 1), date(2025, 1, 1)))
+				.thenReturn(List.of(march));
+
+		List<SalesBucket> trend = salesRollupService.getTrend(LocalDate.of(2024, 1, 20), LocalDate.of(2024, 12, 5),
+				SalesBucket.Granularity.MONTH);
+
+		assertEquals(12, trend.size());
+		assertEquals(date(2024, 1, 1), trend.get(0).getStart());
+		assertEquals(0, trend.get(0).getUnits());
+		assertEquals(4, trend.get(2).getUnits());
+		assertEquals(date(2024, 12, 1), trend.get(11).getStart());
+		verify(salesBucketRepository, times(1)).findInRange(any(), any(), any());
+	}
+
+	@Test
+	void invalidRangesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> salesRollupService.getTrend(
+				LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), SalesBucket.Granularity.DAY));
+		assertThrows(IllegalArgumentException.class, () -> salesRollupService.getTrend(
+				LocalDate.of(2000, 1, 1), LocalDate.of(2024, 1, 1), SalesBucket.Granularity.DAY));
+	}
+
+	private static Book sold(int year, int month, int day) {
+		Book book = new Book();
+		book.setSold(date(year, month, day));
+		book.setPayout(10.0);
+		book.setCOGS(4.0);
+		book.setProfit(6.0);
+		return book;
+	}
+
+	private static Date date(int year, int month, int day) {
+		return Date.from(LocalDate.of(year, month, day).atStartOfDay(ZoneOffset.UTC).toInstant());
+	}
+
+}
@@ -0,0 +1,102 @@
+package com.example.demo.service;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BooksChangedEvent;
+import com.example.demo.model.InventorySummary;
+import com.example.demo.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class TitleSearchServiceTests {
+
+	private BookRepository bookRepository;
+	private TitleSearchService titleSearchService;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		titleSearchService = new TitleSearchService(bookRepository);
+	}
+
+	@Test
+	void rebuildIndexesTheStreamedBooks() {
+		when(bookRepository.streamBooks(any(), anyCollection()))
+				.thenReturn(Stream.of(book("1", "Dune"), book("2", "Dune Messiah")));
+
+		titleSearchService.rebuild();
+
+		assertEquals(List.of("1", "2"), ids(titleSearchService.searchByTitle("dun", 10)));
+	}
+
+	@Test
+	void writtenBooksAreReindexedAndDeletedOnesRemovedWithoutReadingThem() {
+		when(bookRepository.streamBooks(any(), anyCollection()))
+				.thenReturn(Stream.of(book("1", "Dune"), book("2", "Dune Messiah")));
+		titleSearchService.rebuild();
+
+		titleSearchService.onBooksChanged(BooksChangedEvent.of(book("1", "Children of Dune"), new InventorySummary()));
+		titleSearchService.onBooksChanged(BooksChangedEvent.deleted("2", new InventorySummary()));
+
+		assertTrue(titleSearchService.searchByTitle("dune m", 10).isEmpty());
+		assertEquals(List.of("1"), ids(titleSearchService.searchByTitle("children", 10)));
+		verify(bookRepository, never()).findAllById(any());
+		verify(bookRepository, never()).findAllByIdWithFields(any(), any());
+	}
+
+	@Test
+	void anOlderWriteIndexedLastDoesNotReplaceANewerOne() {
+		Book renamed = book("1", "Children of Dune");
+		renamed.setVersion(3L);
+		Book older = book("1", "Dune Messiah");
+		older.setVersion(2L);
+
+		titleSearchService.onBooksChanged(BooksChangedEvent.of(renamed, new InventorySummary()));
+		titleSearchService.onBooksChanged(BooksChangedEvent.of(older, new InventorySummary()));
+
+		assertEquals(List.of("1"), ids(titleSearchService.searchByTitle("children", 10)));
+		assertTrue(titleSearchService.searchByTitle("messiah", 10).isEmpty());
+	}
+
+	@Test
+	void changesDuringTheRebuildAreAppliedAfterIt() {
+		// The book is renamed while the stream still returns its old title.
+		when(bookRepository.streamBooks(any(), anyCollection()))
+				.thenReturn(Stream.of(book("1", "Dune")).peek(book -> titleSearchService.onBooksChanged(
+						BooksChangedEvent.of(book("1", "Dune (Deluxe Edition)"), new InventorySummary()))));
+		when(bookRepository.findAllByIdWithFields(anyCollection(), anyCollection()))
+				.thenReturn(List.of(book("1", "Dune (Deluxe Edition)")));
+
+		titleSearchService.rebuild();
+
+		assertEquals(List.of("1"), ids(titleSearchService.searchByTitle("deluxe", 10)));
+	}
+
+	@Test
+	void resyncEventsDoNotReadTheBooks() {
+		titleSearchService.onBooksChanged(BooksChangedEvent.resync());
+
+		verify(bookRepository, never()).findAllById(any());
+		verify(bookRepository, never()).findAllByIdWithFields(any(), any());
+	}
+
+	private static Book book(String id, String title) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN("9780306406157");
+		book.setTitle(title);
+		return book;
+	}
+
+	private static List<String> ids(List<Book> books) {
+		return books.stream().map(Book::getId).toList();
+	}
+}
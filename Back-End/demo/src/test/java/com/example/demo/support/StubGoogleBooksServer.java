@@ -0,0 +1,102 @@
+package com.example.demo.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Google Books volumes endpoint, used by tests instead of the real API.
+ * It answers 'q=isbn:...' queries for the volumes it knows, counts the requests it receives
+ * and can be made slow or failing to exercise timeouts and error handling.
+ */
+public class StubGoogleBooksServer implements AutoCloseable {
+
+	private final HttpServer server;
+	private final AtomicInteger threadNumber = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool(
+			runnable -> new Thread(runnable, "stub-google-books-" + threadNumber.incrementAndGet()));
+	private final Map<String, String> titles = new ConcurrentHashMap<>();
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile long delayMillis;
+	private volatile int status = 200;
+
+	public StubGoogleBooksServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/books/v1/volumes", this::handle);
+		server.setExecutor(executor);
+		server.start();
+	}
+
+	/**
+	 * The URL to configure as 'google.books.api.url'.
+	 */
+	public String url() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/books/v1/volumes";
+	}
+
+	public StubGoogleBooksServer withVolume(String isbn, String title) {
+		titles.put(isbn, title);
+		return this;
+	}
+
+	public StubGoogleBooksServer withDelay(long delayMillis) {
+		this.delayMillis = delayMillis;
+		return this;
+	}
+
+	public StubGoogleBooksServer withStatus(int status) {
+		this.status = status;
+		return this;
+	}
+
+	public int requestCount() {
+		return requests.get();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		try {
+			if (delayMillis > 0) {
+				Thread.sleep(delayMillis);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		String query = exchange.getRequestURI().getQuery();
+		String isbn = query != null && query.contains("isbn:") ? query.replaceAll(".*isbn:([0-9X]+).*", "$1") : "";
+		String title = titles.get(isbn);
+		String body;
+		if (status != 200) {
+			body = "{\"error\":{\"code\":" + status + "}}";
+		} else if (title == null) {
+			body = "{\"kind\":\"books#volumes\",\"totalItems\":0}";
+		} else {
+			body = "{\"kind\":\"books#volumes\",\"totalItems\":1,\"items\":[{\"volumeInfo\":{"
+					+ "\"title\":\"" + title + "\",\"authors\":[\"Stub Author\"],\"publisher\":\"Stub Press\","
+					+ "\"publishedDate\":\"2004\",\"pageCount\":320,"
+					+ "\"imageLinks\":{\"thumbnail\":\"http://covers.example/" + isbn + ".jpg\"}}}]}";
+		}
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import com.example.demo.model.BookFields;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookExportWriterTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void csvExportQuotesFieldsAndCanBeImportedAgain() throws IOException {
+		String csv = export(BookFileFormat.CSV, BookFields.ALL, book());
+
+		assertTrue(csv.startsWith(String.join(",", BookFields.ALL) + "\n"));
+		assertTrue(csv.contains("\"Dune, \"\"One\"\"\""));
+
+		BookImportReader reader = new BookImportReader(new StringReader(csv), BookFileFormat.CSV, objectMapper);
+		Book imported = reader.next().getBook();
+		assertEquals("9780306406157", imported.getISBN());
+		assertEquals(12.5, imported.getCOGS());
+		assertEquals("Dune, \"One\"", imported.getTitle());
+		assertEquals(List.of("Frank Herbert", "Brian Herbert"), imported.getAuthors());
+		assertEquals(book().getDatePurchased(), imported.getDatePurchased());
+	}
+
+	@Test
+	void ndjsonExportWritesOneObjectPerLineWithTheSelectedFields() throws IOException {
+		List<String> fields = BookFields.parse("title,isbn, sold");
+		String ndjson = export(BookFileFormat.NDJSON, fields, book(), book());
+
+		String[] lines = ndjson.split("\n");
+		assertEquals(2, lines.length);
+		JsonNode first = objectMapper.readTree(lines[0]);
+		assertEquals(List.of("isbn", "sold", "title"), fieldNames(first));
+		assertTrue(first.get("sold").isNull());
+		assertEquals("Dune, \"One\"", first.get("title").asText());
+		assertFalse(lines[1].startsWith(" "));
+	}
+
+	@Test
+	void datesAreWrittenAsDaysInUtc() throws IOException {
+		String ndjson = export(BookFileFormat.NDJSON, List.of("datePurchased"), book());
+
+		assertEquals("{\"datePurchased\":\"2024-03-01\"}\n", ndjson);
+	}
+
+	private String export(BookFileFormat format, List<String> fields, Book... books) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (BookExportWriter writer = new BookExportWriter(out, format, fields, objectMapper)) {
+			for (Book book : books) {
+				writer.write(book);
+			}
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static List<String> fieldNames(JsonNode node) {
+		List<String> names = new ArrayList<>();
+		node.fieldNames().forEachRemaining(names::add);
+		return names;
+	}
+
+	private static Book book() {
+		Book book = new Book();
+		book.setId("65f0c0ffee0123456789abcd");
+		book.setISBN("9780306406157");
+		book.setCOGS(12.5);
+		book.setTitle("Dune, \"One\"");
+		book.setAuthors(List.of("Frank Herbert", "Brian Herbert"));
+		book.setDatePurchased(Date.from(LocalDate.of(2024, 3, 1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+		book.setVersion(2L);
+		return book;
+	}
+
+}
@@ -0,0 +1,113 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookImportReaderTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void csvColumnsAreMappedByHeaderInAnyOrderAndCase() throws IOException {
+		List<BookImportReader.Row> rows = read(BookFileFormat.CSV,
+				"COGS,isbn,Title,datePurchased,authors\n"
+						+ "12.5,9780306406157,\"Dune, Part \"\"One\"\"\",2024-03-01,Frank Herbert; Brian Herbert\n");
+
+		assertEquals(1, rows.size());
+		Book book = rows.get(0).getBook();
+		assertEquals("9780306406157", book.getISBN());
+		assertEquals(12.5, book.getCOGS());
+		assertEquals("Dune, Part \"One\"", book.getTitle());
+		assertEquals(Date.from(LocalDate.of(2024, 3, 1).atStartOfDay(ZoneOffset.UTC).toInstant()), book.getDatePurchased());
+		assertEquals(List.of("Frank Herbert", "Brian Herbert"), book.getAuthors());
+	}
+
+	@Test
+	void quotedCsvFieldMaySpanLines() throws IOException {
+		List<BookImportReader.Row> rows = read(BookFileFormat.CSV,
+				"isbn,title\n9780306406157,\"First\nSecond\"\n9781234567897,Next\n");
+
+		assertEquals("First\nSecond", rows.get(0).getBook().getTitle());
+		assertEquals(2, rows.get(1).getNumber());
+		assertEquals("Next", rows.get(1).getBook().getTitle());
+	}
+
+	@Test
+	void malformedRowsAreReportedAndReadingGoesOn() throws IOException {
+		List<BookImportReader.Row> rows = read(BookFileFormat.CSV,
+				"isbn,cogs,sold\n"
+						+ "9780306406157,abc,\n"
+						+ "9780306406157,1.0,03/01/2024\n"
+						+ "9780306406157,1.0\n"
+						+ "\n"
+						+ "9780306406157,1.0,2024-03-01\n");
+
+		assertEquals(4, rows.size());
+		assertEquals("Invalid number in cogs: abc", rows.get(0).getError());
+		assertEquals("Invalid date in sold, expected yyyy-MM-dd: 03/01/2024", rows.get(1).getError());
+		assertEquals("Expected 3 fields but found 2.", rows.get(2).getError());
+		assertNull(rows.get(3).getError());
+		assertEquals(4, rows.get(3).getNumber());
+	}
+
+	@Test
+	void unknownCsvColumnIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> read(BookFileFormat.CSV, "isbn,price\n1,2\n"));
+	}
+
+	@Test
+	void idAndVersionColumnsOfAnExportAreIgnored() throws IOException {
+		List<BookImportReader.Row> rows = read(BookFileFormat.CSV, "id,isbn,version\n65f0c0ffee,9780306406157,4\n");
+
+		assertNull(rows.get(0).getError());
+		assertNull(rows.get(0).getBook().getId());
+		assertNull(rows.get(0).getBook().getVersion());
+		assertEquals("9780306406157", rows.get(0).getBook().getISBN());
+	}
+
+	@Test
+	void ndjsonRowsAreReadLikeCreateRequests() throws IOException {
+		List<BookImportReader.Row> rows = read(BookFileFormat.NDJSON,
+				"{\"isbn\":\"9780306406157\",\"cogs\":3.0,\"sold\":\"2024-03-01\"}\n"
+						+ "{\"isbn\":\n"
+						+ "{\"isbn\":\"9781234567897\",\"cogs\":4.0}\n");
+
+		assertEquals(3, rows.size());
+		assertEquals(3.0, rows.get(0).getBook().getCOGS());
+		assertEquals(Date.from(LocalDate.of(2024, 3, 1).atStartOfDay(ZoneOffset.UTC).toInstant()), rows.get(0).getBook().getSold());
+		assertNull(rows.get(1).getBook());
+		assertEquals("9781234567897", rows.get(2).getBook().getISBN());
+	}
+
+	@Test
+	void formatIsResolvedFromTheContentType() {
+		assertEquals(BookFileFormat.CSV, BookFileFormat.fromContentType("text/csv; charset=UTF-8"));
+		assertEquals(BookFileFormat.NDJSON, BookFileFormat.fromContentType("application/x-ndjson"));
+		assertThrows(IllegalArgumentException.class, () -> BookFileFormat.fromContentType("application/json"));
+	}
+
+	private List<BookImportReader.Row> read(BookFileFormat format, String content) throws IOException {
+		List<BookImportReader.Row> rows = new ArrayList<>();
+		try (BookImportReader reader = new BookImportReader(new StringReader(content), format, objectMapper)) {
+			BookImportReader.Row row;
+			while ((row = reader.next()) != null) {
+				rows.add(row);
+			}
+		}
+		return rows;
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.example.demo.util;
+
+import com.example.demo.support.StubGoogleBooksServer;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerInterceptorTests {
+
+	private static final String HOST = "127.0.0.1";
+
+	private StubGoogleBooksServer stub;
+	private CloseableHttpClient httpClient;
+	private CircuitBreakerInterceptor breaker;
+	private RestTemplate restTemplate;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = new StubGoogleBooksServer();
+		AppConfig config = new AppConfig();
+		httpClient = config.outboundHttpClient(
+				config.outboundConnectionManager(10, 10, Duration.ofSeconds(1), Duration.ofMillis(200)),
+				Duration.ofSeconds(1), Duration.ofMillis(200), Duration.ofSeconds(30));
+		breaker = config.circuitBreakerInterceptor(3, Duration.ofMillis(300));
+		restTemplate = config.restTemplate(httpClient, breaker);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		httpClient.close();
+		stub.close();
+	}
+
+	@Test
+	void slowResponsesTimeOut() {
+		stub.withDelay(2000);
+
+		long start = System.nanoTime();
+		assertThrows(ResourceAccessException.class, () -> call());
+
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1500);
+	}
+
+	@Test
+	void breakerOpensAfterConsecutiveFailuresAndFailsFast() {
+		stub.withStatus(503);
+		for (int i = 0; i < 3; i++) {
+			assertThrows(HttpServerErrorException.class, () -> call());
+		}
+
+		assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState(HOST));
+		assertThrows(CircuitBreakerOpenException.class, () -> call());
+		assertEquals(3, stub.requestCount());
+	}
+
+	@Test
+	void successfulTrialCallClosesTheBreaker() throws Exception {
+		stub.withStatus(503);
+		for (int i = 0; i < 3; i++) {
+			assertThrows(HttpServerErrorException.class, () -> call());
+		}
+		stub.withStatus(200);
+		Thread.sleep(400);
+
+		call();
+
+		assertEquals(CircuitBreakerInterceptor.State.CLOSED, breaker.getState(HOST));
+	}
+
+	@Test
+	void failedTrialCallOpensTheBreakerAgain() throws Exception {
+		stub.withStatus(503);
+		for (int i = 0; i < 3; i++) {
+			assertThrows(HttpServerErrorException.class, () -> call());
+		}
+		Thread.sleep(400);
+
+		assertThrows(HttpServerErrorException.class, () -> call());
+
+		assertEquals(CircuitBreakerInterceptor.State.OPEN, breaker.getState(HOST));
+		assertEquals(4, stub.requestCount());
+	}
+
+	private void call() {
+		restTemplate.getForEntity(stub.url() + "?q=isbn:9780306406157", String.class);
+	}
+
+}
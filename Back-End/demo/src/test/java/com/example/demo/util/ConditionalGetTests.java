@@ -0,0 +1,124 @@
+package com.example.demo.util;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the commands sent to the configured MongoDB while the read endpoints are polled
+ * with If-None-Match, in a separate database that is dropped afterwards. Only runs with
+ * -Dintegration=true.
+ */
+@SpringBootTest(properties = "spring.data.mongodb.database=inventory_integration")
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "integration", matches = "true")
+class ConditionalGetTests {
+
+	private static final int POLLS = 50;
+
+	private static final AtomicLong COMMANDS = new AtomicLong();
+
+	@TestConfiguration
+	static class CommandCounting {
+
+		@Bean
+		MongoClientSettingsBuilderCustomizer commandCounter() {
+			return builder -> builder.addCommandListener(new CommandListener() {
+				@Override
+				public void commandStarted(CommandStartedEvent event) {
+					COMMANDS.incrementAndGet();
+				}
+			});
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@AfterEach
+	void dropDatabase() {
+		mongoTemplate.getDb().drop();
+	}
+
+	@Test
+	void repeatedConditionalRequestsDoNotReachTheDatabase() throws Exception {
+		String etag = mockMvc.perform(get("/api/books/dashboard"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotNull(etag);
+
+		long before = COMMANDS.get();
+		for (int i = 0; i < POLLS; i++) {
+			mockMvc.perform(get("/api/books/dashboard").header("If-None-Match", etag))
+					.andExpect(status().isNotModified());
+			mockMvc.perform(get("/api/books/all-books").header("If-None-Match", etag))
+					.andExpect(status().isNotModified());
+		}
+		assertEquals(0, COMMANDS.get() - before);
+	}
+
+	@Test
+	void aWriteChangesTheTag() throws Exception {
+		String etag = mockMvc.perform(get("/api/books/dashboard"))
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(post("/api/books/create-book")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"isbn\":\"9780306406157\",\"cogs\":4.0,\"datePurchased\":\"2024-03-01\"}"))
+				.andExpect(status().is2xxSuccessful());
+
+		String newEtag = mockMvc.perform(get("/api/books/dashboard").header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+		assertNotEquals(etag, newEtag);
+	}
+
+	@Test
+	void statisticsAreNotTagged() throws Exception {
+		for (String path : new String[] {"/api/books/cache/stats", "/api/books/copies/stats", "/api/books/intake/status"}) {
+			assertNull(mockMvc.perform(get(path))
+					.andExpect(status().isOk())
+					.andReturn().getResponse().getHeader("ETag"), path);
+		}
+	}
+
+	@Test
+	void todosHaveTheirOwnTag() throws Exception {
+		String todos = mockMvc.perform(get("/api/todos"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(post("/api/books/create-book")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"isbn\":\"9780306406157\",\"cogs\":4.0,\"datePurchased\":\"2024-03-01\"}"))
+				.andExpect(status().is2xxSuccessful());
+
+		// A book write leaves the todo list cached.
+		mockMvc.perform(get("/api/todos").header("If-None-Match", todos))
+				.andExpect(status().isNotModified());
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IsbnIndexTests {
+
+	@Test
+	void isbn10AndIsbn13OfTheSameBookGiveTheSameNumber() {
+		assertEquals(9780306406157L, IsbnUtils.toLong("978-0-306-40615-7"));
+		assertEquals(9780306406157L, IsbnUtils.toLong("0-306-40615-2"));
+		assertEquals(9780804429573L, IsbnUtils.toLong("080442957x"));
+		assertEquals("9780306406157", IsbnUtils.toIsbn13(IsbnUtils.toLong("0306406152")));
+	}
+
+	@Test
+	void wrongCheckDigitsLengthsAndPrefixesAreInvalid() {
+		assertEquals(IsbnUtils.INVALID, IsbnUtils.toLong("9780306406158"));
+		assertEquals(IsbnUtils.INVALID, IsbnUtils.toLong("0306406153"));
+		assertEquals(IsbnUtils.INVALID, IsbnUtils.toLong("0X04429575"));
+		assertEquals(IsbnUtils.INVALID, IsbnUtils.toLong("1234567890123"));
+		assertEquals(IsbnUtils.INVALID, IsbnUtils.toLong("12345"));
+		assertEquals(IsbnUtils.INVALID, IsbnUtils.toLong(null));
+	}
+
+	@Test
+	void copiesAreCountedAcrossIsbnForms() {
+		IsbnIndex index = IsbnIndex.of(Stream.of(book("1", "9780306406157"), book("2", "0-306-40615-2"),
+				book("3", "9780804429573"), book("4", "not an isbn")));
+
+		assertEquals(2, index.countCopies("0306406152"));
+		assertEquals(Set.of("1", "2"), new HashSet<>(index.copyIds("978-0-306-40615-7")));
+		assertEquals(List.of("3"), index.copyIds("080442957X"));
+		assertEquals(0, index.countCopies("not an isbn"));
+		assertEquals(3, index.size());
+		assertEquals(2, index.isbnCount());
+	}
+
+	@Test
+	void changedIsbnsMoveTheCopyAndRemovalsDropIt() {
+		IsbnIndex index = IsbnIndex.of(Stream.of(book("1", "9780306406157"), book("2", "9780306406157")));
+
+		assertTrue(index.put(book("1", "9780804429573")));
+		index.remove("2");
+		assertFalse(index.put(book("3", "")));
+
+		assertEquals(0, index.countCopies("9780306406157"));
+		assertEquals(List.of("1"), index.copyIds("9780804429573"));
+		assertEquals(1, index.size());
+		assertEquals(1, index.isbnCount());
+	}
+
+	@Test
+	void anOlderStateOfACopyIsIgnored() {
+		IsbnIndex index = new IsbnIndex();
+
+		index.put(book("1", "9780804429573", 3L));
+		index.put(book("1", "9780306406157", 2L));
+		assertEquals(List.of("1"), index.copyIds("9780804429573"));
+		assertEquals(0, index.countCopies("9780306406157"));
+
+		index.put(book("1", "9780306406157", 4L));
+		assertEquals(List.of("1"), index.copyIds("9780306406157"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void randomWritesAgreeWithAMap() {
+		Random random = new Random(7);
+		IsbnIndex index = new IsbnIndex();
+		Map<String, Long> expected = new HashMap<>();
+		for (int i = 0; i < 200_000; i++) {
+			String id = "id" + random.nextInt(5_000);
+			if (random.nextInt(10) < 7) {
+				String isbn = isbn13(978_000_000_000L + random.nextInt(800));
+				index.put(book(id, isbn));
+				expected.put(id, IsbnUtils.toLong(isbn));
+			} else {
+				index.remove(id);
+				expected.remove(id);
+			}
+		}
+
+		Map<Long, Set<String>> copies = new HashMap<>();
+		expected.forEach((id, isbn) -> copies.computeIfAbsent(isbn, key -> new HashSet<>()).add(id));
+		assertEquals(expected.size(), index.size());
+		assertEquals(copies.size(), index.isbnCount());
+		copies.forEach((isbn, ids) -> assertEquals(ids, new HashSet<>(index.copyIds(IsbnUtils.toIsbn13(isbn)))));
+	}
+
+	private static String isbn13(long first12) {
+		int sum = 0;
+		long digits = first12;
+		for (int i = 0; i < 12; i++) {
+			int digit = (int) (digits % 10);
+			sum += i % 2 == 0 ? 3 * digit : digit;
+			digits /= 10;
+		}
+		return first12 + String.valueOf((10 - sum % 10) % 10);
+	}
+
+	private static Book book(String id, String isbn) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN(isbn);
+		return book;
+	}
+
+	private static Book book(String id, String isbn, Long version) {
+		Book book = book(id, isbn);
+		book.setVersion(version);
+		return book;
+	}
+}
@@ -0,0 +1,67 @@
+package com.example.demo.util;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoCommandMetricsTests {
+
+	private static final ConnectionDescription CONNECTION =
+			new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final MongoCommandMetrics listener = new MongoCommandMetrics(meterRegistry, Duration.ofMillis(100));
+
+	@Test
+	void commandsAreTimedPerCommandAndCollection() {
+		run(1, "find", new BsonDocument("find", new BsonString("Book")), 5);
+		run(2, "find", new BsonDocument("find", new BsonString("Book")), 7);
+		run(3, "update", new BsonDocument("update", new BsonString("InventorySummary")), 3);
+
+		Timer finds = meterRegistry.get("mongodb.commands")
+				.tags("command", "find", "collection", "Book", "status", "SUCCESS").timer();
+		assertEquals(2, finds.count());
+		assertEquals(12, finds.totalTime(TimeUnit.MILLISECONDS), 0.001);
+		assertEquals(1, meterRegistry.get("mongodb.commands")
+				.tags("command", "update", "collection", "InventorySummary").timer().count());
+	}
+
+	@Test
+	void failedCommandsAreTaggedAsFailed() {
+		listener.commandStarted(new CommandStartedEvent(4, CONNECTION, "inventory", "aggregate",
+				new BsonDocument("aggregate", new BsonString("Book"))));
+		listener.commandFailed(new CommandFailedEvent(4, CONNECTION, "aggregate",
+				TimeUnit.MILLISECONDS.toNanos(250), new IllegalStateException("boom")));
+
+		assertEquals(1, meterRegistry.get("mongodb.commands")
+				.tags("command", "aggregate", "collection", "Book", "status", "FAILED").timer().count());
+	}
+
+	@Test
+	void getMoreIsAttributedToItsCollection() {
+		assertEquals("Book", MongoCommandMetrics.collectionOf("getMore",
+				new BsonDocument("getMore", new BsonInt64(42)).append("collection", new BsonString("Book"))));
+		assertEquals("none", MongoCommandMetrics.collectionOf("ping", new BsonDocument("ping", new BsonInt64(1))));
+	}
+
+	private void run(int requestId, String command, BsonDocument document, long millis) {
+		listener.commandStarted(new CommandStartedEvent(requestId, CONNECTION, "inventory", command, document));
+		listener.commandSucceeded(new CommandSucceededEvent(requestId, CONNECTION, command, new BsonDocument(),
+				TimeUnit.MILLISECONDS.toNanos(millis)));
+	}
+}
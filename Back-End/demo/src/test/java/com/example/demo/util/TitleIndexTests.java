@@ -0,0 +1,101 @@
+package com.example.demo.util;
+
+import com.example.demo.model.Book;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TitleIndexTests {
+
+	@Test
+	void titlesStartingWithTheQueryComeFirstInTitleOrder() {
+		TitleIndex index = TitleIndex.of(Stream.of(
+				book("1", "Harry Potter and the Goblet of Fire"),
+				book("2", "The Harry Book"),
+				book("3", "Harry Potter"),
+				book("4", "Harrowing Tales of Potters")));
+
+		assertEquals(List.of("Harry Potter", "Harry Potter and the Goblet of Fire"), titles(index.search("harry pot", 10)));
+		assertEquals(List.of("Harrowing Tales of Potters", "Harry Potter", "Harry Potter and the Goblet of Fire", "The Harry Book"),
+				titles(index.search("Har", 10)));
+	}
+
+	@Test
+	void wordMatchesAreRankedByWholeWordsThenPositionThenLength() {
+		TitleIndex index = TitleIndex.of(Stream.of(
+				book("1", "A Short History of Potters"),
+				book("2", "The Potter"),
+				book("3", "Tales of the Potter Family"),
+				book("4", "Pottery for Beginners")));
+
+		// 'Pottery for Beginners' starts with the query; then whole-word matches, earliest first.
+		assertEquals(List.of("Pottery for Beginners", "The Potter", "Tales of the Potter Family", "A Short History of Potters"),
+				titles(index.search("pott", 10)));
+		assertEquals(List.of("Tales of the Potter Family"), titles(index.search("potter fam", 10)));
+	}
+
+	@Test
+	void everyTermMustMatchAWordStart() {
+		TitleIndex index = TitleIndex.of(Stream.of(
+				book("1", "Harry Potter and the Goblet of Fire"),
+				book("2", "Fire and Ice")));
+
+		assertEquals(List.of("Harry Potter and the Goblet of Fire"), titles(index.search("gob fi", 10)));
+		assertTrue(index.search("oblet", 10).isEmpty());
+	}
+
+	@Test
+	void caseAccentsAndPunctuationAreIgnored() {
+		TitleIndex index = TitleIndex.of(Stream.of(book("1", "Café Society: Stories")));
+
+		assertEquals(1, index.search("CAFE soc", 10).size());
+		assertEquals(1, index.search("cafe, society", 10).size());
+		assertEquals("Café Society: Stories", index.search("stories", 10).get(0).getTitle());
+	}
+
+	@Test
+	void updatesAndRemovalsAreSearchedRightAway() {
+		TitleIndex index = new TitleIndex();
+		index.put(book("1", "Old Title"));
+		index.put(book("2", "Other Book"));
+
+		index.put(book("1", "New Title"));
+		index.remove("2");
+
+		assertTrue(index.search("old", 10).isEmpty());
+		assertEquals("1", index.search("new", 10).get(0).getId());
+		assertTrue(index.search("other", 10).isEmpty());
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void resultsAreLimitedAndCarryTheIdAndIsbn() {
+		TitleIndex index = new TitleIndex();
+		for (int i = 0; i < 30; i++) {
+			index.put(book(String.valueOf(i), "Volume " + i));
+		}
+
+		List<Book> results = index.search("vol", 5);
+
+		assertEquals(5, results.size());
+		assertEquals("Volume 0", results.get(0).getTitle());
+		assertEquals("9780000000000", results.get(0).getISBN());
+		assertTrue(index.search("  ", 5).isEmpty());
+	}
+
+	private static Book book(String id, String title) {
+		Book book = new Book();
+		book.setId(id);
+		book.setISBN(String.format("978%010d", Integer.parseInt(id)));
+		book.setTitle(title);
+		return book;
+	}
+
+	private static List<String> titles(List<Book> books) {
+		return books.stream().map(Book::getTitle).toList();
+	}
+}
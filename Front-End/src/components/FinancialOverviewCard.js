@@ -4,6 +4,7 @@ import React, { useState, useEffect } from 'react';
 import { Pie } from 'react-chartjs-2';
 import 'chart.js/auto';
 import  './FinancialOverviewCard.css';
+import { subscribeToInventory } from './InventoryEvents';
 
 const FinancialOverviewCard = () => {
   // State to store the financial data (COGS and profit)
@@ -29,6 +30,9 @@ const FinancialOverviewCard = () => {
     };
   
     fetchFinancialData();
+
+    // Keep the totals current with the live inventory feed
+    return subscribeToInventory((totals) => setFinancialData({ cogs: totals.cogs, profit: totals.profit }));
   }, []);
   
   
@@ -0,0 +1,59 @@
+// InventoryEvents.js
+// Shared connection to the live inventory feed of the backend (server-sent events).
+// The first event is a snapshot of the totals; later events are deltas added to them.
+// All dashboard cards share one connection, opened for the first listener and closed after the last.
+
+const EVENTS_URL = 'http://localhost:8080/api/books/events';
+
+let source = null; // The open EventSource, if any
+let totals = null; // The latest totals: sold, unsold, cogs, soldCogs, payout, profit
+const listeners = new Set();
+
+// Notify every listener with the latest totals
+const notify = () => {
+  listeners.forEach((listener) => listener(totals));
+};
+
+const open = () => {
+  source = new EventSource(EVENTS_URL);
+  // A snapshot replaces the totals, it is also sent again after every reconnect
+  source.addEventListener('snapshot', (event) => {
+    totals = JSON.parse(event.data);
+    notify();
+  });
+  // A delta is added to the totals
+  source.addEventListener('delta', (event) => {
+    if (totals === null) {
+      return;
+    }
+    const delta = JSON.parse(event.data);
+    const updated = { ...totals };
+    Object.keys(delta).forEach((key) => {
+      updated[key] = (updated[key] || 0) + delta[key];
+    });
+    totals = updated;
+    notify();
+  });
+  source.onerror = (error) => {
+    // The browser reconnects on its own
+    console.error('Inventory event stream error:', error);
+  };
+};
+
+// Subscribe to the live totals, returns the function that unsubscribes
+export const subscribeToInventory = (listener) => {
+  listeners.add(listener);
+  if (source === null) {
+    open();
+  } else if (totals !== null) {
+    listener(totals);
+  }
+  return () => {
+    listeners.delete(listener);
+    if (listeners.size === 0 && source !== null) {
+      source.close();
+      source = null;
+      totals = null;
+    }
+  };
+};
@@ -3,6 +3,7 @@
 import React, { useState, useEffect } from 'react';
 import { Pie } from 'react-chartjs-2';
 import './InventoryStatus.css';
+import { subscribeToInventory } from './InventoryEvents';
 
 const InventoryStatusCard = () => {
   // State to store inventory data (sold and unsold counts)
@@ -28,6 +29,9 @@ const InventoryStatusCard = () => {
     };
   
     fetchInventoryStatus();
+
+    // Keep the counts current with the live inventory feed
+    return subscribeToInventory((totals) => setInventoryData({ sold: totals.sold, unsold: totals.unsold }));
   }, []);
 
   //Chart.js data structure for the pie chart
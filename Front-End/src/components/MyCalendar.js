@@ -1,20 +1,60 @@
 // MyCalendar component to display and interact with a calendar.
 // It uses the react-calendar library for calendar functionality.
-import React, { useState } from 'react';
+// Days with to-dos due show their count, read from the per-day counts of the backend.
+import React, { useState, useEffect } from 'react';
 import Calendar from 'react-calendar';
 import 'react-calendar/dist/Calendar.css'; 
 import './MyCalendar.css'; 
 
+// Formats a date as yyyy-MM-dd in the local time zone, like the days of the counts
+const toDay = (date) => {
+  const month = String(date.getMonth() + 1).padStart(2, '0');
+  const day = String(date.getDate()).padStart(2, '0');
+  return `${date.getFullYear()}-${month}-${day}`;
+};
+
 function MyCalendar() {
   //State to store the currently selected date 
   const [value, onChange] = useState(new Date());
 
+  //State to store the first day of the month shown
+  const [activeStartDate, setActiveStartDate] = useState(() => {
+    const today = new Date();
+    return new Date(today.getFullYear(), today.getMonth(), 1);
+  });
+
+  //State to store the number of to-dos due per day of the month shown
+  const [todoCounts, setTodoCounts] = useState({});
+
+  useEffect(() => {
+    // Fetch the counts of the month shown, including the days of the adjacent months the grid may show
+    const fetchTodoCounts = async () => {
+      const from = toDay(new Date(activeStartDate.getFullYear(), activeStartDate.getMonth(), -6));
+      const to = toDay(new Date(activeStartDate.getFullYear(), activeStartDate.getMonth() + 1, 14));
+      const zone = Intl.DateTimeFormat().resolvedOptions().timeZone;
+      try {
+        const response = await fetch(`http://localhost:8080/api/todos/counts?from=${from}&to=${to}&zone=${encodeURIComponent(zone)}`);
+        if (response.ok) {
+          setTodoCounts(await response.json());
+        }
+      } catch (error) {
+        console.error('Error fetching the to-do counts:', error);
+      }
+    };
+
+    fetchTodoCounts();
+  }, [activeStartDate]);
+
   //Render the calendar with the ability to select a date 
   return (
     <div className="my-calendar-container">
       <Calendar
         onChange={onChange}
         value={value}
+        onActiveStartDateChange={({ activeStartDate }) => setActiveStartDate(activeStartDate)}
+        tileContent={({ date, view }) => view === 'month' && todoCounts[toDay(date)]
+          ? <span className="my-calendar-todo-count">{todoCounts[toDay(date)]}</span>
+          : null}
       />
     </div>
   );
@@ -10,10 +10,23 @@ const TodoList = () => {
 
   useEffect(() => {
     // Fetch the initial to-dos from the backend, upon component mount 
+    // The to-dos come in pages sorted by due date, so every page is read until the last one
     const fetchTodos = async () => {
-      const response = await fetch('http://localhost:8080/api/todos');
-      const data = await response.json(); // Updating state with detched to-dos 
-      setTodos(data);
+      const fetched = [];
+      let page = 0;
+      let last = false;
+      while (!last) {
+        const response = await fetch(`http://localhost:8080/api/todos?page=${page}&limit=100`);
+        if (!response.ok) {
+          console.error('Error fetching to-dos:', response.status);
+          break;
+        }
+        const data = await response.json();
+        fetched.push(...data.content);
+        last = data.last;
+        page++;
+      }
+      setTodos(fetched); // Updating state with fetched to-dos
     };
 
     fetchTodos();
@@ -3,6 +3,7 @@
 // Fetches the active inventory count from the backend and displays it as a progress bar.
 import React, { useState, useEffect } from 'react';
 import './TotalInventory.css';
+import { subscribeToInventory } from './InventoryEvents';
 
 const TotalInventoryCard = () => {
   //State to store the total active inventory count 
@@ -30,6 +31,9 @@ const TotalInventoryCard = () => {
 
     // Call the fetchData function 
     fetchData();
+
+    // Keep the count current with the live inventory feed
+    return subscribeToInventory((totals) => setTotalInventory(totals.unsold));
   }, []);
 
   //Calculate the inventory useage as percentage of the maximum 
@@ -14,7 +14,7 @@ function Books() {
   // State variables for component functionality
   const [books, setBooks] = useState([]); // Stores the list of books
   const [hasMore, setHasMore] = useState(true); // Indicates if more books can be loaded
-  const [page, setPage] = useState(0); // Current page for pagination
+  const [cursor, setCursor] = useState(''); // Cursor of the next slice of books, empty for the first one
   const [filteredBooks, setFilteredBooks] = useState([]); // Stores the filtered list of books
   const [isModalVisible, setIsModalVisible] = useState(false); // Controls visibility of the add book modal
   const [searchTerm, setSearchTerm] = useState(''); // Stores the current search term
@@ -32,7 +32,7 @@ function Books() {
     setIsLoading(true);
     try {
       // Fetch request  to the backend for books 
-      const response = await fetch(`http://localhost:8080/api/books/all-books?page=${page}&limit=20`);
+      const response = await fetch(`http://localhost:8080/api/books/all-books?after=${encodeURIComponent(cursor)}&limit=20`);
       if (!response.ok) {
         throw new Error('Network response was not ok');
       }
@@ -48,8 +48,8 @@ function Books() {
       });
 
       //Update pagination and loading state 
-      setHasMore(newBooks.content.length === 20);
-      setPage(prevPage => prevPage + 1);
+      setHasMore(!newBooks.last);
+      setCursor(newBooks.nextCursor);
     } catch (error) {
       console.error('Error fetching books:', error);
     } finally {